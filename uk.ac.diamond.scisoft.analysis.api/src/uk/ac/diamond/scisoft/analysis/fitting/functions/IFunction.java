@@ -63,6 +63,17 @@ public interface IFunction {
 	 */
 	public double val(double... values);
 
+	/**
+	 * Evaluate the function at many points in one go
+	 *
+	 * @param output
+	 *            array to fill with values, one for each point
+	 * @param coords
+	 *            arrays of each independent variable, holding its value at each point. These must be
+	 *            at least as long as the output
+	 */
+	public void fillWithValues(double[] output, double[]... coords);
+
 	/**
 	 * Gets the parameter which is at the index specified
 	 * 
@@ -16,9 +16,20 @@
 
 package uk.ac.diamond.scisoft.analysis.rpc;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,10 +47,144 @@ import uk.ac.diamond.scisoft.analysis.rpc.internal.TypeHelper;
  * <li>provide an implementation for {@link #invoke(Method, Object, Object[])} if some code wants to be run before or
  * after the method invocation, or if the method invocation wants to be wrapped in some other way.</li>
  * </ul>
+ * The method resolved for each method name and list of argument types is cached, along with a method handle
+ * that is used to call it unless {@link #invoke(Method, Object, Object[])} is overridden. Statistics of the
+ * calls made to each method are available from {@link #getCallStatistics()}.
  */
 abstract public class AbstractAnalysisRpcGenericDispatcher implements IAnalysisRpcHandler {
 	private static final Logger logger = LoggerFactory.getLogger(AbstractAnalysisRpcGenericDispatcher.class);
 	private Class<?> delegate;
+	private final boolean overridesInvoke;
+	private final ConcurrentMap<Signature, Target> targets = new ConcurrentHashMap<Signature, Target>();
+	private final ConcurrentMap<Method, CallStatistics> statistics = new ConcurrentHashMap<Method, CallStatistics>();
+
+	/**
+	 * Number of calls to a method and a histogram of their durations
+	 * <p>
+	 * Bucket 0 of the histogram counts calls that took less than 1us and bucket i counts calls that took at least
+	 * 2<sup>i-1</sup>us and less than 2<sup>i</sup>us. The last bucket also counts all longer calls.
+	 */
+	public static class CallStatistics {
+		/**
+		 * Number of buckets in histogram
+		 */
+		public static final int BUCKETS = 32;
+
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong failures = new AtomicLong();
+		private final AtomicLong totalTime = new AtomicLong();
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		void record(long nanos, boolean failed) {
+			count.incrementAndGet();
+			if (failed) {
+				failures.incrementAndGet();
+			}
+			totalTime.addAndGet(nanos);
+			final long micros = nanos / 1000;
+			histogram.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+		}
+
+		/**
+		 * @return number of calls
+		 */
+		public long getCount() {
+			return count.get();
+		}
+
+		/**
+		 * @return number of calls that threw an exception
+		 */
+		public long getFailures() {
+			return failures.get();
+		}
+
+		/**
+		 * @return total duration of calls in nanoseconds
+		 */
+		public long getTotalTime() {
+			return totalTime.get();
+		}
+
+		/**
+		 * @return mean duration of calls in nanoseconds
+		 */
+		public double getMeanTime() {
+			final long n = count.get();
+			return n == 0 ? 0 : (double) totalTime.get() / n;
+		}
+
+		/**
+		 * @return copy of histogram of call durations
+		 */
+		public long[] getHistogram() {
+			final long[] h = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				h[i] = histogram.get(i);
+			}
+			return h;
+		}
+
+		/**
+		 * @param bucket
+		 * @return upper limit of durations counted in given bucket of histogram in microseconds
+		 */
+		public static long getBucketLimit(int bucket) {
+			return 1L << bucket;
+		}
+
+		@Override
+		public String toString() {
+			return "calls: " + getCount() + ", failures: " + getFailures() + ", mean time: " + getMeanTime() / 1000
+					+ "us";
+		}
+	}
+
+	/**
+	 * Method name and argument types used as key of cache
+	 */
+	private static final class Signature {
+		private final String name;
+		private final Class<?>[] types;
+		private final int hash;
+
+		Signature(String name, Class<?>[] types) {
+			this.name = name;
+			this.types = types;
+			hash = 31 * name.hashCode() + Arrays.hashCode(types);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Signature))
+				return false;
+			Signature other = (Signature) obj;
+			return hash == other.hash && name.equals(other.name) && Arrays.equals(types, other.types);
+		}
+	}
+
+	/**
+	 * Resolved method with a handle of type (Object, Object[])Object which takes the object to invoke on and
+	 * the arguments. Handle is null if method cannot be accessed that way
+	 */
+	private static final class Target {
+		final Method method;
+		final MethodHandle handle;
+		final CallStatistics statistics;
+
+		Target(Method method, MethodHandle handle, CallStatistics statistics) {
+			this.method = method;
+			this.handle = handle;
+			this.statistics = statistics;
+		}
+	}
 
 	/**
 	 * Create a new dispatcher
@@ -53,6 +198,19 @@ abstract public class AbstractAnalysisRpcGenericDispatcher implements IAnalysisR
 		if (delegate == null)
 			throw new NullPointerException("Instance must be non-null");
 		this.delegate = delegate;
+		overridesInvoke = isInvokeOverridden(getClass());
+	}
+
+	private static boolean isInvokeOverridden(Class<?> clazz) {
+		for (Class<?> c = clazz; c != AbstractAnalysisRpcGenericDispatcher.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("invoke", Method.class, Object.class, Object[].class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// try superclass
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -109,33 +267,122 @@ abstract public class AbstractAnalysisRpcGenericDispatcher implements IAnalysisR
 				types[i] = args[i].getClass();
 			}
 		}
-		Method m = null;
-
-		for (Method method : delegate.getMethods()) {
-			if (isMethodOk(method, methodName, types)) {
-				m = method;
-				break;
-			}
-		}
-
-		if (m == null) {
+		final Target t = getTarget(methodName, types);
+		if (t == null) {
 			String msg = "Failed to find method " + delegate.toString() + "." + methodName + "("
 					+ Arrays.toString(types) + ")";
 			logger.error(msg);
 			throw new AnalysisRpcException(msg);
 		}
 
+		final long start = System.nanoTime();
+		boolean failed = true;
 		try {
-			return invoke(m, getInvokeObject(), args);
+			final Object result;
+			if (t.handle == null) {
+				result = invoke(t.method, getInvokeObject(), args);
+			} else {
+				result = invokeHandle(t.handle, getInvokeObject(), args);
+			}
+			failed = false;
+			return result;
 		} catch (Exception e) {
 			String msg = "Failed to invoke method " + delegate.toString() + "." + methodName + "("
 					+ Arrays.toString(types) + ")";
 			logger.error(msg, e);
 			if (e instanceof InvocationTargetException) {
-				throw new AnalysisRpcException(((InvocationTargetException) e).getTargetException());
+				final Throwable cause = ((InvocationTargetException) e).getTargetException();
+				if (cause instanceof Exception) {
+					throw new AnalysisRpcException(cause);
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
 			}
 			throw new AnalysisRpcException(e);
+		} finally {
+			t.statistics.record(System.nanoTime() - start, failed);
+		}
+	}
+
+	/**
+	 * @return cached target for given method name and argument types or null if there is no matching method
+	 */
+	private Target getTarget(String methodName, Class<?>[] types) {
+		final Signature key = new Signature(methodName, types);
+		Target t = targets.get(key);
+		if (t != null) {
+			return t;
+		}
+
+		Method m = null;
+		for (Method method : delegate.getMethods()) {
+			if (isMethodOk(method, methodName, types)) {
+				m = method;
+				break;
+			}
 		}
+		if (m == null) {
+			return null;
+		}
+
+		CallStatistics s = new CallStatistics();
+		CallStatistics old = statistics.putIfAbsent(m, s);
+		if (old != null) {
+			s = old;
+		}
+		t = new Target(m, overridesInvoke ? null : createHandle(m), s);
+		Target other = targets.putIfAbsent(key, t);
+		return other == null ? t : other;
+	}
+
+	/**
+	 * @return handle of type (Object, Object[])Object for method or null if it cannot be accessed
+	 */
+	private static MethodHandle createHandle(Method method) {
+		MethodHandle h;
+		try {
+			h = MethodHandles.publicLookup().unreflect(method);
+		} catch (IllegalAccessException e) {
+			logger.debug("Using reflection to invoke {}", method);
+			return null;
+		}
+		if (Modifier.isStatic(method.getModifiers())) {
+			h = MethodHandles.dropArguments(h, 0, Object.class);
+		}
+		final int n = method.getParameterTypes().length;
+		return h.asType(MethodType.genericMethodType(n + 1)).asSpreader(Object[].class, n);
+	}
+
+	/**
+	 * Invoke method through its handle. Exceptions and errors thrown by the method are passed on
+	 * unwrapped
+	 */
+	private static Object invokeHandle(MethodHandle handle, Object instance, Object[] args) throws Exception {
+		try {
+			return handle.invokeExact(instance, args);
+		} catch (Exception e) {
+			throw e;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	/**
+	 * @return unmodifiable view of statistics of calls made to each method
+	 */
+	public Map<Method, CallStatistics> getCallStatistics() {
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	/**
+	 * Clear statistics of calls made to each method
+	 */
+	public void clearCallStatistics() {
+		targets.clear();
+		statistics.clear();
 	}
 
 	/**
@@ -21,16 +21,30 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.xmlrpc.XmlRpcException;
 import org.apache.xmlrpc.client.XmlRpcClient;
 import org.apache.xmlrpc.client.XmlRpcClientConfigImpl;
+import org.apache.xmlrpc.client.XmlRpcClientException;
+import org.apache.xmlrpc.client.XmlRpcHttpTransportException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import uk.ac.diamond.scisoft.analysis.rpc.flattening.DatasetTransport;
 import uk.ac.diamond.scisoft.analysis.rpc.flattening.IRootFlattener;
+import uk.ac.diamond.scisoft.analysis.rpc.internal.AnalysisRpcKeepAliveTransportFactory;
 import uk.ac.diamond.scisoft.analysis.rpc.internal.AnalysisRpcTypeFactoryImpl;
 
 /**
@@ -40,6 +54,11 @@ import uk.ac.diamond.scisoft.analysis.rpc.internal.AnalysisRpcTypeFactoryImpl;
  * class that delegates to {@link AnalysisRpcClient} and provides a "nice"
  * interface which is strongly typed.
  * <p>
+ * Connections to the server are kept alive and reused unless the system
+ * property <tt>uk.ac.diamond.scisoft.analysis.rpc.client.keepalive</tt> is
+ * false. Asynchronous requests are run by a pool of daemon threads whose size
+ * is set by <tt>uk.ac.diamond.scisoft.analysis.rpc.client.threads</tt>.
+ * <p>
  * 
  * @see AnalysisRpcBasicTest See the Ananlysis Rpc Basic Test for an example of
  *      use
@@ -53,6 +72,12 @@ public class AnalysisRpcClient {
 
 	private final int port;
 
+	private static final Object[] NO_TRANSPORTS = new Object[0];
+	private volatile Object[] serverTransports;
+
+	private static final int DEFAULT_ASYNC_THREADS = 4;
+	private ExecutorService executor;
+
 	/**
 	 * Create a new AnalysisRpc client that connects to a server on the given
 	 * port
@@ -68,6 +93,12 @@ public class AnalysisRpcClient {
 			client = new XmlRpcClient();
 			client.setConfig(config);
 			client.setTypeFactory(new AnalysisRpcTypeFactoryImpl(client));
+			if (Boolean.parseBoolean(System.getProperty(
+					"uk.ac.diamond.scisoft.analysis.rpc.client.keepalive",
+					"true"))) {
+				client.setTransportFactory(new AnalysisRpcKeepAliveTransportFactory(
+						client));
+			}
 		} catch (MalformedURLException e) {
 			// This is a programming error
 			logger.error(
@@ -83,11 +114,23 @@ public class AnalysisRpcClient {
 				// No arguments, convert null to empty array
 				args = new Object[0];
 			}
-			Object[] flatargs = (Object[]) flattener.flatten(args);
+			final Object[] transports = getServerTransports();
+			final Set<String> old = DatasetTransport
+					.setPeerTransports(Arrays.asList(transports));
+			final Object[] flatargs;
+			try {
+				flatargs = (Object[]) flattener.flatten(args);
+			} finally {
+				DatasetTransport.restorePeerTransports(old);
+			}
 			final Object flatret;
 			if (debug) {
 				flatret = client.execute("Analysis.handler_debug",
 						new Object[] { destination, flatargs, suspend });
+			} else if (transports.length > 0) {
+				flatret = client.execute("Analysis.handler_transports",
+						new Object[] { destination, flatargs,
+								DatasetTransport.getLocalTransports().toArray() });
 			} else {
 				flatret = client.execute("Analysis.handler", new Object[] {
 						destination, flatargs });
@@ -104,6 +147,34 @@ public class AnalysisRpcClient {
 		}
 	}
 
+	/**
+	 * Get the dataset transports supported by the server, asking the server on
+	 * first use. Servers that cannot be asked only support files.
+	 * 
+	 * @return names of transports or an empty array if server only supports
+	 *         files
+	 * @see DatasetTransport
+	 */
+	private Object[] getServerTransports() {
+		Object[] transports = serverTransports;
+		if (transports == null) {
+			try {
+				transports = (Object[]) client.execute(
+						"Analysis.get_transports", new Object[0]);
+			} catch (XmlRpcClientException e) {
+				// server may not be up yet so ask again next time
+				return NO_TRANSPORTS;
+			} catch (XmlRpcHttpTransportException e) {
+				return NO_TRANSPORTS;
+			} catch (XmlRpcException e) {
+				logger.debug("Server does not support dataset transports", e);
+				transports = NO_TRANSPORTS;
+			}
+			serverTransports = transports;
+		}
+		return transports;
+	}
+
 	/**
 	 * Issue a RPC call by calling request. The call is sent to the server on
 	 * the registered port to the handler registered with the name passed to
@@ -141,6 +212,55 @@ public class AnalysisRpcClient {
 		return request_common(destination, args, false, false);
 	}
 
+	/**
+	 * Issue a RPC call without waiting for it to complete. Calls are run
+	 * concurrently on a pool of threads, each using its own connection to the
+	 * server.
+	 * 
+	 * @param destination
+	 *            target handler in server
+	 * @param args
+	 *            arguments in the server
+	 * @return future holding value that the delegated to method returns. Its
+	 *         get method throws an ExecutionException whose cause is the
+	 *         {@link AnalysisRpcException} that {@link #request(String, Object[])}
+	 *         would throw
+	 * @see #request(String, Object[])
+	 */
+	public Future<Object> requestAsync(final String destination,
+			final Object[] args) {
+		return getExecutor().submit(new Callable<Object>() {
+			@Override
+			public Object call() throws AnalysisRpcException {
+				return request(destination, args);
+			}
+		});
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			final int threads = Integer.getInteger(
+					"uk.ac.diamond.scisoft.analysis.rpc.client.threads",
+					DEFAULT_ASYNC_THREADS);
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+					60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactory() {
+						private final AtomicInteger count = new AtomicInteger();
+
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r, "AnalysisRpcClient-" + port
+									+ "-" + count.incrementAndGet());
+							t.setDaemon(true);
+							return t;
+						}
+					});
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
 	/**
 	 * Issue a RPC call by calling request, entering debug mode if server is
 	 * available.
@@ -27,7 +27,6 @@ import org.apache.xmlrpc.XmlRpcException;
 import org.apache.xmlrpc.server.PropertyHandlerMapping;
 import org.apache.xmlrpc.server.XmlRpcServer;
 import org.apache.xmlrpc.server.XmlRpcServerConfigImpl;
-import org.apache.xmlrpc.webserver.WebServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +42,10 @@ import uk.ac.diamond.scisoft.analysis.rpc.internal.HandlerRequestProcessorFactor
  * <p>
  * Within SDA, consider registering new handlers with {@link AnalysisRpcServerProvider} rather than creating a new
  * server on an additional port
+ * <p>
+ * Requests on different connections are serviced concurrently by a fixed number of worker threads and connections
+ * are kept alive between requests unless the system property
+ * <tt>uk.ac.diamond.scisoft.analysis.rpc.server.keepalive</tt> is false.
  * 
  * @see AnalysisRpcBasicTest See the Ananlysis Rpc Basic Test for an example of use
  */
@@ -50,7 +53,7 @@ public class AnalysisRpcServer {
 	private static final Logger logger = LoggerFactory.getLogger(AnalysisRpcServer.class);
 
 	private XmlRpcServer xmlRpcServer;
-	private WebServer webServer;
+	private AnalysisRpcWebServer webServer;
 
 	private Map<String, IAnalysisRpcHandler> handlers = Collections.synchronizedMap(new HashMap<String, IAnalysisRpcHandler>());
 	private IRootFlattener flattener = FlatteningService.getFlattener();
@@ -84,6 +87,30 @@ public class AnalysisRpcServer {
 		XmlRpcServerConfigImpl serverConfig = (XmlRpcServerConfigImpl) xmlRpcServer.getConfig();
 		serverConfig.setEnabledForExtensions(false);
 		serverConfig.setContentLengthOptional(false);
+		serverConfig.setKeepAliveEnabled(Boolean.parseBoolean(System.getProperty(
+				"uk.ac.diamond.scisoft.analysis.rpc.server.keepalive", "true")));
+	}
+
+	/**
+	 * Set number of worker threads that service requests. This must be called before the server is started.
+	 * 
+	 * @param threads
+	 *            number of threads
+	 */
+	public void setMaxThreads(int threads) {
+		webServer.setMaxThreads(threads);
+	}
+
+	/**
+	 * Set number of connections that can wait for a worker thread. When the queue is full, further connections
+	 * are held back and then rejected if no space becomes available. This must be called before the server is
+	 * started.
+	 * 
+	 * @param queued
+	 *            number of connections
+	 */
+	public void setMaxQueued(int queued) {
+		webServer.setMaxQueued(queued);
 	}
 
 	/**
@@ -0,0 +1,191 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.rpc.flattening;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import uk.ac.diamond.scisoft.analysis.rpc.flattening.helpers.AbstractDatasetHelper;
+
+/**
+ * Ways of passing datasets between the ends of an AnalysisRpc connection
+ * <p>
+ * Datasets are always in npy format and are passed:
+ * <ul>
+ * <li>{@value #FILE} - in a temporary file that is deleted after loading</li>
+ * <li>{@value #INBAND} - as binary within the XML-RPC message</li>
+ * <li>{@value #MAPPED} - in a slot of a {@link MappedBufferRing} that is reused</li>
+ * </ul>
+ * All of these can always be unflattened. Which is used when flattening depends on the
+ * transports that the other end has declared it supports, which is held for each thread, and on
+ * the size of the dataset. File transport is used when the other end is unknown. Set the system
+ * property {@value #TRANSPORTS_PROPERTY} to a comma-separated list to restrict the transports
+ * offered by this end.
+ *
+ * @see AbstractDatasetHelper
+ */
+public class DatasetTransport {
+	public static final String FILE = "file";
+	public static final String INBAND = "inband";
+	public static final String MAPPED = "mapped";
+
+	public static final String TRANSPORTS_PROPERTY = "uk.ac.diamond.scisoft.analysis.rpc.transports";
+	public static final String INBAND_LIMIT_PROPERTY = "uk.ac.diamond.scisoft.analysis.rpc.inbandlimit";
+	public static final String RING_SIZE_PROPERTY = "uk.ac.diamond.scisoft.analysis.rpc.ringsize";
+	public static final String RING_RECLAIM_PROPERTY = "uk.ac.diamond.scisoft.analysis.rpc.ringreclaim";
+
+	/**
+	 * Default maximum number of bytes in a dataset sent in-band
+	 */
+	public static final int DEFAULT_INBAND_LIMIT = 256 * 1024;
+
+	/**
+	 * Default number of slots in each ring
+	 */
+	public static final int DEFAULT_RING_SIZE = 8;
+
+	private static final Set<String> LOCAL;
+	private static final Set<String> FILE_ONLY = Collections.singleton(FILE);
+	private static volatile int inBandLimit = Integer.getInteger(INBAND_LIMIT_PROPERTY, DEFAULT_INBAND_LIMIT);
+	private static final Map<File, MappedBufferRing> rings = new HashMap<File, MappedBufferRing>();
+
+	private static final ThreadLocal<Set<String>> peer = new ThreadLocal<Set<String>>() {
+		@Override
+		protected Set<String> initialValue() {
+			return FILE_ONLY;
+		}
+	};
+
+	static {
+		Set<String> local = new LinkedHashSet<String>();
+		String value = System.getProperty(TRANSPORTS_PROPERTY);
+		if (value == null) {
+			local.add(FILE);
+			local.add(INBAND);
+			local.add(MAPPED);
+		} else {
+			for (String t : value.split(",")) {
+				t = t.trim();
+				if (FILE.equals(t) || INBAND.equals(t) || MAPPED.equals(t)) {
+					local.add(t);
+				}
+			}
+			local.add(FILE);
+		}
+		LOCAL = Collections.unmodifiableSet(local);
+	}
+
+	private DatasetTransport() {
+	}
+
+	/**
+	 * @return transports offered by this end
+	 */
+	public static Set<String> getLocalTransports() {
+		return LOCAL;
+	}
+
+	/**
+	 * @return transports to use when flattening on current thread
+	 */
+	public static Set<String> getPeerTransports() {
+		return peer.get();
+	}
+
+	/**
+	 * Set transports that the other end supports for current thread. Only those offered by this
+	 * end are used
+	 * @param transports (can be null for file only)
+	 * @return previous transports so that they can be restored
+	 */
+	public static Set<String> setPeerTransports(Collection<?> transports) {
+		final Set<String> old = peer.get();
+		if (transports == null) {
+			peer.set(FILE_ONLY);
+		} else {
+			Set<String> common = new LinkedHashSet<String>();
+			for (Object t : transports) {
+				if (LOCAL.contains(t)) {
+					common.add((String) t);
+				}
+			}
+			common.add(FILE);
+			peer.set(common);
+		}
+		return old;
+	}
+
+	/**
+	 * Restore transports returned by {@link #setPeerTransports(Collection)}
+	 * @param transports
+	 */
+	public static void restorePeerTransports(Set<String> transports) {
+		peer.set(transports);
+	}
+
+	/**
+	 * @return maximum number of bytes in a dataset sent in-band
+	 */
+	public static int getInBandLimit() {
+		return inBandLimit;
+	}
+
+	/**
+	 * @param limit maximum number of bytes in a dataset sent in-band
+	 */
+	public static void setInBandLimit(int limit) {
+		inBandLimit = limit;
+	}
+
+	/**
+	 * @param nbytes size of dataset
+	 * @return transport to use on current thread for dataset of given size
+	 */
+	public static String choose(long nbytes) {
+		final Set<String> transports = peer.get();
+		if (nbytes <= inBandLimit && transports.contains(INBAND)) {
+			return INBAND;
+		}
+		if (transports.contains(MAPPED)) {
+			return MAPPED;
+		}
+		return FILE;
+	}
+
+	/**
+	 * Get ring shared by this end. Its size and reclaim time in milliseconds can be set with the
+	 * system properties {@value #RING_SIZE_PROPERTY} and {@value #RING_RECLAIM_PROPERTY}
+	 * @param dir directory for slot files (null for default temporary directory)
+	 * @return ring that writes slot files in given directory
+	 */
+	public static MappedBufferRing getRing(File dir) {
+		synchronized (rings) {
+			MappedBufferRing ring = rings.get(dir);
+			if (ring == null) {
+				ring = new MappedBufferRing(dir, Integer.getInteger(RING_SIZE_PROPERTY, DEFAULT_RING_SIZE));
+				ring.setReclaimTime(Long.getLong(RING_RECLAIM_PROPERTY, MappedBufferRing.DEFAULT_RECLAIM_TIME));
+				rings.put(dir, ring);
+			}
+			return ring;
+		}
+	}
+}
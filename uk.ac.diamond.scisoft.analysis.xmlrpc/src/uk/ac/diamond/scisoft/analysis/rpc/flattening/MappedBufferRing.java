@@ -0,0 +1,251 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.rpc.flattening;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Ring of memory-mapped files used to pass large buffers to another process on the same host
+ * <p>
+ * Each slot is a file that is created once and reused. It starts with a header of
+ * {@value #HEADER_SIZE} little-endian bytes: an int state (0 is free, 1 is written), an int
+ * generation and a long time of writing in milliseconds, followed by the payload. A writer uses
+ * free slots and a reader marks a slot free once it has finished with the payload. A slot whose
+ * payload has not been read within the reclaim time, for example because its call failed or was
+ * abandoned, is reused as well. The generation is changed before a slot is written, so a reader
+ * that checks it again when finished can tell if the payload was overwritten while it was read.
+ * When no slot can be used, the writer must pass its data another way.
+ */
+public class MappedBufferRing {
+	/**
+	 * Size of header in bytes
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * Default time in milliseconds after which an unread payload is overwritten
+	 */
+	public static final long DEFAULT_RECLAIM_TIME = 300000;
+
+	private static final int FREE = 0;
+	private static final int WRITTEN = 1;
+
+	private final File dir;
+	private final Slot[] slots;
+	private int next = 0;
+	private long reclaimTime = DEFAULT_RECLAIM_TIME;
+
+	private static class Slot {
+		File file;
+		RandomAccessFile raf;
+		MappedByteBuffer buffer;
+		int generation;
+	}
+
+	/**
+	 * Location of a written payload
+	 */
+	public static class Region {
+		private final String path;
+		private final int generation;
+		private final int length;
+
+		public Region(String path, int generation, int length) {
+			this.path = path;
+			this.generation = generation;
+			this.length = length;
+		}
+
+		/**
+		 * @return path of slot file
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * @return generation of slot when payload was written
+		 */
+		public int getGeneration() {
+			return generation;
+		}
+
+		/**
+		 * @return number of bytes in payload
+		 */
+		public int getLength() {
+			return length;
+		}
+	}
+
+	/**
+	 * @param dir directory for slot files (null for default temporary directory)
+	 * @param size number of slots
+	 */
+	public MappedBufferRing(File dir, int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Ring must have at least one slot");
+		}
+		this.dir = dir;
+		slots = new Slot[size];
+		for (int i = 0; i < size; i++) {
+			slots[i] = new Slot();
+		}
+	}
+
+	/**
+	 * @return number of slots
+	 */
+	public int size() {
+		return slots.length;
+	}
+
+	/**
+	 * @return time in milliseconds after which an unread payload is overwritten
+	 */
+	public synchronized long getReclaimTime() {
+		return reclaimTime;
+	}
+
+	/**
+	 * Set time after which an unread payload is overwritten. This must be longer than a call can
+	 * take to be read by the other end
+	 * @param time in milliseconds
+	 */
+	public synchronized void setReclaimTime(long time) {
+		if (time < 0) {
+			throw new IllegalArgumentException("Reclaim time must not be negative");
+		}
+		reclaimTime = time;
+	}
+
+	/**
+	 * Write buffers, from their positions to their limits, into a free slot or one whose payload
+	 * has not been read within the reclaim time
+	 * @param buffers
+	 * @return region holding payload or null if no slot can be used
+	 * @throws IOException
+	 */
+	public synchronized Region write(ByteBuffer... buffers) throws IOException {
+		long length = 0;
+		for (ByteBuffer b : buffers) {
+			length += b.remaining();
+		}
+		if (length > Integer.MAX_VALUE - HEADER_SIZE) {
+			return null;
+		}
+
+		final long now = System.currentTimeMillis();
+		for (int i = 0; i < slots.length; i++) {
+			final Slot s = slots[(next + i) % slots.length];
+			if (s.buffer != null && s.buffer.getInt(0) != FREE && now - s.buffer.getLong(8) < reclaimTime) {
+				continue;
+			}
+
+			next = (next + i + 1) % slots.length;
+			ensureCapacity(s, HEADER_SIZE + (int) length);
+			s.generation++;
+			s.buffer.putInt(4, s.generation); // before payload so readers of a reclaimed slot can tell
+			s.buffer.position(HEADER_SIZE);
+			for (ByteBuffer b : buffers) {
+				s.buffer.put(b.duplicate());
+			}
+			s.buffer.putLong(8, now);
+			s.buffer.putInt(0, WRITTEN);
+			return new Region(s.file.getAbsolutePath(), s.generation, (int) length);
+		}
+		return null;
+	}
+
+	private void ensureCapacity(Slot s, int capacity) throws IOException {
+		if (s.buffer != null && s.buffer.capacity() >= capacity) {
+			return;
+		}
+		if (s.raf == null) {
+			s.file = File.createTempFile("scisoftrpc-", ".buf", dir);
+			s.file.deleteOnExit();
+			s.raf = new RandomAccessFile(s.file, "rw");
+		}
+		final int size = s.buffer == null ? capacity : Math.max(capacity, (int) Math.min(Integer.MAX_VALUE, 2L * s.buffer.capacity()));
+		s.raf.setLength(size);
+		s.buffer = s.raf.getChannel().map(MapMode.READ_WRITE, 0, size);
+		s.buffer.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Map slot holding payload written by a ring. Call {@link #release(ByteBuffer, int)} once
+	 * finished with the payload
+	 * @param path
+	 * @param generation
+	 * @param length
+	 * @return buffer of slot positioned at start of payload with limit at its end
+	 * @throws IOException if payload is no longer held in slot
+	 */
+	public static ByteBuffer map(String path, int generation, int length) throws IOException {
+		final RandomAccessFile raf = new RandomAccessFile(path, "rw");
+		try {
+			final MappedByteBuffer buffer = raf.getChannel().map(MapMode.READ_WRITE, 0, HEADER_SIZE + (long) length);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.getInt(0) != WRITTEN || buffer.getInt(4) != generation) {
+				throw new IOException("Payload of generation " + generation + " no longer held in " + path);
+			}
+			buffer.position(HEADER_SIZE);
+			return buffer;
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Mark slot as free unless it has been reclaimed by its writer
+	 * @param buffer as returned by {@link #map(String, int, int)}
+	 * @param generation as given to {@link #map(String, int, int)}
+	 * @return false if payload was overwritten while it was read
+	 */
+	public static boolean release(ByteBuffer buffer, int generation) {
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.getInt(0) != WRITTEN || buffer.getInt(4) != generation) {
+			return false;
+		}
+		buffer.putInt(0, FREE);
+		return true;
+	}
+
+	/**
+	 * Close and delete slot files
+	 */
+	public synchronized void close() {
+		for (Slot s : slots) {
+			if (s.raf != null) {
+				try {
+					s.raf.close();
+				} catch (IOException e) {
+					// do nothing
+				}
+				s.file.delete();
+				s.raf = null;
+				s.buffer = null;
+			}
+		}
+	}
+}
@@ -17,14 +17,20 @@
 package uk.ac.diamond.scisoft.analysis.rpc.flattening.helpers;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
 import uk.ac.diamond.scisoft.analysis.io.DataHolder;
 import uk.ac.diamond.scisoft.analysis.io.LoaderFactory;
+import uk.ac.diamond.scisoft.analysis.io.NumPyFileLoader;
 import uk.ac.diamond.scisoft.analysis.io.NumPyFileSaver;
+import uk.ac.diamond.scisoft.analysis.rpc.flattening.DatasetTransport;
 import uk.ac.diamond.scisoft.analysis.rpc.flattening.IFlattener;
 import uk.ac.diamond.scisoft.analysis.rpc.flattening.IRootFlattener;
+import uk.ac.diamond.scisoft.analysis.rpc.flattening.MappedBufferRing;
+import uk.ac.diamond.scisoft.analysis.rpc.flattening.MappedBufferRing.Region;
 
 public class AbstractDatasetHelper extends MapFlatteningHelper<AbstractDataset> {
 	/** Value to assign in {@link IFlattener#TYPE_KEY} */
@@ -40,6 +46,14 @@ public class AbstractDatasetHelper extends MapFlatteningHelper<AbstractDataset>
 	public static final String INDEX = "index";
 	/** Name of data set to load from data holder. Takes precedence over index. If absent, loads index 0. */
 	public static final String NAME = "name";
+	/** Data set in npy format passed in-band. Takes precedence over file name. */
+	public static final String DATA = "data";
+	/** Slot file of {@link MappedBufferRing} holding data set in npy format. Takes precedence over file name. */
+	public static final String MAPPEDFILE = "mappedfile";
+	/** Generation of slot when data set was written into it */
+	public static final String GENERATION = "generation";
+	/** Number of bytes written into slot */
+	public static final String LENGTH = "length";
 
 	public AbstractDatasetHelper() {
 		super(AbstractDataset.class);
@@ -47,6 +61,35 @@ public class AbstractDatasetHelper extends MapFlatteningHelper<AbstractDataset>
 
 	@Override
 	public AbstractDataset unflatten(Map<?, ?> thisMap, IRootFlattener rootFlattener) {
+		if (thisMap.containsKey(DATA)) {
+			try {
+				return NumPyFileLoader.loadDataset(ByteBuffer.wrap((byte[]) thisMap.get(DATA)));
+			} catch (Exception e) {
+				throw new UnsupportedOperationException("Failed to load in-band AbstractDataset", e);
+			}
+		}
+		if (thisMap.containsKey(MAPPEDFILE)) {
+			final String path = (String) rootFlattener.unflatten(thisMap.get(MAPPEDFILE));
+			final Integer generation = (Integer) rootFlattener.unflatten(thisMap.get(GENERATION));
+			final Integer length = (Integer) rootFlattener.unflatten(thisMap.get(LENGTH));
+			try {
+				final ByteBuffer buffer = MappedBufferRing.map(path, generation, length);
+				AbstractDataset dataset;
+				boolean held;
+				try {
+					dataset = NumPyFileLoader.loadDataset(buffer);
+				} finally {
+					held = MappedBufferRing.release(buffer, generation);
+				}
+				if (!held) {
+					throw new IOException("Payload of generation " + generation + " was overwritten while read from " + path);
+				}
+				return dataset;
+			} catch (Exception e) {
+				throw new UnsupportedOperationException("Failed to load AbstractDataset from " + path, e);
+			}
+		}
+
 		final String fileName = (String) rootFlattener.unflatten(thisMap.get(FILENAME));
 		final Boolean deleteFile = (Boolean) rootFlattener.unflatten(thisMap.get(DELETEFILEAFTERLOAD));
 		final Integer index = (Integer) rootFlattener.unflatten(thisMap.get(INDEX));
@@ -86,6 +129,38 @@ public class AbstractDatasetHelper extends MapFlatteningHelper<AbstractDataset>
 	public Object flatten(Object obj, IRootFlattener rootFlattener) {
 		final DataHolder dh = new DataHolder();
 		final AbstractDataset data = (AbstractDataset) obj;
+		final String transport = DatasetTransport.choose(data.getNbytes());
+		if (!DatasetTransport.FILE.equals(transport)) {
+			final ByteBuffer[] buffers;
+			try {
+				buffers = NumPyFileSaver.saveDataset(data, false);
+			} catch (Exception e) {
+				throw new UnsupportedOperationException("Unable to save AbstractDataset", e);
+			}
+
+			Map<String, Object> outMap = createMap(TYPE_NAME);
+			if (DatasetTransport.INBAND.equals(transport)) {
+				final byte[] bytes = new byte[buffers[0].remaining() + buffers[1].remaining()];
+				final int hlen = buffers[0].remaining();
+				buffers[0].get(bytes, 0, hlen);
+				buffers[1].get(bytes, hlen, bytes.length - hlen);
+				outMap.put(DATA, bytes);
+				return outMap;
+			}
+
+			try {
+				final Region region = DatasetTransport.getRing(rootFlattener.getTempLocation()).write(buffers);
+				if (region != null) {
+					outMap.put(MAPPEDFILE, region.getPath());
+					outMap.put(GENERATION, region.getGeneration());
+					outMap.put(LENGTH, region.getLength());
+					return outMap;
+				}
+			} catch (IOException e) {
+				// fall back to a file
+			}
+		}
+
 		dh.addDataset("", data);
 		final File tempFile;
 		try {
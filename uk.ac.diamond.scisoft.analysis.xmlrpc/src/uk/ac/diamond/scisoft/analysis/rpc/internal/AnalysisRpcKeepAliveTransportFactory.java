@@ -0,0 +1,85 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.rpc.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+
+import org.apache.xmlrpc.XmlRpcException;
+import org.apache.xmlrpc.client.XmlRpcClient;
+import org.apache.xmlrpc.client.XmlRpcClientException;
+import org.apache.xmlrpc.client.XmlRpcSunHttpTransport;
+import org.apache.xmlrpc.client.XmlRpcTransport;
+import org.apache.xmlrpc.client.XmlRpcTransportFactoryImpl;
+
+/**
+ * Transport factory for clients whose HTTP connections are kept alive and reused between requests.
+ * <p>
+ * The default Sun transport disconnects after each request. This one instead reads the response to its end and
+ * closes the stream so that the JVM's HTTP connection cache can reuse the connection (see the
+ * <tt>http.keepAlive</tt> and <tt>http.maxConnections</tt> system properties). The cache drops a connection
+ * that has been idle for 5 s, which is shorter than the idle timeout of {@link AnalysisRpcWebServer}, so a
+ * connection is not reused while the server is closing it.
+ */
+public class AnalysisRpcKeepAliveTransportFactory extends XmlRpcTransportFactoryImpl {
+
+	private static class KeepAliveTransport extends XmlRpcSunHttpTransport {
+		private InputStream input;
+
+		public KeepAliveTransport(XmlRpcClient client) {
+			super(client);
+		}
+
+		@Override
+		protected InputStream getInputStream() throws XmlRpcException {
+			input = super.getInputStream();
+			return input;
+		}
+
+		@Override
+		protected void close() throws XmlRpcClientException {
+			final URLConnection conn = getURLConnection();
+			if (!(conn instanceof HttpURLConnection)) {
+				return;
+			}
+			if (input != null) {
+				try {
+					final byte[] buffer = new byte[1024];
+					while (input.read(buffer) >= 0) {
+						// drain remaining response
+					}
+					input.close();
+					return;
+				} catch (IOException e) {
+					// connection cannot be reused
+				}
+			}
+			((HttpURLConnection) conn).disconnect();
+		}
+	}
+
+	public AnalysisRpcKeepAliveTransportFactory(XmlRpcClient client) {
+		super(client);
+	}
+
+	@Override
+	public XmlRpcTransport getTransport() {
+		return new KeepAliveTransport(getClient());
+	}
+}
@@ -17,6 +17,7 @@
 package uk.ac.diamond.scisoft.analysis.rpc.internal;
 
 import uk.ac.diamond.scisoft.analysis.rpc.IAnalysisRpcHandler;
+import uk.ac.diamond.scisoft.analysis.rpc.flattening.DatasetTransport;
 
 /**
  * This interface is responsible for the actual flattening and unflattening on the server side.
@@ -35,6 +36,17 @@ public interface AnalysisRpcServerHandler {
 	 */
 	public Object handler(String destination, Object[] args);
 
+	/**
+	 * Call handler, flattening the return value with the dataset transports that the client
+	 * supports.
+	 * 
+	 * @param transports
+	 *            names of dataset transports supported by client
+	 * @see #handler(String, Object[])
+	 * @see DatasetTransport
+	 */
+	public Object handler_transports(String destination, Object[] args, Object[] transports);
+
 	/**
 	 * Call handler, and if supported by server, attach debugger, optionally inserting temporary
 	 * breakpoint at handler entry point.
@@ -48,4 +60,13 @@ public interface AnalysisRpcServerHandler {
 	 */
 	public Object is_alive();
 
+	/**
+	 * Get the dataset transports that the server supports. Clients that call this successfully can then use
+	 * {@link #handler_transports(String, Object[], Object[])}
+	 * 
+	 * @return names of dataset transports
+	 * @see DatasetTransport
+	 */
+	public Object[] get_transports();
+
 }
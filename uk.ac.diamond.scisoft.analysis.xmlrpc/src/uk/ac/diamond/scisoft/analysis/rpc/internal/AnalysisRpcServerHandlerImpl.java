@@ -16,9 +16,13 @@
 
 package uk.ac.diamond.scisoft.analysis.rpc.internal;
 
+import java.util.Arrays;
+import java.util.Set;
+
 import uk.ac.diamond.scisoft.analysis.rpc.AnalysisRpcException;
 import uk.ac.diamond.scisoft.analysis.rpc.AnalysisRpcServer;
 import uk.ac.diamond.scisoft.analysis.rpc.IAnalysisRpcHandler;
+import uk.ac.diamond.scisoft.analysis.rpc.flattening.DatasetTransport;
 import uk.ac.diamond.scisoft.analysis.rpc.flattening.IRootFlattener;
 
 /**
@@ -58,6 +62,16 @@ public class AnalysisRpcServerHandlerImpl implements AnalysisRpcServerHandler {
 		return handler_common(destination, args, false, false);
 	}
 
+	@Override
+	public Object handler_transports(String destination, Object[] args, Object[] transports) {
+		Set<String> old = DatasetTransport.setPeerTransports(Arrays.asList(transports));
+		try {
+			return handler_common(destination, args, false, false);
+		} finally {
+			DatasetTransport.restorePeerTransports(old);
+		}
+	}
+
 	@Override
 	public Object handler_debug(String destination, Object[] args,
 			boolean suspend) {
@@ -71,4 +85,9 @@ public class AnalysisRpcServerHandlerImpl implements AnalysisRpcServerHandler {
 		// determines if alive
 		return true;
 	}
+
+	@Override
+	public Object[] get_transports() {
+		return DatasetTransport.getLocalTransports().toArray();
+	}
 }
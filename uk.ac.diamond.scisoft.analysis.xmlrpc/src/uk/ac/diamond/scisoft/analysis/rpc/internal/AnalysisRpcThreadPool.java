@@ -0,0 +1,168 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.rpc.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.xmlrpc.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread pool for {@link AnalysisRpcWebServer} with a fixed number of workers and a bounded queue of connections
+ * waiting for a worker.
+ * <p>
+ * When the queue is full, the thread accepting connections waits up to the queue timeout for space so that further
+ * clients are held back by the server socket's backlog. A connection that still cannot be queued is rejected.
+ */
+public class AnalysisRpcThreadPool extends ThreadPool {
+	private static final Logger logger = LoggerFactory.getLogger(AnalysisRpcThreadPool.class);
+
+	private final int maxThreads;
+	private final long queueTimeout;
+	private final BlockingQueue<Runnable> queue;
+	private final ThreadPoolExecutor executor;
+	private final Set<Task> running = Collections.newSetFromMap(new ConcurrentHashMap<Task, Boolean>());
+
+	/**
+	 * Runnable that holds the task so that queued tasks can be shut down
+	 */
+	private class Worker implements Runnable {
+		private final Task task;
+
+		Worker(Task task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			running.add(task);
+			try {
+				task.run();
+			} catch (Throwable t) {
+				logger.error("AnalysisRpc connection failed", t);
+			} finally {
+				running.remove(task);
+			}
+		}
+	}
+
+	/**
+	 * @param maxThreads
+	 *            number of worker threads
+	 * @param maxQueued
+	 *            number of connections that can wait for a worker
+	 * @param queueTimeout
+	 *            time in milliseconds to wait for space in the queue before rejecting a connection
+	 * @param name
+	 *            prefix of thread names
+	 */
+	public AnalysisRpcThreadPool(int maxThreads, int maxQueued, long queueTimeout, final String name) {
+		super(maxThreads, name);
+		this.maxThreads = maxThreads;
+		this.queueTimeout = queueTimeout;
+		queue = new ArrayBlockingQueue<Runnable>(Math.max(1, maxQueued));
+		executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, queue, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	@Override
+	public boolean startTask(Task task) {
+		final Worker worker = new Worker(task);
+		try {
+			executor.execute(worker);
+			return true;
+		} catch (RejectedExecutionException e) {
+			if (executor.isShutdown()) {
+				return false;
+			}
+		}
+
+		// all workers are busy and queue is full so hold back accepting
+		try {
+			return queue.offer(worker, queueTimeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * @deprecated use {@link #startTask(Task)}
+	 */
+	@Deprecated
+	@Override
+	public boolean addTask(Task task) {
+		return startTask(task);
+	}
+
+	@Override
+	public synchronized void shutdown() {
+		final List<Runnable> queued = executor.shutdownNow();
+		for (Runnable r : queued) {
+			shutdownTask(((Worker) r).task);
+		}
+		for (Task t : running) {
+			shutdownTask(t);
+		}
+	}
+
+	private static void shutdownTask(Task task) {
+		if (task instanceof InterruptableTask) {
+			try {
+				((InterruptableTask) task).shutdown();
+			} catch (Throwable t) {
+				// do nothing
+			}
+		}
+	}
+
+	@Override
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	@Override
+	public synchronized int getNumThreads() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * @return number of connections waiting for a worker
+	 */
+	public int getQueued() {
+		return queue.size();
+	}
+}
@@ -16,18 +16,103 @@
 
 package uk.ac.diamond.scisoft.analysis.rpc.internal;
 
+import java.io.IOException;
 import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.Semaphore;
 
 import org.apache.xmlrpc.server.XmlRpcStreamServer;
+import org.apache.xmlrpc.util.ThreadPool;
+import org.apache.xmlrpc.webserver.Connection;
+import org.apache.xmlrpc.webserver.RequestData;
 import org.apache.xmlrpc.webserver.WebServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Custom {@link WebServer} that has our own type factory.
+ * Custom {@link WebServer} that has our own type factory and runs connections in a {@link AnalysisRpcThreadPool}.
+ * <p>
+ * The pool can be configured before the server is started, or with the system properties
+ * <tt>uk.ac.diamond.scisoft.analysis.rpc.server.threads</tt>,
+ * <tt>uk.ac.diamond.scisoft.analysis.rpc.server.queue</tt>,
+ * <tt>uk.ac.diamond.scisoft.analysis.rpc.server.queuetimeout</tt> (in milliseconds),
+ * <tt>uk.ac.diamond.scisoft.analysis.rpc.server.idletimeout</tt> (in milliseconds) and
+ * <tt>uk.ac.diamond.scisoft.analysis.rpc.server.keepalivemax</tt>. A connection that is kept alive occupies a
+ * worker until it is closed by the client or it has been idle for the idle timeout, so only some connections
+ * (by default, half the number of workers) are kept alive and the others are closed after each request. The
+ * idle timeout should be longer than the 5 s for which the JVM's HTTP client keeps idle connections so that
+ * clients do not reuse a connection that the server is closing.
  * 
  * @see AnalysisRpcDoubleParser
  * @see AnalysisRpcServerHandlerImpl
  */
 public class AnalysisRpcWebServer extends WebServer {
+	private static final Logger logger = LoggerFactory.getLogger(AnalysisRpcWebServer.class);
+
+	private static final String PROPERTY_PREFIX = "uk.ac.diamond.scisoft.analysis.rpc.server";
+
+	/**
+	 * Default number of connections that can wait for a worker
+	 */
+	public static final int DEFAULT_QUEUE = 64;
+
+	/**
+	 * Default time in milliseconds to wait for space in the queue before rejecting a connection
+	 */
+	public static final int DEFAULT_QUEUE_TIMEOUT = 10000;
+
+	/**
+	 * Default time in milliseconds that a kept-alive connection can be idle
+	 */
+	public static final int DEFAULT_IDLE_TIMEOUT = 10000;
+
+	private int maxThreads = Integer.getInteger(PROPERTY_PREFIX + ".threads",
+			Math.max(8, 2 * Runtime.getRuntime().availableProcessors()));
+	private int maxQueued = Integer.getInteger(PROPERTY_PREFIX + ".queue", DEFAULT_QUEUE);
+	private int queueTimeout = Integer.getInteger(PROPERTY_PREFIX + ".queuetimeout", DEFAULT_QUEUE_TIMEOUT);
+	private int idleTimeout = Integer.getInteger(PROPERTY_PREFIX + ".idletimeout", DEFAULT_IDLE_TIMEOUT);
+	private int maxKeptAlive = Integer.getInteger(PROPERTY_PREFIX + ".keepalivemax", -1);
+	private AnalysisRpcThreadPool pool;
+	private volatile Semaphore keptAlive;
+
+	/**
+	 * Connection that is kept alive only if it gets one of a limited number of permits
+	 */
+	private class KeepAliveConnection extends Connection {
+		private final Semaphore permits;
+		private boolean permit = false;
+
+		public KeepAliveConnection(WebServer pServer, XmlRpcStreamServer pXmlRpcServer, Socket pSocket,
+				Semaphore permits) throws IOException {
+			super(pServer, pXmlRpcServer, pSocket);
+			this.permits = permits;
+		}
+
+		@Override
+		public void writeResponseHeader(RequestData pData, int pContentLength) throws IOException {
+			if (pData.isKeepAlive()) {
+				if (!permit) {
+					permit = permits.tryAcquire();
+				}
+				if (!permit) {
+					pData.setKeepAlive(false);
+				}
+			}
+			super.writeResponseHeader(pData, pContentLength);
+		}
+
+		@Override
+		public void run() {
+			try {
+				super.run();
+			} finally {
+				if (permit) {
+					permits.release();
+				}
+			}
+		}
+	}
 
 	// This constructor is currently unused, but included for completeness to 
 	// provide same construction options as WebServer
@@ -46,4 +131,99 @@ public class AnalysisRpcWebServer extends WebServer {
 		return server;
 	}
 
+	@Override
+	protected synchronized ThreadPool newThreadPool() {
+		pool = new AnalysisRpcThreadPool(maxThreads, maxQueued, queueTimeout, "AnalysisRpc");
+		keptAlive = new Semaphore(Math.min(maxKeptAlive < 0 ? maxThreads / 2 : maxKeptAlive, maxThreads - 1));
+		return pool;
+	}
+
+	@Override
+	protected ThreadPool.Task newTask(WebServer pServer, XmlRpcStreamServer pXmlRpcServer, Socket pSocket)
+			throws IOException {
+		if (idleTimeout > 0) {
+			pSocket.setSoTimeout(idleTimeout);
+		}
+		return new KeepAliveConnection(pServer, pXmlRpcServer, pSocket, keptAlive);
+	}
+
+	/**
+	 * Connections that have been idle for the idle timeout are closed without logging an error
+	 */
+	@Override
+	public void log(Throwable pError) {
+		if (pError instanceof SocketTimeoutException) {
+			logger.debug("Closed idle AnalysisRpc connection");
+			return;
+		}
+		super.log(pError);
+	}
+
+	/**
+	 * @param threads number of worker threads (only has an effect before server is started)
+	 */
+	public void setMaxThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Number of threads must be positive");
+		}
+		maxThreads = threads;
+	}
+
+	/**
+	 * @return number of worker threads
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * @param queued number of connections that can wait for a worker (only has an effect before server is started)
+	 */
+	public void setMaxQueued(int queued) {
+		maxQueued = queued;
+	}
+
+	/**
+	 * @return number of connections that can wait for a worker
+	 */
+	public int getMaxQueued() {
+		return maxQueued;
+	}
+
+	/**
+	 * @param milliseconds time to wait for space in the queue before rejecting a connection (only has an effect
+	 *            before server is started)
+	 */
+	public void setQueueTimeout(int milliseconds) {
+		queueTimeout = milliseconds;
+	}
+
+	/**
+	 * @param milliseconds time that a connection can be idle before it is closed (0 for no limit)
+	 */
+	public void setIdleTimeout(int milliseconds) {
+		idleTimeout = milliseconds;
+	}
+
+	/**
+	 * @param connections number of connections that can be kept alive (only has an effect before server is
+	 *            started). This is always less than the number of worker threads
+	 */
+	public void setMaxKeptAlive(int connections) {
+		maxKeptAlive = connections;
+	}
+
+	/**
+	 * @return number of connections being serviced
+	 */
+	public synchronized int getActiveConnections() {
+		return pool == null ? 0 : pool.getNumThreads();
+	}
+
+	/**
+	 * @return number of connections waiting for a worker
+	 */
+	public synchronized int getQueuedConnections() {
+		return pool == null ? 0 : pool.getQueued();
+	}
 }
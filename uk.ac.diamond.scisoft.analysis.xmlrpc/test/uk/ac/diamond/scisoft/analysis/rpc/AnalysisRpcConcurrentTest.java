@@ -0,0 +1,162 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.rpc;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test requests made concurrently and over reused connections
+ */
+public class AnalysisRpcConcurrentTest {
+	private static final long SLEEP = 500;
+
+	private AnalysisRpcServer server;
+	private AnalysisRpcClient client;
+
+	@Before
+	public void setUp() throws AnalysisRpcException {
+		server = new AnalysisRpcServer(0);
+		server.addHandler("sleep", new IAnalysisRpcHandler() {
+			@Override
+			public Object run(Object[] args) throws AnalysisRpcException {
+				try {
+					Thread.sleep(SLEEP);
+				} catch (InterruptedException e) {
+					throw new AnalysisRpcException(e);
+				}
+				return args[0];
+			}
+		});
+		server.addHandler("fail", new IAnalysisRpcHandler() {
+			@Override
+			public Object run(Object[] args) throws AnalysisRpcException {
+				throw new AnalysisRpcException("failed");
+			}
+		});
+		server.addHandler("echo", new IAnalysisRpcHandler() {
+			@Override
+			public Object run(Object[] args) {
+				return args[0];
+			}
+		});
+		server.start();
+		client = new AnalysisRpcClient(server.getPort());
+	}
+
+	@After
+	public void tearDown() {
+		server.shutdown();
+	}
+
+	@Test
+	public void testRequestAsync() throws Exception {
+		List<Future<Object>> futures = new ArrayList<Future<Object>>();
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 4; i++) {
+			futures.add(client.requestAsync("sleep", new Object[] { i }));
+		}
+		for (int i = 0; i < 4; i++) {
+			Assert.assertEquals(i, futures.get(i).get());
+		}
+		Assert.assertTrue("Requests were not run concurrently", System.currentTimeMillis() - start < 3 * SLEEP);
+	}
+
+	@Test
+	public void testRequestAsyncFailure() throws Exception {
+		Future<Object> future = client.requestAsync("fail", new Object[0]);
+		try {
+			future.get();
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof AnalysisRpcException);
+		}
+	}
+
+	@Test
+	public void testManyRequests() throws AnalysisRpcException {
+		for (int i = 0; i < 200; i++) {
+			Assert.assertEquals("call " + i, client.request("echo", new Object[] { "call " + i }));
+		}
+	}
+
+	/**
+	 * Send request on connection and read response headers
+	 * @return headers in lower case
+	 */
+	private static List<String> post(Socket socket) throws IOException {
+		final String body = "<?xml version=\"1.0\"?><methodCall><methodName>Analysis.is_alive</methodName><params></params></methodCall>";
+		final OutputStream out = socket.getOutputStream();
+		out.write(("POST /RPC2 HTTP/1.1\r\nHost: 127.0.0.1\r\nConnection: keep-alive\r\nContent-Type: text/xml\r\n"
+				+ "Content-Length: " + body.length() + "\r\n\r\n" + body).getBytes("US-ASCII"));
+		out.flush();
+
+		final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+		final List<String> headers = new ArrayList<String>();
+		int length = 0;
+		String line;
+		while ((line = in.readLine()) != null && line.length() > 0) {
+			line = line.toLowerCase();
+			headers.add(line);
+			if (line.startsWith("content-length:")) {
+				length = Integer.parseInt(line.substring(15).trim());
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			in.read();
+		}
+		return headers;
+	}
+
+	@Test
+	public void testKeptAliveConnectionsAreLimited() throws Exception {
+		AnalysisRpcServer small = new AnalysisRpcServer(0);
+		small.setMaxThreads(2);
+		small.start();
+		Socket first = new Socket(InetAddress.getByAddress(new byte[] { 127, 0, 0, 1 }), small.getPort());
+		Socket second = new Socket(InetAddress.getByAddress(new byte[] { 127, 0, 0, 1 }), small.getPort());
+		try {
+			List<String> headers = post(first);
+			Assert.assertTrue(headers.toString(), headers.contains("connection: keep-alive"));
+
+			// only one of two workers can be held by an idle connection
+			headers = post(second);
+			Assert.assertTrue(headers.toString(), headers.contains("connection: close"));
+			Assert.assertEquals(-1, second.getInputStream().read());
+
+			headers = post(first);
+			Assert.assertTrue(headers.toString(), headers.contains("connection: keep-alive"));
+		} finally {
+			first.close();
+			second.close();
+			small.shutdown();
+		}
+	}
+}
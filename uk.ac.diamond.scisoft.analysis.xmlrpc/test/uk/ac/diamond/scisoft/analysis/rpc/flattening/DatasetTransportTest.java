@@ -0,0 +1,149 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.rpc.flattening;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.rpc.AnalysisRpcClient;
+import uk.ac.diamond.scisoft.analysis.rpc.AnalysisRpcServer;
+import uk.ac.diamond.scisoft.analysis.rpc.IAnalysisRpcHandler;
+import uk.ac.diamond.scisoft.analysis.rpc.flattening.helpers.AbstractDatasetHelper;
+
+/**
+ * Test that {@link AbstractDatasetHelper} uses the transports given by {@link DatasetTransport}
+ */
+public class DatasetTransportTest {
+	private static final int PORT = 8614;
+
+	private Map<?, ?> flattenWith(IRootFlattener root, Object dataset, String... transports) {
+		Set<String> old = DatasetTransport.setPeerTransports(Arrays.asList(transports));
+		try {
+			return (Map<?, ?>) root.flatten(dataset);
+		} finally {
+			DatasetTransport.restorePeerTransports(old);
+		}
+	}
+
+	@Test
+	public void testInBand() {
+		IRootFlattener root = new RootFlattener();
+		AbstractDataset a = AbstractDataset.arange(100, AbstractDataset.INT32);
+		Map<?, ?> flat = flattenWith(root, a, DatasetTransport.INBAND);
+		Assert.assertTrue(flat.get(AbstractDatasetHelper.DATA) instanceof byte[]);
+		Assert.assertFalse(flat.containsKey(AbstractDatasetHelper.FILENAME));
+		Assert.assertEquals(a, root.unflatten(flat));
+	}
+
+	@Test
+	public void testMapped() {
+		IRootFlattener root = new RootFlattener();
+		AbstractDataset a = AbstractDataset.arange(DatasetTransport.getInBandLimit(), AbstractDataset.FLOAT64);
+		Map<?, ?> flat = flattenWith(root, a, DatasetTransport.INBAND, DatasetTransport.MAPPED);
+		Assert.assertTrue(flat.containsKey(AbstractDatasetHelper.MAPPEDFILE));
+		Assert.assertEquals(a, root.unflatten(flat));
+
+		// payload is released once read
+		try {
+			root.unflatten(flat);
+			Assert.fail("Payload should not be readable twice");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testRingReusesSlots() throws IOException {
+		MappedBufferRing ring = new MappedBufferRing(null, 2);
+		try {
+			MappedBufferRing.Region r1 = ring.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+			MappedBufferRing.Region r2 = ring.write(ByteBuffer.wrap(new byte[] {4, 5}));
+			Assert.assertNotNull(r2);
+			Assert.assertNull(ring.write(ByteBuffer.wrap(new byte[] {6})));
+
+			ByteBuffer b = MappedBufferRing.map(r1.getPath(), r1.getGeneration(), r1.getLength());
+			Assert.assertEquals(3, b.remaining());
+			Assert.assertEquals(2, b.get(b.position() + 1));
+			Assert.assertTrue(MappedBufferRing.release(b, r1.getGeneration()));
+
+			MappedBufferRing.Region r3 = ring.write(ByteBuffer.wrap(new byte[] {6}));
+			Assert.assertEquals(r1.getPath(), r3.getPath());
+			Assert.assertEquals(r1.getGeneration() + 1, r3.getGeneration());
+		} finally {
+			ring.close();
+		}
+	}
+
+	@Test
+	public void testRingReclaimsUnreadSlots() throws IOException {
+		MappedBufferRing ring = new MappedBufferRing(null, 1);
+		try {
+			MappedBufferRing.Region r1 = ring.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+			Assert.assertNull(ring.write(ByteBuffer.wrap(new byte[] {4, 5})));
+
+			// unread payload is overwritten after reclaim time
+			ring.setReclaimTime(0);
+			MappedBufferRing.Region r2 = ring.write(ByteBuffer.wrap(new byte[] {4, 5}));
+			Assert.assertEquals(r1.getPath(), r2.getPath());
+			try {
+				MappedBufferRing.map(r1.getPath(), r1.getGeneration(), r1.getLength());
+				Assert.fail("Payload should have been overwritten");
+			} catch (IOException e) {
+				// expected
+			}
+
+			// reader can tell payload was overwritten while read
+			ByteBuffer b = MappedBufferRing.map(r2.getPath(), r2.getGeneration(), r2.getLength());
+			MappedBufferRing.Region r3 = ring.write(ByteBuffer.wrap(new byte[] {6}));
+			Assert.assertFalse(MappedBufferRing.release(b, r2.getGeneration()));
+			b = MappedBufferRing.map(r3.getPath(), r3.getGeneration(), r3.getLength());
+			Assert.assertEquals(6, b.get(b.position()));
+			Assert.assertTrue(MappedBufferRing.release(b, r3.getGeneration()));
+		} finally {
+			ring.close();
+		}
+	}
+
+	@Test
+	public void testNegotiatedViaAnalysisRpc() throws Exception {
+		AnalysisRpcServer server = new AnalysisRpcServer(PORT);
+		try {
+			server.addHandler("echo", new IAnalysisRpcHandler() {
+				@Override
+				public Object run(Object[] args) {
+					return args[0];
+				}
+			});
+			server.start();
+
+			AnalysisRpcClient client = new AnalysisRpcClient(PORT);
+			AbstractDataset small = AbstractDataset.arange(10, AbstractDataset.INT32);
+			AbstractDataset large = AbstractDataset.arange(DatasetTransport.getInBandLimit(), AbstractDataset.FLOAT64);
+			Assert.assertEquals(small, client.request("echo", new Object[] {small}));
+			Assert.assertEquals(large, client.request("echo", new Object[] {large}));
+		} finally {
+			server.shutdown();
+		}
+	}
+}
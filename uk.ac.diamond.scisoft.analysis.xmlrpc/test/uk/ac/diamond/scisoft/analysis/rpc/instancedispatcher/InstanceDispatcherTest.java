@@ -17,6 +17,7 @@
 package uk.ac.diamond.scisoft.analysis.rpc.instancedispatcher;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 
 import org.junit.Assert;
 import org.junit.Assume;
@@ -26,6 +27,7 @@ import uk.ac.diamond.scisoft.analysis.MockDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
 import uk.ac.diamond.scisoft.analysis.plotserver.GuiBean;
 import uk.ac.diamond.scisoft.analysis.plotserver.GuiPlotMode;
+import uk.ac.diamond.scisoft.analysis.rpc.AbstractAnalysisRpcGenericDispatcher.CallStatistics;
 import uk.ac.diamond.scisoft.analysis.rpc.AnalysisRpcException;
 import uk.ac.diamond.scisoft.analysis.rpc.AnalysisRpcGenericInstanceDispatcher;
 import uk.ac.diamond.scisoft.analysis.rpc.flattening.TypedNone;
@@ -303,4 +305,63 @@ public class InstanceDispatcherTest {
 		Assert.assertEquals(String.class, dispatcher.run(new Object[] { "typednone", new TypedNone(String.class) }));
 	}
 
+	@Test
+	public void testCallStatistics() throws Exception {
+		AnalysisRpcGenericInstanceDispatcher dispatcher = AnalysisRpcGenericInstanceDispatcher.getDispatcher(new UsedForVarious());
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals(String.class, dispatcher.run(new Object[] { "typednone", "string" }));
+		}
+		Assert.assertEquals(Integer.class, dispatcher.run(new Object[] { "typednone", 0 }));
+		try {
+			dispatcher.run(new Object[] { "callUnCheckedException", 0 });
+			Assert.fail();
+		} catch (AnalysisRpcException e) {
+			Assert.assertTrue(e.getCause() instanceof UnsupportedOperationException);
+		}
+
+		Method typednone = UsedForVarious.class.getMethod("typednone", String.class);
+		CallStatistics stats = dispatcher.getCallStatistics().get(typednone);
+		Assert.assertEquals(10, stats.getCount());
+		Assert.assertEquals(0, stats.getFailures());
+		long total = 0;
+		for (long n : stats.getHistogram()) {
+			total += n;
+		}
+		Assert.assertEquals(10, total);
+		Assert.assertEquals(1, dispatcher.getCallStatistics().get(UsedForVarious.class.getMethod("typednone", Integer.class)).getCount());
+		Assert.assertEquals(1, dispatcher.getCallStatistics().get(UsedForVarious.class.getMethod("callUnCheckedException", Integer.TYPE)).getFailures());
+
+		dispatcher.clearCallStatistics();
+		Assert.assertTrue(dispatcher.getCallStatistics().isEmpty());
+	}
+
+	@Test
+	public void testOverriddenInvoke() throws AnalysisRpcException {
+		AnalysisRpcGenericInstanceDispatcher dispatcher = new AnalysisRpcGenericInstanceDispatcher(UsedForVarious.class, new UsedForVarious()) {
+			@Override
+			protected Object invoke(Method method, Object instance, Object[] args) throws Exception {
+				return "wrapped " + super.invoke(method, instance, args);
+			}
+		};
+		Assert.assertEquals("wrapped non-static", dispatcher.run(new Object[] { "similarSignatureStaticAndNonStatic", 0 }));
+	}
+
+	@Test
+	public void testErrorNotWrapped() throws AnalysisRpcException {
+		AnalysisRpcGenericInstanceDispatcher handle = AnalysisRpcGenericInstanceDispatcher.getDispatcher(new UsedForVarious());
+		AnalysisRpcGenericInstanceDispatcher reflection = new AnalysisRpcGenericInstanceDispatcher(UsedForVarious.class, new UsedForVarious()) {
+			@Override
+			protected Object invoke(Method method, Object instance, Object[] args) throws Exception {
+				return super.invoke(method, instance, args);
+			}
+		};
+		for (AnalysisRpcGenericInstanceDispatcher dispatcher : new AnalysisRpcGenericInstanceDispatcher[] { handle, reflection }) {
+			try {
+				dispatcher.run(new Object[] { "callError", 0 });
+				Assert.fail();
+			} catch (Error e) {
+				Assert.assertEquals("callError", e.getMessage());
+			}
+		}
+	}
 }
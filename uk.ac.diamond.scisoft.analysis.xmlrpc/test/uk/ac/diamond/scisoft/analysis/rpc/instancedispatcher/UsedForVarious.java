@@ -31,6 +31,10 @@ public class UsedForVarious {
 		throw new UnsupportedOperationException();
 	}
 
+	public int callError(int o) {
+		throw new Error("callError");
+	}
+
 	public static int staticMethod(int o) {
 		return 0;
 	}
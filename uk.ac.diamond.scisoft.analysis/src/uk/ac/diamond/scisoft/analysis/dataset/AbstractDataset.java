@@ -1726,6 +1726,7 @@ public abstract class AbstractDataset implements ADataset {
 			s.setName(name);
 		} else {
 			s.setName(name + BLOCK_OPEN + createSliceString(shape, start, stop, step) + BLOCK_CLOSE);
+			s.storedValues = null; // as statistics are from whole dataset
 		}
 		return s;
 	}
@@ -2397,6 +2398,123 @@ public abstract class AbstractDataset implements ADataset {
 		}
 	}
 
+	/**
+	 * Calculate shape that results from broadcasting two shapes together. If the shapes are
+	 * compatible (i.e. match when axes of length 1 are ignored) then the first shape is returned.
+	 * Otherwise, the shapes are aligned at their last axes and each pair of lengths must be equal
+	 * or one of them must be 1
+	 * 
+	 * @param ashape
+	 * @param bshape
+	 * @return broadcast shape
+	 * @throws IllegalArgumentException if shapes cannot be broadcast
+	 */
+	public static int[] getBroadcastShape(final int[] ashape, final int[] bshape) throws IllegalArgumentException {
+		if (areShapesCompatible(ashape, bshape)) {
+			return ashape;
+		}
+
+		final int rank = Math.max(ashape.length, bshape.length);
+		final int[] shape = new int[rank];
+		for (int i = 1; i <= rank; i++) {
+			final int a = i <= ashape.length ? ashape[ashape.length - i] : 1;
+			final int b = i <= bshape.length ? bshape[bshape.length - i] : 1;
+			if (a != b && a != 1 && b != 1) {
+				throw new IllegalArgumentException("Shapes do not match");
+			}
+			shape[rank - i] = a == 1 ? b : a;
+		}
+		return shape;
+	}
+
+	/**
+	 * Calculate strides that broadcast given dataset to a shape, using zero strides for axes
+	 * of length 1 and missing leading axes
+	 * 
+	 * @param a
+	 * @param shape
+	 * @return strides
+	 * @throws IllegalArgumentException if dataset cannot be broadcast to shape
+	 */
+	private static int[] createBroadcastStrides(final AbstractDataset a, final int[] shape) throws IllegalArgumentException {
+		final int[] ashape = a.shape;
+		final int[] astride;
+		if (a.stride == null) {
+			astride = new int[ashape.length];
+			int s = a.getElementsPerItem();
+			for (int j = ashape.length - 1; j >= 0; j--) {
+				astride[j] = s;
+				s *= ashape[j];
+			}
+		} else {
+			astride = a.stride;
+		}
+
+		final int rank = shape.length;
+		final int[] stride = new int[rank];
+		int j = ashape.length - 1;
+		for (int i = rank - 1; i >= 0; i--, j--) {
+			if (j < 0) {
+				stride[i] = 0;
+				continue;
+			}
+			final int l = ashape[j];
+			if (l == shape[i]) {
+				stride[i] = astride[j];
+			} else if (l == 1) {
+				stride[i] = 0;
+			} else {
+				throw new IllegalArgumentException("Shapes do not match");
+			}
+		}
+		for (; j >= 0; j--) { // extra leading axes must be of length 1
+			if (ashape[j] != 1) {
+				throw new IllegalArgumentException("Shapes do not match");
+			}
+		}
+		return stride;
+	}
+
+	/**
+	 * Get a view of dataset that is broadcast to given shape. No data is copied as the view
+	 * repeats items by using zero strides
+	 * 
+	 * @param shape
+	 * @return broadcast view
+	 * @throws IllegalArgumentException if dataset cannot be broadcast to shape
+	 */
+	public AbstractDataset getBroadcastView(final int... shape) throws IllegalArgumentException {
+		final int[] bStride = createBroadcastStrides(this, shape);
+
+		AbstractDataset s = getView();
+		s.shape = shape.clone();
+		s.size = calcSize(shape);
+		s.stride = bStride;
+		s.offset = stride == null ? 0 : offset;
+		s.base = base == null ? this : base;
+		s.setName(name);
+		s.storedValues = null;
+		return s;
+	}
+
+	/**
+	 * Get an iterator over the items of given dataset that correspond to the items of this
+	 * dataset. If the shapes are not compatible, the other dataset is broadcast to the shape
+	 * of this dataset
+	 * 
+	 * @param b
+	 * @return iterator
+	 * @throws IllegalArgumentException if other dataset cannot be broadcast
+	 */
+	protected IndexIterator getBroadcastIterator(final ADataset b) throws IllegalArgumentException {
+		if (areShapesCompatible(shape, b.getShapeRef())) {
+			return b.getIterator();
+		}
+
+		final AbstractDataset a = (AbstractDataset) b;
+		return new ChunkIterator(a.getElementsPerItem(), shape, createBroadcastStrides(a, shape), a.stride == null ? 0 : a.offset, 0, size);
+	}
+
 	/**
 	 * Returns new dataset with new shape but old data if possible,
 	 * otherwise a copy is made
@@ -2668,6 +2786,53 @@ public abstract class AbstractDataset implements ADataset {
 		return zeros(isize, shape, dtype);
 	}
 
+	/**
+	 * Check given output dataset can hold items of given size, shape and type. If the output is
+	 * null then a new dataset is created, filled with zeros
+	 * @param output (can be null)
+	 * @param itemSize
+	 * @param shape
+	 * @param dtype
+	 * @return output dataset (marked as dirty) or a new dataset
+	 * @throws IllegalArgumentException if output is not compatible or is not contiguous
+	 */
+	public static AbstractDataset checkOutput(final AbstractDataset output, final int itemSize, final int[] shape, final int dtype) {
+		if (output == null) {
+			return zeros(itemSize, shape, dtype);
+		}
+
+		if (output.getDtype() != dtype) {
+			throw new IllegalArgumentException("Output dataset is not of required type");
+		}
+		if (!isDTypeElemental(dtype) && output.getElementsPerItem() != itemSize) {
+			throw new IllegalArgumentException("Output dataset does not have required number of elements per item");
+		}
+		if (output.size != calcSize(shape) || !areShapesCompatible(shape, output.shape)) {
+			throw new IllegalArgumentException("Output dataset is not of required shape");
+		}
+		if (output.stride != null) {
+			throw new IllegalArgumentException("Output dataset must be contiguous");
+		}
+		output.setDirty();
+		return output;
+	}
+
+	/**
+	 * Check given output dataset can hold items of same shape as input dataset and of given type.
+	 * If dtype is not explicitly compound then the output must be elemental. If the output is null
+	 * then a new dataset is created, filled with zeros
+	 * @param output (can be null)
+	 * @param dataset
+	 * @param dtype
+	 * @return output dataset (marked as dirty) or a new dataset
+	 * @throws IllegalArgumentException if output is not compatible or is not contiguous
+	 */
+	public static AbstractDataset checkOutput(final AbstractDataset output, final ADataset dataset, final int dtype) {
+		final int isize = isDTypeElemental(dtype) ? 1 : dataset.getElementsPerItem();
+
+		return checkOutput(output, isize, dataset.getShapeRef(), dtype);
+	}
+
 	/**
 	 * @param dataset
 	 * @return a new dataset of same shape and type as input dataset, filled with ones
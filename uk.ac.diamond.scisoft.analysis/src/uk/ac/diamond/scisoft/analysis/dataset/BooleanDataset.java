@@ -163,10 +163,9 @@ public class BooleanDataset extends BooleanDatasetBase {
 	public BooleanDataset iadd(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] |= bds.getElementBooleanAbs(it2.index);
@@ -190,10 +189,9 @@ public class BooleanDataset extends BooleanDatasetBase {
 	public BooleanDataset isubtract(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] ^= bds.getElementBooleanAbs(it2.index);
@@ -222,10 +220,9 @@ public class BooleanDataset extends BooleanDatasetBase {
 	public BooleanDataset imultiply(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] &= bds.getElementBooleanAbs(it2.index);
@@ -251,10 +248,9 @@ public class BooleanDataset extends BooleanDatasetBase {
 	public BooleanDataset idivide(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] &= bds.getElementBooleanAbs(it2.index);
@@ -0,0 +1,119 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset;
+
+/**
+ * Class to run over a range of items of a dataset (in row-major order) where
+ * the dataset can be contiguous or use strides
+ */
+public class ChunkIterator extends IndexIterator {
+	private final int isize;
+	private final int[] shape;
+	private final int[] stride;
+	private final int[] delta;
+	private final int endrank;
+	private final int[] spos; // start position
+	private final int sindex; // start index
+	private final int length; // number of items
+	private final int[] pos;
+	private int count; // items remaining
+
+	/**
+	 * Constructor for an iterator over the items from start (inclusive) to end (exclusive)
+	 *
+	 * @param isize number of elements in an item
+	 * @param shape
+	 * @param stride (can be null for row-major, contiguous datasets)
+	 * @param offset (only used if there is a stride)
+	 * @param start first item
+	 * @param end stop item
+	 */
+	public ChunkIterator(final int isize, final int[] shape, final int[] stride, final int offset, final int start, final int end) {
+		this.isize = isize;
+		this.shape = shape;
+		this.stride = stride;
+		length = end - start;
+		if (length < 0) {
+			throw new IllegalArgumentException("End must not be less than start");
+		}
+
+		if (stride == null) {
+			endrank = -1;
+			delta = null;
+			spos = null;
+			pos = null;
+			sindex = start * isize;
+		} else {
+			final int rank = shape.length;
+			endrank = rank - 1;
+			delta = new int[rank];
+			spos = new int[rank];
+			pos = new int[rank];
+			int i = offset;
+			int n = start;
+			for (int j = endrank; j >= 0; j--) {
+				final int l = shape[j];
+				delta[j] = stride[j] * l;
+				if (l > 0) {
+					spos[j] = n % l;
+					n /= l;
+					i += spos[j] * stride[j];
+				}
+			}
+			sindex = i;
+		}
+		reset();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (count <= 0) {
+			return false;
+		}
+		if (count-- < length) {
+			if (stride == null) {
+				index += isize;
+			} else {
+				for (int j = endrank; j >= 0; j--) {
+					pos[j]++;
+					index += stride[j];
+					if (pos[j] >= shape[j]) {
+						pos[j] = 0;
+						index -= delta[j]; // reset this dimension
+					} else {
+						break;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int[] getPos() {
+		return pos;
+	}
+
+	@Override
+	public void reset() {
+		count = length;
+		index = sindex;
+		if (pos != null) {
+			System.arraycopy(spos, 0, pos, 0, pos.length);
+		}
+	}
+}
@@ -0,0 +1,310 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class to run element-wise operations over chunks of a dataset in a fork-join pool
+ * <p>
+ * Datasets with fewer items than twice the threshold are processed on the calling thread.
+ * Larger datasets are split into ranges of items that are processed concurrently. Each
+ * chunk writes to a disjoint part of its output so results are identical to those from
+ * a single-threaded run.
+ * <p>
+ * The defaults can be changed with the system properties
+ * <tt>uk.ac.diamond.scisoft.analysis.dataset.parallel</tt> (true/false),
+ * <tt>uk.ac.diamond.scisoft.analysis.dataset.parallel.threads</tt> and
+ * <tt>uk.ac.diamond.scisoft.analysis.dataset.parallel.threshold</tt>
+ */
+public class ChunkedExecutor {
+	private static final String PROPERTY_PREFIX = "uk.ac.diamond.scisoft.analysis.dataset.parallel";
+
+	/**
+	 * Default minimum number of items in a chunk
+	 */
+	public static final int DEFAULT_THRESHOLD = 32768;
+
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private static volatile boolean enabled = getBooleanProperty(PROPERTY_PREFIX, true);
+	private static volatile int threshold = getIntegerProperty(PROPERTY_PREFIX + ".threshold", DEFAULT_THRESHOLD);
+	private static volatile ForkJoinPool pool = createPool(getIntegerProperty(PROPERTY_PREFIX + ".threads", 0));
+
+	private ChunkedExecutor() {
+	}
+
+	/**
+	 * Task that processes a range of items
+	 */
+	public static abstract class Task {
+		/**
+		 * Process items (in row-major order)
+		 * @param start first item
+		 * @param end stop item (exclusive)
+		 */
+		public abstract void run(final int start, final int end);
+	}
+
+	/**
+	 * Task that processes corresponding views of two datasets of the same shape
+	 */
+	public static abstract class ViewTask {
+		/**
+		 * @param a view of first dataset
+		 * @param b view of second dataset
+		 */
+		public abstract void run(final AbstractDataset a, final AbstractDataset b);
+	}
+
+	private static boolean getBooleanProperty(final String key, final boolean def) {
+		final String value = System.getProperty(key);
+		return value == null ? def : Boolean.parseBoolean(value);
+	}
+
+	private static int getIntegerProperty(final String key, final int def) {
+		final String value = System.getProperty(key);
+		if (value != null) {
+			try {
+				return Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+			}
+		}
+		return def;
+	}
+
+	private static ForkJoinPool createPool(final int threads) {
+		return threads > 0 ? new ForkJoinPool(threads) : new ForkJoinPool();
+	}
+
+	/**
+	 * @return true if chunks can be processed in parallel
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param enable set false to process everything on the calling thread
+	 */
+	public static void setEnabled(final boolean enable) {
+		enabled = enable;
+	}
+
+	/**
+	 * @return minimum number of items in a chunk
+	 */
+	public static int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * @param items minimum number of items in a chunk
+	 */
+	public static void setThreshold(final int items) {
+		if (items < 1) {
+			throw new IllegalArgumentException("Threshold must be positive");
+		}
+		threshold = items;
+	}
+
+	/**
+	 * @return number of threads used
+	 */
+	public static int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Replace the pool with one that uses the given number of threads. The old pool is not shut
+	 * down as callers may still be submitting to it; its (daemon) threads end once it is idle
+	 * @param threads (if zero, then use the number of available processors)
+	 */
+	public static synchronized void setParallelism(final int threads) {
+		if (threads < 0) {
+			throw new IllegalArgumentException("Number of threads must not be negative");
+		}
+		pool = createPool(threads);
+	}
+
+	/**
+	 * @return pool used to execute chunks
+	 */
+	public static ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @param size number of items
+	 * @return true if given number of items should be split into chunks
+	 */
+	public static boolean isParallel(final int size) {
+		return enabled && size >= 2 * threshold && pool.getParallelism() > 1;
+	}
+
+	/**
+	 * @param size number of items
+	 * @return number of items in each chunk
+	 */
+	private static int getChunkSize(final int size, final ForkJoinPool p) {
+		final int n = CHUNKS_PER_THREAD * p.getParallelism();
+		return Math.max(threshold, (size + n - 1) / n);
+	}
+
+	/**
+	 * Run task over all items, splitting into chunks if the number of items is large enough.
+	 * This returns when all chunks are done
+	 * @param size number of items
+	 * @param task
+	 */
+	public static void execute(final int size, final Task task) {
+		final ForkJoinPool p = pool;
+		if (!isParallel(size)) {
+			task.run(0, size);
+			return;
+		}
+
+		p.invoke(new RangeAction(task, 0, size, getChunkSize(size, p)));
+	}
+
+	/**
+	 * Run task over views of the given datasets, splitting along an axis if the datasets are large
+	 * enough. This returns when all chunks are done.
+	 * <p>
+	 * A second dataset that can be broadcast to the shape of the first is split using a broadcast view.
+	 * Otherwise, datasets must have the same shape to be split or the task is run on the whole datasets.
+	 * The first dataset is marked as dirty afterwards
+	 * @param a
+	 * @param b (can be null)
+	 * @param task
+	 */
+	public static void execute(final AbstractDataset a, AbstractDataset b, final ViewTask task) {
+		final ForkJoinPool p = pool;
+		final int[] shape = a.getShapeRef();
+		final int size = a.getSize();
+		if (!isParallel(size) || shape.length == 0) {
+			task.run(a, b);
+			return;
+		}
+		if (b != null && !Arrays.equals(shape, b.getShapeRef())) {
+			if (AbstractDataset.areShapesCompatible(shape, b.getShapeRef())) {
+				task.run(a, b);
+				return;
+			}
+			b = b.getBroadcastView(shape);
+		}
+
+		final int axis = findSplitAxis(shape, CHUNKS_PER_THREAD * p.getParallelism());
+		final int length = shape[axis];
+		final int chunk = Math.max(1, getChunkSize(size, p) / (size / length));
+		p.invoke(new ViewAction(task, a, b, axis, 0, length, chunk));
+		a.setDirty();
+	}
+
+	/**
+	 * @param shape
+	 * @param chunks number of chunks wanted
+	 * @return first axis that has enough positions to split into chunks, otherwise the longest axis
+	 */
+	private static int findSplitAxis(final int[] shape, final int chunks) {
+		int axis = 0;
+		for (int i = 0; i < shape.length; i++) {
+			if (shape[i] >= chunks) {
+				return i;
+			}
+			if (shape[i] > shape[axis]) {
+				axis = i;
+			}
+		}
+		return axis;
+	}
+
+	/**
+	 * @param a
+	 * @param start first item
+	 * @param end stop item (exclusive)
+	 * @return iterator over given range of items of dataset
+	 */
+	public static IndexIterator getIterator(final AbstractDataset a, final int start, final int end) {
+		return new ChunkIterator(a.getElementsPerItem(), a.shape, a.stride, a.offset, start, end);
+	}
+
+	private static class RangeAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Task task;
+		private final int start;
+		private final int end;
+		private final int chunk;
+
+		public RangeAction(final Task task, final int start, final int end, final int chunk) {
+			this.task = task;
+			this.start = start;
+			this.end = end;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= chunk) {
+				task.run(start, end);
+				return;
+			}
+
+			final int mid = start + (end - start) / 2;
+			invokeAll(new RangeAction(task, start, mid, chunk), new RangeAction(task, mid, end, chunk));
+		}
+	}
+
+	private static class ViewAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final ViewTask task;
+		private final AbstractDataset a;
+		private final AbstractDataset b;
+		private final int axis;
+		private final int start;
+		private final int end;
+		private final int chunk;
+
+		public ViewAction(final ViewTask task, final AbstractDataset a, final AbstractDataset b, final int axis, final int start, final int end, final int chunk) {
+			this.task = task;
+			this.a = a;
+			this.b = b;
+			this.axis = axis;
+			this.start = start;
+			this.end = end;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= chunk) {
+				final int[] shape = a.getShapeRef();
+				final int[] lstart = new int[shape.length];
+				final int[] lstop = shape.clone();
+				lstart[axis] = start;
+				lstop[axis] = end;
+				task.run(a.getSliceView(lstart, lstop, null), b == null ? null : b.getSliceView(lstart, lstop, null));
+				return;
+			}
+
+			final int mid = start + (end - start) / 2;
+			invokeAll(new ViewAction(task, a, b, axis, start, mid, chunk), new ViewAction(task, a, b, axis, mid, end, chunk));
+		}
+	}
+}
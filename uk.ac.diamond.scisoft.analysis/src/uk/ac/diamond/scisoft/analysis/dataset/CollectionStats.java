@@ -16,85 +16,524 @@
 
 package uk.ac.diamond.scisoft.analysis.dataset;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Stats of data set lists. Used for image processing.
+ * <p>
+ * Each statistic is calculated pixel-wise across a list of datasets (frames) or along an axis
+ * of a lazy dataset. Frames are read a tile at a time, where a tile is a block of pixels small
+ * enough that its values in all frames fit in a fixed-size buffer, so memory use does not grow
+ * with the number of frames. Tiles are reduced in the pool of {@link ChunkedExecutor} while the
+ * next tiles are read.
  */
 public class CollectionStats {
 
-	private static interface StatFunction {
-		double evaluate(IDataset set);
+	/**
+	 * Maximum number of values read for a tile (unless a single pixel has more frames)
+	 */
+	private static final int TILE_VALUES = 1 << 20;
+
+	/**
+	 * Calculates statistic of each pixel of a tile
+	 */
+	private static abstract class Reducer {
+		/**
+		 * @param values of tile in all frames with all pixels of first frame followed by those of second frame, etc
+		 * @param frames number of frames
+		 * @param out array to fill with statistic of each pixel
+		 */
+		abstract void reduce(final double[] values, final int frames, final double[] out);
+	}
+
+	private static final Reducer MEAN = new Reducer() {
+		@Override
+		void reduce(final double[] values, final int frames, final double[] out) {
+			final int n = out.length;
+			Arrays.fill(out, 0);
+			for (int f = 0, i = 0; f < frames; f++) {
+				for (int t = 0; t < n; t++) {
+					out[t] += values[i++];
+				}
+			}
+			for (int t = 0; t < n; t++) {
+				out[t] /= frames;
+			}
+		}
+	};
+
+	private static final Reducer VARIANCE = new Reducer() {
+		@Override
+		void reduce(final double[] values, final int frames, final double[] out) {
+			final int n = out.length;
+			final double[] mean = new double[n];
+			MEAN.reduce(values, frames, mean);
+			Arrays.fill(out, 0);
+			for (int f = 0, i = 0; f < frames; f++) {
+				for (int t = 0; t < n; t++) {
+					final double d = values[i++] - mean[t];
+					out[t] += d * d;
+				}
+			}
+			if (frames > 1) {
+				for (int t = 0; t < n; t++) {
+					out[t] /= frames - 1;
+				}
+			}
+		}
+	};
+
+	private static final Reducer MIN = new Reducer() {
+		@Override
+		void reduce(final double[] values, final int frames, final double[] out) {
+			final int n = out.length;
+			System.arraycopy(values, 0, out, 0, n);
+			for (int f = 1, i = n; f < frames; f++) {
+				for (int t = 0; t < n; t++) {
+					final double v = values[i++];
+					if (v < out[t] || Double.isNaN(v)) {
+						out[t] = v;
+					}
+				}
+			}
+		}
+	};
+
+	private static final Reducer MAX = new Reducer() {
+		@Override
+		void reduce(final double[] values, final int frames, final double[] out) {
+			final int n = out.length;
+			System.arraycopy(values, 0, out, 0, n);
+			for (int f = 1, i = n; f < frames; f++) {
+				for (int t = 0; t < n; t++) {
+					final double v = values[i++];
+					if (v > out[t] || Double.isNaN(v)) {
+						out[t] = v;
+					}
+				}
+			}
+		}
+	};
+
+	private static final Reducer MEDIAN = new Reducer() {
+		@Override
+		void reduce(final double[] values, final int frames, final double[] out) {
+			final int n = out.length;
+			final double[] w = new double[frames];
+			for (int t = 0; t < n; t++) {
+				out[t] = Stats.pQuantile(w, Stats.fillBuffer(values, t, n, w), 0.5)[0];
+			}
+		}
+	};
+
+	/**
+	 * Mean of values after repeatedly discarding those further than a number of standard
+	 * deviations from the mean of what is left. NaNs are ignored
+	 */
+	private static class SigmaClippedMean extends Reducer {
+		private final double nsigma;
+
+		SigmaClippedMean(final double nsigma) {
+			if (!(nsigma > 0)) {
+				throw new IllegalArgumentException("Number of standard deviations must be positive");
+			}
+			this.nsigma = nsigma;
+		}
+
+		@Override
+		void reduce(final double[] values, final int frames, final double[] out) {
+			final int n = out.length;
+			final double[] w = new double[frames];
+			for (int t = 0; t < n; t++) {
+				int m = Stats.fillBuffer(values, t, n, w);
+				double mean = Double.NaN;
+				while (m > 0) {
+					double sum = 0;
+					for (int i = 0; i < m; i++) {
+						sum += w[i];
+					}
+					mean = sum / m;
+					if (m < 2) {
+						break;
+					}
+
+					double var = 0;
+					for (int i = 0; i < m; i++) {
+						final double d = w[i] - mean;
+						var += d * d;
+					}
+					final double limit = nsigma * Math.sqrt(var / (m - 1));
+					int k = 0;
+					for (int i = 0; i < m; i++) {
+						if (Math.abs(w[i] - mean) <= limit) {
+							w[k++] = w[i];
+						}
+					}
+					if (k == m) {
+						break;
+					}
+					m = k;
+				}
+				out[t] = mean;
+			}
+		}
+	}
+
+	/**
+	 * Provides values of tiles across all frames
+	 */
+	private static abstract class Source {
+		final int frames;
+		final int[] shape;
+
+		Source(final int frames, final int[] shape) {
+			this.frames = frames;
+			this.shape = shape;
+		}
+
+		/**
+		 * @param start of tile in frame
+		 * @param stop of tile in frame
+		 * @param values array to fill with values of tile in all frames, frame by frame
+		 */
+		abstract void read(final int[] start, final int[] stop, final double[] values);
+	}
+
+	private static class ListSource extends Source {
+		private final List<? extends ILazyDataset> sets;
+
+		ListSource(final List<? extends ILazyDataset> sets) {
+			super(sets.size(), sets.get(0).getShape());
+			this.sets = sets;
+		}
+
+		@Override
+		void read(final int[] start, final int[] stop, final double[] values) {
+			int i = 0;
+			for (ILazyDataset set : sets) {
+				final AbstractDataset tile = DatasetUtils.convertToAbstractDataset(set.getSlice(start, stop, null));
+				if (tile == null) {
+					throw new IllegalArgumentException("Data cannot be read");
+				}
+				final IndexIterator it = tile.getIterator();
+				while (it.hasNext()) {
+					values[i++] = tile.getElementDoubleAbs(it.index);
+				}
+			}
+		}
+	}
+
+	private static class LazySource extends Source {
+		private final ILazyDataset data;
+		private final int axis;
+		private final int[] order;
+
+		LazySource(final ILazyDataset data, final int axis) {
+			super(data.getShape()[axis], removeAxis(data.getShape(), axis));
+			this.data = data;
+			this.axis = axis;
+			final int rank = data.getRank();
+			order = new int[rank];
+			order[0] = axis;
+			for (int i = 0, j = 1; i < rank; i++) {
+				if (i != axis) {
+					order[j++] = i;
+				}
+			}
+		}
+
+		@Override
+		void read(final int[] start, final int[] stop, final double[] values) {
+			final int rank = order.length;
+			final int[] lstart = new int[rank];
+			final int[] lstop = new int[rank];
+			lstop[axis] = frames;
+			for (int i = 1; i < rank; i++) {
+				lstart[order[i]] = start[i - 1];
+				lstop[order[i]] = stop[i - 1];
+			}
+			final AbstractDataset block = DatasetUtils.convertToAbstractDataset(data.getSlice(lstart, lstop, null));
+			if (block == null) {
+				throw new IllegalArgumentException("Data cannot be read");
+			}
+
+			// put frames first
+			final AbstractDataset tile = axis == 0 ? block : block.transpose(order);
+			final IndexIterator it = tile.getIterator();
+			int i = 0;
+			while (it.hasNext()) {
+				values[i++] = tile.getElementDoubleAbs(it.index);
+			}
+		}
+	}
+
+	private static int[] removeAxis(final int[] shape, final int axis) {
+		final int[] nshape = new int[shape.length - 1];
+		for (int i = 0, j = 0; i < shape.length; i++) {
+			if (i != axis) {
+				nshape[j++] = shape[i];
+			}
+		}
+		return nshape;
 	}
 
 	/**
 	 * Used to get a mean image from a set of images for instance.
-	 * 
+	 *
 	 * @param sets
 	 * @return mean data set of the same shape as those passed in.
 	 * @throws Exception
 	 */
-	public static AbstractDataset mean(final List<IDataset> sets) throws Exception {
-		
-		return process(sets, new StatFunction() {
-			@Override
-			public double evaluate(IDataset set) {
-				return (Double)((AbstractDataset)set).mean();
-			}
-		});
+	public static AbstractDataset mean(final List<? extends ILazyDataset> sets) throws Exception {
+		assertSize(sets);
+		return process(new ListSource(sets), MEAN);
 	}
-	
+
 	/**
 	 * Used to get a median image from a set of images for instance.
-	 * 
+	 *
 	 * @param sets
 	 * @return median data set of the same shape as those passed in.
 	 * @throws Exception
 	 */
-	public static AbstractDataset median(final List<IDataset> sets) throws Exception {
-		
-		return process(sets, new StatFunction() {
-			@Override
-			public double evaluate(IDataset set) {
-				return (Double)Stats.median((AbstractDataset)set);
-			}
-		});
+	public static AbstractDataset median(final List<? extends ILazyDataset> sets) throws Exception {
+		assertSize(sets);
+		return process(new ListSource(sets), MEDIAN);
 	}
 
 	/**
-	 * Used to get a median image from a set of images for instance.
-	 * 
 	 * @param sets
-	 * @return median data set of the same shape as those passed in.
+	 * @return sample variance data set of the same shape as those passed in.
 	 * @throws Exception
 	 */
-	private static AbstractDataset process(final List<IDataset> sets,
-			                               final StatFunction   function) throws Exception {
-		
+	public static AbstractDataset variance(final List<? extends ILazyDataset> sets) throws Exception {
 		assertSize(sets);
-		
-        final double[] data = new double[sets.get(0).getSize()];
-        for (int i = 0; i < data.length; i++) {
-			final double[] pixel = new double[sets.size()];
-			for (int ipix = 0; ipix < pixel.length; ipix++) {
-				pixel[ipix] = ((AbstractDataset)sets.get(ipix)).getElementDoubleAbs(i);
+		return process(new ListSource(sets), VARIANCE);
+	}
+
+	/**
+	 * @param sets
+	 * @return minimum data set of the same shape as those passed in.
+	 * @throws Exception
+	 */
+	public static AbstractDataset min(final List<? extends ILazyDataset> sets) throws Exception {
+		assertSize(sets);
+		return process(new ListSource(sets), MIN);
+	}
+
+	/**
+	 * @param sets
+	 * @return maximum data set of the same shape as those passed in.
+	 * @throws Exception
+	 */
+	public static AbstractDataset max(final List<? extends ILazyDataset> sets) throws Exception {
+		assertSize(sets);
+		return process(new ListSource(sets), MAX);
+	}
+
+	/**
+	 * Used to get a mean image that excludes outliers, e.g. from cosmic rays, from a set of images.
+	 * Values further than the given number of standard deviations from the mean are discarded
+	 * until none are left to discard.
+	 *
+	 * @param sets
+	 * @param nsigma number of standard deviations
+	 * @return sigma-clipped mean data set of the same shape as those passed in.
+	 * @throws Exception
+	 */
+	public static AbstractDataset sigmaClippedMean(final List<? extends ILazyDataset> sets, final double nsigma) throws Exception {
+		assertSize(sets);
+		return process(new ListSource(sets), new SigmaClippedMean(nsigma));
+	}
+
+	/**
+	 * @param data
+	 * @param axis along which frames lie
+	 * @return mean data set of the shape of data without the axis
+	 * @throws Exception
+	 */
+	public static AbstractDataset mean(final ILazyDataset data, final int axis) throws Exception {
+		return process(createSource(data, axis), MEAN);
+	}
+
+	/**
+	 * @param data
+	 * @param axis along which frames lie
+	 * @return median data set of the shape of data without the axis
+	 * @throws Exception
+	 */
+	public static AbstractDataset median(final ILazyDataset data, final int axis) throws Exception {
+		return process(createSource(data, axis), MEDIAN);
+	}
+
+	/**
+	 * @param data
+	 * @param axis along which frames lie
+	 * @return sample variance data set of the shape of data without the axis
+	 * @throws Exception
+	 */
+	public static AbstractDataset variance(final ILazyDataset data, final int axis) throws Exception {
+		return process(createSource(data, axis), VARIANCE);
+	}
+
+	/**
+	 * @param data
+	 * @param axis along which frames lie
+	 * @return minimum data set of the shape of data without the axis
+	 * @throws Exception
+	 */
+	public static AbstractDataset min(final ILazyDataset data, final int axis) throws Exception {
+		return process(createSource(data, axis), MIN);
+	}
+
+	/**
+	 * @param data
+	 * @param axis along which frames lie
+	 * @return maximum data set of the shape of data without the axis
+	 * @throws Exception
+	 */
+	public static AbstractDataset max(final ILazyDataset data, final int axis) throws Exception {
+		return process(createSource(data, axis), MAX);
+	}
+
+	/**
+	 * @param data
+	 * @param axis along which frames lie
+	 * @param nsigma number of standard deviations
+	 * @return sigma-clipped mean data set of the shape of data without the axis
+	 * @throws Exception
+	 * @see #sigmaClippedMean(List, double)
+	 */
+	public static AbstractDataset sigmaClippedMean(final ILazyDataset data, final int axis, final double nsigma) throws Exception {
+		return process(createSource(data, axis), new SigmaClippedMean(nsigma));
+	}
+
+	private static Source createSource(final ILazyDataset data, final int axis) {
+		final int rank = data.getRank();
+		if (rank < 2) {
+			throw new IllegalArgumentException("Data must have more than one dimension");
+		}
+		if (axis < 0 || axis >= rank) {
+			throw new IllegalArgumentException("Axis " + axis + " is not a dimension of data");
+		}
+		return new LazySource(data, axis);
+	}
+
+	/**
+	 * Reduces a tile that has been read
+	 */
+	private static class TileTask implements Runnable {
+		private final Reducer reducer;
+		private final double[] values;
+		private final int frames;
+		private final double[] data;
+		private final int offset;
+		private final int pixels;
+
+		TileTask(final Reducer reducer, final double[] values, final int frames, final double[] data, final int offset, final int pixels) {
+			this.reducer = reducer;
+			this.values = values;
+			this.frames = frames;
+			this.data = data;
+			this.offset = offset;
+			this.pixels = pixels;
+		}
+
+		@Override
+		public void run() {
+			final double[] out = new double[pixels];
+			reducer.reduce(values, frames, out);
+			System.arraycopy(out, 0, data, offset, pixels);
+		}
+	}
+
+	/**
+	 * Calculate statistic of each pixel a tile at a time. A tile covers a range of a dimension
+	 * of the frame, single indexes in preceding dimensions and all of subsequent dimensions so it
+	 * is contiguous in the output
+	 */
+	private static AbstractDataset process(final Source source, final Reducer function) throws Exception {
+		final int[] shape = source.shape;
+		final int rank = shape.length;
+		final int frames = source.frames;
+		final double[] data = new double[AbstractDataset.calcSize(shape)];
+		if (data.length == 0 || frames == 0) {
+			Arrays.fill(data, Double.NaN);
+			return new DoubleDataset(data, shape);
+		}
+		if (rank == 0) {
+			final double[] values = new double[frames];
+			source.read(new int[0], new int[0], values);
+			new TileTask(function, values, frames, data, 0, 1).run();
+			return new DoubleDataset(data, shape);
+		}
+
+		// find dimension to split and size of range
+		final int maxPixels = Math.max(1, TILE_VALUES / frames);
+		int d = rank - 1;
+		int inner = 1;
+		while (d > 0 && inner * shape[d] <= maxPixels) {
+			inner *= shape[d--];
+		}
+		final int chunk = Math.max(1, Math.min(shape[d], maxPixels / inner));
+		final int outer = data.length / (inner * shape[d]);
+
+		final ForkJoinPool pool = ChunkedExecutor.getPool();
+		final boolean parallel = ChunkedExecutor.isEnabled() && pool.getParallelism() > 1
+				&& (outer > 1 || chunk < shape[d]);
+		final int maxPending = 2 * pool.getParallelism();
+		final Deque<ForkJoinTask<?>> pending = new ArrayDeque<ForkJoinTask<?>>();
+		final int[] start = new int[rank];
+		final int[] stop = shape.clone();
+		try {
+			for (int o = 0; o < outer; o++) {
+				for (int i = d - 1, r = o; i >= 0; i--) {
+					start[i] = r % shape[i];
+					stop[i] = start[i] + 1;
+					r /= shape[i];
+				}
+				for (int c = 0; c < shape[d]; c += chunk) {
+					start[d] = c;
+					stop[d] = Math.min(c + chunk, shape[d]);
+					final int pixels = (stop[d] - c) * inner;
+					final double[] values = new double[pixels * frames];
+					source.read(start, stop, values);
+
+					final TileTask task = new TileTask(function, values, frames, data, (o * shape[d] + c) * inner, pixels);
+					if (parallel) {
+						pending.add(pool.submit(task));
+						if (pending.size() >= maxPending) {
+							pending.poll().join();
+						}
+					} else {
+						task.run();
+					}
+				}
+			}
+			while (!pending.isEmpty()) {
+				pending.poll().join();
+			}
+		} finally {
+			for (ForkJoinTask<?> t : pending) {
+				t.quietlyJoin();
 			}
-			
-			final DoubleDataset dbleDs = new DoubleDataset(pixel, pixel.length);
-			data[i] = function.evaluate(dbleDs);
 		}
-        
-        return new DoubleDataset(data, sets.get(0).getShape());
+
+		return new DoubleDataset(data, shape);
 	}
 
-	private static void assertSize(final Collection<IDataset> sets) throws Exception{
-		
+	private static void assertSize(final Collection<? extends ILazyDataset> sets) throws Exception{
+
 		if (sets.size()<2) throw new Exception("You must take the median of at least two sets!");
-		
-		final Iterator<IDataset> it = sets.iterator();
+
+		final Iterator<? extends ILazyDataset> it = sets.iterator();
 		final int[] shape = it.next().getShape();
 		while(it.hasNext()) {
 			final int[] nextShape = it.next().getShape();
@@ -23,6 +23,10 @@ import java.util.List;
  * Comparison and logical methods
  */
 public class Comparisons {
+	private static BooleanDataset checkOutput(final BooleanDataset o, final AbstractDataset a) {
+		return (BooleanDataset) AbstractDataset.checkOutput(o, 1, a.shape, AbstractDataset.BOOL);
+	}
+
 	/**
 	 * Compare item-wise for whether a's element is equal b's
 	 * <p>
@@ -34,9 +38,24 @@ public class Comparisons {
 	 * @return dataset where item is true if a == b
 	 */
 	public static BooleanDataset equalTo(AbstractDataset a, AbstractDataset b) {
+		return equalTo(a, b, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's element is equal b's
+	 * <p>
+	 * For multi-element items, comparison is true if all elements in an item
+	 * are equal. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if a == b
+	 */
+	public static BooleanDataset equalTo(AbstractDataset a, AbstractDataset b, final BooleanDataset o) {
 		a.checkCompatibility(b);
 
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 		final IndexIterator itb = b.getIterator();
@@ -92,15 +111,30 @@ public class Comparisons {
 	 * @return dataset where item is true if a == b
 	 */
 	public static BooleanDataset equalTo(Object a, Object b) {
+		return equalTo(a, b, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's element is equal b's
+	 * <p>
+	 * For multi-element items, comparison is true if all elements in an item
+	 * are equal. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if a == b
+	 */
+	public static BooleanDataset equalTo(Object a, Object b, final BooleanDataset o) {
 		BooleanDataset r = null;
 
 		if (a instanceof AbstractDataset) {
 			AbstractDataset ad = (AbstractDataset) a;
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = equalTo(ad, bd);
+				r = equalTo(ad, bd, o);
 			} else {
-				r = new BooleanDataset(ad.shape);
+				r = checkOutput(o, ad);
 
 				final IndexIterator ita = ad.getIterator();
 
@@ -139,7 +173,7 @@ public class Comparisons {
 		} else {
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = equalTo(bd, a);
+				r = equalTo(bd, a, o);
 			} else {
 				throw new IllegalArgumentException("Both arguments are not datasets");
 			}
@@ -161,9 +195,26 @@ public class Comparisons {
 	 * @return dataset where item is true if abs(a - b) <= absTol + relTol*abs(b)
 	 */
 	public static BooleanDataset almostEqualTo(AbstractDataset a, AbstractDataset b, double relTolerance, double absTolerance) {
+		return almostEqualTo(a, b, relTolerance, absTolerance, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's element is almost equal to b's
+	 * <p>
+	 * For multi-element items, comparison is true if all elements in an item
+	 * are equal up to a tolerance. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param relTolerance
+	 * @param absTolerance
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if abs(a - b) <= absTol + relTol*abs(b)
+	 */
+	public static BooleanDataset almostEqualTo(AbstractDataset a, AbstractDataset b, double relTolerance, double absTolerance, final BooleanDataset o) {
 		a.checkCompatibility(b);
 
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 		final IndexIterator itb = b.getIterator();
@@ -226,15 +277,32 @@ public class Comparisons {
 	 * @return dataset where item is true if abs(a - b) <= absTol + relTol*abs(b)
 	 */
 	public static BooleanDataset almostEqualTo(Object a, Object b, double relTolerance, double absTolerance) {
+		return almostEqualTo(a, b, relTolerance, absTolerance, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's element is almost equal to b's
+	 * <p>
+	 * For multi-element items, comparison is true if all elements in an item
+	 * are equal up to a tolerance. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param relTolerance
+	 * @param absTolerance
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if abs(a - b) <= absTol + relTol*abs(b)
+	 */
+	public static BooleanDataset almostEqualTo(Object a, Object b, double relTolerance, double absTolerance, final BooleanDataset o) {
 		BooleanDataset r = null;
 
 		if (a instanceof AbstractDataset) {
 			AbstractDataset ad = (AbstractDataset) a;
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = almostEqualTo(ad, bd, relTolerance, absTolerance);
+				r = almostEqualTo(ad, bd, relTolerance, absTolerance, o);
 			} else {
-				r = new BooleanDataset(ad.shape);
+				r = checkOutput(o, ad);
 
 				final IndexIterator ita = ad.getIterator();
 
@@ -279,7 +347,7 @@ public class Comparisons {
 		} else {
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = almostEqualTo(bd, a, relTolerance, absTolerance);
+				r = almostEqualTo(bd, a, relTolerance, absTolerance, o);
 			} else {
 				throw new IllegalArgumentException("Both arguments are not datasets");
 			}
@@ -299,9 +367,24 @@ public class Comparisons {
 	 * @return dataset where item is true if a > b
 	 */
 	public static BooleanDataset greaterThan(AbstractDataset a, AbstractDataset b) {
+		return greaterThan(a, b, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's element is greater than b's
+	 * <p>
+	 * For multi-element items, comparison is true if all elements in an item
+	 * are greater. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if a > b
+	 */
+	public static BooleanDataset greaterThan(AbstractDataset a, AbstractDataset b, final BooleanDataset o) {
 		a.checkCompatibility(b);
 
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 		final IndexIterator itb = b.getIterator();
@@ -347,15 +430,19 @@ public class Comparisons {
 	}
 
 	public static BooleanDataset greaterThan(Object a, Object b) {
+		return greaterThan(a, b, null);
+	}
+
+	public static BooleanDataset greaterThan(Object a, Object b, final BooleanDataset o) {
 		BooleanDataset r = null;
 
 		if (a instanceof AbstractDataset) {
 			AbstractDataset ad = (AbstractDataset) a;
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = equalTo(ad, bd);
+				r = greaterThan(ad, bd, o);
 			} else {
-				r = new BooleanDataset(ad.shape);
+				r = checkOutput(o, ad);
 
 				final IndexIterator ita = ad.getIterator();
 
@@ -380,7 +467,7 @@ public class Comparisons {
 		} else {
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = lessThan(bd, a);
+				r = lessThan(bd, a, o);
 			} else {
 				throw new IllegalArgumentException("Both arguments are not datasets");
 			}
@@ -400,9 +487,24 @@ public class Comparisons {
 	 * @return dataset where item is true if a >= b
 	 */
 	public static BooleanDataset greaterThanOrEqualTo(AbstractDataset a, AbstractDataset b) {
+		return greaterThanOrEqualTo(a, b, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's element is greater than or equal to b's
+	 * <p>
+	 * For multi-element items, comparison is true if all elements in an item
+	 * are greater or equal. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if a >= b
+	 */
+	public static BooleanDataset greaterThanOrEqualTo(AbstractDataset a, AbstractDataset b, final BooleanDataset o) {
 		a.checkCompatibility(b);
 
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 		final IndexIterator itb = b.getIterator();
@@ -448,15 +550,19 @@ public class Comparisons {
 	}
 
 	public static BooleanDataset greaterThanOrEqualTo(Object a, Object b) {
+		return greaterThanOrEqualTo(a, b, null);
+	}
+
+	public static BooleanDataset greaterThanOrEqualTo(Object a, Object b, final BooleanDataset o) {
 		BooleanDataset r = null;
 
 		if (a instanceof AbstractDataset) {
 			AbstractDataset ad = (AbstractDataset) a;
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = equalTo(ad, bd);
+				r = greaterThanOrEqualTo(ad, bd, o);
 			} else {
-				r = new BooleanDataset(ad.shape);
+				r = checkOutput(o, ad);
 
 				final IndexIterator ita = ad.getIterator();
 
@@ -481,7 +587,7 @@ public class Comparisons {
 		} else {
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = lessThanOrEqualTo(bd, a);
+				r = lessThanOrEqualTo(bd, a, o);
 			} else {
 				throw new IllegalArgumentException("Both arguments are not datasets");
 			}
@@ -501,9 +607,24 @@ public class Comparisons {
 	 * @return dataset where item is true if a < b
 	 */
 	public static BooleanDataset lessThan(AbstractDataset a, AbstractDataset b) {
+		return lessThan(a, b, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's element is less than b's
+	 * <p>
+	 * For multi-element items, comparison is true if all elements in an item
+	 * are lesser. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if a < b
+	 */
+	public static BooleanDataset lessThan(AbstractDataset a, AbstractDataset b, final BooleanDataset o) {
 		a.checkCompatibility(b);
 
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 		final IndexIterator itb = b.getIterator();
@@ -549,15 +670,19 @@ public class Comparisons {
 	}
 
 	public static BooleanDataset lessThan(Object a, Object b) {
+		return lessThan(a, b, null);
+	}
+
+	public static BooleanDataset lessThan(Object a, Object b, final BooleanDataset o) {
 		BooleanDataset r = null;
 
 		if (a instanceof AbstractDataset) {
 			AbstractDataset ad = (AbstractDataset) a;
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = equalTo(ad, bd);
+				r = lessThan(ad, bd, o);
 			} else {
-				r = new BooleanDataset(ad.shape);
+				r = checkOutput(o, ad);
 
 				final IndexIterator ita = ad.getIterator();
 
@@ -582,7 +707,7 @@ public class Comparisons {
 		} else {
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = greaterThan(bd, a);
+				r = greaterThan(bd, a, o);
 			} else {
 				throw new IllegalArgumentException("Both arguments are not datasets");
 			}
@@ -602,9 +727,24 @@ public class Comparisons {
 	 * @return dataset where item is true if a <= b
 	 */
 	public static BooleanDataset lessThanOrEqualTo(AbstractDataset a, AbstractDataset b) {
+		return lessThanOrEqualTo(a, b, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's element is less than or equal to b's
+	 * <p>
+	 * For multi-element items, comparison is true if all elements in an item
+	 * are lesser or equal. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if a <= b
+	 */
+	public static BooleanDataset lessThanOrEqualTo(AbstractDataset a, AbstractDataset b, final BooleanDataset o) {
 		a.checkCompatibility(b);
 
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 		final IndexIterator itb = b.getIterator();
@@ -650,15 +790,19 @@ public class Comparisons {
 	}
 
 	public static BooleanDataset lessThanOrEqualTo(Object a, Object b) {
+		return lessThanOrEqualTo(a, b, null);
+	}
+
+	public static BooleanDataset lessThanOrEqualTo(Object a, Object b, final BooleanDataset o) {
 		BooleanDataset r = null;
 
 		if (a instanceof AbstractDataset) {
 			AbstractDataset ad = (AbstractDataset) a;
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = equalTo(ad, bd);
+				r = lessThanOrEqualTo(ad, bd, o);
 			} else {
-				r = new BooleanDataset(ad.shape);
+				r = checkOutput(o, ad);
 
 				final IndexIterator ita = ad.getIterator();
 
@@ -683,7 +827,7 @@ public class Comparisons {
 		} else {
 			if (b instanceof AbstractDataset) {
 				AbstractDataset bd = (AbstractDataset) b;
-				r = greaterThanOrEqualTo(bd, a);
+				r = greaterThanOrEqualTo(bd, a, o);
 			} else {
 				throw new IllegalArgumentException("Both arguments are not datasets");
 			}
@@ -700,13 +844,25 @@ public class Comparisons {
 	 * @return dataset where item is true if l <= a <= h
 	 */
 	public static BooleanDataset withinRange(AbstractDataset a, double lo, double hi) {
+		return withinRange(a, lo, hi, null);
+	}
+
+	/**
+	 * 
+	 * @param a
+	 * @param lo lower bound
+	 * @param hi upper bound
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if l <= a <= h
+	 */
+	public static BooleanDataset withinRange(AbstractDataset a, double lo, double hi, final BooleanDataset o) {
 		if (lo >= hi) {
 			throw new IllegalArgumentException("Lower bound must be less than upper bound");
 		}
 
 		BooleanDataset r = null;
 
-		r = new BooleanDataset(a.shape);
+		r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 
@@ -870,7 +1026,20 @@ public class Comparisons {
 	 * @return dataset where item is true when a is false
 	 */
 	public static BooleanDataset logicalNot(AbstractDataset a) {
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		return logicalNot(a, null);
+	}
+
+	/**
+	 * Negate item-wise
+	 * <p>
+	 * For multi-element items, negation is false if all elements in a pair of items
+	 * are true.
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true when a is false
+	 */
+	public static BooleanDataset logicalNot(AbstractDataset a, final BooleanDataset o) {
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 
@@ -904,9 +1073,24 @@ public class Comparisons {
 	 * @return dataset where item is true if a && b is true
 	 */
 	public static BooleanDataset logicalAnd(AbstractDataset a, AbstractDataset b) {
+		return logicalAnd(a, b, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's item is true and b's true too.
+	 * <p>
+	 * For multi-element items, comparison is true if all elements in a pair of items
+	 * are true. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if a && b is true
+	 */
+	public static BooleanDataset logicalAnd(AbstractDataset a, AbstractDataset b, final BooleanDataset o) {
 		a.checkCompatibility(b);
 
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 		final IndexIterator itb = b.getIterator();
@@ -960,9 +1144,24 @@ public class Comparisons {
 	 * @return dataset where item is true if a || b is true
 	 */
 	public static BooleanDataset logicalOr(AbstractDataset a, AbstractDataset b) {
+		return logicalOr(a, b, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's item is true or b's true.
+	 * <p>
+	 * For multi-element items, comparison is true if any elements in a pair of items
+	 * are true. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if a || b is true
+	 */
+	public static BooleanDataset logicalOr(AbstractDataset a, AbstractDataset b, final BooleanDataset o) {
 		a.checkCompatibility(b);
 
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 		final IndexIterator itb = b.getIterator();
@@ -1016,9 +1215,24 @@ public class Comparisons {
 	 * @return dataset where item is true if a ^ b is true
 	 */
 	public static BooleanDataset logicalXor(AbstractDataset a, AbstractDataset b) {
+		return logicalXor(a, b, null);
+	}
+
+	/**
+	 * Compare item-wise for whether a's item is true or b's true exclusively.
+	 * <p>
+	 * For multi-element items, comparison is true if one element in a pair of items
+	 * is true. Where the datasets have mismatched item sizes, the first element
+	 * of the dataset with smaller items is used for comparison.
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if a ^ b is true
+	 */
+	public static BooleanDataset logicalXor(AbstractDataset a, AbstractDataset b, final BooleanDataset o) {
 		a.checkCompatibility(b);
 
-		final BooleanDataset r = new BooleanDataset(a.shape);
+		final BooleanDataset r = checkOutput(o, a);
 
 		final IndexIterator ita = a.getIterator();
 		final IndexIterator itb = b.getIterator();
@@ -1106,11 +1320,26 @@ public class Comparisons {
 	 * @return dataset where item is true if any of its elements are NaNs
 	 */
 	public static BooleanDataset isNaN(AbstractDataset a) {
+		return isNaN(a, null);
+	}
+
+	/**
+	 * Check item-wise for whether any a's elements are Not-a-Numbers
+	 * <p>
+	 * For multi-element items, check is true if any elements in an item is Not-a-Number.
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if any of its elements are NaNs
+	 */
+	public static BooleanDataset isNaN(AbstractDataset a, final BooleanDataset o) {
 		BooleanDataset r = null;
 
-		r = new BooleanDataset(a.shape);
+		r = checkOutput(o, a);
 
 		if (!a.hasFloatingPointElements()) {
+			if (o != null) {
+				r.fill(false);
+			}
 			return r;
 		}
 
@@ -1153,11 +1382,26 @@ public class Comparisons {
 	 * @return dataset where item is true if any of its elements are infinite
 	 */
 	public static BooleanDataset isInfinite(AbstractDataset a) {
+		return isInfinite(a, null);
+	}
+
+	/**
+	 * Check item-wise for whether any a's elements are infinite
+	 * <p>
+	 * For multi-element items, check is true if any elements in an item is infinite
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if any of its elements are infinite
+	 */
+	public static BooleanDataset isInfinite(AbstractDataset a, final BooleanDataset o) {
 		BooleanDataset r = null;
 
-		r = new BooleanDataset(a.shape);
+		r = checkOutput(o, a);
 
 		if (!a.hasFloatingPointElements()) {
+			if (o != null) {
+				r.fill(false);
+			}
 			return r;
 		}
 
@@ -1200,7 +1444,19 @@ public class Comparisons {
 	 * @return dataset where items are true if any of its elements are positive infinite
 	 */
 	public static BooleanDataset isPositiveInfinite(AbstractDataset a) {
-		return isEqual(a, Double.POSITIVE_INFINITY);
+		return isPositiveInfinite(a, null);
+	}
+
+	/**
+	 * Check item-wise for whether any a's elements are positive infinite
+	 * <p>
+	 * For multi-element items, the check is true if any elements in an item is positive infinite
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where items are true if any of its elements are positive infinite
+	 */
+	public static BooleanDataset isPositiveInfinite(AbstractDataset a, final BooleanDataset o) {
+		return isEqual(a, Double.POSITIVE_INFINITY, o);
 	}
 
 	/**
@@ -1211,7 +1467,19 @@ public class Comparisons {
 	 * @return dataset where items are true if any of its elements are negative infinite
 	 */
 	public static BooleanDataset isNegativeInfinite(AbstractDataset a) {
-		return isEqual(a, Double.NEGATIVE_INFINITY);
+		return isNegativeInfinite(a, null);
+	}
+
+	/**
+	 * Check item-wise for whether any a's elements are negative infinite
+	 * <p>
+	 * For multi-element items, the check is true if any elements in an item is negative infinite
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where items are true if any of its elements are negative infinite
+	 */
+	public static BooleanDataset isNegativeInfinite(AbstractDataset a, final BooleanDataset o) {
+		return isEqual(a, Double.NEGATIVE_INFINITY, o);
 	}
 
 	/**
@@ -1220,14 +1488,18 @@ public class Comparisons {
 	 * For multi-element items, the check is true if any elements in an item matches
 	 * @param a
 	 * @param match
+	 * @param o output can be null
 	 * @return dataset where items are true if any of its elements match
 	 */
-	private static BooleanDataset isEqual(AbstractDataset a, final double match) {
+	private static BooleanDataset isEqual(AbstractDataset a, final double match, final BooleanDataset o) {
 		BooleanDataset r = null;
 
-		r = new BooleanDataset(a.shape);
+		r = checkOutput(o, a);
 
 		if (!a.hasFloatingPointElements()) {
+			if (o != null) {
+				r.fill(false);
+			}
 			return r;
 		}
 
@@ -1274,9 +1546,21 @@ public class Comparisons {
 	 * @return dataset where item is true if any of its elements are finite
 	 */
 	public static BooleanDataset isFinite(AbstractDataset a) {
+		return isFinite(a, null);
+	}
+
+	/**
+	 * Check item-wise for whether any a's elements are finite (or not infinite and not Not-a-Number)
+	 * <p>
+	 * For multi-element items, check is true if any elements in an item is finite
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset where item is true if any of its elements are finite
+	 */
+	public static BooleanDataset isFinite(AbstractDataset a, final BooleanDataset o) {
 		BooleanDataset r = null;
 
-		r = new BooleanDataset(a.shape);
+		r = checkOutput(o, a);
 
 		if (!a.hasFloatingPointElements()) {
 			r.fill(true);
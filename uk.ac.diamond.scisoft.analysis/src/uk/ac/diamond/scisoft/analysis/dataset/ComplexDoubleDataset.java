@@ -120,6 +120,10 @@ public class ComplexDoubleDataset extends CompoundDoubleDataset { // CLASS_TYPE
 	public ComplexDoubleDataset(final AbstractDataset dataset) {
 		super(ISIZE, dataset.getShapeRef());
 		copyToView(dataset, this, true, false);
+		offset = 0;
+		stride = null;
+		base = null;
+		odata = data;
 
 		IndexIterator iter = dataset.getIterator();
 		int disize = dataset.getElementsPerItem();
@@ -461,10 +465,9 @@ public class ComplexDoubleDataset extends CompoundDoubleDataset { // CLASS_TYPE
 	public ComplexDoubleDataset iadd(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
@@ -503,10 +506,9 @@ public class ComplexDoubleDataset extends CompoundDoubleDataset { // CLASS_TYPE
 	public ComplexDoubleDataset isubtract(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
@@ -545,10 +547,9 @@ public class ComplexDoubleDataset extends CompoundDoubleDataset { // CLASS_TYPE
 	public ComplexDoubleDataset imultiply(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
@@ -596,10 +597,9 @@ public class ComplexDoubleDataset extends CompoundDoubleDataset { // CLASS_TYPE
 	public ComplexDoubleDataset idivide(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
@@ -691,10 +691,9 @@ public class ComplexDoubleDataset extends CompoundDoubleDataset { // CLASS_TYPE
 	public ComplexDoubleDataset ipower(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
 				while (it1.hasNext() && it2.hasNext()) {
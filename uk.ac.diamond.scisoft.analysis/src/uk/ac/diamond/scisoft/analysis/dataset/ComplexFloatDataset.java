@@ -120,6 +120,10 @@ public class ComplexFloatDataset extends CompoundFloatDataset { // CLASS_TYPE
 	public ComplexFloatDataset(final AbstractDataset dataset) {
 		super(ISIZE, dataset.getShapeRef());
 		copyToView(dataset, this, true, false);
+		offset = 0;
+		stride = null;
+		base = null;
+		odata = data;
 
 		IndexIterator iter = dataset.getIterator();
 		int disize = dataset.getElementsPerItem();
@@ -457,10 +461,9 @@ public class ComplexFloatDataset extends CompoundFloatDataset { // CLASS_TYPE
 	public ComplexFloatDataset iadd(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
@@ -499,10 +502,9 @@ public class ComplexFloatDataset extends CompoundFloatDataset { // CLASS_TYPE
 	public ComplexFloatDataset isubtract(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
@@ -541,10 +543,9 @@ public class ComplexFloatDataset extends CompoundFloatDataset { // CLASS_TYPE
 	public ComplexFloatDataset imultiply(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
@@ -592,10 +593,9 @@ public class ComplexFloatDataset extends CompoundFloatDataset { // CLASS_TYPE
 	public ComplexFloatDataset idivide(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
@@ -687,10 +687,9 @@ public class ComplexFloatDataset extends CompoundFloatDataset { // CLASS_TYPE
 	public ComplexFloatDataset ipower(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			switch (bds.getDtype()) {
 			case COMPLEX64: case COMPLEX128:
 				while (it1.hasNext() && it2.hasNext()) {
@@ -99,6 +99,10 @@ public class CompoundByteDataset extends AbstractCompoundDataset {
 		if (dataset.stride == null || dataset.size == dataset.base.size) {
 			odata = data = dataset.data.clone();
 		} else {
+			offset = 0;
+			stride = null;
+			base = null;
+			odata = data = createArray(size);
 			IndexIterator iter = dataset.getIterator();
 			for (int j = 0; iter.hasNext();) {
 				for (int i = 0; i < isize; i++) {
@@ -114,6 +118,9 @@ public class CompoundByteDataset extends AbstractCompoundDataset {
 	 */
 	public CompoundByteDataset(final AbstractCompoundDataset dataset) {
 		copyToView(dataset, this, true, false);
+		offset = 0;
+		stride = null;
+		base = null;
 		isize = dataset.isize;
 
 		odata = data = createArray(size);
@@ -889,10 +896,9 @@ public class CompoundByteDataset extends AbstractCompoundDataset {
 	public CompoundByteDataset iadd(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -927,10 +933,9 @@ public class CompoundByteDataset extends AbstractCompoundDataset {
 	public CompoundByteDataset isubtract(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -965,10 +970,9 @@ public class CompoundByteDataset extends AbstractCompoundDataset {
 	public CompoundByteDataset imultiply(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -1003,10 +1007,9 @@ public class CompoundByteDataset extends AbstractCompoundDataset {
 	public CompoundByteDataset idivide(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -1061,10 +1064,9 @@ public class CompoundByteDataset extends AbstractCompoundDataset {
 	public CompoundByteDataset iremainder(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -1114,10 +1116,9 @@ public class CompoundByteDataset extends AbstractCompoundDataset {
 	public CompoundByteDataset ipower(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
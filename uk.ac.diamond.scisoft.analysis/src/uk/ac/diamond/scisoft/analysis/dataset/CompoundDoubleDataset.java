@@ -99,6 +99,10 @@ public class CompoundDoubleDataset extends AbstractCompoundDataset {
 		if (dataset.stride == null || dataset.size == dataset.base.size) {
 			odata = data = dataset.data.clone();
 		} else {
+			offset = 0;
+			stride = null;
+			base = null;
+			odata = data = createArray(size);
 			IndexIterator iter = dataset.getIterator();
 			for (int j = 0; iter.hasNext();) {
 				for (int i = 0; i < isize; i++) {
@@ -114,6 +118,9 @@ public class CompoundDoubleDataset extends AbstractCompoundDataset {
 	 */
 	public CompoundDoubleDataset(final AbstractCompoundDataset dataset) {
 		copyToView(dataset, this, true, false);
+		offset = 0;
+		stride = null;
+		base = null;
 		isize = dataset.isize;
 
 		odata = data = createArray(size);
@@ -911,10 +918,9 @@ public class CompoundDoubleDataset extends AbstractCompoundDataset {
 	public CompoundDoubleDataset iadd(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -949,10 +955,9 @@ public class CompoundDoubleDataset extends AbstractCompoundDataset {
 	public CompoundDoubleDataset isubtract(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -987,10 +992,9 @@ public class CompoundDoubleDataset extends AbstractCompoundDataset {
 	public CompoundDoubleDataset imultiply(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -1025,10 +1029,9 @@ public class CompoundDoubleDataset extends AbstractCompoundDataset {
 	public CompoundDoubleDataset idivide(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -1086,10 +1089,9 @@ public class CompoundDoubleDataset extends AbstractCompoundDataset {
 	public CompoundDoubleDataset iremainder(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
@@ -1135,10 +1137,9 @@ public class CompoundDoubleDataset extends AbstractCompoundDataset {
 	public CompoundDoubleDataset ipower(final Object b) {
 		if (b instanceof ADataset) {
 			final ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 
 			final IndexIterator it1 = getIterator();
-			final IndexIterator it2 = bds.getIterator();
+			final IndexIterator it2 = getBroadcastIterator(bds);
 			final int bis = bds.getElementsPerItem();
 
 			if (bis == 1) {
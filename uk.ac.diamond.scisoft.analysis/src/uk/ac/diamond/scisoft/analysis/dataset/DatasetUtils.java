@@ -1269,6 +1269,16 @@ public class DatasetUtils {
 	 * @return element-wise maximum of given datasets
 	 */
 	public static AbstractDataset maximum(final AbstractDataset a, final Object b) {
+		return maximum(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return element-wise maximum of given datasets
+	 */
+	public static AbstractDataset maximum(final AbstractDataset a, final Object b, final AbstractDataset o) {
 		AbstractDataset result;
 
 		if (b instanceof AbstractDataset) {
@@ -1293,7 +1303,7 @@ public class DatasetUtils {
 			IndexIterator it1 = d1.getIterator();
 			IndexIterator it2 = d2.getIterator();
 
-			result = AbstractDataset.zeros(d1);
+			result = AbstractDataset.checkOutput(o, d1, rt);
 
 			switch (rt) {
 			case AbstractDataset.BOOL:
@@ -1366,7 +1376,7 @@ public class DatasetUtils {
 			}
 		} else {
 			final int dt = AbstractDataset.getBestDType(a.getDtype(), AbstractDataset.getDTypeFromClass(b.getClass()));
-			result = AbstractDataset.zeros(a.shape, dt);
+			result = AbstractDataset.checkOutput(o, 1, a.shape, dt);
 			final IndexIterator it1 = a.getIterator();
 			long i2;
 			double r2;
@@ -1448,6 +1458,16 @@ public class DatasetUtils {
 	 * @return element-wise minimum of given datasets
 	 */
 	public static AbstractDataset minimum(final AbstractDataset a, final Object b) {
+		return minimum(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return element-wise minimum of given datasets
+	 */
+	public static AbstractDataset minimum(final AbstractDataset a, final Object b, final AbstractDataset o) {
 		AbstractDataset result;
 
 		if (b instanceof AbstractDataset) {
@@ -1472,7 +1492,7 @@ public class DatasetUtils {
 			IndexIterator it1 = d1.getIterator();
 			IndexIterator it2 = d2.getIterator();
 
-			result = AbstractDataset.zeros(d1);
+			result = AbstractDataset.checkOutput(o, d1, rt);
 
 			switch (rt) {
 			case AbstractDataset.BOOL:
@@ -1545,7 +1565,7 @@ public class DatasetUtils {
 			}
 		} else {
 			final int dt = AbstractDataset.getBestDType(a.getDtype(), AbstractDataset.getDTypeFromClass(b.getClass()));
-			result = AbstractDataset.zeros(a.shape, dt);
+			result = AbstractDataset.checkOutput(o, 1, a.shape, dt);
 			final IndexIterator it1 = a.getIterator();
 			long i2;
 			double r2;
@@ -115,6 +115,10 @@ public class DoubleDataset extends AbstractDataset {
 		if (dataset.stride == null || dataset.size == dataset.base.size) {
 			odata = data = dataset.data.clone();
 		} else {
+			offset = 0;
+			stride = null;
+			base = null;
+			odata = data = createArray(size);
 			IndexIterator iter = dataset.getIterator();
 			for (int i = 0; iter.hasNext(); i++) {
 				data[i] = dataset.data[iter.index];
@@ -128,6 +132,9 @@ public class DoubleDataset extends AbstractDataset {
 	 */
 	public DoubleDataset(final AbstractDataset dataset) {
 		copyToView(dataset, this, true, false);
+		offset = 0;
+		stride = null;
+		base = null;
 
 		odata = data = createArray(size);
 		IndexIterator iter = dataset.getIterator();
@@ -690,10 +697,9 @@ public class DoubleDataset extends AbstractDataset {
 	public DoubleDataset iadd(final Object b) {
 		if (b instanceof ADataset) { // BOOLEAN_OMIT
 			ADataset bds = (ADataset) b; // BOOLEAN_OMIT
-			checkCompatibility(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator(); // BOOLEAN_OMIT
-			IndexIterator it2 = bds.getIterator(); // BOOLEAN_OMIT
+			IndexIterator it2 = getBroadcastIterator(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) { // BOOLEAN_OMIT
 				data[it1.index] += bds.getElementDoubleAbs(it2.index); // GET_ELEMENT // BOOLEAN_OMIT
@@ -714,10 +720,9 @@ public class DoubleDataset extends AbstractDataset {
 	public DoubleDataset isubtract(final Object b) {
 		if (b instanceof ADataset) { // BOOLEAN_OMIT
 			ADataset bds = (ADataset) b; // BOOLEAN_OMIT
-			checkCompatibility(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator(); // BOOLEAN_OMIT
-			IndexIterator it2 = bds.getIterator(); // BOOLEAN_OMIT
+			IndexIterator it2 = getBroadcastIterator(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) { // BOOLEAN_OMIT
 				data[it1.index] -= bds.getElementDoubleAbs(it2.index); // GET_ELEMENT // BOOLEAN_OMIT
@@ -738,10 +743,9 @@ public class DoubleDataset extends AbstractDataset {
 	public DoubleDataset imultiply(final Object b) {
 		if (b instanceof ADataset) { // BOOLEAN_OMIT
 			ADataset bds = (ADataset) b; // BOOLEAN_OMIT
-			checkCompatibility(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator(); // BOOLEAN_OMIT
-			IndexIterator it2 = bds.getIterator(); // BOOLEAN_OMIT
+			IndexIterator it2 = getBroadcastIterator(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) { // BOOLEAN_OMIT
 				data[it1.index] *= bds.getElementDoubleAbs(it2.index); // GET_ELEMENT // BOOLEAN_OMIT
@@ -762,10 +766,9 @@ public class DoubleDataset extends AbstractDataset {
 	public DoubleDataset idivide(final Object b) {
 		if (b instanceof ADataset) { // BOOLEAN_OMIT
 			ADataset bds = (ADataset) b; // BOOLEAN_OMIT
-			checkCompatibility(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator(); // BOOLEAN_OMIT
-			IndexIterator it2 = bds.getIterator(); // BOOLEAN_OMIT
+			IndexIterator it2 = getBroadcastIterator(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) { // BOOLEAN_OMIT
 				data[it1.index] /= bds.getElementDoubleAbs(it2.index); // GET_ELEMENT // BOOLEAN_OMIT // INT_EXCEPTION
@@ -801,10 +804,9 @@ public class DoubleDataset extends AbstractDataset {
 	public DoubleDataset iremainder(final Object b) {
 		if (b instanceof ADataset) { // BOOLEAN_OMIT
 			ADataset bds = (ADataset) b; // BOOLEAN_OMIT
-			checkCompatibility(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator(); // BOOLEAN_OMIT
-			IndexIterator it2 = bds.getIterator(); // BOOLEAN_OMIT
+			IndexIterator it2 = getBroadcastIterator(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) { // BOOLEAN_OMIT
 				data[it1.index] %= bds.getElementDoubleAbs(it2.index); // GET_ELEMENT // BOOLEAN_OMIT // INT_EXCEPTION
@@ -829,10 +831,9 @@ public class DoubleDataset extends AbstractDataset {
 	public DoubleDataset ipower(final Object b) {
 		if (b instanceof ADataset) { // BOOLEAN_OMIT
 			ADataset bds = (ADataset) b; // BOOLEAN_OMIT
-			checkCompatibility(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator(); // BOOLEAN_OMIT
-			IndexIterator it2 = bds.getIterator(); // BOOLEAN_OMIT
+			IndexIterator it2 = getBroadcastIterator(bds); // BOOLEAN_OMIT
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) { // BOOLEAN_OMIT
 				final double v = Math.pow(data[it1.index], bds.getElementDoubleAbs(it2.index)); // BOOLEAN_OMIT
@@ -0,0 +1,1034 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import uk.ac.diamond.scisoft.analysis.io.IMetaData;
+import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
+
+/**
+ * Class to record element-wise operations on (lazy) datasets and present the result as a lazy dataset
+ * <p>
+ * No intermediate datasets are created. When a slice is requested, each input is sliced once and the
+ * whole expression is evaluated in a single pass over blocks of items so only the result is allocated.
+ * For example, a flat-field and dark correction can be written as
+ * <pre>
+ *  ExpressionDataset d = new ExpressionDataset(dark);
+ *  AbstractDataset c = new ExpressionDataset(image).subtract(d).divide(new ExpressionDataset(flat).subtract(d)).evaluate();
+ * </pre>
+ * Inputs must be elemental and have the same shape (or be numbers). Items are calculated in double
+ * precision and the result is a double dataset.
+ */
+public class ExpressionDataset implements ILazyDataset {
+	private static final long serialVersionUID = 8353186394873264413L;
+
+	/**
+	 * Number of items evaluated together
+	 */
+	private static final int BLOCK = 1024;
+
+	/**
+	 * Operations that can be recorded
+	 */
+	public enum Operation {
+		ADD, SUBTRACT, MULTIPLY, DIVIDE, POWER, REMAINDER, MAXIMUM, MINIMUM,
+		NEGATIVE, ABS, SQRT, SQUARE, EXP, LOG, LOG10, SIN, COS, TAN, FLOOR, CEIL
+	}
+
+	private Node root;
+	private int[] shape;
+	private final int size;
+	private String name;
+	private IMetaData metadata = null;
+
+	/**
+	 * Create an expression that consists of the given dataset
+	 * @param data
+	 */
+	public ExpressionDataset(final ILazyDataset data) {
+		this(new Leaf(data, null), data.getShape(), data.getName());
+	}
+
+	/**
+	 * Create an expression that consists of the given number
+	 * @param value
+	 */
+	public ExpressionDataset(final Number value) {
+		this(new Constant(value.doubleValue()), new int[0], value.toString());
+	}
+
+	private ExpressionDataset(final Node root, final int[] shape, final String name) {
+		this.root = root;
+		this.shape = shape;
+		this.name = name;
+		size = AbstractDataset.calcSize(shape);
+	}
+
+	/**
+	 * @param obj number, dataset or expression
+	 * @return expression for object
+	 */
+	private static ExpressionDataset toExpression(final Object obj) {
+		if (obj instanceof ExpressionDataset) {
+			return (ExpressionDataset) obj;
+		}
+		if (obj instanceof ILazyDataset) {
+			return new ExpressionDataset((ILazyDataset) obj);
+		}
+		if (obj instanceof Number) {
+			return new ExpressionDataset((Number) obj);
+		}
+		throw new IllegalArgumentException("Object is not a number, dataset or expression");
+	}
+
+	private static String bracketIfNecessary(final String name) {
+		if (name == null) {
+			return "";
+		}
+		if (name.contains("+") || name.contains("-") || name.contains("*") ||
+				name.contains("/") || name.contains("^") || name.contains("%")) {
+			return "(" + name + ")";
+		}
+		return name;
+	}
+
+	/**
+	 * Record an operation with a second operand
+	 * @param op binary operation
+	 * @param b number, dataset or expression
+	 * @return new expression
+	 */
+	public ExpressionDataset apply(final Operation op, final Object b) {
+		final ExpressionDataset e = toExpression(b);
+		final int[] nshape;
+		if (e.root.isConstant()) {
+			nshape = shape;
+		} else if (root.isConstant()) {
+			nshape = e.shape;
+		} else {
+			if (!Arrays.equals(shape, e.shape)) {
+				throw new IllegalArgumentException("Shapes do not match: " + Arrays.toString(shape) + " cf " + Arrays.toString(e.shape));
+			}
+			nshape = shape;
+		}
+
+		final String n;
+		switch (op) {
+		case ADD:
+			n = bracketIfNecessary(name) + "+" + bracketIfNecessary(e.name);
+			break;
+		case SUBTRACT:
+			n = bracketIfNecessary(name) + "-" + bracketIfNecessary(e.name);
+			break;
+		case MULTIPLY:
+			n = bracketIfNecessary(name) + "*" + bracketIfNecessary(e.name);
+			break;
+		case DIVIDE:
+			n = bracketIfNecessary(name) + "/" + bracketIfNecessary(e.name);
+			break;
+		case POWER:
+			n = bracketIfNecessary(name) + "^" + bracketIfNecessary(e.name);
+			break;
+		case REMAINDER:
+			n = bracketIfNecessary(name) + "%" + bracketIfNecessary(e.name);
+			break;
+		case MAXIMUM:
+		case MINIMUM:
+			n = op.name().toLowerCase() + "(" + name + ", " + e.name + ")";
+			break;
+		default:
+			throw new IllegalArgumentException("Operation " + op + " needs one operand");
+		}
+		return new ExpressionDataset(new Binary(op, root, e.root), nshape, n);
+	}
+
+	/**
+	 * Record an operation with no other operand
+	 * @param op unary operation
+	 * @return new expression
+	 */
+	public ExpressionDataset apply(final Operation op) {
+		if (op.ordinal() < Operation.NEGATIVE.ordinal()) {
+			throw new IllegalArgumentException("Operation " + op + " needs two operands");
+		}
+		final String n = op == Operation.NEGATIVE ? "-" + bracketIfNecessary(name) : op.name().toLowerCase() + "(" + name + ")";
+		return new ExpressionDataset(new Unary(op, root), shape, n);
+	}
+
+	/**
+	 * @param b
+	 * @return this + b
+	 */
+	public ExpressionDataset add(final Object b) {
+		return apply(Operation.ADD, b);
+	}
+
+	/**
+	 * @param b
+	 * @return this - b
+	 */
+	public ExpressionDataset subtract(final Object b) {
+		return apply(Operation.SUBTRACT, b);
+	}
+
+	/**
+	 * @param b
+	 * @return this * b
+	 */
+	public ExpressionDataset multiply(final Object b) {
+		return apply(Operation.MULTIPLY, b);
+	}
+
+	/**
+	 * @param b
+	 * @return this / b
+	 */
+	public ExpressionDataset divide(final Object b) {
+		return apply(Operation.DIVIDE, b);
+	}
+
+	/**
+	 * @param b
+	 * @return this ** b
+	 */
+	public ExpressionDataset power(final Object b) {
+		return apply(Operation.POWER, b);
+	}
+
+	/**
+	 * @param b
+	 * @return this % b
+	 */
+	public ExpressionDataset remainder(final Object b) {
+		return apply(Operation.REMAINDER, b);
+	}
+
+	/**
+	 * @param b
+	 * @return element-wise maximum of this and b
+	 */
+	public ExpressionDataset maximum(final Object b) {
+		return apply(Operation.MAXIMUM, b);
+	}
+
+	/**
+	 * @param b
+	 * @return element-wise minimum of this and b
+	 */
+	public ExpressionDataset minimum(final Object b) {
+		return apply(Operation.MINIMUM, b);
+	}
+
+	/**
+	 * @return -this
+	 */
+	public ExpressionDataset negative() {
+		return apply(Operation.NEGATIVE);
+	}
+
+	/**
+	 * @return abs(this)
+	 */
+	public ExpressionDataset abs() {
+		return apply(Operation.ABS);
+	}
+
+	/**
+	 * @return sqrt(this)
+	 */
+	public ExpressionDataset sqrt() {
+		return apply(Operation.SQRT);
+	}
+
+	/**
+	 * @return square(this)
+	 */
+	public ExpressionDataset square() {
+		return apply(Operation.SQUARE);
+	}
+
+	/**
+	 * @return exp(this)
+	 */
+	public ExpressionDataset exp() {
+		return apply(Operation.EXP);
+	}
+
+	/**
+	 * @return log(this)
+	 */
+	public ExpressionDataset log() {
+		return apply(Operation.LOG);
+	}
+
+	/**
+	 * @return log10(this)
+	 */
+	public ExpressionDataset log10() {
+		return apply(Operation.LOG10);
+	}
+
+	/**
+	 * @return sin(this)
+	 */
+	public ExpressionDataset sin() {
+		return apply(Operation.SIN);
+	}
+
+	/**
+	 * @return cos(this)
+	 */
+	public ExpressionDataset cos() {
+		return apply(Operation.COS);
+	}
+
+	/**
+	 * @return tan(this)
+	 */
+	public ExpressionDataset tan() {
+		return apply(Operation.TAN);
+	}
+
+	/**
+	 * @return floor(this)
+	 */
+	public ExpressionDataset floor() {
+		return apply(Operation.FLOOR);
+	}
+
+	/**
+	 * @return ceil(this)
+	 */
+	public ExpressionDataset ceil() {
+		return apply(Operation.CEIL);
+	}
+
+	/**
+	 * Evaluate whole expression
+	 * @return dataset
+	 */
+	public AbstractDataset evaluate() {
+		return (AbstractDataset) getSlice((int[]) null, null, null);
+	}
+
+	@Override
+	public Class<?> elementClass() {
+		return Double.class;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public int[] getShape() {
+		return shape.clone();
+	}
+
+	/**
+	 * This reshapes every input
+	 */
+	@Override
+	public void setShape(int... shape) {
+		final int[] nshape = shape.clone();
+		if (AbstractDataset.calcSize(nshape) != size) {
+			throw new IllegalArgumentException("Size of new shape is not equal to current size");
+		}
+		if (Arrays.equals(this.shape, nshape)) {
+			return;
+		}
+		root = root.reshape(new IdentityHashMap<Object, Node>(), nshape);
+		this.shape = nshape;
+	}
+
+	@Override
+	public int getRank() {
+		return shape.length;
+	}
+
+	@Override
+	public ExpressionDataset squeeze() {
+		return squeeze(false);
+	}
+
+	@Override
+	public ExpressionDataset squeeze(boolean onlyFromEnd) {
+		setShape(AbstractDataset.squeezeShape(shape, onlyFromEnd));
+		return this;
+	}
+
+	@Override
+	public IDataset getSlice(int[] start, int[] stop, int[] step) {
+		try {
+			return getSlice(null, start, stop, step);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException("Could not evaluate slice of expression '" + name + "'", e);
+		}
+	}
+
+	@Override
+	public IDataset getSlice(IMonitor monitor, int[] start, int[] stop, int[] step) throws Exception {
+		final int rank = shape.length;
+		final int[] lstart = start == null ? new int[rank] : start;
+		final int[] lstop = stop == null ? shape.clone() : stop;
+		final int[] lstep;
+		if (step == null) {
+			lstep = new int[rank];
+			Arrays.fill(lstep, 1);
+		} else {
+			lstep = step;
+		}
+		final int[] nshape = AbstractDataset.checkSlice(shape, start, stop, lstart, lstop, lstep);
+
+		// slice each distinct input once
+		final Map<Object, Integer> map = new IdentityHashMap<Object, Integer>();
+		final List<Leaf> leaves = new ArrayList<Leaf>();
+		root.collect(map, leaves);
+		final int nsize = AbstractDataset.calcSize(nshape);
+		final AbstractDataset[] inputs = new AbstractDataset[leaves.size()];
+		for (int i = 0; i < inputs.length; i++) {
+			final Leaf l = leaves.get(i);
+			final AbstractDataset a = l.getSlice(monitor, lstart, lstop, lstep);
+			if (a.getElementsPerItem() != 1) {
+				throw new IllegalArgumentException("Dataset '" + l.data.getName() + "' is not elemental");
+			}
+			if (a.getSize() != nsize) {
+				throw new IllegalArgumentException("Dataset '" + l.data.getName() + "' has wrong shape");
+			}
+			inputs[i] = a;
+		}
+
+		final DoubleDataset result = new DoubleDataset(nshape);
+		final double[] data = result.getData();
+		final int depth = root.getDepth();
+		ChunkedExecutor.execute(result.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				evaluate(map, inputs, depth, data, start, end);
+			}
+		});
+		result.setName(name);
+		return result;
+	}
+
+	/**
+	 * Evaluate range of items in blocks
+	 * @param map of dataset to index of input
+	 * @param inputs sliced inputs
+	 * @param depth depth of expression tree
+	 * @param data output
+	 * @param start first item
+	 * @param end stop item (exclusive)
+	 */
+	private void evaluate(final Map<Object, Integer> map, final AbstractDataset[] inputs, final int depth, final double[] data, final int start, final int end) {
+		final int ni = inputs.length;
+		final IndexIterator[] its = new IndexIterator[ni];
+		for (int i = 0; i < ni; i++) {
+			its[i] = ChunkedExecutor.getIterator(inputs[i], start, end);
+		}
+		final Block block = new Block(map, ni, depth);
+		final double[] out = new double[BLOCK];
+
+		for (int b = start; b < end; b += BLOCK) {
+			final int n = Math.min(BLOCK, end - b);
+			for (int i = 0; i < ni; i++) {
+				final AbstractDataset a = inputs[i];
+				final IndexIterator it = its[i];
+				final double[] v = block.values[i];
+				for (int j = 0; j < n && it.hasNext(); j++) {
+					v[j] = a.getElementDoubleAbs(it.index);
+				}
+			}
+			root.evaluate(block, 0, out, n);
+			System.arraycopy(out, 0, data, b, n);
+		}
+	}
+
+	@Override
+	public IDataset getSlice(Slice... slice) {
+		final int rank = shape.length;
+		final int[] start = new int[rank];
+		final int[] stop = new int[rank];
+		final int[] step = new int[rank];
+		Slice.convertFromSlice(slice, shape, start, stop, step);
+		return getSlice(start, stop, step);
+	}
+
+	@Override
+	public IDataset getSlice(IMonitor monitor, Slice... slice) throws Exception {
+		final int rank = shape.length;
+		final int[] start = new int[rank];
+		final int[] stop = new int[rank];
+		final int[] step = new int[rank];
+		Slice.convertFromSlice(slice, shape, start, stop, step);
+		return getSlice(monitor, start, stop, step);
+	}
+
+	@Override
+	public ILazyDataset getSliceView(Slice... slice) {
+		final int rank = shape.length;
+		final int[] start = new int[rank];
+		final int[] stop = new int[rank];
+		final int[] step = new int[rank];
+		Slice.convertFromSlice(slice, shape, start, stop, step);
+		return getSliceView(start, stop, step);
+	}
+
+	/**
+	 * This slices every input and returns an expression for the sliced inputs
+	 */
+	@Override
+	public ExpressionDataset getSliceView(int[] start, int[] stop, int[] step) {
+		final int rank = shape.length;
+		final int[] lstart = start == null ? new int[rank] : start;
+		final int[] lstop = stop == null ? shape.clone() : stop;
+		final int[] lstep;
+		if (step == null) {
+			lstep = new int[rank];
+			Arrays.fill(lstep, 1);
+		} else {
+			lstep = step;
+		}
+		final int[] nshape = AbstractDataset.checkSlice(shape, start, stop, lstart, lstop, lstep);
+
+		final Map<Object, Node> views = new IdentityHashMap<Object, Node>();
+		final ExpressionDataset e = new ExpressionDataset(root.slice(views, lstart, lstop, lstep), nshape, name);
+		e.metadata = metadata;
+		return e;
+	}
+
+	@Override
+	public IMetaData getMetadata() {
+		return metadata;
+	}
+
+	@Override
+	public void setMetadata(IMetaData metadata) {
+		this.metadata = metadata;
+	}
+
+	@Override
+	public ExpressionDataset clone() {
+		final ExpressionDataset e = new ExpressionDataset(root, shape.clone(), name);
+		e.metadata = metadata;
+		return e;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+
+		if (name != null && name.length() > 0) {
+			out.append("Expression dataset '");
+			out.append(name);
+			out.append("' has shape [");
+		} else {
+			out.append("Expression dataset shape is [");
+		}
+		int rank = shape == null ? 0 : shape.length;
+
+		if (rank > 0 && shape[0] >= 0) {
+			out.append(shape[0]);
+		}
+		for (int i = 1; i < rank; i++) {
+			out.append(", " + shape[i]);
+		}
+		out.append(']');
+
+		return out.toString();
+	}
+
+	@Override
+	public void setLazyErrors(ILazyDataset errors) {
+		throw new RuntimeException("setLazyErrors is unimplemented for "+getClass().getSimpleName());
+	}
+
+	@Override
+	public ILazyDataset getLazyErrors() {
+		return null;
+	}
+
+	/**
+	 * Values of inputs and work space for a block of items
+	 */
+	private static class Block {
+		final Map<Object, Integer> map;
+		final double[][] values;
+		final double[][] work;
+
+		public Block(final Map<Object, Integer> map, final int inputs, final int depth) {
+			this.map = map;
+			values = new double[inputs][BLOCK];
+			work = new double[depth][BLOCK];
+		}
+	}
+
+	/**
+	 * Node of expression tree. Nodes are immutable so can be shared by many expressions
+	 */
+	private static abstract class Node implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * @return true if node contains no datasets
+		 */
+		abstract boolean isConstant();
+
+		/**
+		 * @return number of work buffers needed
+		 */
+		abstract int getDepth();
+
+		/**
+		 * Add distinct leaves in tree to list
+		 * @param map of leaf key to index in list
+		 * @param list of leaves
+		 */
+		abstract void collect(Map<Object, Integer> map, List<Leaf> list);
+
+		/**
+		 * @param views map of leaf key to its sliced leaf
+		 * @param start
+		 * @param stop
+		 * @param step
+		 * @return node that refers to sliced datasets
+		 */
+		abstract Node slice(Map<Object, Node> views, int[] start, int[] stop, int[] step);
+
+		/**
+		 * @param views map of leaf key to its reshaped leaf
+		 * @param shape
+		 * @return node that refers to reshaped datasets
+		 */
+		abstract Node reshape(Map<Object, Node> views, int[] shape);
+
+		/**
+		 * Evaluate block
+		 * @param block
+		 * @param level first work buffer that can be used
+		 * @param out
+		 * @param n number of items
+		 */
+		abstract void evaluate(Block block, int level, double[] out, int n);
+	}
+
+	private static class Constant extends Node {
+		private static final long serialVersionUID = 1L;
+		private final double value;
+
+		public Constant(final double value) {
+			this.value = value;
+		}
+
+		@Override
+		boolean isConstant() {
+			return true;
+		}
+
+		@Override
+		int getDepth() {
+			return 0;
+		}
+
+		@Override
+		void collect(Map<Object, Integer> map, List<Leaf> list) {
+		}
+
+		@Override
+		Node slice(Map<Object, Node> views, int[] start, int[] stop, int[] step) {
+			return this;
+		}
+
+		@Override
+		Node reshape(Map<Object, Node> views, int[] shape) {
+			return this;
+		}
+
+		@Override
+		void evaluate(Block block, int level, double[] out, int n) {
+			Arrays.fill(out, 0, n, value);
+		}
+	}
+
+	/**
+	 * Change applied to a slice of an input
+	 */
+	private static class View implements Serializable {
+		private static final long serialVersionUID = 1L;
+		final int[] start;
+		final int[] stop;
+		final int[] step;
+		final int[] shape; // if not null, then reshape instead of slice
+
+		public View(final int[] start, final int[] stop, final int[] step) {
+			this.start = start.clone();
+			this.stop = stop.clone();
+			this.step = step.clone();
+			shape = null;
+		}
+
+		public View(final int[] shape) {
+			start = null;
+			stop = null;
+			step = null;
+			this.shape = shape.clone();
+		}
+
+		AbstractDataset apply(final AbstractDataset a) {
+			if (shape == null) {
+				return a.getSliceView(start, stop, step);
+			}
+			final AbstractDataset v = a.getView();
+			v.setShape(shape);
+			return v;
+		}
+	}
+
+	/**
+	 * Node for an input. Slices and reshapes of lazy datasets that cannot provide views are held
+	 * as a list of changes that is applied when the input is read
+	 */
+	private static class Leaf extends Node {
+		private static final long serialVersionUID = 1L;
+		private final ILazyDataset source; // dataset before any reshapes
+		private final ILazyDataset data;
+		private final View[] views; // starts with a slice (can be null)
+
+		public Leaf(final ILazyDataset data, final View[] views) {
+			this(data, data, views);
+		}
+
+		private Leaf(final ILazyDataset source, final ILazyDataset data, final View[] views) {
+			this.source = source;
+			this.data = data;
+			this.views = views;
+		}
+
+		/**
+		 * @return key that identifies input
+		 */
+		private Object getKey() {
+			return views == null ? data : this;
+		}
+
+		/**
+		 * @param monitor
+		 * @param start
+		 * @param stop
+		 * @param step
+		 * @return slice of input
+		 * @throws Exception
+		 */
+		AbstractDataset getSlice(IMonitor monitor, int[] start, int[] stop, int[] step) throws Exception {
+			if (views == null) {
+				if (data instanceof AbstractDataset) {
+					return ((AbstractDataset) data).getSliceView(start, stop, step);
+				}
+				return DatasetUtils.convertToAbstractDataset(data.getSlice(monitor, start, stop, step));
+			}
+
+			final View v = views[0];
+			AbstractDataset a = DatasetUtils.convertToAbstractDataset(data.getSlice(monitor, v.start, v.stop, v.step));
+			for (int i = 1; i < views.length; i++) {
+				a = views[i].apply(a);
+			}
+			return a.getSliceView(start, stop, step);
+		}
+
+		@Override
+		boolean isConstant() {
+			return false;
+		}
+
+		@Override
+		int getDepth() {
+			return 0;
+		}
+
+		@Override
+		void collect(Map<Object, Integer> map, List<Leaf> list) {
+			final Object k = getKey();
+			if (!map.containsKey(k)) {
+				map.put(k, list.size());
+				list.add(this);
+			}
+		}
+
+		/**
+		 * @param v
+		 * @return leaf with given view appended
+		 */
+		private Leaf append(final View v) {
+			final int l = views == null ? 0 : views.length;
+			final View[] nviews = new View[l + 1];
+			if (views != null) {
+				System.arraycopy(views, 0, nviews, 0, l);
+			}
+			nviews[l] = v;
+			return new Leaf(source, data, nviews);
+		}
+
+		@Override
+		Node slice(Map<Object, Node> views, int[] start, int[] stop, int[] step) {
+			final Object k = getKey();
+			Node n = views.get(k);
+			if (n == null) {
+				final ILazyDataset v = this.views == null ? data.getSliceView(start, stop, step) : null;
+				n = v != null ? new Leaf(v, null) : append(new View(start, stop, step));
+				views.put(k, n);
+			}
+			return n;
+		}
+
+		@Override
+		Node reshape(Map<Object, Node> views, int[] shape) {
+			final Object k = getKey();
+			Node n = views.get(k);
+			if (n == null) {
+				if (this.views == null) {
+					// clones of reshaped lazy datasets lose their original shape so start from the source
+					final ILazyDataset v = source instanceof AbstractDataset ? ((AbstractDataset) source).getView() : source.clone();
+					v.setShape(shape);
+					n = new Leaf(source, v, null);
+				} else {
+					n = append(new View(shape));
+				}
+				views.put(k, n);
+			}
+			return n;
+		}
+
+		@Override
+		void evaluate(Block block, int level, double[] out, int n) {
+			System.arraycopy(block.values[block.map.get(getKey())], 0, out, 0, n);
+		}
+	}
+
+	private static class Unary extends Node {
+		private static final long serialVersionUID = 1L;
+		private final Operation op;
+		private final Node a;
+
+		public Unary(final Operation op, final Node a) {
+			this.op = op;
+			this.a = a;
+		}
+
+		@Override
+		boolean isConstant() {
+			return a.isConstant();
+		}
+
+		@Override
+		int getDepth() {
+			return a.getDepth();
+		}
+
+		@Override
+		void collect(Map<Object, Integer> map, List<Leaf> list) {
+			a.collect(map, list);
+		}
+
+		@Override
+		Node slice(Map<Object, Node> views, int[] start, int[] stop, int[] step) {
+			return new Unary(op, a.slice(views, start, stop, step));
+		}
+
+		@Override
+		Node reshape(Map<Object, Node> views, int[] shape) {
+			return new Unary(op, a.reshape(views, shape));
+		}
+
+		@Override
+		void evaluate(Block block, int level, double[] out, int n) {
+			a.evaluate(block, level, out, n);
+			switch (op) {
+			case NEGATIVE:
+				for (int i = 0; i < n; i++) {
+					out[i] = -out[i];
+				}
+				break;
+			case ABS:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.abs(out[i]);
+				}
+				break;
+			case SQRT:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.sqrt(out[i]);
+				}
+				break;
+			case SQUARE:
+				for (int i = 0; i < n; i++) {
+					out[i] *= out[i];
+				}
+				break;
+			case EXP:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.exp(out[i]);
+				}
+				break;
+			case LOG:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.log(out[i]);
+				}
+				break;
+			case LOG10:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.log10(out[i]);
+				}
+				break;
+			case SIN:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.sin(out[i]);
+				}
+				break;
+			case COS:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.cos(out[i]);
+				}
+				break;
+			case TAN:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.tan(out[i]);
+				}
+				break;
+			case FLOOR:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.floor(out[i]);
+				}
+				break;
+			case CEIL:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.ceil(out[i]);
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("Operation " + op + " not supported");
+			}
+		}
+	}
+
+	private static class Binary extends Node {
+		private static final long serialVersionUID = 1L;
+		private final Operation op;
+		private final Node a;
+		private final Node b;
+
+		public Binary(final Operation op, final Node a, final Node b) {
+			this.op = op;
+			this.a = a;
+			this.b = b;
+		}
+
+		@Override
+		boolean isConstant() {
+			return a.isConstant() && b.isConstant();
+		}
+
+		@Override
+		int getDepth() {
+			return Math.max(a.getDepth(), b.getDepth() + 1);
+		}
+
+		@Override
+		void collect(Map<Object, Integer> map, List<Leaf> list) {
+			a.collect(map, list);
+			b.collect(map, list);
+		}
+
+		@Override
+		Node slice(Map<Object, Node> views, int[] start, int[] stop, int[] step) {
+			return new Binary(op, a.slice(views, start, stop, step), b.slice(views, start, stop, step));
+		}
+
+		@Override
+		Node reshape(Map<Object, Node> views, int[] shape) {
+			return new Binary(op, a.reshape(views, shape), b.reshape(views, shape));
+		}
+
+		@Override
+		void evaluate(Block block, int level, double[] out, int n) {
+			a.evaluate(block, level, out, n);
+			final double[] w = block.work[level];
+			b.evaluate(block, level + 1, w, n);
+			switch (op) {
+			case ADD:
+				for (int i = 0; i < n; i++) {
+					out[i] += w[i];
+				}
+				break;
+			case SUBTRACT:
+				for (int i = 0; i < n; i++) {
+					out[i] -= w[i];
+				}
+				break;
+			case MULTIPLY:
+				for (int i = 0; i < n; i++) {
+					out[i] *= w[i];
+				}
+				break;
+			case DIVIDE:
+				for (int i = 0; i < n; i++) {
+					out[i] /= w[i];
+				}
+				break;
+			case POWER:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.pow(out[i], w[i]);
+				}
+				break;
+			case REMAINDER:
+				for (int i = 0; i < n; i++) {
+					out[i] %= w[i];
+				}
+				break;
+			case MAXIMUM:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.max(out[i], w[i]);
+				}
+				break;
+			case MINIMUM:
+				for (int i = 0; i < n; i++) {
+					out[i] = Math.min(out[i], w[i]);
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("Operation " + op + " not supported");
+			}
+		}
+	}
+}
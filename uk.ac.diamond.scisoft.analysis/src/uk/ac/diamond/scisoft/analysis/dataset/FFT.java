@@ -17,6 +17,8 @@
 package uk.ac.diamond.scisoft.analysis.dataset;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,12 +45,79 @@ public class FFT {
 	 */
 	protected static final Logger logger = LoggerFactory.getLogger(FFT.class);
 
+	/**
+	 * Maximum number of plans held in cache
+	 */
+	private static final int PLAN_CACHE_SIZE = 32;
+
+	/**
+	 * Cache of unused plans (transform objects that hold precomputed twiddle factors) keyed by
+	 * precision and shape. A plan is removed while in use so it is never shared between threads
+	 */
+	@SuppressWarnings("serial")
+	private static final Map<String, Object> plans = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+			return size() > PLAN_CACHE_SIZE;
+		}
+	};
+
+	private static String planKey(final boolean single, final int... s) {
+		return (single ? "f" : "d") + Arrays.toString(s);
+	}
+
+	/**
+	 * Get plan from cache or create one
+	 * @param single if true, use single precision
+	 * @param s shape of transform
+	 * @return plan
+	 */
+	private static Object getPlan(final boolean single, final int... s) {
+		synchronized (plans) {
+			Object plan = plans.remove(planKey(single, s));
+			if (plan != null) {
+				return plan;
+			}
+		}
+
+		switch (s.length) {
+		case 1:
+			return single ? new FloatFFT_1D(s[0]) : new DoubleFFT_1D(s[0]);
+		case 2:
+			return single ? new FloatFFT_2D(s[0], s[1]) : new DoubleFFT_2D(s[0], s[1]);
+		default:
+			return single ? new FloatFFT_3D(s[0], s[1], s[2]) : new DoubleFFT_3D(s[0], s[1], s[2]);
+		}
+	}
+
+	/**
+	 * Return plan to cache
+	 * @param plan
+	 * @param single
+	 * @param s
+	 */
+	private static void putPlan(final Object plan, final boolean single, final int... s) {
+		synchronized (plans) {
+			plans.put(planKey(single, s), plan);
+		}
+	}
+
+	/**
+	 * Remove all plans from cache
+	 */
+	public static void clearPlans() {
+		synchronized (plans) {
+			plans.clear();
+		}
+	}
+
 	/**
 	 * forward 1D fast Fourier transform
 	 * @param a dataset
 	 * @return new dataset holding transform
 	 */
 	public static AbstractDataset fft(final AbstractDataset a) {
+		check1DRank(a);
 		return fft(a, a.shape[a.shape.length - 1], -1);
 	}
 
@@ -64,6 +133,7 @@ public class FFT {
 			logger.error("number of points should be greater than zero");
 			throw new IllegalArgumentException("number of points should be greater than zero");
 		}
+		check1DRank(a);
 		axis = a.checkAxis(axis);
 
 		return fft1d(a, n, axis);
@@ -108,55 +178,15 @@ public class FFT {
 	 * @return new dataset holding transform
 	 */
 	public static AbstractDataset fftn(final AbstractDataset a, int[] s, int[] axes) {
-		int[] shape = a.getShape();
-		int rank = shape.length;
 		AbstractDataset result = null;
-
-		if (s == null) {
-			if (axes == null) {
-				s = shape;
-				axes = new int[rank];
-				for (int i = 0; i < rank; i++)
-					axes[i] = i;
-			} else {
-				s = new int[axes.length];
-				Arrays.sort(axes);
-				for (int i = 0; i < axes.length; i++) {
-					axes[i] = a.checkAxis(axes[i]);
-
-					s[i] = shape[axes[i]];
-				}
-			}
-		} else {
-			if (s.length > rank) {
-				logger.error("shape of FFT should not have more dimensions than dataset");
-				throw new IllegalArgumentException("shape of FFT should not have more dimensions than dataset");
-			}
-			if (axes == null) {
-				axes = new int[s.length];
-				for (int i = 0; i < s.length; i++)
-					axes[i] = rank - s.length + i;
-			} else {
-				if (s.length != axes.length) {
-					logger.error("shape of FFT should have same rank as axes");
-					throw new IllegalArgumentException("shape of FFT should have same rank as axes");
-				}
-			}
-		}
+		axes = checkAxes(a, s, axes);
+		s = checkShape(a, s, axes);
 
 		if (s.length > 3) {
 			logger.error("Fourier transform across more than 3 dimensions are not supported");
 			throw new IllegalArgumentException("Fourier transform across more than 3 dimensions are not supported");
 		}
 
-		for (int i = 0; i < axes.length; i++) {
-			if (s[i] <= 0) {
-				logger.error("dimensions should be greater than zero");
-				throw new IllegalArgumentException("dimensions should be greater than zero");
-			}
-			axes[i] = a.checkAxis(axes[i]);
-		}
-
 		switch (s.length) {
 		case 1:
 			result = fft1d(a, s[0], axes[0]);
@@ -172,6 +202,57 @@ public class FFT {
 		return result;
 	}
 
+	/**
+	 * @param a dataset
+	 * @param s shape of FFT dataset (if null, use whole dataset)
+	 * @param axes for FFT (if null, default as [..., -1])
+	 * @return axes for FFT
+	 */
+	private static int[] checkAxes(final AbstractDataset a, final int[] s, int[] axes) {
+		int rank = a.getRank();
+		if (axes == null) {
+			int alen = s == null ? rank : s.length;
+			if (alen > rank) {
+				logger.error("shape of FFT should not have more dimensions than dataset");
+				throw new IllegalArgumentException("shape of FFT should not have more dimensions than dataset");
+			}
+			axes = new int[alen];
+			for (int i = 0; i < alen; i++)
+				axes[i] = rank - alen + i;
+		} else {
+			if (s == null) {
+				Arrays.sort(axes);
+			} else if (s.length != axes.length) {
+				logger.error("shape of FFT should have same rank as axes");
+				throw new IllegalArgumentException("shape of FFT should have same rank as axes");
+			}
+			for (int i = 0; i < axes.length; i++)
+				axes[i] = a.checkAxis(axes[i]);
+		}
+		return axes;
+	}
+
+	/**
+	 * @param a dataset
+	 * @param s shape of FFT dataset (if null, use whole dataset)
+	 * @param axes for FFT
+	 * @return shape of FFT dataset
+	 */
+	private static int[] checkShape(final AbstractDataset a, int[] s, final int[] axes) {
+		if (s == null) {
+			s = new int[axes.length];
+			for (int i = 0; i < axes.length; i++)
+				s[i] = a.shape[axes[i]];
+		}
+		for (int i = 0; i < s.length; i++) {
+			if (s[i] <= 0) {
+				logger.error("dimensions should be greater than zero");
+				throw new IllegalArgumentException("dimensions should be greater than zero");
+			}
+		}
+		return s;
+	}
+
 	private static int[] newShape(final int[] shape, final int[] s, final int[] axes) {
 		int[] nshape = shape.clone();
 
@@ -193,7 +274,7 @@ public class FFT {
 		switch (a.getDtype()) {
 		case AbstractDataset.FLOAT32:
 		case AbstractDataset.COMPLEX64:
-			FloatFFT_1D ffft = new FloatFFT_1D(n);
+			FloatFFT_1D ffft = (FloatFFT_1D) getPlan(true, n);
 			shape = a.getShape().clone();
 			shape[axis] = n;
 			result = new ComplexFloatDataset(shape);
@@ -208,10 +289,11 @@ public class FFT {
 				ffft.complexForward(fdata);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
+			putPlan(ffft, true, n);
 			break;
 		case AbstractDataset.FLOAT64:
 		case AbstractDataset.COMPLEX128:
-			DoubleFFT_1D dfft = new DoubleFFT_1D(n);
+			DoubleFFT_1D dfft = (DoubleFFT_1D) getPlan(false, n);
 			shape = a.getShape().clone();
 			shape[axis] = n;
 			result = new ComplexDoubleDataset(shape);
@@ -226,6 +308,7 @@ public class FFT {
 				dfft.complexForward(ddata);
 				result.setItemsOnAxes(pos, hit, ddata);
 			}
+			putPlan(dfft, false, n);
 			break;
 		default:
 			logger.warn("Non-float dataset not yet supported");
@@ -246,7 +329,7 @@ public class FFT {
 		switch (a.getDtype()) {
 		case AbstractDataset.FLOAT32:
 		case AbstractDataset.COMPLEX64:
-			FloatFFT_2D ffft = new FloatFFT_2D(s[0], s[1]);
+			FloatFFT_2D ffft = (FloatFFT_2D) getPlan(true, s);
 			float[] fdata = null;
 			result = new ComplexFloatDataset(newShape(a.shape, s, axes));
 			dest = new ComplexFloatDataset(s);
@@ -260,10 +343,11 @@ public class FFT {
 				ffft.complexForward(fdata);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
+			putPlan(ffft, true, s);
 			break;
 		case AbstractDataset.FLOAT64:
 		case AbstractDataset.COMPLEX128:
-			DoubleFFT_2D dfft = new DoubleFFT_2D(s[0], s[1]);
+			DoubleFFT_2D dfft = (DoubleFFT_2D) getPlan(false, s);
 			double[] ddata = null;
 			result = new ComplexDoubleDataset(newShape(a.shape, s, axes));
 			dest = new ComplexDoubleDataset(s);
@@ -277,6 +361,7 @@ public class FFT {
 				dfft.complexForward(ddata);
 				result.setItemsOnAxes(pos, hit, ddata);
 			}
+			putPlan(dfft, false, s);
 			break;
 		default:
 			logger.warn("Non-float dataset not yet supported");
@@ -297,7 +382,7 @@ public class FFT {
 		switch (a.getDtype()) {
 		case AbstractDataset.FLOAT32:
 		case AbstractDataset.COMPLEX64:
-			FloatFFT_3D ffft = new FloatFFT_3D(s[0], s[1], s[2]);
+			FloatFFT_3D ffft = (FloatFFT_3D) getPlan(true, s);
 
 			float[] fdata = null;
 			result = new ComplexFloatDataset(newShape(a.shape, s, axes));
@@ -312,10 +397,11 @@ public class FFT {
 				ffft.complexForward(fdata);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
+			putPlan(ffft, true, s);
 			break;
 		case AbstractDataset.FLOAT64:
 		case AbstractDataset.COMPLEX128:
-			DoubleFFT_3D dfft = new DoubleFFT_3D(s[0], s[1], s[2]);
+			DoubleFFT_3D dfft = (DoubleFFT_3D) getPlan(false, s);
 
 			double[] ddata = null;
 			result = new ComplexDoubleDataset(newShape(a.shape, s, axes));
@@ -330,6 +416,7 @@ public class FFT {
 				dfft.complexForward(ddata);
 				result.setItemsOnAxes(pos, hit, ddata);
 			}
+			putPlan(dfft, false, s);
 			break;
 		default:
 			logger.warn("Non-float dataset not yet supported");
@@ -345,6 +432,7 @@ public class FFT {
 	 * @return new dataset holding transform
 	 */
 	public static AbstractDataset ifft(final AbstractDataset a) {
+		check1DRank(a);
 		return ifft(a, a.shape[a.shape.length-1], -1);
 	}
 
@@ -360,6 +448,7 @@ public class FFT {
 			logger.error("number of points should be greater than zero");
 			throw new IllegalArgumentException("number of points should be greater than zero");
 		}
+		check1DRank(a);
 		axis = a.checkAxis(axis);
 
 		return ifft1d(a, n, axis);
@@ -404,54 +493,15 @@ public class FFT {
 	 * @return new dataset holding transform
 	 */
 	public static AbstractDataset ifftn(final AbstractDataset a, int[] s, int[] axes) {
-		int[] shape = a.getShape();
-		int rank = shape.length;
 		AbstractDataset result = null;
-
-		if (s == null) {
-			if (axes == null) {
-				s = shape;
-				axes = new int[rank];
-				for (int i = 0; i < rank; i++)
-					axes[i] = i;
-			} else {
-				s = new int[axes.length];
-				Arrays.sort(axes);
-				for (int i = 0; i < axes.length; i++) {
-					axes[i] = a.checkAxis(axes[i]);
-					s[i] = shape[axes[i]];
-				}
-			}
-		} else {
-			if (s.length > rank) {
-				logger.error("shape of FFT should not have more dimensions than dataset");
-				throw new IllegalArgumentException("shape of FFT should not have more dimensions than dataset");
-			}
-			if (axes == null) {
-				axes = new int[s.length];
-				for (int i = 0; i < s.length; i++)
-					axes[i] = rank - s.length + i;
-			} else {
-				if (s.length != axes.length) {
-					logger.error("shape of FFT should have same rank as axes");
-					throw new IllegalArgumentException("shape of FFT should have same rank as axes");
-				}
-			}
-		}
+		axes = checkAxes(a, s, axes);
+		s = checkShape(a, s, axes);
 
 		if (s.length > 3) {
 			logger.error("Fourier transform across more than 3 dimensions are not supported");
 			throw new IllegalArgumentException("Fourier transform across more than 3 dimensions are not supported");
 		}
 
-		for (int i = 0; i < axes.length; i++) {
-			if (s[i] <= 0) {
-				logger.error("dimensions should be greater than zero");
-				throw new IllegalArgumentException("dimensions should be greater than zero");
-			}
-			axes[i] = a.checkAxis(axes[i]);
-		}
-
 		switch (s.length) {
 		case 1:
 			result = ifft1d(a, s[0], axes[0]);
@@ -478,7 +528,7 @@ public class FFT {
 
 		switch (a.getDtype()) {
 		case AbstractDataset.COMPLEX64:
-			FloatFFT_1D ffft = new FloatFFT_1D(n);
+			FloatFFT_1D ffft = (FloatFFT_1D) getPlan(true, n);
 			float[] fdata = null;
 			shape = a.getShape().clone();
 			shape[axis] = n;
@@ -494,9 +544,10 @@ public class FFT {
 				ffft.complexInverse(fdata, true);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
+			putPlan(ffft, true, n);
 			break;
 		case AbstractDataset.COMPLEX128:
-			DoubleFFT_1D dfft = new DoubleFFT_1D(n);
+			DoubleFFT_1D dfft = (DoubleFFT_1D) getPlan(false, n);
 			double[] ddata = null;
 			shape = a.getShape().clone();
 			shape[axis] = n;
@@ -512,6 +563,7 @@ public class FFT {
 				dfft.complexInverse(ddata, true);
 				result.setItemsOnAxes(pos, hit, ddata);
 			}
+			putPlan(dfft, false, n);
 			break;
 		default:
 			logger.warn("Non-complex dataset not yet supported");
@@ -531,7 +583,7 @@ public class FFT {
 
 		switch (a.getDtype()) {
 		case AbstractDataset.COMPLEX64:
-			FloatFFT_2D ffft = new FloatFFT_2D(s[0], s[1]);
+			FloatFFT_2D ffft = (FloatFFT_2D) getPlan(true, s);
 			float[] fdata = null;
 			result = new ComplexFloatDataset(newShape(a.shape, s, axes));
 			dest = new ComplexFloatDataset(s);
@@ -545,9 +597,10 @@ public class FFT {
 				ffft.complexInverse(fdata, true);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
+			putPlan(ffft, true, s);
 			break;
 		case AbstractDataset.COMPLEX128:
-			DoubleFFT_2D dfft = new DoubleFFT_2D(s[0], s[1]);
+			DoubleFFT_2D dfft = (DoubleFFT_2D) getPlan(false, s);
 			double[] ddata = null;
 			result = new ComplexDoubleDataset(newShape(a.shape, s, axes));
 			dest = new ComplexDoubleDataset(s);
@@ -561,6 +614,7 @@ public class FFT {
 				dfft.complexInverse(ddata, true);
 				result.setItemsOnAxes(pos, hit, ddata);
 			}
+			putPlan(dfft, false, s);
 			break;
 		default:
 			logger.warn("Non-complex dataset not yet supported");
@@ -580,7 +634,7 @@ public class FFT {
 
 		switch (a.getDtype()) {
 		case AbstractDataset.COMPLEX64:
-			FloatFFT_3D ffft = new FloatFFT_3D(s[0], s[1], s[2]);
+			FloatFFT_3D ffft = (FloatFFT_3D) getPlan(true, s);
 			float[] fdata = null;
 			result = new ComplexFloatDataset(newShape(a.shape, s, axes));
 			dest = new ComplexFloatDataset(s);
@@ -594,9 +648,10 @@ public class FFT {
 				ffft.complexInverse(fdata, true);
 				result.setItemsOnAxes(pos, hit, fdata);
 			}
+			putPlan(ffft, true, s);
 			break;
 		case AbstractDataset.COMPLEX128:
-				DoubleFFT_3D dfft = new DoubleFFT_3D(s[0], s[1], s[2]);
+				DoubleFFT_3D dfft = (DoubleFFT_3D) getPlan(false, s);
 				double[] ddata = null;
 				result = new ComplexDoubleDataset(newShape(a.shape, s, axes));
 				dest = new ComplexDoubleDataset(s);
@@ -610,6 +665,7 @@ public class FFT {
 					dfft.complexInverse(ddata, true);
 					result.setItemsOnAxes(pos, hit, ddata);
 				}
+				putPlan(dfft, false, s);
 				break;
 		default:
 			logger.warn("Non-complex dataset not yet supported");
@@ -619,6 +675,283 @@ public class FFT {
 		return result;
 	}
 
+	/**
+	 * forward 1D fast Fourier transform of real dataset. As the transform of real values is
+	 * Hermitian-symmetric, only the n/2 + 1 non-negative frequency terms are computed
+	 * @param a real dataset
+	 * @return new dataset holding transform
+	 */
+	public static AbstractDataset rfft(final AbstractDataset a) {
+		check1DRank(a);
+		return rfft(a, a.shape[a.shape.length - 1], -1);
+	}
+
+	/**
+	 * forward 1D fast Fourier transform of real dataset. As the transform of real values is
+	 * Hermitian-symmetric, only the n/2 + 1 non-negative frequency terms are computed
+	 * @param a real dataset
+	 * @param n number of points
+	 * @param axis (negative numbers refer to axes from end, eg. -1 is last axis)
+	 * @return new dataset holding transform
+	 */
+	public static AbstractDataset rfft(final AbstractDataset a, final int n, int axis) {
+		if (n <= 0) {
+			logger.error("number of points should be greater than zero");
+			throw new IllegalArgumentException("number of points should be greater than zero");
+		}
+		check1DRank(a);
+		axis = a.checkAxis(axis);
+
+		return rfft1d(a, n, axis);
+	}
+
+	/**
+	 * forward 2D fast Fourier transform of real dataset
+	 * @param a real dataset
+	 * @param s shape of FFT dataset (if null, use whole dataset)
+	 * @param axes for FFT (if null, default as [-2,-1])
+	 * @return new dataset holding transform with last axis cut to s[1]/2 + 1
+	 */
+	public static AbstractDataset rfft2(final AbstractDataset a, int[] s, int[] axes) {
+		return rfftn(a, s, check2DAxes(a, s, axes));
+	}
+
+	/**
+	 * forward nD fast Fourier transform of real dataset. A real transform is done along the
+	 * last of the axes followed by complex transforms along the others
+	 * @param a real dataset
+	 * @param s shape of FFT dataset (if null, use whole dataset)
+	 * @param axes for FFT (if null, default as [..., -1])
+	 * @return new dataset holding transform with last axis cut to s[-1]/2 + 1
+	 */
+	public static AbstractDataset rfftn(final AbstractDataset a, int[] s, int[] axes) {
+		axes = checkAxes(a, s, axes);
+		checkRealAxes(axes);
+		s = checkShape(a, s, axes);
+		int l = s.length - 1;
+
+		AbstractDataset result = rfft1d(a, s[l], axes[l]);
+		if (l > 0) {
+			result = fftn(result, Arrays.copyOf(s, l), Arrays.copyOf(axes, l));
+		}
+		return result;
+	}
+
+	/**
+	 * inverse 1D fast Fourier transform to real dataset
+	 * @param a dataset holding non-negative frequency terms
+	 * @return new dataset holding real transform
+	 */
+	public static AbstractDataset irfft(final AbstractDataset a) {
+		check1DRank(a);
+		return irfft(a, 2 * (a.shape[a.shape.length - 1] - 1), -1);
+	}
+
+	/**
+	 * inverse 1D fast Fourier transform to real dataset
+	 * @param a dataset holding non-negative frequency terms
+	 * @param n number of points in output
+	 * @param axis (negative numbers refer to axes from end, eg. -1 is last axis)
+	 * @return new dataset holding real transform
+	 */
+	public static AbstractDataset irfft(final AbstractDataset a, final int n, int axis) {
+		if (n <= 0) {
+			logger.error("number of points should be greater than zero");
+			throw new IllegalArgumentException("number of points should be greater than zero");
+		}
+		check1DRank(a);
+		axis = a.checkAxis(axis);
+
+		return irfft1d(a, n, axis);
+	}
+
+	/**
+	 * inverse 2D fast Fourier transform to real dataset
+	 * @param a dataset holding non-negative frequency terms along last axis
+	 * @param s shape of output dataset (if null, use whole dataset and 2*(m-1) for last axis of length m)
+	 * @param axes for FFT (if null, default as [-2,-1])
+	 * @return new dataset holding real transform
+	 */
+	public static AbstractDataset irfft2(final AbstractDataset a, int[] s, int[] axes) {
+		return irfftn(a, s, check2DAxes(a, s, axes));
+	}
+
+	/**
+	 * inverse nD fast Fourier transform to real dataset. Complex transforms are done along all
+	 * but the last of the axes followed by a real transform along that last axis
+	 * @param a dataset holding non-negative frequency terms along last axis
+	 * @param s shape of output dataset (if null, use whole dataset and 2*(m-1) for last axis of length m)
+	 * @param axes for FFT (if null, default as [..., -1])
+	 * @return new dataset holding real transform
+	 */
+	public static AbstractDataset irfftn(final AbstractDataset a, int[] s, int[] axes) {
+		boolean full = s == null;
+		axes = checkAxes(a, s, axes);
+		checkRealAxes(axes);
+		int l = axes.length - 1;
+		if (full) {
+			s = new int[axes.length];
+			for (int i = 0; i < l; i++)
+				s[i] = a.shape[axes[i]];
+			s[l] = 2 * (a.shape[axes[l]] - 1);
+		}
+		s = checkShape(a, s, axes);
+
+		AbstractDataset result = a;
+		if (l > 0) {
+			result = ifftn(a.isComplex() ? a : a.cast(AbstractDataset.COMPLEX128), Arrays.copyOf(s, l), Arrays.copyOf(axes, l));
+		}
+		return irfft1d(result, s[l], axes[l]);
+	}
+
+	private static void check1DRank(final AbstractDataset a) {
+		if (a.getRank() < 1) {
+			logger.error("dataset should be at least 1 dimensional");
+			throw new IllegalArgumentException("dataset should be at least 1 dimensional");
+		}
+	}
+
+	private static void checkRealAxes(final int[] axes) {
+		if (axes.length == 0) {
+			logger.error("axes should have at least one entry");
+			throw new IllegalArgumentException("axes should have at least one entry");
+		}
+	}
+
+	private static int[] check2DAxes(final AbstractDataset a, final int[] s, int[] axes) {
+		int rank = a.getRank();
+		if (rank < 2) {
+			logger.error("dataset should be at least 2 dimensional");
+			throw new IllegalArgumentException("dataset should be at least 2 dimensional");
+		}
+		if (axes == null) {
+			axes = new int[] {rank-2, rank-1};
+		} else if (axes.length != 2) {
+			logger.error("axes should have two entries");
+			throw new IllegalArgumentException("axes should have two entries");
+		}
+		if (s != null && s.length != 2) {
+			logger.error("shape should have two entries");
+			throw new IllegalArgumentException("shape should have two entries");
+		}
+		return axes;
+	}
+
+	/**
+	 * @return view of dataset cut to given length along axis (if longer)
+	 */
+	private static AbstractDataset truncate(final AbstractDataset a, final int n, final int axis) {
+		if (a.shape[axis] <= n) {
+			return a;
+		}
+		int[] stop = a.getShape();
+		stop[axis] = n;
+		return a.getSliceView(null, stop, null);
+	}
+
+	private static AbstractDataset rfft1d(AbstractDataset a, final int n, final int axis) {
+		if (a.isComplex() || a.getElementsPerItem() != 1) {
+			logger.error("dataset should be real");
+			throw new IllegalArgumentException("dataset should be real");
+		}
+		final boolean single = a.getDtype() == AbstractDataset.FLOAT32;
+		a = truncate(a, n, axis);
+		if (a.stride != null) {
+			a = a.getSlice();
+		}
+
+		final int m = n/2 + 1;
+		int[] shape = a.getShape();
+		shape[axis] = m;
+		AbstractDataset result = new ComplexDoubleDataset(shape);
+		double[] ddata = new double[n];
+		double[] rdata = new double[2*m];
+		DoubleFFT_1D dfft = (DoubleFFT_1D) getPlan(false, n);
+		PositionIterator pi = a.getPositionIterator(axis);
+		int[] pos = pi.getPos();
+		boolean[] hit = pi.getOmit();
+		while (pi.hasNext()) {
+			Arrays.fill(ddata, 0.);
+			SliceIterator si = a.getSliceIteratorFromAxes(pos, hit);
+			for (int j = 0; si.hasNext(); j++) {
+				ddata[j] = a.getElementDoubleAbs(si.index);
+			}
+			dfft.realForward(ddata);
+
+			// unpack from layout of (Re[0], Re[n/2], Re[1], Im[1], ...) for even n or
+			// (Re[0], Im[(n-1)/2], Re[1], Im[1], ..., Re[(n-1)/2]) for odd n
+			rdata[0] = ddata[0];
+			int i = 2;
+			for (; i + 1 < n; i += 2) {
+				rdata[i] = ddata[i];
+				rdata[i + 1] = ddata[i + 1];
+			}
+			if (n > 1) {
+				rdata[i] = (n & 1) == 0 ? ddata[1] : ddata[i];
+				rdata[i + 1] = (n & 1) == 0 ? 0 : ddata[1];
+			}
+			result.setItemsOnAxes(pos, hit, rdata);
+		}
+		putPlan(dfft, false, n);
+
+		return single ? result.cast(AbstractDataset.COMPLEX64) : result;
+	}
+
+	private static AbstractDataset irfft1d(AbstractDataset a, final int n, final int axis) {
+		final boolean complex = a.isComplex();
+		if (!complex && a.getElementsPerItem() != 1) {
+			logger.error("dataset should be complex or real");
+			throw new IllegalArgumentException("dataset should be complex or real");
+		}
+		final boolean single = a.getDtype() == AbstractDataset.COMPLEX64 || a.getDtype() == AbstractDataset.FLOAT32;
+		final int m = n/2 + 1;
+		a = truncate(a, m, axis);
+		if (a.stride != null) {
+			a = a.getSlice();
+		}
+
+		int[] shape = a.getShape();
+		shape[axis] = n;
+		AbstractDataset result = new DoubleDataset(shape);
+		double[] cdata = new double[2*m];
+		double[] ddata = new double[n];
+		DoubleFFT_1D dfft = (DoubleFFT_1D) getPlan(false, n);
+		PositionIterator pi = a.getPositionIterator(axis);
+		int[] pos = pi.getPos();
+		boolean[] hit = pi.getOmit();
+		while (pi.hasNext()) {
+			Arrays.fill(cdata, 0.);
+			SliceIterator si = a.getSliceIteratorFromAxes(pos, hit);
+			for (int j = 0; si.hasNext(); j += 2) {
+				cdata[j] = a.getElementDoubleAbs(si.index);
+				if (complex) {
+					cdata[j + 1] = a.getElementDoubleAbs(si.index + 1);
+				}
+			}
+
+			// pack into layout used by real transform (see rfft1d)
+			ddata[0] = cdata[0];
+			int i = 2;
+			for (; i + 1 < n; i += 2) {
+				ddata[i] = cdata[i];
+				ddata[i + 1] = cdata[i + 1];
+			}
+			if (n > 1) {
+				if ((n & 1) == 0) {
+					ddata[1] = cdata[i];
+				} else {
+					ddata[i] = cdata[i];
+					ddata[1] = cdata[i + 1];
+				}
+			}
+			dfft.realInverse(ddata, true);
+			result.setItemsOnAxes(pos, hit, ddata);
+		}
+		putPlan(dfft, false, n);
+
+		return single ? result.cast(AbstractDataset.FLOAT32) : result;
+	}
+
 	/**
 	 * Shift zero-frequency component to centre of dataset
 	 * @param a
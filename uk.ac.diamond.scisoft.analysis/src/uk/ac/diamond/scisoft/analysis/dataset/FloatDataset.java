@@ -115,6 +115,10 @@ public class FloatDataset extends AbstractDataset {
 		if (dataset.stride == null || dataset.size == dataset.base.size) {
 			odata = data = dataset.data.clone();
 		} else {
+			offset = 0;
+			stride = null;
+			base = null;
+			odata = data = createArray(size);
 			IndexIterator iter = dataset.getIterator();
 			for (int i = 0; iter.hasNext(); i++) {
 				data[i] = dataset.data[iter.index];
@@ -128,6 +132,9 @@ public class FloatDataset extends AbstractDataset {
 	 */
 	public FloatDataset(final AbstractDataset dataset) {
 		copyToView(dataset, this, true, false);
+		offset = 0;
+		stride = null;
+		base = null;
 
 		odata = data = createArray(size);
 		IndexIterator iter = dataset.getIterator();
@@ -690,10 +697,9 @@ public class FloatDataset extends AbstractDataset {
 	public FloatDataset iadd(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] += bds.getElementDoubleAbs(it2.index); // GET_ELEMENT
@@ -714,10 +720,9 @@ public class FloatDataset extends AbstractDataset {
 	public FloatDataset isubtract(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] -= bds.getElementDoubleAbs(it2.index); // GET_ELEMENT
@@ -738,10 +743,9 @@ public class FloatDataset extends AbstractDataset {
 	public FloatDataset imultiply(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] *= bds.getElementDoubleAbs(it2.index); // GET_ELEMENT
@@ -762,10 +766,9 @@ public class FloatDataset extends AbstractDataset {
 	public FloatDataset idivide(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] /= bds.getElementDoubleAbs(it2.index); // GET_ELEMENT // INT_EXCEPTION
@@ -801,10 +804,9 @@ public class FloatDataset extends AbstractDataset {
 	public FloatDataset iremainder(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] %= bds.getElementDoubleAbs(it2.index); // GET_ELEMENT // INT_EXCEPTION
@@ -829,10 +831,9 @@ public class FloatDataset extends AbstractDataset {
 	public FloatDataset ipower(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				final double v = Math.pow(data[it1.index], bds.getElementDoubleAbs(it2.index));
@@ -17,6 +17,7 @@
 package uk.ac.diamond.scisoft.analysis.dataset;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -237,12 +238,52 @@ public class Image {
 		return null;
 	}
 	
+	/**
+	 * Maximum number of bins used by histogram-based median windows
+	 */
+	private static final int MEDIAN_HISTOGRAM_LIMIT = 1 << 16;
+
+	/**
+	 * Apply a median filter to dataset. Windows are clipped at the edges of the dataset
+	 * <p>
+	 * The filter slides a window along the last axis, adding and removing columns of values as
+	 * it moves. Integer datasets with a small range of values use a histogram (Huang's method)
+	 * and other datasets use a sorted window. Large datasets are split into ranges of lines
+	 * that are processed concurrently.
+	 * @param input
+	 * @param kernel shape of window
+	 * @return filtered dataset
+	 */
 	public static AbstractDataset medianFilter(AbstractDataset input, int[] kernel) {
 		// check to see if the kernel shape in the correct dimensionality.
 		int[] shape = input.getShape();
 		if (kernel.length != shape.length)
 			throw new IllegalArgumentException("Kernel shape must be the same shape as the input dataset");
 
+		if (input.getElementsPerItem() != 1 || shape.length == 0) {
+			return medianFilterBySlices(input, kernel);
+		}
+		for (int k : kernel) {
+			if (k < 1) {
+				throw new IllegalArgumentException("Kernel lengths must be positive");
+			}
+		}
+
+		final AbstractDataset in = input.stride == null ? input : input.getSlice();
+		final DoubleDataset out = new DoubleDataset(shape);
+		final int size = in.getSize();
+		if (size > 0) {
+			final MedianFilter filter = new MedianFilter(in, kernel, out.getData());
+			ChunkedExecutor.execute(size, filter);
+		}
+
+		AbstractDataset result = input.clone();
+		result.setSlice(out, null, null, null);
+		return result;
+	}
+
+	private static AbstractDataset medianFilterBySlices(AbstractDataset input, int[] kernel) {
+		int[] shape = input.getShape();
 		AbstractDataset result = input.clone();
 		int[] offset = kernel.clone();
 		for (int i = 0; i < offset.length; i++) {
@@ -265,14 +306,654 @@ public class Image {
 
 		return result;
 	}
-	
+
+	/**
+	 * Task that filters lines along the last axis of a contiguous dataset. Each line belongs
+	 * to the range of items that contains its first item
+	 */
+	private static class MedianFilter extends ChunkedExecutor.Task {
+		private final AbstractDataset in;
+		private final int[] shape;
+		private final int[] kernel;
+		private final double[] out;
+		private final int rank;
+		private final int length; // of lines
+		private final boolean useHistogram;
+		private final long min;
+		private final int bins;
+
+		public MedianFilter(final AbstractDataset in, final int[] kernel, final double[] out) {
+			this.in = in;
+			this.kernel = kernel;
+			this.out = out;
+			shape = in.getShapeRef();
+			rank = shape.length;
+			length = shape[rank - 1];
+
+			int wsize = 1;
+			for (int k : kernel) {
+				wsize *= k;
+			}
+			boolean hist = false;
+			long lmin = 0;
+			long range = 0;
+			switch (in.getDtype()) {
+			case AbstractDataset.INT8:
+			case AbstractDataset.INT16:
+			case AbstractDataset.INT32:
+			case AbstractDataset.INT64:
+				lmin = in.min().longValue();
+				range = in.max().longValue() - lmin + 1;
+				// bins are scanned as median moves so limit their number compared to window
+				hist = range > 0 && range <= Math.min(MEDIAN_HISTOGRAM_LIMIT, Math.max(256, 16L * wsize));
+				break;
+			}
+			useHistogram = hist;
+			min = lmin;
+			bins = (int) range;
+		}
+
+		@Override
+		public void run(final int start, final int end) {
+			final int first = (start + length - 1) / length;
+			final int last = (end + length - 1) / length;
+			if (first >= last) {
+				return;
+			}
+
+			final MedianWindow window = useHistogram ? new HistogramWindow(in, min, bins) : new SortedWindow(in, in.getSize());
+			final int[] pos = new int[rank - 1];
+			final int[] lo = new int[rank - 1];
+			final int[] hi = new int[rank - 1];
+			int[] column = new int[0];
+			final int koff = -kernel[rank - 1] / 2;
+			final int klen = kernel[rank - 1];
+
+			for (int l = first; l < last; l++) {
+				// find position of line and start indexes of items in column of window
+				int r = l;
+				int ncol = 1;
+				for (int i = rank - 2; i >= 0; i--) {
+					pos[i] = r % shape[i];
+					r /= shape[i];
+					lo[i] = Math.max(0, pos[i] - kernel[i] / 2);
+					hi[i] = Math.min(shape[i], pos[i] - kernel[i] / 2 + kernel[i]);
+					ncol *= hi[i] - lo[i];
+				}
+				if (column.length < ncol) {
+					column = new int[ncol];
+				}
+				fillColumn(column, lo, hi);
+
+				final int base = l * length;
+				int cl = Math.max(0, koff); // window holds columns from cl to ch (exclusive)
+				int ch = cl;
+				for (int x = 0; x < length; x++) {
+					final int wl = Math.max(0, x + koff);
+					final int wh = Math.min(length, x + koff + klen);
+					for (; ch < wh; ch++) {
+						for (int i = 0; i < ncol; i++) {
+							window.add(column[i] + ch);
+						}
+					}
+					for (; cl < wl; cl++) {
+						for (int i = 0; i < ncol; i++) {
+							window.remove(column[i] + cl);
+						}
+					}
+					out[base + x] = window.median();
+				}
+				for (; cl < ch; cl++) {
+					for (int i = 0; i < ncol; i++) {
+						window.remove(column[i] + cl);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Set indexes of first items of lines that make up a column of window
+		 */
+		private void fillColumn(final int[] column, final int[] lo, final int[] hi) {
+			final int orank = rank - 1;
+			final int[] p = lo.clone();
+			int n = 0;
+			if (orank == 0) {
+				column[n] = 0;
+				return;
+			}
+			while (true) {
+				int index = 0;
+				for (int i = 0; i < orank; i++) {
+					index = index * shape[i] + p[i];
+				}
+				column[n++] = index * length;
+
+				int j = orank - 1;
+				for (; j >= 0; j--) {
+					if (++p[j] < hi[j]) {
+						break;
+					}
+					p[j] = lo[j];
+				}
+				if (j < 0) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Window of values that can find its median as values are added and removed
+	 */
+	private static abstract class MedianWindow {
+		protected final AbstractDataset data;
+
+		public MedianWindow(final AbstractDataset data) {
+			this.data = data;
+		}
+
+		/**
+		 * @param index of item to add
+		 */
+		public abstract void add(int index);
+
+		/**
+		 * @param index of item to remove
+		 */
+		public abstract void remove(int index);
+
+		/**
+		 * @return median of values in window (same as from Stats.median)
+		 */
+		public abstract double median();
+	}
+
+	/**
+	 * Window that keeps its values sorted (with NaNs at end)
+	 */
+	private static class SortedWindow extends MedianWindow {
+		private double[] values;
+		private int n;
+
+		public SortedWindow(final AbstractDataset data, final int capacity) {
+			super(data);
+			values = new double[Math.min(capacity, 64)];
+		}
+
+		@Override
+		public void add(final int index) {
+			final double v = data.getElementDoubleAbs(index);
+			if (n == values.length) {
+				values = Arrays.copyOf(values, 2 * n);
+			}
+			int i = Arrays.binarySearch(values, 0, n, v);
+			if (i < 0) {
+				i = -i - 1;
+			}
+			System.arraycopy(values, i, values, i + 1, n - i);
+			values[i] = v;
+			n++;
+		}
+
+		@Override
+		public void remove(final int index) {
+			final int i = Arrays.binarySearch(values, 0, n, data.getElementDoubleAbs(index));
+			n--;
+			System.arraycopy(values, i + 1, values, i, n - i);
+		}
+
+		@Override
+		public double median() {
+			if (n == 0) {
+				return Double.NaN;
+			}
+			final int q = (n - 1) / 2;
+			if ((n & 1) != 0) {
+				return values[q];
+			}
+			return 0.5 * values[q] + 0.5 * values[q + 1];
+		}
+	}
+
+	/**
+	 * Window that holds a histogram of integer values and tracks the bin that contains the median
+	 */
+	private static class HistogramWindow extends MedianWindow {
+		private final long min;
+		private final int[] counts;
+		private int n;
+		private int mid;   // current bin
+		private int below; // number of values in bins lower than current bin
+
+		public HistogramWindow(final AbstractDataset data, final long min, final int bins) {
+			super(data);
+			this.min = min;
+			counts = new int[bins];
+		}
+
+		@Override
+		public void add(final int index) {
+			final int b = (int) (data.getElementLongAbs(index) - min);
+			counts[b]++;
+			n++;
+			if (b < mid) {
+				below++;
+			}
+		}
+
+		@Override
+		public void remove(final int index) {
+			final int b = (int) (data.getElementLongAbs(index) - min);
+			counts[b]--;
+			n--;
+			if (b < mid) {
+				below--;
+			}
+		}
+
+		/**
+		 * @param k
+		 * @return bin that contains k-th smallest value
+		 */
+		private int find(final int k) {
+			while (below > k) {
+				mid--;
+				below -= counts[mid];
+			}
+			while (below + counts[mid] <= k) {
+				below += counts[mid];
+				mid++;
+			}
+			return mid;
+		}
+
+		@Override
+		public double median() {
+			if (n == 0) {
+				return Double.NaN;
+			}
+			final int q = (n - 1) / 2;
+			final int b = find(q);
+			final double v = b + min;
+			if ((n & 1) != 0) {
+				return v;
+			}
+			int nb = b;
+			if (below + counts[b] <= q + 1) {
+				do {
+					nb++;
+				} while (counts[nb] == 0);
+			}
+			return 0.5 * v + 0.5 * (nb + min);
+		}
+	}
+
+	/**
+	 * Ways of finding values beyond the edges of a dataset for filters
+	 */
+	public enum BoundaryMode {
+		/**
+		 * Use zero
+		 */
+		ZERO,
+		/**
+		 * Use value at nearest edge
+		 */
+		NEAREST,
+		/**
+		 * Reflect about edge so edge values are repeated (d c b a | a b c d | d c b a)
+		 */
+		REFLECT,
+		/**
+		 * Wrap around to opposite edge (a b c d | a b c d | a b c d)
+		 */
+		WRAP
+	}
+
+	/**
+	 * Relative cost of FFT to direct convolution per item per log2 of padded size
+	 */
+	private static final double CONVOLUTION_FFT_COST = 50;
+
+	/**
+	 * Relative tolerance used to check whether a kernel is separable
+	 */
+	private static final double SEPARABLE_TOLERANCE = 1e-12;
+
+	/**
+	 * Apply a convolution filter with a kernel centred on each item. Values beyond the edges of the
+	 * dataset are zero
+	 * @param input
+	 * @param kernel
+	 * @return filtered dataset
+	 * @see #convolutionFilter(AbstractDataset, AbstractDataset, BoundaryMode)
+	 */
 	public static AbstractDataset convolutionFilter(AbstractDataset input, AbstractDataset kernel) {
+		return convolutionFilter(input, kernel, BoundaryMode.ZERO);
+	}
+
+	/**
+	 * Apply a convolution filter with a kernel centred on each item. Note that the kernel is not
+	 * reflected so this is a correlation
+	 * <p>
+	 * The input is padded according to the boundary mode and filtered in double precision. A
+	 * two-dimensional kernel that is the outer product of a column and row is applied as two
+	 * one-dimensional passes, a large kernel is applied using FFTs, and otherwise the filter
+	 * is applied directly. Large datasets are split into ranges of lines that are processed
+	 * concurrently. Compound and complex datasets are filtered one item at a time and only
+	 * support the zero boundary mode.
+	 * @param input
+	 * @param kernel
+	 * @param mode for values beyond edges
+	 * @return filtered dataset of same type as input
+	 */
+	public static AbstractDataset convolutionFilter(AbstractDataset input, AbstractDataset kernel, BoundaryMode mode) {
 		// check to see if the kernel shape in the correct dimensionality.
 		int[] shape = input.getShape();
 		int[] kShape = kernel.getShape();
 		if (kShape.length != shape.length)
 			throw new IllegalArgumentException("Kernel shape must be the same shape as the input dataset");
 
+		if (input.getElementsPerItem() != 1 || kernel.getElementsPerItem() != 1 || shape.length == 0) {
+			if (mode != BoundaryMode.ZERO) {
+				throw new IllegalArgumentException("Only zero boundary mode is supported for compound or complex datasets");
+			}
+			return convolutionFilterBySlices(input, kernel);
+		}
+
+		final int size = input.getSize();
+		final int ksize = kernel.getSize();
+		if (size == 0) {
+			return input.clone();
+		}
+		if (ksize == 0) {
+			throw new IllegalArgumentException("Kernel must not be empty");
+		}
+
+		final int rank = shape.length;
+		final int[] pShape = new int[rank];
+		for (int i = 0; i < rank; i++) {
+			pShape[i] = shape[i] + kShape[i] - 1;
+		}
+		final double[] padded = pad(input, kShape, pShape, mode);
+
+		final double[] kValues = new double[ksize];
+		IndexIterator it = kernel.getIterator();
+		for (int i = 0; it.hasNext(); i++) {
+			kValues[i] = kernel.getElementDoubleAbs(it.index);
+		}
+
+		AbstractDataset out = null;
+		double[][] factors = separate(kValues, kShape);
+		if (factors != null) {
+			// apply row to all padded rows then column
+			final int[] tShape = new int[] {pShape[0], shape[1]};
+			final double[] temp = new double[pShape[0] * shape[1]];
+			ChunkedExecutor.execute(temp.length, new Correlation(padded, pShape, tShape, new int[] {1, kShape[1]}, factors[1], temp));
+			out = new DoubleDataset(shape);
+			ChunkedExecutor.execute(size, new Correlation(temp, tShape, shape, new int[] {kShape[0], 1}, factors[0], ((DoubleDataset) out).getData()));
+		} else {
+			int nonzeros = 0;
+			for (double v : kValues) {
+				if (v != 0) {
+					nonzeros++;
+				}
+			}
+			double fSize = 1;
+			for (int i = 0; i < rank; i++) {
+				fSize *= pShape[i] + kShape[i] - 1;
+			}
+			if (size * (double) nonzeros > CONVOLUTION_FFT_COST * fSize * Math.log(fSize) / Math.log(2)) {
+				// use full convolution with reflected kernel
+				int[] steps = new int[rank];
+				int[] start = new int[rank];
+				int[] stop = new int[rank];
+				Arrays.fill(steps, -1);
+				for (int i = 0; i < rank; i++) {
+					start[i] = kShape[i] - 1;
+					stop[i] = start[i] + shape[i];
+				}
+				// pad to lengths that transform quickly and are long enough to avoid wrap-around
+				int[] fShape = new int[rank];
+				for (int i = 0; i < rank; i++) {
+					fShape[i] = fastFFTLength(pShape[i] + kShape[i] - 1);
+				}
+				AbstractDataset k = new DoubleDataset(kValues, kShape).getSlice(null, null, steps);
+				AbstractDataset f = Maths.multiply(FFT.rfftn(new DoubleDataset(padded, pShape), fShape, null), FFT.rfftn(k, fShape, null));
+				out = FFT.irfftn(f, fShape, null).getSlice(start, stop, null);
+			} else {
+				out = new DoubleDataset(shape);
+				ChunkedExecutor.execute(size, new Correlation(padded, pShape, shape, kShape, kValues, ((DoubleDataset) out).getData()));
+			}
+		}
+
+		AbstractDataset result = input.clone();
+		result.setSlice(out, null, null, null);
+		return result;
+	}
+
+	/**
+	 * @return smallest length that is not less than given length and has no prime factors greater than 5
+	 */
+	private static int fastFFTLength(final int n) {
+		int best = Integer.MAX_VALUE;
+		for (long p5 = 1; p5 < best; p5 *= 5) {
+			for (long p35 = p5; p35 < best; p35 *= 3) {
+				long l = p35;
+				while (l < n) {
+					l *= 2;
+				}
+				if (l < best) {
+					best = (int) l;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Copy input to double array padded before and after by half the kernel in each dimension
+	 */
+	private static double[] pad(final AbstractDataset input, final int[] kShape, final int[] pShape, final BoundaryMode mode) {
+		final int[] shape = input.getShapeRef();
+		final int rank = shape.length;
+
+		// map padded indexes to input indexes (or -1 for zero)
+		final int[][] maps = new int[rank][];
+		for (int i = 0; i < rank; i++) {
+			final int n = shape[i];
+			final int before = kShape[i] / 2;
+			final int[] map = new int[pShape[i]];
+			for (int p = 0; p < map.length; p++) {
+				final int j = p - before;
+				switch (mode) {
+				case ZERO:
+					map[p] = j < 0 || j >= n ? -1 : j;
+					break;
+				case NEAREST:
+					map[p] = j < 0 ? 0 : (j >= n ? n - 1 : j);
+					break;
+				case REFLECT:
+					int m = j % (2 * n);
+					if (m < 0) {
+						m += 2 * n;
+					}
+					map[p] = m < n ? m : 2 * n - 1 - m;
+					break;
+				case WRAP:
+					m = j % n;
+					map[p] = m < 0 ? m + n : m;
+					break;
+				}
+			}
+			maps[i] = map;
+		}
+
+		final AbstractDataset in = DatasetUtils.cast(input.stride == null ? input : input.getSlice(), AbstractDataset.FLOAT64);
+		final double[] data = ((DoubleDataset) in).getData();
+		final int length = shape[rank - 1];
+		final int pLength = pShape[rank - 1];
+		final int[] lastMap = maps[rank - 1];
+		final int lines = AbstractDataset.calcSize(pShape) / pLength;
+		final double[] padded = new double[lines * pLength];
+		for (int l = 0; l < lines; l++) {
+			int r = l;
+			int base = 0;
+			int stride = length;
+			for (int i = rank - 2; i >= 0 && base >= 0; i--) {
+				final int j = maps[i][r % pShape[i]];
+				r /= pShape[i];
+				base = j < 0 ? -1 : base + j * stride;
+				stride *= shape[i];
+			}
+			if (base < 0) {
+				continue;
+			}
+			final int pBase = l * pLength;
+			for (int x = 0; x < pLength; x++) {
+				final int j = lastMap[x];
+				if (j >= 0) {
+					padded[pBase + x] = data[base + j];
+				}
+			}
+		}
+		return padded;
+	}
+
+	/**
+	 * Check if two-dimensional kernel is an outer product
+	 * @return column and row or null if kernel is not separable
+	 */
+	private static double[][] separate(final double[] kValues, final int[] kShape) {
+		if (kShape.length != 2 || kShape[0] == 1 || kShape[1] == 1) {
+			return null;
+		}
+
+		// use row and column through largest value
+		final int rows = kShape[0];
+		final int cols = kShape[1];
+		int pivot = 0;
+		double max = 0;
+		for (int i = 0; i < kValues.length; i++) {
+			final double v = Math.abs(kValues[i]);
+			if (v > max) {
+				max = v;
+				pivot = i;
+			}
+		}
+		final int pr = pivot / cols;
+		final int pc = pivot % cols;
+		final double[] column = new double[rows];
+		final double[] row = new double[cols];
+		for (int i = 0; i < rows; i++) {
+			column[i] = kValues[i * cols + pc];
+		}
+		if (max > 0) {
+			final double p = kValues[pivot];
+			for (int j = 0; j < cols; j++) {
+				row[j] = kValues[pr * cols + j] / p;
+			}
+		}
+
+		final double tolerance = SEPARABLE_TOLERANCE * max;
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				if (Math.abs(kValues[i * cols + j] - column[i] * row[j]) > tolerance) {
+					return null;
+				}
+			}
+		}
+		return new double[][] {column, row};
+	}
+
+	/**
+	 * Task that correlates a contiguous array with a kernel. Each output line along the last axis
+	 * belongs to the range of items that contains its first item
+	 */
+	private static class Correlation extends ChunkedExecutor.Task {
+		private final double[] in;
+		private final int[] inShape;
+		private final int[] outShape;
+		private final double[] out;
+		private final int[] offsets;
+		private final double[] values;
+		private final int length; // of output lines
+
+		/**
+		 * @param in
+		 * @param inShape
+		 * @param outShape
+		 * @param kShape
+		 * @param kValues
+		 * @param out
+		 */
+		public Correlation(final double[] in, final int[] inShape, final int[] outShape, final int[] kShape, final double[] kValues, final double[] out) {
+			this.in = in;
+			this.inShape = inShape;
+			this.outShape = outShape;
+			this.out = out;
+			final int rank = inShape.length;
+			length = outShape[rank - 1];
+
+			// offsets in input of non-zero kernel values
+			int n = 0;
+			for (double v : kValues) {
+				if (v != 0) {
+					n++;
+				}
+			}
+			offsets = new int[n];
+			values = new double[n];
+			final int[] pos = new int[rank];
+			n = 0;
+			for (int i = 0; i < kValues.length; i++) {
+				if (kValues[i] != 0) {
+					int o = 0;
+					for (int j = 0; j < rank; j++) {
+						o = o * inShape[j] + pos[j];
+					}
+					offsets[n] = o;
+					values[n++] = kValues[i];
+				}
+				for (int j = rank - 1; j >= 0 && ++pos[j] == kShape[j]; j--) {
+					pos[j] = 0;
+				}
+			}
+		}
+
+		@Override
+		public void run(final int start, final int end) {
+			final int first = (start + length - 1) / length;
+			final int last = (end + length - 1) / length;
+			final int rank = inShape.length;
+			for (int l = first; l < last; l++) {
+				int r = l;
+				int base = 0;
+				int stride = inShape[rank - 1];
+				for (int i = rank - 2; i >= 0; i--) {
+					base += (r % outShape[i]) * stride;
+					r /= outShape[i];
+					stride *= inShape[i];
+				}
+
+				final int oBase = l * length;
+				final int oEnd = oBase + length;
+				Arrays.fill(out, oBase, oEnd, 0);
+				for (int j = 0; j < offsets.length; j++) {
+					final double v = values[j];
+					for (int x = oBase, i = base + offsets[j]; x < oEnd; x++, i++) {
+						out[x] += in[i] * v;
+					}
+				}
+			}
+		}
+	}
+
+	private static AbstractDataset convolutionFilterBySlices(AbstractDataset input, AbstractDataset kernel) {
+		int[] shape = input.getShape();
+		int[] kShape = kernel.getShape();
+
 		AbstractDataset result = input.clone();
 		int[] offset = kShape.clone();
 		for (int i = 0; i < offset.length; i++) {
@@ -115,6 +115,10 @@ public class IntegerDataset extends AbstractDataset {
 		if (dataset.stride == null || dataset.size == dataset.base.size) {
 			odata = data = dataset.data.clone();
 		} else {
+			offset = 0;
+			stride = null;
+			base = null;
+			odata = data = createArray(size);
 			IndexIterator iter = dataset.getIterator();
 			for (int i = 0; iter.hasNext(); i++) {
 				data[i] = dataset.data[iter.index];
@@ -128,6 +132,9 @@ public class IntegerDataset extends AbstractDataset {
 	 */
 	public IntegerDataset(final AbstractDataset dataset) {
 		copyToView(dataset, this, true, false);
+		offset = 0;
+		stride = null;
+		base = null;
 
 		odata = data = createArray(size);
 		IndexIterator iter = dataset.getIterator();
@@ -667,10 +674,9 @@ public class IntegerDataset extends AbstractDataset {
 	public IntegerDataset iadd(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] += bds.getElementLongAbs(it2.index); // GET_ELEMENT
@@ -691,10 +697,9 @@ public class IntegerDataset extends AbstractDataset {
 	public IntegerDataset isubtract(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] -= bds.getElementLongAbs(it2.index); // GET_ELEMENT
@@ -715,10 +720,9 @@ public class IntegerDataset extends AbstractDataset {
 	public IntegerDataset imultiply(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				data[it1.index] *= bds.getElementLongAbs(it2.index); // GET_ELEMENT
@@ -739,10 +743,9 @@ public class IntegerDataset extends AbstractDataset {
 	public IntegerDataset idivide(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				try {
@@ -776,10 +779,9 @@ public class IntegerDataset extends AbstractDataset {
 	public IntegerDataset iremainder(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				try {
@@ -808,10 +810,9 @@ public class IntegerDataset extends AbstractDataset {
 	public IntegerDataset ipower(final Object b) {
 		if (b instanceof ADataset) {
 			ADataset bds = (ADataset) b;
-			checkCompatibility(bds);
 			// BOOLEAN_OMIT
 			IndexIterator it1 = getIterator();
-			IndexIterator it2 = bds.getIterator();
+			IndexIterator it2 = getBroadcastIterator(bds);
 			// BOOLEAN_OMIT
 			while (it1.hasNext() && it2.hasNext()) {
 				final double v = Math.pow(data[it1.index], bds.getElementDoubleAbs(it2.index));
@@ -56,12 +56,30 @@ public class Maths {
 		dataset.setName(name.toString());
 	}
 
-	private static AbstractDataset broadcastClone(final AbstractDataset a, final AbstractDataset b) {
+	/**
+	 * Create a copy of the first dataset, broadcast to the shape it shares with the second dataset
+	 * and cast to the type needed for the result of a binary operation
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return result that contains a
+	 */
+	private static AbstractDataset broadcastClone(final AbstractDataset a, final AbstractDataset b, final AbstractDataset o) {
 		final int rt = AbstractDataset.getBestDType(a.getDtype(), b.getDtype());
 		final int ia = a.getElementsPerItem();
 		final int ib = b.getElementsPerItem();
+		final int[] shape = AbstractDataset.getBroadcastShape(a.getShapeRef(), b.getShapeRef());
+		final AbstractDataset c = shape == a.getShapeRef() ? a : a.getBroadcastView(shape);
 
-		return ia > ib ? a.clone().cast(false, rt, ia) : a.clone().cast(true, rt, ib);
+		if (o == null && c == a) {
+			return ia > ib ? a.clone().cast(false, rt, ia) : a.clone().cast(true, rt, ib);
+		}
+
+		final AbstractDataset result = AbstractDataset.checkOutput(o, Math.max(ia, ib), shape, rt);
+		if (result != a) {
+			result.setSlice(ia > ib ? c : c.cast(true, rt, ib), null, null, null);
+		}
+		return result;
 	}
 
 	/**
@@ -70,11 +88,25 @@ public class Maths {
 	 * @return a + b, addition of a and b
 	 */
 	public static AbstractDataset add(final AbstractDataset a, final AbstractDataset b) {
-		a.checkCompatibility(b);
+		return add(a, b, null);
+	}
 
-		final AbstractDataset result = broadcastClone(a, b);
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a + b, addition of a and b
+	 */
+	public static AbstractDataset add(final AbstractDataset a, final AbstractDataset b, final AbstractDataset o) {
+		final AbstractDataset c = o == b && o != a ? b.clone() : b; // as result overwrites b
+		final AbstractDataset result = broadcastClone(a, b, o);
 
-		result.iadd(b);
+		ChunkedExecutor.execute(result, c, new ChunkedExecutor.ViewTask() {
+			@Override
+			public void run(final AbstractDataset r, final AbstractDataset v) {
+				r.iadd(v);
+			}
+		});
 
 		result.setName(bracketIfNecessary(a).append('+').append(bracketIfNecessary(b)).toString());
 
@@ -87,11 +119,25 @@ public class Maths {
 	 * @return a - b, subtraction of a by b
 	 */
 	public static AbstractDataset subtract(final AbstractDataset a, final AbstractDataset b) {
-		a.checkCompatibility(b);
+		return subtract(a, b, null);
+	}
 
-		final AbstractDataset result = broadcastClone(a, b);
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a - b, subtraction of a by b
+	 */
+	public static AbstractDataset subtract(final AbstractDataset a, final AbstractDataset b, final AbstractDataset o) {
+		final AbstractDataset c = o == b && o != a ? b.clone() : b; // as result overwrites b
+		final AbstractDataset result = broadcastClone(a, b, o);
 
-		result.isubtract(b);
+		ChunkedExecutor.execute(result, c, new ChunkedExecutor.ViewTask() {
+			@Override
+			public void run(final AbstractDataset r, final AbstractDataset v) {
+				r.isubtract(v);
+			}
+		});
 
 		result.setName(bracketIfNecessary(a).append('-').append(bracketIfNecessary(b)).toString());
 
@@ -104,11 +150,25 @@ public class Maths {
 	 * @return a*b, product of a and b
 	 */
 	public static AbstractDataset multiply(final AbstractDataset a, final AbstractDataset b) {
-		a.checkCompatibility(b);
+		return multiply(a, b, null);
+	}
 
-		final AbstractDataset result = broadcastClone(a, b);
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a*b, product of a and b
+	 */
+	public static AbstractDataset multiply(final AbstractDataset a, final AbstractDataset b, final AbstractDataset o) {
+		final AbstractDataset c = o == b && o != a ? b.clone() : b; // as result overwrites b
+		final AbstractDataset result = broadcastClone(a, b, o);
 
-		result.imultiply(b);
+		ChunkedExecutor.execute(result, c, new ChunkedExecutor.ViewTask() {
+			@Override
+			public void run(final AbstractDataset r, final AbstractDataset v) {
+				r.imultiply(v);
+			}
+		});
 
 		// set the name based on the changes made
 		result.setName(bracketIfNecessary(a).append('*').append(bracketIfNecessary(b)).toString());
@@ -122,11 +182,25 @@ public class Maths {
 	 * @return a/b, division of a by b
 	 */
 	public static AbstractDataset divide(final AbstractDataset a, final AbstractDataset b) {
-		a.checkCompatibility(b);
+		return divide(a, b, null);
+	}
 
-		final AbstractDataset result = broadcastClone(a, b);
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a/b, division of a by b
+	 */
+	public static AbstractDataset divide(final AbstractDataset a, final AbstractDataset b, final AbstractDataset o) {
+		final AbstractDataset c = o == b && o != a ? b.clone() : b; // as result overwrites b
+		final AbstractDataset result = broadcastClone(a, b, o);
 
-		result.idivide(b);
+		ChunkedExecutor.execute(result, c, new ChunkedExecutor.ViewTask() {
+			@Override
+			public void run(final AbstractDataset r, final AbstractDataset v) {
+				r.idivide(v);
+			}
+		});
 
 		// set the name based on the changes made
 		result.setName(bracketIfNecessary(a).append('/').append(bracketIfNecessary(b)).toString());
@@ -140,11 +214,25 @@ public class Maths {
 	 * @return a**b, raise a to power of b
 	 */
 	public static AbstractDataset power(final AbstractDataset a, final AbstractDataset b) {
-		a.checkCompatibility(b);
+		return power(a, b, null);
+	}
 
-		final AbstractDataset result = broadcastClone(a, b);
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a**b, raise a to power of b
+	 */
+	public static AbstractDataset power(final AbstractDataset a, final AbstractDataset b, final AbstractDataset o) {
+		final AbstractDataset c = o == b && o != a ? b.clone() : b; // as result overwrites b
+		final AbstractDataset result = broadcastClone(a, b, o);
 
-		result.ipower(b);
+		ChunkedExecutor.execute(result, c, new ChunkedExecutor.ViewTask() {
+			@Override
+			public void run(final AbstractDataset r, final AbstractDataset v) {
+				r.ipower(v);
+			}
+		});
 
 		result.setName(bracketIfNecessary(a).append('^').append(bracketIfNecessary(b)).toString());
 
@@ -157,11 +245,25 @@ public class Maths {
 	 * @return a%b, reminder of division of a by b
 	 */
 	public static AbstractDataset remainder(final AbstractDataset a, final AbstractDataset b) {
-		a.checkCompatibility(b);
+		return remainder(a, b, null);
+	}
 
-		final AbstractDataset result = broadcastClone(a, b);
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a%b, reminder of division of a by b
+	 */
+	public static AbstractDataset remainder(final AbstractDataset a, final AbstractDataset b, final AbstractDataset o) {
+		final AbstractDataset c = o == b && o != a ? b.clone() : b; // as result overwrites b
+		final AbstractDataset result = broadcastClone(a, b, o);
 
-		result.iremainder(b);
+		ChunkedExecutor.execute(result, c, new ChunkedExecutor.ViewTask() {
+			@Override
+			public void run(final AbstractDataset r, final AbstractDataset v) {
+				r.iremainder(v);
+			}
+		});
 
 		result.setName(bracketIfNecessary(a).append('%').append(bracketIfNecessary(b)).toString());
 
@@ -225,6 +327,16 @@ public class Maths {
 	 * @return a + b, addition of a and b
 	 */
 	public static AbstractDataset add(final AbstractDataset a, final Object b) {
+		return add(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a + b, addition of a and b
+	 */
+	public static AbstractDataset add(final AbstractDataset a, final Object b, final AbstractDataset o) {
 		if (b instanceof AbstractDataset) {
 			return add(a, (AbstractDataset) b);
 		}
@@ -232,7 +344,7 @@ public class Maths {
 		IndexIterator it1 = a.getIterator();
 		final int is;
 		final int dt = AbstractDataset.getBestDType(a.getDtype(), AbstractDataset.getDTypeFromClass(b.getClass()));
-		AbstractDataset result = AbstractDataset.zeros(a, dt);
+		AbstractDataset result = AbstractDataset.checkOutput(o, a, dt);
 		double dvr, dvi;
 		long lv;
 		boolean bv;
@@ -396,17 +508,27 @@ public class Maths {
 	 * @return a - b, subtraction of a by b
 	 */
 	public static AbstractDataset subtract(final Object a, final Object b) {
+		return subtract(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a - b, subtraction of a by b
+	 */
+	public static AbstractDataset subtract(final Object a, final Object b, final AbstractDataset o) {
 		AbstractDataset result = null;
 		final int is;
 
 		if (a instanceof AbstractDataset) {
 			if (b instanceof AbstractDataset) {
-				return subtract((AbstractDataset) a, (AbstractDataset) b);
+				return subtract((AbstractDataset) a, (AbstractDataset) b, o);
 			}
 
 			AbstractDataset ds = (AbstractDataset) a;
 			final int dt = AbstractDataset.getBestDType(ds.getDtype(), AbstractDataset.getDTypeFromClass(b.getClass()));
-			result = AbstractDataset.zeros(ds, dt);
+			result = AbstractDataset.checkOutput(o, ds, dt);
 			IndexIterator it1 = ds.getIterator();
 
 			double dvr, dvi;
@@ -570,7 +692,7 @@ public class Maths {
 
 			AbstractDataset ds = (AbstractDataset) b;
 			final int dt = AbstractDataset.getBestDType(ds.getDtype(), AbstractDataset.getDTypeFromClass(a.getClass()));
-			result = AbstractDataset.zeros(ds, dt);
+			result = AbstractDataset.checkOutput(o, ds, dt);
 			IndexIterator it1 = ds.getIterator();
 
 			double dvr, dvi;
@@ -737,6 +859,16 @@ public class Maths {
 	 * @return a * b, product of a and b
 	 */
 	public static AbstractDataset multiply(final AbstractDataset a, final Object b) {
+		return multiply(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a * b, product of a and b
+	 */
+	public static AbstractDataset multiply(final AbstractDataset a, final Object b, final AbstractDataset o) {
 		if (b instanceof AbstractDataset) {
 			return multiply(a, (AbstractDataset) b);
 		}
@@ -745,7 +877,7 @@ public class Maths {
 		final int is;
 
 		final int dt = AbstractDataset.getBestDType(a.getDtype(), AbstractDataset.getDTypeFromClass(b.getClass()));
-		AbstractDataset result = AbstractDataset.zeros(a, dt);
+		AbstractDataset result = AbstractDataset.checkOutput(o, a, dt);
 		double dvr, dvi;
 		long lv;
 		boolean bv;
@@ -957,17 +1089,27 @@ public class Maths {
 	 * @return a / b, division of a by b
 	 */
 	public static AbstractDataset divide(final Object a, final Object b) {
+		return divide(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a / b, division of a by b
+	 */
+	public static AbstractDataset divide(final Object a, final Object b, final AbstractDataset o) {
 		AbstractDataset result = null;
 		final int is;
 
 		if (a instanceof AbstractDataset) {
 			if (b instanceof AbstractDataset) {
-				return divide((AbstractDataset) a, (AbstractDataset) b);
+				return divide((AbstractDataset) a, (AbstractDataset) b, o);
 			}
 
 			AbstractDataset ds = (AbstractDataset) a;
 			final int dt = AbstractDataset.getBestDType(ds.getDtype(), AbstractDataset.getDTypeFromClass(b.getClass()));
-			result = AbstractDataset.zeros(ds, dt);
+			result = AbstractDataset.checkOutput(o, ds, dt);
 			IndexIterator it1 = ds.getIterator();
 
 			double dvr, dvi;
@@ -1251,7 +1393,7 @@ public class Maths {
 
 			AbstractDataset ds = (AbstractDataset) b;
 			final int dt = AbstractDataset.getBestDType(ds.getDtype(), AbstractDataset.getDTypeFromClass(a.getClass()));
-			result = AbstractDataset.zeros(ds, dt);
+			result = AbstractDataset.checkOutput(o, ds, dt);
 			IndexIterator it1 = ds.getIterator();
 
 			double dvr, dvi;
@@ -1542,6 +1684,16 @@ public class Maths {
 	 * @return a / b, division of a by b but catches divide-by-zero
 	 */
 	public static AbstractDataset dividez(final Object a, final Object b) {
+		return dividez(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a / b, division of a by b but catches divide-by-zero
+	 */
+	public static AbstractDataset dividez(final Object a, final Object b, final AbstractDataset o) {
 		AbstractDataset result = null;
 		final int is;
 
@@ -1559,7 +1711,7 @@ public class Maths {
 					d2 = (AbstractDataset) b;
 				}
 				d1.checkCompatibility(d2);
-				result = AbstractDataset.zeros(d1, bt);
+				result = AbstractDataset.checkOutput(o, d1, bt);
 				IndexIterator it1 = d1.getIterator();
 				IndexIterator it2 = d2.getIterator();
 
@@ -1750,12 +1902,15 @@ public class Maths {
 				double dvr;
 				dvr = AbstractDataset.toLong(b);
 				if (dvr == 0) {
-					result = AbstractDataset.zeros(ds, dt);
+					result = AbstractDataset.checkOutput(o, ds, dt);
+					if (o != null) {
+						result.fill(0);
+					}
 
 					// set the name based on the changes made
 					result.setName(bracketIfNecessary(ds).append('/').append(b).toString());
 				} else {
-					result = divide(a, b);
+					result = divide(a, b, o);
 				}
 			}
 		} else {
@@ -1765,7 +1920,7 @@ public class Maths {
 
 			AbstractDataset ds = (AbstractDataset) b;
 			final int dt = AbstractDataset.getBestDType(ds.getDtype(), AbstractDataset.getDTypeFromClass(a.getClass()));
-			result = AbstractDataset.zeros(ds, dt);
+			result = AbstractDataset.checkOutput(o, ds, dt);
 
 			double dvr, dvi;
 			long lv;
@@ -1773,6 +1928,9 @@ public class Maths {
 
 			dvr = AbstractDataset.toReal(a);
 			if (dvr == 0) {
+				if (o != null) {
+					result.fill(0);
+				}
 				return result;
 			}
 
@@ -2052,17 +2210,27 @@ public class Maths {
 	 * @return a**b, raise a to power of b
 	 */
 	public static AbstractDataset power(final Object a, final Object b) {
+		return power(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a**b, raise a to power of b
+	 */
+	public static AbstractDataset power(final Object a, final Object b, final AbstractDataset o) {
 		AbstractDataset result = null;
 		final int is;
 
 		if (a instanceof AbstractDataset) {
 			if (b instanceof AbstractDataset) {
-				return power((AbstractDataset) a, (AbstractDataset) b);
+				return power((AbstractDataset) a, (AbstractDataset) b, o);
 			}
 
 			final AbstractDataset ds = (AbstractDataset) a;
 			final int dt = AbstractDataset.getBestDType(ds.getDtype(), AbstractDataset.getDTypeFromClass(b.getClass()));
-			result = AbstractDataset.zeros(ds, dt);
+			result = AbstractDataset.checkOutput(o, ds, dt);
 			final IndexIterator it1 = ds.getIterator();
 
 			double dvr, dvi;
@@ -2237,7 +2405,7 @@ public class Maths {
 
 			final AbstractDataset ds = (AbstractDataset) b;
 			final int dt = AbstractDataset.getBestDType(ds.getDtype(), AbstractDataset.getDTypeFromClass(a.getClass()));
-			result = AbstractDataset.zeros(ds, dt);
+			result = AbstractDataset.checkOutput(o, ds, dt);
 			IndexIterator it1 = ds.getIterator();
 
 			double dvr, dvi;
@@ -2419,17 +2587,27 @@ public class Maths {
 	 * @return a % b, remainder of division of a by b
 	 */
 	public static AbstractDataset remainder(final Object a, final Object b) {
+		return remainder(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return a % b, remainder of division of a by b
+	 */
+	public static AbstractDataset remainder(final Object a, final Object b, final AbstractDataset o) {
 		AbstractDataset result = null;
 		final int is;
 
 		if (a instanceof AbstractDataset) {
 			if (b instanceof AbstractDataset) {
-				return remainder((AbstractDataset) a, (AbstractDataset) b);
+				return remainder((AbstractDataset) a, (AbstractDataset) b, o);
 			}
 
 			AbstractDataset ds = (AbstractDataset) a;
 			final int dt = AbstractDataset.getBestDType(ds.getDtype(), AbstractDataset.getDTypeFromClass(b.getClass()));
-			result = AbstractDataset.zeros(ds, dt);
+			result = AbstractDataset.checkOutput(o, ds, dt);
 			IndexIterator it1 = ds.getIterator();
 
 			double dvr, dvi;
@@ -2586,7 +2764,7 @@ public class Maths {
 
 			AbstractDataset ds = (AbstractDataset) b;
 			final int dt = AbstractDataset.getBestDType(ds.getDtype(), AbstractDataset.getDTypeFromClass(a.getClass()));
-			result = AbstractDataset.zeros(ds, dt);
+			result = AbstractDataset.checkOutput(o, ds, dt);
 			IndexIterator it1 = ds.getIterator();
 
 			double dvr, dvi;
@@ -2732,7 +2910,17 @@ public class Maths {
 	 * @return floor division of a and b
 	 */
 	public static AbstractDataset floorDivide(final Object a, final Object b) {
-		return divide(a, b).ifloor();
+		return floorDivide(a, b, null);
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return floor division of a and b
+	 */
+	public static AbstractDataset floorDivide(final Object a, final Object b, final AbstractDataset o) {
+		return divide(a, b, o).ifloor();
 	}
 
 	/**
@@ -2741,7 +2929,17 @@ public class Maths {
 	 * @return reciprocal dataset
 	 */
 	public static AbstractDataset reciprocal(final AbstractDataset a) {
-		return divide(1, a);
+		return reciprocal(a, null);
+	}
+
+	/**
+	 * Find reciprocal from dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return reciprocal dataset
+	 */
+	public static AbstractDataset reciprocal(final AbstractDataset a, final AbstractDataset o) {
+		return divide(1, a, o);
 	}
 
 	/**
@@ -2786,6 +2984,16 @@ public class Maths {
 	 * @return hypotenuse of right-angled triangle: sqrt(a^2 + a^2)
 	 */
 	public static AbstractDataset hypot(final AbstractDataset a, final AbstractDataset b) {
+		return hypot(a, b, null);
+	}
+
+	/**
+	 * @param a side of right-angled triangle
+	 * @param b side of right-angled triangle
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return hypotenuse of right-angled triangle: sqrt(a^2 + a^2)
+	 */
+	public static AbstractDataset hypot(final AbstractDataset a, final AbstractDataset b, final AbstractDataset o) {
 		a.checkCompatibility(b);
 
 		final int is = Math.max(a.getElementsPerItem(), b.getElementsPerItem());
@@ -2795,10 +3003,10 @@ public class Maths {
 
 		final int rt = AbstractDataset.getBestDType(a.getDtype(), b.getDtype());
 
-		final AbstractDataset result = a.clone().cast(rt);
+		final AbstractDataset result = AbstractDataset.checkOutput(o, a, rt);
 
 		IndexIterator it1 = a.getIterator();
-		IndexIterator it2 = a.getIterator();
+		IndexIterator it2 = b.getIterator();
 
 		switch (rt) {
 		case AbstractDataset.BOOL:
@@ -2866,6 +3074,16 @@ public class Maths {
 	 * @return angle of triangle: atan(a/b)
 	 */
 	public static AbstractDataset arctan2(final AbstractDataset a, final AbstractDataset b) {
+		return arctan2(a, b, null);
+	}
+
+	/**
+	 * @param a opposite side of right-angled triangle
+	 * @param b adjacent side of right-angled triangle
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return angle of triangle: atan(a/b)
+	 */
+	public static AbstractDataset arctan2(final AbstractDataset a, final AbstractDataset b, final AbstractDataset o) {
 		a.checkCompatibility(b);
 
 		final int is = Math.max(a.getElementsPerItem(), b.getElementsPerItem());
@@ -2875,7 +3093,7 @@ public class Maths {
 
 		final int rt = AbstractDataset.getBestDType(a.getDtype(), b.getDtype());
 
-		final AbstractDataset result = a.clone().cast(rt);
+		final AbstractDataset result = AbstractDataset.checkOutput(o, a, rt);
 
 		IndexIterator it1 = a.getIterator();
 		IndexIterator it2 = b.getIterator();
@@ -4249,19 +4467,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset sin(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return sin(a, null);
+	}
+
+	/**
+	 * sin - evaluate the sine function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset sin(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("sin supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				sin(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "sin");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void sin(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.sin(ix));
@@ -4269,10 +4558,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.sin(ix));
@@ -4280,10 +4568,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.sin(ix));
@@ -4291,10 +4578,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.sin(ix));
@@ -4302,11 +4588,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -4316,11 +4601,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -4330,11 +4614,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -4344,11 +4627,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -4358,10 +4640,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.sin(ix));
@@ -4369,10 +4650,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.sin(ix));
@@ -4380,11 +4660,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -4394,11 +4673,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -4408,10 +4686,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -4423,10 +4700,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -4437,13 +4713,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("sin supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "sin");
-		return ds;
 	}
 
 	/**
@@ -4451,52 +4721,120 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset cos(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return cos(a, null);
+	}
+
+	/**
+	 * cos - evaluate the cosine function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset cos(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
-			final byte[] i8data = ((ByteDataset) a).data;
-			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final byte ix = i8data[it.index];
-				float ox;
-				ox = (float) (Math.cos(ix));
-				oi8data[i++] = ox;
-			}
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
-			final short[] i16data = ((ShortDataset) a).data;
-			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final short ix = i16data[it.index];
-				float ox;
-				ox = (float) (Math.cos(ix));
-				oi16data[i++] = ox;
-			}
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
-			final int[] i32data = ((IntegerDataset) a).data;
-			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final int ix = i32data[it.index];
-				double ox;
-				ox = (double) (Math.cos(ix));
-				oi32data[i++] = ox;
-			}
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
-			final long[] i64data = ((LongDataset) a).data;
-			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("cos supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				cos(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "cos");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void cos(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
+			final byte[] i8data = ((ByteDataset) a).data;
+			final float[] oi8data = ((FloatDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final byte ix = i8data[it.index];
+				float ox;
+				ox = (float) (Math.cos(ix));
+				oi8data[i++] = ox;
+			}
+			break;
+		case AbstractDataset.INT16:
+			final short[] i16data = ((ShortDataset) a).data;
+			final float[] oi16data = ((FloatDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final short ix = i16data[it.index];
+				float ox;
+				ox = (float) (Math.cos(ix));
+				oi16data[i++] = ox;
+			}
+			break;
+		case AbstractDataset.INT32:
+			final int[] i32data = ((IntegerDataset) a).data;
+			final double[] oi32data = ((DoubleDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final int ix = i32data[it.index];
+				double ox;
+				ox = (double) (Math.cos(ix));
+				oi32data[i++] = ox;
+			}
+			break;
+		case AbstractDataset.INT64:
+			final long[] i64data = ((LongDataset) a).data;
+			final double[] oi64data = ((DoubleDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.cos(ix));
@@ -4504,11 +4842,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -4518,11 +4855,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -4532,11 +4868,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -4546,11 +4881,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -4560,10 +4894,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.cos(ix));
@@ -4571,10 +4904,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.cos(ix));
@@ -4582,11 +4914,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -4596,11 +4927,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -4610,10 +4940,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -4625,10 +4954,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -4639,13 +4967,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("cos supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "cos");
-		return ds;
 	}
 
 	/**
@@ -4653,19 +4975,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset tan(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return tan(a, null);
+	}
+
+	/**
+	 * tan - evaluate the tangent function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset tan(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("tan supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				tan(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "tan");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void tan(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.tan(ix));
@@ -4673,10 +5066,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.tan(ix));
@@ -4684,10 +5076,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.tan(ix));
@@ -4695,10 +5086,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.tan(ix));
@@ -4706,11 +5096,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -4720,11 +5109,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -4734,11 +5122,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -4748,11 +5135,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -4762,10 +5148,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.tan(ix));
@@ -4773,10 +5158,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.tan(ix));
@@ -4784,11 +5168,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -4798,11 +5181,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -4812,10 +5194,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float x;
@@ -4833,10 +5214,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double x;
@@ -4853,13 +5233,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("tan supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "tan");
-		return ds;
 	}
 
 	/**
@@ -4867,19 +5241,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset arcsin(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return arcsin(a, null);
+	}
+
+	/**
+	 * arcsin - evaluate the inverse sine function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset arcsin(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("arcsin supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				arcsin(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "arcsin");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void arcsin(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.asin(ix));
@@ -4887,10 +5332,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.asin(ix));
@@ -4898,10 +5342,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.asin(ix));
@@ -4909,10 +5352,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.asin(ix));
@@ -4920,11 +5362,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -4934,11 +5375,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -4948,11 +5388,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -4962,11 +5401,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -4976,10 +5414,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.asin(ix));
@@ -4987,10 +5424,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.asin(ix));
@@ -4998,11 +5434,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -5012,11 +5447,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -5026,10 +5460,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				Complex tz;
@@ -5043,10 +5476,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				Complex tz;
@@ -5059,13 +5491,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("arcsin supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "arcsin");
-		return ds;
 	}
 
 	/**
@@ -5073,19 +5499,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset arccos(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return arccos(a, null);
+	}
+
+	/**
+	 * arccos - evaluate the inverse cosine function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset arccos(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
-			final byte[] i8data = ((ByteDataset) a).data;
-			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("arccos supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				arccos(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "arccos");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void arccos(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
+			final byte[] i8data = ((ByteDataset) a).data;
+			final float[] oi8data = ((FloatDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.acos(ix));
@@ -5093,10 +5590,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.acos(ix));
@@ -5104,10 +5600,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.acos(ix));
@@ -5115,10 +5610,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.acos(ix));
@@ -5126,11 +5620,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -5140,11 +5633,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -5154,11 +5646,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -5168,11 +5659,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -5182,10 +5672,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.acos(ix));
@@ -5193,10 +5682,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.acos(ix));
@@ -5204,11 +5692,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -5218,11 +5705,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -5232,10 +5718,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				Complex tz;
@@ -5249,10 +5734,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				Complex tz;
@@ -5265,13 +5749,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("arccos supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "arccos");
-		return ds;
 	}
 
 	/**
@@ -5279,19 +5757,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset arctan(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return arctan(a, null);
+	}
+
+	/**
+	 * arctan - evaluate the inverse tangent function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset arctan(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("arctan supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				arctan(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "arctan");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void arctan(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.atan(ix));
@@ -5299,10 +5848,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.atan(ix));
@@ -5310,10 +5858,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.atan(ix));
@@ -5321,10 +5868,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.atan(ix));
@@ -5332,11 +5878,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -5346,11 +5891,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -5360,11 +5904,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -5374,11 +5917,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -5388,10 +5930,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.atan(ix));
@@ -5399,10 +5940,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.atan(ix));
@@ -5410,11 +5950,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -5424,11 +5963,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -5438,10 +5976,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				Complex tz;
@@ -5455,10 +5992,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				Complex tz;
@@ -5471,13 +6007,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("arctan supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "arctan");
-		return ds;
 	}
 
 	/**
@@ -5485,19 +6015,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset sinh(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return sinh(a, null);
+	}
+
+	/**
+	 * sinh - evaluate the hyperbolic sine function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset sinh(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("sinh supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				sinh(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "sinh");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void sinh(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.sinh(ix));
@@ -5505,10 +6106,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.sinh(ix));
@@ -5516,10 +6116,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.sinh(ix));
@@ -5527,10 +6126,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.sinh(ix));
@@ -5538,11 +6136,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -5552,11 +6149,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -5566,11 +6162,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -5580,11 +6175,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -5594,10 +6188,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.sinh(ix));
@@ -5605,10 +6198,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.sinh(ix));
@@ -5616,11 +6208,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -5630,11 +6221,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -5644,10 +6234,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -5659,10 +6248,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -5673,13 +6261,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("sinh supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "sinh");
-		return ds;
 	}
 
 	/**
@@ -5687,41 +6269,110 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset cosh(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return cosh(a, null);
+	}
+
+	/**
+	 * cosh - evaluate the hyperbolic cosine function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset cosh(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
-			final byte[] i8data = ((ByteDataset) a).data;
-			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final byte ix = i8data[it.index];
-				float ox;
-				ox = (float) (Math.cosh(ix));
-				oi8data[i++] = ox;
-			}
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
-			final short[] i16data = ((ShortDataset) a).data;
-			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final short ix = i16data[it.index];
-				float ox;
-				ox = (float) (Math.cosh(ix));
-				oi16data[i++] = ox;
-			}
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("cosh supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				cosh(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "cosh");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void cosh(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
+			final byte[] i8data = ((ByteDataset) a).data;
+			final float[] oi8data = ((FloatDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final byte ix = i8data[it.index];
+				float ox;
+				ox = (float) (Math.cosh(ix));
+				oi8data[i++] = ox;
+			}
+			break;
+		case AbstractDataset.INT16:
+			final short[] i16data = ((ShortDataset) a).data;
+			final float[] oi16data = ((FloatDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final short ix = i16data[it.index];
+				float ox;
+				ox = (float) (Math.cosh(ix));
+				oi16data[i++] = ox;
+			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.cosh(ix));
@@ -5729,10 +6380,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.cosh(ix));
@@ -5740,11 +6390,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -5754,11 +6403,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -5768,11 +6416,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -5782,11 +6429,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -5796,10 +6442,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.cosh(ix));
@@ -5807,10 +6452,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.cosh(ix));
@@ -5818,11 +6462,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -5832,11 +6475,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -5846,10 +6488,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -5861,10 +6502,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -5875,13 +6515,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("cosh supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "cosh");
-		return ds;
 	}
 
 	/**
@@ -5889,19 +6523,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset tanh(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return tanh(a, null);
+	}
+
+	/**
+	 * tanh - evaluate the tangent hyperbolic function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset tanh(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("tanh supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				tanh(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "tanh");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void tanh(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.tanh(ix));
@@ -5909,10 +6614,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.tanh(ix));
@@ -5920,10 +6624,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.tanh(ix));
@@ -5931,10 +6634,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.tanh(ix));
@@ -5942,11 +6644,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -5956,11 +6657,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -5970,11 +6670,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -5984,11 +6683,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -5998,10 +6696,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.tanh(ix));
@@ -6009,10 +6706,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.tanh(ix));
@@ -6020,11 +6716,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -6034,11 +6729,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -6048,10 +6742,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float tx;
@@ -6069,10 +6762,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double tx;
@@ -6089,13 +6781,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("tanh supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "tanh");
-		return ds;
 	}
 
 	/**
@@ -6103,19 +6789,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset arcsinh(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return arcsinh(a, null);
+	}
+
+	/**
+	 * arcsinh - evaluate the inverse hyperbolic sine function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset arcsinh(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("arcsinh supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				arcsinh(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "arcsinh");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void arcsinh(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix + Math.sqrt(ix*ix + 1)));
@@ -6123,10 +6880,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix + Math.sqrt(ix*ix + 1)));
@@ -6134,10 +6890,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix + Math.sqrt(ix*ix + 1)));
@@ -6145,10 +6900,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix + Math.sqrt(ix*ix + 1)));
@@ -6156,11 +6910,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -6170,11 +6923,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -6184,11 +6936,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -6198,11 +6949,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -6212,10 +6962,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix + Math.sqrt(ix*ix + 1)));
@@ -6223,10 +6972,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix + Math.sqrt(ix*ix + 1)));
@@ -6234,11 +6982,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -6248,11 +6995,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -6262,10 +7008,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				Complex tz;
@@ -6279,10 +7024,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				Complex tz;
@@ -6295,13 +7039,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("arcsinh supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "arcsinh");
-		return ds;
 	}
 
 	/**
@@ -6309,30 +7047,100 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset arccosh(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return arccosh(a, null);
+	}
+
+	/**
+	 * arccosh - evaluate the inverse hyperbolic cosine function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset arccosh(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
-			final byte[] i8data = ((ByteDataset) a).data;
-			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final byte ix = i8data[it.index];
-				float ox;
-				ox = (float) (Math.log(ix + Math.sqrt(ix*ix - 1)));
-				oi8data[i++] = ox;
-			}
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("arccosh supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				arccosh(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "arccosh");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void arccosh(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
+			final byte[] i8data = ((ByteDataset) a).data;
+			final float[] oi8data = ((FloatDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final byte ix = i8data[it.index];
+				float ox;
+				ox = (float) (Math.log(ix + Math.sqrt(ix*ix - 1)));
+				oi8data[i++] = ox;
+			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix + Math.sqrt(ix*ix - 1)));
@@ -6340,10 +7148,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix + Math.sqrt(ix*ix - 1)));
@@ -6351,10 +7158,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix + Math.sqrt(ix*ix - 1)));
@@ -6362,11 +7168,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -6376,11 +7181,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -6390,11 +7194,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -6404,11 +7207,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -6418,10 +7220,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix + Math.sqrt(ix*ix - 1)));
@@ -6429,10 +7230,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix + Math.sqrt(ix*ix - 1)));
@@ -6440,11 +7240,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -6454,11 +7253,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -6468,10 +7266,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				Complex tz;
@@ -6485,10 +7282,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				Complex tz;
@@ -6501,13 +7297,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("arccosh supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "arccosh");
-		return ds;
 	}
 
 	/**
@@ -6515,19 +7305,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset arctanh(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return arctanh(a, null);
+	}
+
+	/**
+	 * arctanh - evaluate the inverse hyperbolic tangent function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset arctanh(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("arctanh supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				arctanh(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "arctanh");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void arctanh(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (0.5*Math.log((1 + ix)/(1 - ix)));
@@ -6535,10 +7396,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (0.5*Math.log((1 + ix)/(1 - ix)));
@@ -6546,10 +7406,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (0.5*Math.log((1 + ix)/(1 - ix)));
@@ -6557,10 +7416,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (0.5*Math.log((1 + ix)/(1 - ix)));
@@ -6568,11 +7426,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -6582,11 +7439,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -6596,11 +7452,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -6610,11 +7465,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -6624,10 +7478,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (0.5*Math.log((1 + ix)/(1 - ix)));
@@ -6635,10 +7488,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (0.5*Math.log((1 + ix)/(1 - ix)));
@@ -6646,11 +7498,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -6660,11 +7511,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -6674,10 +7524,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				Complex tz;
@@ -6691,10 +7540,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				Complex tz;
@@ -6707,13 +7555,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("arctanh supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "arctanh");
-		return ds;
 	}
 
 	/**
@@ -6721,19 +7563,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset log(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return log(a, null);
+	}
+
+	/**
+	 * log - evaluate the logarithm function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset log(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("log supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				log(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "log");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void log(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix));
@@ -6741,10 +7654,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix));
@@ -6752,10 +7664,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix));
@@ -6763,10 +7674,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix));
@@ -6774,11 +7684,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -6788,11 +7697,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -6802,11 +7710,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -6816,11 +7723,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -6830,10 +7736,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix));
@@ -6841,10 +7746,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix));
@@ -6852,11 +7756,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -6866,11 +7769,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -6880,10 +7782,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -6895,10 +7796,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -6909,13 +7809,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("log supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "log");
-		return ds;
 	}
 
 	/**
@@ -6923,19 +7817,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset log2(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return log2(a, null);
+	}
+
+	/**
+	 * log2 - evaluate the logarithm function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset log2(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("log2 supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				log2(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "log2");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void log2(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix)/Math.log(2.));
@@ -6943,10 +7908,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix)/Math.log(2.));
@@ -6954,10 +7918,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix)/Math.log(2.));
@@ -6965,10 +7928,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix)/Math.log(2.));
@@ -6976,11 +7938,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -6990,11 +7951,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -7004,11 +7964,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -7018,11 +7977,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -7032,10 +7990,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.log(ix)/Math.log(2.));
@@ -7043,10 +8000,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.log(ix)/Math.log(2.));
@@ -7054,11 +8010,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -7068,11 +8023,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -7082,62 +8036,125 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
-			final float[] c64data = ((ComplexFloatDataset) a).data;
-			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final float ix = c64data[it.index];
-				final float iy = c64data[it.index+1];
-				float ox;
-				float oy;
-				ox = (float) (Math.log(Math.hypot(ix, iy))/Math.log(2.));
-				oy = (float) (Math.atan2(iy, ix));
-				oc64data[i++] = ox;
-				oc64data[i++] = oy;
-			}
+			final float[] c64data = ((ComplexFloatDataset) a).data;
+			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final float ix = c64data[it.index];
+				final float iy = c64data[it.index+1];
+				float ox;
+				float oy;
+				ox = (float) (Math.log(Math.hypot(ix, iy))/Math.log(2.));
+				oy = (float) (Math.atan2(iy, ix));
+				oc64data[i++] = ox;
+				oc64data[i++] = oy;
+			}
+			break;
+		case AbstractDataset.COMPLEX128:
+			final double[] c128data = ((ComplexDoubleDataset) a).data;
+			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final double ix = c128data[it.index];
+				final double iy = c128data[it.index+1];
+				double ox;
+				double oy;
+				ox = (double) (Math.log(Math.hypot(ix, iy))/Math.log(2.));
+				oy = (double) (Math.atan2(iy, ix));
+				oc128data[i++] = ox;
+				oc128data[i++] = oy;
+			}
+			break;
+		}
+	}
+
+	/**
+	 * log10 - evaluate the logarithm function on each element of the dataset
+	 * @param a
+	 * @return dataset
+	 */
+	public static AbstractDataset log10(final AbstractDataset a) {
+		return log10(a, null);
+	}
+
+	/**
+	 * log10 - evaluate the logarithm function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset log10(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
+		final int dt = a.getDtype();
+
+		switch(dt) {
+		case AbstractDataset.INT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
-			final double[] c128data = ((ComplexDoubleDataset) a).data;
-			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final double ix = c128data[it.index];
-				final double iy = c128data[it.index+1];
-				double ox;
-				double oy;
-				ox = (double) (Math.log(Math.hypot(ix, iy))/Math.log(2.));
-				oy = (double) (Math.atan2(iy, ix));
-				oc128data[i++] = ox;
-				oc128data[i++] = oy;
-			}
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
 			break;
 		default:
-			throw new IllegalArgumentException("log2 supports integer, compound integer, real, compound real, complex datasets only");
+			throw new IllegalArgumentException("log10 supports integer, compound integer, real, compound real, complex datasets only");
 		}
 
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				log10(a, ds, start, end);
+			}
+		});
+
 		ds.setName(a.getName());
-		addFunctionName(ds, "log2");
+		addFunctionName(ds, "log10");
 		return ds;
 	}
 
-	/**
-	 * log10 - evaluate the logarithm function on each element of the dataset
-	 * @param a
-	 * @return dataset
-	 */
 	@SuppressWarnings("cast")
-	public static AbstractDataset log10(final AbstractDataset a) {
+	private static void log10(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
 		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
-		final int dt = a.getDtype();
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
 
-		switch(dt) {
+		switch(a.getDtype()) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.log10(ix));
@@ -7145,10 +8162,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.log10(ix));
@@ -7156,10 +8172,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.log10(ix));
@@ -7167,10 +8182,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.log10(ix));
@@ -7178,11 +8192,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -7192,11 +8205,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -7206,11 +8218,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -7220,11 +8231,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -7234,10 +8244,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.log10(ix));
@@ -7245,10 +8254,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.log10(ix));
@@ -7256,11 +8264,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -7270,11 +8277,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -7284,10 +8290,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -7299,10 +8304,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -7313,13 +8317,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("log10 supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "log10");
-		return ds;
 	}
 
 	/**
@@ -7327,19 +8325,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset log1p(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return log1p(a, null);
+	}
+
+	/**
+	 * log1p - evaluate the logarithm function of 1 plus on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset log1p(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("log1p supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				log1p(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "log1p");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void log1p(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.log1p(ix));
@@ -7347,10 +8416,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.log1p(ix));
@@ -7358,10 +8426,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.log1p(ix));
@@ -7369,10 +8436,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.log1p(ix));
@@ -7380,11 +8446,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -7394,11 +8459,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -7408,11 +8472,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -7422,11 +8485,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -7436,10 +8498,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.log1p(ix));
@@ -7447,10 +8508,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.log1p(ix));
@@ -7458,11 +8518,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -7472,11 +8531,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -7486,10 +8544,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -7501,10 +8558,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -7515,13 +8571,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("log1p supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "log1p");
-		return ds;
 	}
 
 	/**
@@ -7529,19 +8579,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset exp(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return exp(a, null);
+	}
+
+	/**
+	 * exp - evaluate the exponential function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset exp(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("exp supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				exp(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "exp");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void exp(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.exp(ix));
@@ -7549,10 +8670,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.exp(ix));
@@ -7560,10 +8680,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.exp(ix));
@@ -7571,10 +8690,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.exp(ix));
@@ -7582,11 +8700,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -7596,11 +8713,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -7610,11 +8726,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -7624,11 +8739,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -7638,10 +8752,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.exp(ix));
@@ -7649,10 +8762,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.exp(ix));
@@ -7660,11 +8772,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -7674,11 +8785,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -7688,10 +8798,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float tf;
@@ -7705,10 +8814,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double tf;
@@ -7721,33 +8829,98 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
+		}
+	}
+
+	/**
+	 * expm1 - evaluate the exponential function - 1 on each element of the dataset
+	 * @param a
+	 * @return dataset
+	 */
+	public static AbstractDataset expm1(final AbstractDataset a) {
+		return expm1(a, null);
+	}
+
+	/**
+	 * expm1 - evaluate the exponential function - 1 on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset expm1(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
+		final int dt = a.getDtype();
+
+		switch(dt) {
+		case AbstractDataset.INT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
 		default:
-			throw new IllegalArgumentException("exp supports integer, compound integer, real, compound real, complex datasets only");
+			throw new IllegalArgumentException("expm1 supports integer, compound integer, real, compound real, complex datasets only");
 		}
 
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				expm1(a, ds, start, end);
+			}
+		});
+
 		ds.setName(a.getName());
-		addFunctionName(ds, "exp");
+		addFunctionName(ds, "expm1");
 		return ds;
 	}
 
-	/**
-	 * expm1 - evaluate the exponential function - 1 on each element of the dataset
-	 * @param a
-	 * @return dataset
-	 */
 	@SuppressWarnings("cast")
-	public static AbstractDataset expm1(final AbstractDataset a) {
+	private static void expm1(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
 		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
-		final int dt = a.getDtype();
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
 
-		switch(dt) {
+		switch(a.getDtype()) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.expm1(ix));
@@ -7755,10 +8928,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.expm1(ix));
@@ -7766,10 +8938,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.expm1(ix));
@@ -7777,10 +8948,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.expm1(ix));
@@ -7788,11 +8958,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -7802,11 +8971,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -7816,11 +8984,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -7830,11 +8997,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -7844,10 +9010,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.expm1(ix));
@@ -7855,10 +9020,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.expm1(ix));
@@ -7866,11 +9030,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -7880,11 +9043,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -7894,10 +9056,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float tf;
@@ -7911,10 +9072,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double tf;
@@ -7927,13 +9087,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("expm1 supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "expm1");
-		return ds;
 	}
 
 	/**
@@ -7941,19 +9095,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset sqrt(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return sqrt(a, null);
+	}
+
+	/**
+	 * sqrt - evaluate the square root function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset sqrt(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("sqrt supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				sqrt(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "sqrt");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void sqrt(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.sqrt(ix));
@@ -7961,10 +9186,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.sqrt(ix));
@@ -7972,10 +9196,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.sqrt(ix));
@@ -7983,10 +9206,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.sqrt(ix));
@@ -7994,11 +9216,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -8008,11 +9229,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -8022,11 +9242,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -8036,11 +9255,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -8050,10 +9268,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.sqrt(ix));
@@ -8061,10 +9278,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.sqrt(ix));
@@ -8072,11 +9288,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -8086,11 +9301,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -8100,10 +9314,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				Complex tz;
@@ -8117,10 +9330,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				Complex tz;
@@ -8133,13 +9345,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("sqrt supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "sqrt");
-		return ds;
 	}
 
 	/**
@@ -8147,19 +9353,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset cbrt(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return cbrt(a, null);
+	}
+
+	/**
+	 * cbrt - evaluate the cube root function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset cbrt(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("cbrt supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				cbrt(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "cbrt");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void cbrt(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.cbrt(ix));
@@ -8167,10 +9444,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.cbrt(ix));
@@ -8178,10 +9454,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.cbrt(ix));
@@ -8189,10 +9464,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.cbrt(ix));
@@ -8200,11 +9474,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -8214,11 +9487,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -8228,11 +9500,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -8242,11 +9513,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -8256,10 +9526,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.cbrt(ix));
@@ -8267,10 +9536,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.cbrt(ix));
@@ -8278,11 +9546,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -8292,11 +9559,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -8306,10 +9572,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				Complex tz;
@@ -8323,49 +9588,113 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
-			final double[] c128data = ((ComplexDoubleDataset) a).data;
-			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final double ix = c128data[it.index];
-				final double iy = c128data[it.index+1];
-				Complex tz;
-				double ox;
-				double oy;
-				tz = new Complex(ix, iy).pow(new Complex(1./3.,0));
-				ox = (double) (tz.getReal());
-				oy = (double) (tz.getImaginary());
-				oc128data[i++] = ox;
-				oc128data[i++] = oy;
-			}
+			final double[] c128data = ((ComplexDoubleDataset) a).data;
+			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final double ix = c128data[it.index];
+				final double iy = c128data[it.index+1];
+				Complex tz;
+				double ox;
+				double oy;
+				tz = new Complex(ix, iy).pow(new Complex(1./3.,0));
+				ox = (double) (tz.getReal());
+				oy = (double) (tz.getImaginary());
+				oc128data[i++] = ox;
+				oc128data[i++] = oy;
+			}
+			break;
+		}
+	}
+
+	/**
+	 * square - square each element
+	 * @param a
+	 * @return dataset
+	 */
+	public static AbstractDataset square(final AbstractDataset a) {
+		return square(a, null);
+	}
+
+	/**
+	 * square - square each element
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset square(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
+		final int dt = a.getDtype();
+
+		switch(dt) {
+		case AbstractDataset.INT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT8);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT16);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT64);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT32);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT8);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT16);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT64);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT32);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
 			break;
 		default:
-			throw new IllegalArgumentException("cbrt supports integer, compound integer, real, compound real, complex datasets only");
+			throw new IllegalArgumentException("square supports integer, compound integer, real, compound real, complex datasets only");
 		}
 
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				square(a, ds, start, end);
+			}
+		});
+
 		ds.setName(a.getName());
-		addFunctionName(ds, "cbrt");
+		addFunctionName(ds, "square");
 		return ds;
 	}
 
-	/**
-	 * square - square each element
-	 * @param a
-	 * @return dataset
-	 */
 	@SuppressWarnings("cast")
-	public static AbstractDataset square(final AbstractDataset a) {
+	private static void square(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
 		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
-		final int dt = a.getDtype();
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
 
-		switch(dt) {
+		switch(a.getDtype()) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT8);
 			final byte[] i8data = ((ByteDataset) a).data;
 			final byte[] oi8data = ((ByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				byte ox;
 				ox = (byte) (ix*ix);
@@ -8373,10 +9702,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT16);
 			final short[] i16data = ((ShortDataset) a).data;
 			final short[] oi16data = ((ShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				short ox;
 				ox = (short) (ix*ix);
@@ -8384,10 +9712,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final long[] oi64data = ((LongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				long ox;
 				ox = (long) (ix*ix);
@@ -8395,10 +9722,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT32);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final int[] oi32data = ((IntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				int ox;
 				ox = (int) (ix*ix);
@@ -8406,11 +9732,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT8);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final byte[] oai8data = ((CompoundByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					byte ox;
@@ -8420,11 +9745,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT16);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final short[] oai16data = ((CompoundShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					short ox;
@@ -8434,11 +9758,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final long[] oai64data = ((CompoundLongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					long ox;
@@ -8448,11 +9771,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT32);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final int[] oai32data = ((CompoundIntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					int ox;
@@ -8462,10 +9784,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (ix*ix);
@@ -8473,10 +9794,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (ix*ix);
@@ -8484,11 +9804,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -8498,11 +9817,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -8512,10 +9830,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -8527,10 +9844,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -8541,13 +9857,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("square supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "square");
-		return ds;
 	}
 
 	/**
@@ -8555,19 +9865,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset floor(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return floor(a, null);
+	}
+
+	/**
+	 * floor - evaluate the floor function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset floor(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT8);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT8);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT16);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT64);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT32);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT8);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT16);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT64);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT32);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("floor supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				floor(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "floor");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void floor(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final byte[] oi8data = ((ByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				byte ox;
 				ox = (byte) (ix);
@@ -8575,10 +9956,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT16);
 			final short[] i16data = ((ShortDataset) a).data;
 			final short[] oi16data = ((ShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				short ox;
 				ox = (short) (ix);
@@ -8586,10 +9966,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final long[] oi64data = ((LongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				long ox;
 				ox = (long) (ix);
@@ -8597,10 +9976,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT32);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final int[] oi32data = ((IntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				int ox;
 				ox = (int) (ix);
@@ -8608,11 +9986,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT8);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final byte[] oai8data = ((CompoundByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					byte ox;
@@ -8622,11 +9999,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT16);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final short[] oai16data = ((CompoundShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					short ox;
@@ -8636,11 +10012,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final long[] oai64data = ((CompoundLongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					long ox;
@@ -8650,11 +10025,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT32);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final int[] oai32data = ((CompoundIntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					int ox;
@@ -8664,10 +10038,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.floor(ix));
@@ -8675,10 +10048,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.floor(ix));
@@ -8686,11 +10058,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -8700,11 +10071,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -8714,10 +10084,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -8729,10 +10098,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -8743,13 +10111,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("floor supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "floor");
-		return ds;
 	}
 
 	/**
@@ -8757,19 +10119,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset ceil(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return ceil(a, null);
+	}
+
+	/**
+	 * ceil - evaluate the ceiling function on each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset ceil(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT8);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT8);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT16);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT64);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT32);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT8);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT16);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT64);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT32);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("ceil supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				ceil(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "ceil");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void ceil(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final byte[] oi8data = ((ByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				byte ox;
 				ox = (byte) (ix);
@@ -8777,10 +10210,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT16);
 			final short[] i16data = ((ShortDataset) a).data;
 			final short[] oi16data = ((ShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				short ox;
 				ox = (short) (ix);
@@ -8788,10 +10220,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final long[] oi64data = ((LongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				long ox;
 				ox = (long) (ix);
@@ -8799,10 +10230,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT32);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final int[] oi32data = ((IntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				int ox;
 				ox = (int) (ix);
@@ -8810,11 +10240,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT8);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final byte[] oai8data = ((CompoundByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					byte ox;
@@ -8824,11 +10253,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT16);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final short[] oai16data = ((CompoundShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					short ox;
@@ -8838,11 +10266,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final long[] oai64data = ((CompoundLongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					long ox;
@@ -8852,11 +10279,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT32);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final int[] oai32data = ((CompoundIntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					int ox;
@@ -8866,10 +10292,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.ceil(ix));
@@ -8877,10 +10302,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.ceil(ix));
@@ -8888,11 +10312,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -8902,11 +10325,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -8916,10 +10338,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -8931,47 +10352,111 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
-			final double[] c128data = ((ComplexDoubleDataset) a).data;
-			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
-				final double ix = c128data[it.index];
-				final double iy = c128data[it.index+1];
-				double ox;
-				double oy;
-				ox = (double) (Math.ceil(ix));
-				oy = (double) (Math.ceil(iy));
-				oc128data[i++] = ox;
-				oc128data[i++] = oy;
-			}
+			final double[] c128data = ((ComplexDoubleDataset) a).data;
+			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
+			for (int i = ostart; it.hasNext();) {
+				final double ix = c128data[it.index];
+				final double iy = c128data[it.index+1];
+				double ox;
+				double oy;
+				ox = (double) (Math.ceil(ix));
+				oy = (double) (Math.ceil(iy));
+				oc128data[i++] = ox;
+				oc128data[i++] = oy;
+			}
+			break;
+		}
+	}
+
+	/**
+	 * rint - round each element of the dataset
+	 * @param a
+	 * @return dataset
+	 */
+	public static AbstractDataset rint(final AbstractDataset a) {
+		return rint(a, null);
+	}
+
+	/**
+	 * rint - round each element of the dataset
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset rint(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
+		final int dt = a.getDtype();
+
+		switch(dt) {
+		case AbstractDataset.INT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT8);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT16);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT64);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT32);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT8);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT16);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT64);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT32);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
 			break;
 		default:
-			throw new IllegalArgumentException("ceil supports integer, compound integer, real, compound real, complex datasets only");
+			throw new IllegalArgumentException("rint supports integer, compound integer, real, compound real, complex datasets only");
 		}
 
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				rint(a, ds, start, end);
+			}
+		});
+
 		ds.setName(a.getName());
-		addFunctionName(ds, "ceil");
+		addFunctionName(ds, "rint");
 		return ds;
 	}
 
-	/**
-	 * rint - round each element of the dataset
-	 * @param a
-	 * @return dataset
-	 */
 	@SuppressWarnings("cast")
-	public static AbstractDataset rint(final AbstractDataset a) {
+	private static void rint(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
 		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
-		final int dt = a.getDtype();
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
 
-		switch(dt) {
+		switch(a.getDtype()) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT8);
 			final byte[] i8data = ((ByteDataset) a).data;
 			final byte[] oi8data = ((ByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				byte ox;
 				ox = (byte) (ix);
@@ -8979,10 +10464,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT16);
 			final short[] i16data = ((ShortDataset) a).data;
 			final short[] oi16data = ((ShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				short ox;
 				ox = (short) (ix);
@@ -8990,10 +10474,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final long[] oi64data = ((LongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				long ox;
 				ox = (long) (ix);
@@ -9001,10 +10484,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT32);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final int[] oi32data = ((IntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				int ox;
 				ox = (int) (ix);
@@ -9012,11 +10494,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT8);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final byte[] oai8data = ((CompoundByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					byte ox;
@@ -9026,11 +10507,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT16);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final short[] oai16data = ((CompoundShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					short ox;
@@ -9040,11 +10520,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final long[] oai64data = ((CompoundLongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					long ox;
@@ -9054,11 +10533,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT32);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final int[] oai32data = ((CompoundIntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					int ox;
@@ -9068,10 +10546,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.rint(ix));
@@ -9079,10 +10556,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.rint(ix));
@@ -9090,11 +10566,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -9104,11 +10579,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -9118,10 +10592,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -9133,10 +10606,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -9147,13 +10619,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("rint supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "rint");
-		return ds;
 	}
 
 	/**
@@ -9161,19 +10627,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset toDegrees(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return toDegrees(a, null);
+	}
+
+	/**
+	 * toDegrees - convert to degrees
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset toDegrees(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("toDegrees supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				toDegrees(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "toDegrees");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void toDegrees(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.toDegrees(ix));
@@ -9181,10 +10718,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.toDegrees(ix));
@@ -9192,10 +10728,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.toDegrees(ix));
@@ -9203,10 +10738,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.toDegrees(ix));
@@ -9214,11 +10748,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -9228,11 +10761,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -9242,11 +10774,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -9256,11 +10787,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -9270,10 +10800,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.toDegrees(ix));
@@ -9281,10 +10810,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.toDegrees(ix));
@@ -9292,11 +10820,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -9306,11 +10833,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -9320,10 +10846,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -9335,10 +10860,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -9349,13 +10873,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("toDegrees supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "toDegrees");
-		return ds;
 	}
 
 	/**
@@ -9363,19 +10881,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset toRadians(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return toRadians(a, null);
+	}
+
+	/**
+	 * toRadians - convert to radians
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset toRadians(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("toRadians supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				toRadians(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "toRadians");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void toRadians(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final float[] oi8data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				float ox;
 				ox = (float) (Math.toRadians(ix));
@@ -9383,10 +10972,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final short[] i16data = ((ShortDataset) a).data;
 			final float[] oi16data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				float ox;
 				ox = (float) (Math.toRadians(ix));
@@ -9394,10 +10982,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final double[] oi32data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				double ox;
 				ox = (double) (Math.toRadians(ix));
@@ -9405,10 +10992,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final double[] oi64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				double ox;
 				ox = (double) (Math.toRadians(ix));
@@ -9416,11 +11002,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final float[] oai8data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					float ox;
@@ -9430,11 +11015,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final float[] oai16data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					float ox;
@@ -9444,11 +11028,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final double[] oai32data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					double ox;
@@ -9458,11 +11041,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final double[] oai64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					double ox;
@@ -9472,10 +11054,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.toRadians(ix));
@@ -9483,10 +11064,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.toRadians(ix));
@@ -9494,11 +11074,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -9508,11 +11087,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -9522,10 +11100,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -9537,10 +11114,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -9551,33 +11127,98 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
+		}
+	}
+
+	/**
+	 * signum - sign of each element
+	 * @param a
+	 * @return dataset
+	 */
+	public static AbstractDataset signum(final AbstractDataset a) {
+		return signum(a, null);
+	}
+
+	/**
+	 * signum - sign of each element
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset signum(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
+		final int dt = a.getDtype();
+
+		switch(dt) {
+		case AbstractDataset.INT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT8);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT16);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT64);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT32);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT8);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT16);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT64);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT32);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
 		default:
-			throw new IllegalArgumentException("toRadians supports integer, compound integer, real, compound real, complex datasets only");
+			throw new IllegalArgumentException("signum supports integer, compound integer, real, compound real, complex datasets only");
 		}
 
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				signum(a, ds, start, end);
+			}
+		});
+
 		ds.setName(a.getName());
-		addFunctionName(ds, "toRadians");
+		addFunctionName(ds, "signum");
 		return ds;
 	}
 
-	/**
-	 * signum - sign of each element
-	 * @param a
-	 * @return dataset
-	 */
 	@SuppressWarnings("cast")
-	public static AbstractDataset signum(final AbstractDataset a) {
+	private static void signum(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
 		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
-		final int dt = a.getDtype();
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
 
-		switch(dt) {
+		switch(a.getDtype()) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT8);
 			final byte[] i8data = ((ByteDataset) a).data;
 			final byte[] oi8data = ((ByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				byte ox;
 				ox = (byte) (ix > 0 ? 1 : (ix < 0 ? -1 : 0));
@@ -9585,10 +11226,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT16);
 			final short[] i16data = ((ShortDataset) a).data;
 			final short[] oi16data = ((ShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				short ox;
 				ox = (short) (ix > 0 ? 1 : (ix < 0 ? -1 : 0));
@@ -9596,10 +11236,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final long[] oi64data = ((LongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				long ox;
 				ox = (long) (ix > 0 ? 1 : (ix < 0 ? -1 : 0));
@@ -9607,10 +11246,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT32);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final int[] oi32data = ((IntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				int ox;
 				ox = (int) (ix > 0 ? 1 : (ix < 0 ? -1 : 0));
@@ -9618,11 +11256,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT8);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final byte[] oai8data = ((CompoundByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					byte ox;
@@ -9632,11 +11269,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT16);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final short[] oai16data = ((CompoundShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					short ox;
@@ -9646,11 +11282,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final long[] oai64data = ((CompoundLongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					long ox;
@@ -9660,11 +11295,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT32);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final int[] oai32data = ((CompoundIntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					int ox;
@@ -9674,10 +11308,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.signum(ix));
@@ -9685,10 +11318,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.signum(ix));
@@ -9696,11 +11328,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -9710,11 +11341,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -9724,10 +11354,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -9739,10 +11368,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -9753,13 +11381,7 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("signum supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "signum");
-		return ds;
 	}
 
 	/**
@@ -9767,19 +11389,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset abs(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return abs(a, null);
+	}
+
+	/**
+	 * abs - absolute value of each element
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset abs(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT8);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT8);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT16);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT64);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT32);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT8);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT16);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT64);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT32);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		default:
+			throw new IllegalArgumentException("abs supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				abs(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "abs");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void abs(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final byte[] oi8data = ((ByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				byte ox;
 				ox = (byte) (Math.abs(ix));
@@ -9787,10 +11480,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT16);
 			final short[] i16data = ((ShortDataset) a).data;
 			final short[] oi16data = ((ShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				short ox;
 				ox = (short) (Math.abs(ix));
@@ -9798,10 +11490,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final long[] oi64data = ((LongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				long ox;
 				ox = (long) (Math.abs(ix));
@@ -9809,10 +11500,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT32);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final int[] oi32data = ((IntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				int ox;
 				ox = (int) (Math.abs(ix));
@@ -9820,11 +11510,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT8);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final byte[] oai8data = ((CompoundByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					byte ox;
@@ -9834,11 +11523,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT16);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final short[] oai16data = ((CompoundShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					short ox;
@@ -9848,11 +11536,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final long[] oai64data = ((CompoundLongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					long ox;
@@ -9862,11 +11549,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT32);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final int[] oai32data = ((CompoundIntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					int ox;
@@ -9876,10 +11562,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (Math.abs(ix));
@@ -9887,10 +11572,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (Math.abs(ix));
@@ -9898,11 +11582,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -9912,11 +11595,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -9926,10 +11608,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -9938,10 +11619,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -9949,13 +11629,7 @@ public class Maths {
 				oc128data[i++] = ox;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("abs supports integer, compound integer, real, compound real, complex datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "abs");
-		return ds;
 	}
 
 	/**
@@ -9963,19 +11637,90 @@ public class Maths {
 	 * @param a
 	 * @return dataset
 	 */
-	@SuppressWarnings("cast")
 	public static AbstractDataset negative(final AbstractDataset a) {
-		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
+		return negative(a, null);
+	}
+
+	/**
+	 * negative - negative value of each element
+	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
+	 * @return dataset
+	 */
+	public static AbstractDataset negative(final AbstractDataset a, final AbstractDataset o) {
+		final AbstractDataset ds;
 		final int dt = a.getDtype();
 
 		switch(dt) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT8);
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT8);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT16);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT64);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT32);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT8);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT16);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT64);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT32);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		case AbstractDataset.COMPLEX64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX64);
+			break;
+		case AbstractDataset.COMPLEX128:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.COMPLEX128);
+			break;
+		default:
+			throw new IllegalArgumentException("negative supports integer, compound integer, real, compound real, complex datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				negative(a, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "negative");
+		return ds;
+	}
+
+	@SuppressWarnings("cast")
+	private static void negative(final AbstractDataset a, final AbstractDataset ds, final int start, final int end) {
+		final int isize;
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
+
+		switch(a.getDtype()) {
+		case AbstractDataset.INT8:
 			final byte[] i8data = ((ByteDataset) a).data;
 			final byte[] oi8data = ((ByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				byte ox;
 				ox = (byte) (-ix);
@@ -9983,10 +11728,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT16);
 			final short[] i16data = ((ShortDataset) a).data;
 			final short[] oi16data = ((ShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				short ox;
 				ox = (short) (-ix);
@@ -9994,10 +11738,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final long[] oi64data = ((LongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				long ox;
 				ox = (long) (-ix);
@@ -10005,10 +11748,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT32);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final int[] oi32data = ((IntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				int ox;
 				ox = (int) (-ix);
@@ -10016,11 +11758,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT8);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final byte[] oai8data = ((CompoundByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					byte ox;
@@ -10030,11 +11771,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT16);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final short[] oai16data = ((CompoundShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					short ox;
@@ -10044,11 +11784,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final long[] oai64data = ((CompoundLongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					long ox;
@@ -10058,11 +11797,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT32);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final int[] oai32data = ((CompoundIntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					int ox;
@@ -10072,10 +11810,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				ox = (float) (-ix);
@@ -10083,10 +11820,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				ox = (double) (-ix);
@@ -10094,11 +11830,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -10108,11 +11843,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -10122,10 +11856,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX64);
 			final float[] c64data = ((ComplexFloatDataset) a).data;
 			final float[] oc64data = ((ComplexFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = c64data[it.index];
 				final float iy = c64data[it.index+1];
 				float ox;
@@ -10137,10 +11870,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.COMPLEX128:
-			ds = AbstractDataset.zeros(a, AbstractDataset.COMPLEX128);
 			final double[] c128data = ((ComplexDoubleDataset) a).data;
 			final double[] oc128data = ((ComplexDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = c128data[it.index];
 				final double iy = c128data[it.index+1];
 				double ox;
@@ -10151,35 +11883,94 @@ public class Maths {
 				oc128data[i++] = oy;
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("negative supports integer, compound integer, real, compound real, complex datasets only");
 		}
+	}
 
-		ds.setName(a.getName());
-		addFunctionName(ds, "negative");
-		return ds;
+	/**
+	 * clip - clip elements to limits
+	 * @param a
+	 * @return dataset
+	 */
+	public static AbstractDataset clip(final AbstractDataset a, final Object pa, final Object pb) {
+		return clip(a, pa, pb, null);
 	}
 
 	/**
 	 * clip - clip elements to limits
 	 * @param a
+	 * @param o output can be null - in which case, a new dataset is created
 	 * @return dataset
 	 */
+	public static AbstractDataset clip(final AbstractDataset a, final Object pa, final Object pb, final AbstractDataset o) {
+		final AbstractDataset ds;
+		final int dt = a.getDtype();
+
+		switch(dt) {
+		case AbstractDataset.INT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT8);
+			break;
+		case AbstractDataset.INT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT16);
+			break;
+		case AbstractDataset.INT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT64);
+			break;
+		case AbstractDataset.INT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.INT32);
+			break;
+		case AbstractDataset.ARRAYINT8:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT8);
+			break;
+		case AbstractDataset.ARRAYINT16:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT16);
+			break;
+		case AbstractDataset.ARRAYINT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT64);
+			break;
+		case AbstractDataset.ARRAYINT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYINT32);
+			break;
+		case AbstractDataset.FLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT32);
+			break;
+		case AbstractDataset.FLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.FLOAT64);
+			break;
+		case AbstractDataset.ARRAYFLOAT32:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT32);
+			break;
+		case AbstractDataset.ARRAYFLOAT64:
+			ds = AbstractDataset.checkOutput(o, a, AbstractDataset.ARRAYFLOAT64);
+			break;
+		default:
+			throw new IllegalArgumentException("clip supports integer, compound integer, real, compound real datasets only");
+		}
+
+		ChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {
+			@Override
+			public void run(final int start, final int end) {
+				clip(a, pa, pb, ds, start, end);
+			}
+		});
+
+		ds.setName(a.getName());
+		addFunctionName(ds, "clip");
+		return ds;
+	}
+
 	@SuppressWarnings("cast")
-	public static AbstractDataset clip(final AbstractDataset a, final Object pa, final Object pb) {
+	private static void clip(final AbstractDataset a, final Object pa, final Object pb, final AbstractDataset ds, final int start, final int end) {
 		final int isize;
-		final IndexIterator it = a.getIterator();
-		AbstractDataset ds;
-		final int dt = a.getDtype();
+		final IndexIterator it = ChunkedExecutor.getIterator(a, start, end);
+		final int ostart = start * ds.getElementsPerItem();
 		final double pax = AbstractDataset.toReal(pa);
 		final double pbx = AbstractDataset.toReal(pb);
 
-		switch(dt) {
+		switch(a.getDtype()) {
 		case AbstractDataset.INT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT8);
 			final byte[] i8data = ((ByteDataset) a).data;
 			final byte[] oi8data = ((ByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final byte ix = i8data[it.index];
 				byte ox;
 				if (ix < pax)
@@ -10192,10 +11983,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT16);
 			final short[] i16data = ((ShortDataset) a).data;
 			final short[] oi16data = ((ShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final short ix = i16data[it.index];
 				short ox;
 				if (ix < pax)
@@ -10208,10 +11998,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT64);
 			final long[] i64data = ((LongDataset) a).data;
 			final long[] oi64data = ((LongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final long ix = i64data[it.index];
 				long ox;
 				if (ix < pax)
@@ -10224,10 +12013,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.INT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.INT32);
 			final int[] i32data = ((IntegerDataset) a).data;
 			final int[] oi32data = ((IntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final int ix = i32data[it.index];
 				int ox;
 				if (ix < pax)
@@ -10240,11 +12028,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT8:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT8);
 			isize = a.getElementsPerItem();
 			final byte[] ai8data = ((CompoundByteDataset) a).data;
 			final byte[] oai8data = ((CompoundByteDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final byte ix = ai8data[it.index+j];
 					byte ox;
@@ -10259,11 +12046,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT16:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT16);
 			isize = a.getElementsPerItem();
 			final short[] ai16data = ((CompoundShortDataset) a).data;
 			final short[] oai16data = ((CompoundShortDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final short ix = ai16data[it.index+j];
 					short ox;
@@ -10278,11 +12064,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT64);
 			isize = a.getElementsPerItem();
 			final long[] ai64data = ((CompoundLongDataset) a).data;
 			final long[] oai64data = ((CompoundLongDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final long ix = ai64data[it.index+j];
 					long ox;
@@ -10297,11 +12082,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYINT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYINT32);
 			isize = a.getElementsPerItem();
 			final int[] ai32data = ((CompoundIntegerDataset) a).data;
 			final int[] oai32data = ((CompoundIntegerDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final int ix = ai32data[it.index+j];
 					int ox;
@@ -10316,10 +12100,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT32);
 			final float[] f32data = ((FloatDataset) a).data;
 			final float[] of32data = ((FloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final float ix = f32data[it.index];
 				float ox;
 				if (Double.isNaN(ix))
@@ -10334,10 +12117,9 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.FLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.FLOAT64);
 			final double[] f64data = ((DoubleDataset) a).data;
 			final double[] of64data = ((DoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				final double ix = f64data[it.index];
 				double ox;
 				if (Double.isNaN(ix))
@@ -10352,11 +12134,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT32:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT32);
 			isize = a.getElementsPerItem();
 			final float[] af32data = ((CompoundFloatDataset) a).data;
 			final float[] oaf32data = ((CompoundFloatDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final float ix = af32data[it.index+j];
 					float ox;
@@ -10373,11 +12154,10 @@ public class Maths {
 			}
 			break;
 		case AbstractDataset.ARRAYFLOAT64:
-			ds = AbstractDataset.zeros(a, AbstractDataset.ARRAYFLOAT64);
 			isize = a.getElementsPerItem();
 			final double[] af64data = ((CompoundDoubleDataset) a).data;
 			final double[] oaf64data = ((CompoundDoubleDataset) ds).getData();
-			for (int i = 0; it.hasNext();) {
+			for (int i = ostart; it.hasNext();) {
 				for (int j = 0; j < isize; j++) {
 					final double ix = af64data[it.index+j];
 					double ox;
@@ -10393,12 +12173,8 @@ public class Maths {
 				}
 			}
 			break;
-		default:
-			throw new IllegalArgumentException("clip supports integer, compound integer, real, compound real datasets only");
 		}
-
-		ds.setName(a.getName());
-		addFunctionName(ds, "clip");
-		return ds;
 	}
+
+// End of generated code
 }
@@ -0,0 +1,377 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Mergeable sketch that approximates quantiles of a stream of values in bounded memory
+ * <p>
+ * This follows the KLL algorithm (Karnin, Lang and Liberty, 2016) where values are held in a
+ * hierarchy of compactors. When a compactor fills up, it is sorted and every other value
+ * (starting at random) is promoted to the next level with double the weight. Sketches built
+ * from separate parts of a dataset (for example, by different threads) can be merged.
+ * <p>
+ * About 3k values are held for a sketch with parameter k. The error in the rank of a
+ * returned quantile, as a fraction of the number of values, scales as 1/k and is bounded
+ * by about 1.65% with 99% confidence for the default k of 200 (it is usually under 1%).
+ * Quantiles are exact until the sketch is first compacted. Minimum and maximum are always
+ * exact. NaNs are ignored.
+ * <p>
+ * Sketches are not thread-safe so each thread should update its own sketch.
+ */
+public class QuantileSketch {
+	/**
+	 * Default parameter that sets size and accuracy of sketch
+	 */
+	public static final int DEFAULT_K = 200;
+
+	private static final int MIN_CAPACITY = 8;
+	private static final double CAPACITY_RATIO = 2. / 3;
+
+	private final int k;
+	private final Random random;
+	private double[][] levels; // compactor at level h holds values of weight 2^h
+	private int[] sizes;
+	private int numLevels;
+	private int[] capacities;
+	private int totalCapacity;
+	private int held; // number of values held in all levels
+	private long count;
+	private double min;
+	private double max;
+
+	// cumulative weights of sorted values used for queries
+	private double[] sorted;
+	private long[] cumulative;
+
+	/**
+	 * Create sketch with default size
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_K);
+	}
+
+	/**
+	 * @param k parameter that sets size and accuracy of sketch
+	 */
+	public QuantileSketch(final int k) {
+		if (k < MIN_CAPACITY) {
+			throw new IllegalArgumentException("Parameter must be at least " + MIN_CAPACITY);
+		}
+		this.k = k;
+		random = new Random(k);
+		levels = new double[4][];
+		sizes = new int[4];
+		levels[0] = new double[k];
+		numLevels = 1;
+		updateCapacities();
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * @return parameter that sets size and accuracy of sketch
+	 */
+	public int getK() {
+		return k;
+	}
+
+	/**
+	 * @return number of values (excluding NaNs) seen by sketch
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return true if no values have been seen
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * @return minimum value
+	 */
+	public double getMin() {
+		return count == 0 ? Double.NaN : min;
+	}
+
+	/**
+	 * @return maximum value
+	 */
+	public double getMax() {
+		return count == 0 ? Double.NaN : max;
+	}
+
+	/**
+	 * Add value to sketch
+	 * @param v
+	 */
+	public void update(final double v) {
+		if (Double.isNaN(v)) {
+			return;
+		}
+		if (v < min) {
+			min = v;
+		}
+		if (v > max) {
+			max = v;
+		}
+		count++;
+		append(0, v);
+		sorted = null;
+		if (held > totalCapacity) {
+			compact();
+		}
+	}
+
+	/**
+	 * Add all items of dataset to sketch. For compound datasets, only the first element of each item is used
+	 * @param data
+	 */
+	public void update(final IDataset data) {
+		final AbstractDataset a = DatasetUtils.convertToAbstractDataset(data);
+		final IndexIterator it = a.getIterator();
+		while (it.hasNext()) {
+			update(a.getElementDoubleAbs(it.index));
+		}
+	}
+
+	/**
+	 * Merge other sketch into this one. The other sketch is not changed
+	 * @param other
+	 */
+	public void merge(final QuantileSketch other) {
+		if (other == this) {
+			throw new IllegalArgumentException("Cannot merge sketch with itself");
+		}
+		if (other.count == 0) {
+			return;
+		}
+		for (int h = 0; h < other.numLevels; h++) {
+			final double[] values = other.levels[h];
+			for (int i = 0, imax = other.sizes[h]; i < imax; i++) {
+				append(h, values[i]);
+			}
+		}
+		count += other.count;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		sorted = null;
+		compact();
+	}
+
+	/**
+	 * Set capacities so they shrink geometrically from the top level down
+	 */
+	private void updateCapacities() {
+		capacities = new int[numLevels];
+		totalCapacity = 0;
+		for (int h = 0; h < numLevels; h++) {
+			capacities[h] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_RATIO, numLevels - 1 - h)));
+			totalCapacity += capacities[h];
+		}
+	}
+
+	private void append(final int h, final double v) {
+		while (h >= numLevels) {
+			addLevel();
+		}
+		double[] values = levels[h];
+		final int n = sizes[h];
+		if (n == values.length) {
+			values = Arrays.copyOf(values, Math.max(MIN_CAPACITY, 2 * n));
+			levels[h] = values;
+		}
+		values[n] = v;
+		sizes[h] = n + 1;
+		held++;
+	}
+
+	private void addLevel() {
+		if (numLevels == levels.length) {
+			levels = Arrays.copyOf(levels, 2 * numLevels);
+			sizes = Arrays.copyOf(sizes, 2 * numLevels);
+		}
+		levels[numLevels] = new double[MIN_CAPACITY];
+		sizes[numLevels] = 0;
+		numLevels++;
+		updateCapacities();
+	}
+
+	/**
+	 * Compact lowest full levels until sketch is within its capacity
+	 */
+	private void compact() {
+		while (held > totalCapacity) {
+			int h = 0;
+			while (sizes[h] < capacities[h]) {
+				h++;
+			}
+			if (h + 1 >= numLevels) {
+				addLevel();
+			}
+
+			final double[] values = levels[h];
+			final int n = sizes[h];
+			final int odd = n & 1; // leave one value behind if number is odd
+			Arrays.sort(values, odd, n);
+			for (int i = odd + random.nextInt(2); i < n; i += 2) {
+				append(h + 1, values[i]);
+			}
+			held -= n - odd;
+			sizes[h] = odd;
+		}
+	}
+
+	/**
+	 * Gather held values in order with their cumulative weights
+	 */
+	private void prepare() {
+		if (sorted != null) {
+			return;
+		}
+		final int n = held;
+		final double[] v = new double[n];
+		final long[] w = new long[n];
+		int j = 0;
+		for (int h = 0; h < numLevels; h++) {
+			final long weight = 1L << h;
+			System.arraycopy(levels[h], 0, v, j, sizes[h]);
+			Arrays.fill(w, j, j + sizes[h], weight);
+			j += sizes[h];
+		}
+
+		// sort values and their weights together
+		final Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return Double.compare(v[a], v[b]);
+			}
+		});
+
+		sorted = new double[n];
+		cumulative = new long[n];
+		long c = 0;
+		for (int i = 0; i < n; i++) {
+			final int o = order[i];
+			sorted[i] = v[o];
+			c += w[o];
+			cumulative[i] = c;
+		}
+	}
+
+	/**
+	 * @param rank (from 0 to total weight - 1)
+	 * @return value at given rank
+	 */
+	private double valueAt(final long rank) {
+		if (rank <= 0) {
+			return min;
+		}
+		if (rank >= count - 1) {
+			return max;
+		}
+		int i = Arrays.binarySearch(cumulative, rank + 1);
+		if (i < 0) {
+			i = -i - 1;
+		}
+		return sorted[i];
+	}
+
+	/**
+	 * Approximate quantile which is defined as the inverse of the cumulative distribution function (CDF)
+	 * @param q
+	 * @return point at which CDF has value q (or NaN if sketch is empty)
+	 */
+	public double getQuantile(final double q) {
+		if (q < 0 || q > 1) {
+			throw new IllegalArgumentException("Quantile requested is outside [0,1]");
+		}
+		if (count == 0) {
+			return Double.NaN;
+		}
+		prepare();
+
+		double f = (count - 1) * q; // fraction of sample number
+		final long qpt = (long) Math.floor(f); // quantile point
+		f -= qpt;
+
+		double quantile = valueAt(qpt);
+		if (f > 0) {
+			quantile = (1 - f) * quantile + f * valueAt(qpt + 1);
+		}
+		return quantile;
+	}
+
+	/**
+	 * Approximate quantiles
+	 * @param values
+	 * @return points at which CDF has given values
+	 */
+	public double[] getQuantiles(final double... values) {
+		final double[] points = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			points[i] = getQuantile(values[i]);
+		}
+		return points;
+	}
+
+	/**
+	 * @return approximate median
+	 */
+	public double getMedian() {
+		return getQuantile(0.5);
+	}
+
+	/**
+	 * @return approximate interquartile range: Q3 - Q1
+	 */
+	public double getIQR() {
+		return getQuantile(0.75) - getQuantile(0.25);
+	}
+
+	/**
+	 * Approximate cumulative distribution function
+	 * @param v
+	 * @return fraction of values that are less than or equal to given value
+	 */
+	public double getRank(final double v) {
+		if (count == 0) {
+			return Double.NaN;
+		}
+		prepare();
+
+		int i = Arrays.binarySearch(sorted, v);
+		if (i < 0) {
+			i = -i - 2;
+		} else {
+			while (i + 1 < sorted.length && sorted[i + 1] == v) {
+				i++;
+			}
+		}
+		return i < 0 ? 0 : (double) cumulative[i] / count;
+	}
+}
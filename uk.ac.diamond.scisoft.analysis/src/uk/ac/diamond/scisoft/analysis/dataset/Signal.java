@@ -48,6 +48,13 @@ public class Signal {
 		return s;
 	}
 
+	/**
+	 * @return true if both datasets are real (so real-to-complex transforms can be used)
+	 */
+	private static boolean isReal(final AbstractDataset f, final AbstractDataset g) {
+		return f.getElementsPerItem() == 1 && g.getElementsPerItem() == 1;
+	}
+
 	/**
 	 * @param c
 	 * @param a
@@ -100,6 +107,12 @@ public class Signal {
 
 		AbstractDataset c = null, d = null;
 		int[] s = paddedShape(f.shape, g.shape, axes);
+		if (isReal(f, g)) {
+			c = FFT.rfftn(f, s, axes);
+			d = FFT.rfftn(g, s, axes);
+			return FFT.irfftn(Maths.multiply(c, d), s, axes);
+		}
+
 		c = FFT.fftn(f, s, axes);
 		d = FFT.fftn(g, s, axes);
 		c = Maths.multiply(c, d);
@@ -156,14 +169,20 @@ public class Signal {
 
 		AbstractDataset c = null, d = null;
 		int[] s = paddedShape(f.shape, g.shape, axes);
-		
-		c = FFT.fftn(f, s, axes);
-		d = FFT.fftn(g, s, axes);
-		c = Maths.multiply(c, Maths.conjugate(d));
+		AbstractDataset corr;
+		if (isReal(f, g)) {
+			c = FFT.rfftn(f, s, axes);
+			d = FFT.rfftn(g, s, axes);
+			corr = FFT.irfftn(Maths.multiply(c, Maths.conjugate(d)), s, axes);
+		} else {
+			c = FFT.fftn(f, s, axes);
+			d = FFT.fftn(g, s, axes);
+			c = Maths.multiply(c, Maths.conjugate(d));
 
-		AbstractDataset corr = FFT.ifftn(c, s, axes);
-		if (!f.isComplex() && !g.isComplex())
-			corr = corr.real();
+			corr = FFT.ifftn(c, s, axes);
+			if (!f.isComplex() && !g.isComplex())
+				corr = corr.real();
+		}
 
 		int rank = s.length;
 		int alen;
@@ -231,12 +250,23 @@ public class Signal {
 	public static List<AbstractDataset> phaseCorrelate(final AbstractDataset f, final AbstractDataset g, final int[] axes, boolean includeInverse) {
 		AbstractDataset c = null, d = null;
 		int[] s = paddedShape(f.shape, g.shape, axes);
+		ArrayList<AbstractDataset> results = new ArrayList<AbstractDataset>();
+		if (isReal(f, g)) {
+			// only half of the spectra are needed as transforms of real datasets are Hermitian-symmetric
+			c = FFT.rfftn(f, s, axes);
+			c.idivide(FFT.rfftn(g, s, axes));
+			results.add(FFT.irfftn(Maths.phaseAsComplexNumber(c, true), s, axes));
+			if (includeInverse) {
+				results.add(FFT.irfftn(c, s, axes));
+			}
+			return results;
+		}
+
 		c = FFT.fftn(f, s, axes);
 		d = FFT.fftn(g, s, axes);
 		c.idivide(d);
 
 		AbstractDataset corr;
-		ArrayList<AbstractDataset> results = new ArrayList<AbstractDataset>();
 
 		d = Maths.phaseAsComplexNumber(c, true);
 
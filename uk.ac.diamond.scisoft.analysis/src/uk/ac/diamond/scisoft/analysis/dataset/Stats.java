@@ -17,6 +17,7 @@
 package uk.ac.diamond.scisoft.analysis.dataset;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.TreeMap;
@@ -40,38 +41,34 @@ public class Stats {
 	private static final String STORE_QUARTILE1 = "quartile1";
 	private static final String STORE_QUARTILE3 = "quartile3";
 
-	// calculates statistics and returns sorted dataset (0th element if compound)
-	private static AbstractDataset calcQuartileStats(final AbstractDataset a) {
-		AbstractDataset s = null;
+	private static final double[] QUARTILES = new double[] {0.25, 0.5, 0.75};
+
+	private static final int INSERTION_LIMIT = 16;
+
+	// calculates quartiles and stores them
+	private static void calcQuartileStats(final AbstractDataset a) {
 		final int is = a.getElementsPerItem();
+		final double[] w = new double[a.getSize()];
 
 		if (is == 1) {
-			s = DatasetUtils.sort(a, null);
-		
-			a.setStoredValue(STORE_MEDIAN, Double.valueOf(pQuantile(s, 0.5)));
-			a.setStoredValue(STORE_QUARTILE1, Double.valueOf(pQuantile(s, 0.25)));
-			a.setStoredValue(STORE_QUARTILE3, Double.valueOf(pQuantile(s, 0.75)));
+			final double[] q = pQuantile(w, fillBuffer(a, 0, w), QUARTILES);
+			a.setStoredValue(STORE_QUARTILE1, Double.valueOf(q[0]));
+			a.setStoredValue(STORE_MEDIAN, Double.valueOf(q[1]));
+			a.setStoredValue(STORE_QUARTILE3, Double.valueOf(q[2]));
 		} else {
-			AbstractDataset w = AbstractDataset.zeros(a.shape, a.getDtype());
-			a.setStoredValue(STORE_MEDIAN, new double[is]);
-			a.setStoredValue(STORE_QUARTILE1, new double[is]);
-			a.setStoredValue(STORE_QUARTILE3, new double[is]);
+			final double[] q1 = new double[is];
+			final double[] q2 = new double[is];
+			final double[] q3 = new double[is];
 			for (int j = 0; j < is; j++) {
-				((AbstractCompoundDataset) a).copyElements(w, j);
-				w.sort(null);
-
-				double[] store;
-				store = (double[]) a.getStoredValue(STORE_MEDIAN);
-				store[j] = pQuantile(w, 0.5);
-				store = (double[]) a.getStoredValue(STORE_QUARTILE1);
-				store[j] = pQuantile(w, 0.25);
-				store = (double[]) a.getStoredValue(STORE_QUARTILE3);
-				store[j] = pQuantile(w, 0.75);
-				if (j == 0)
-					s = w.clone();
+				final double[] q = pQuantile(w, fillBuffer(a, j, w), QUARTILES);
+				q1[j] = q[0];
+				q2[j] = q[1];
+				q3[j] = q[2];
 			}
+			a.setStoredValue(STORE_QUARTILE1, q1);
+			a.setStoredValue(STORE_MEDIAN, q2);
+			a.setStoredValue(STORE_QUARTILE3, q3);
 		}
-		return s;
 	}
 
 	static private Object getQStatistics(final AbstractDataset a, final String stat) {
@@ -86,122 +83,244 @@ public class Stats {
 	static private AbstractDataset getQStatistics(final AbstractDataset a, int axis, final String stat) {
 		axis = a.checkAxis(axis);
 		Object obj = a.getStoredValue(stat);
-		final int is = a.getElementsPerItem();
 
 		if (obj == null) {
-			if (is == 1) {
-				AbstractDataset s = DatasetUtils.sort(a, axis);
-
-				a.setStoredValue(STORE_MEDIAN + "-" + axis, pQuantile(s, axis, 0.5));
-				a.setStoredValue(STORE_QUARTILE1 + "-" + axis, pQuantile(s, axis, 0.25));
-				a.setStoredValue(STORE_QUARTILE3 + "-" + axis, pQuantile(s, axis, 0.75));
-			} else {
-				AbstractDataset w = AbstractDataset.zeros(a.shape, a.getDtype());
-				for (int j = 0; j < is; j++) {
-					((AbstractCompoundDataset) a).copyElements(w, j);
-					w.sort(axis);
-
-					CompoundDoubleDataset s;
-					final AbstractDataset c = pQuantile(w, axis, 0.5);
-					if (j == 0) {
-						s = (CompoundDoubleDataset) AbstractDataset.zeros(is, c.shape, c.getDtype());
-						a.setStoredValue(STORE_MEDIAN + "-" + axis, s);
-						s = (CompoundDoubleDataset) AbstractDataset.zeros(is, c.shape, c.getDtype());
-						a.setStoredValue(STORE_QUARTILE1 + "-" + axis, s);
-						s = (CompoundDoubleDataset) AbstractDataset.zeros(is, c.shape, c.getDtype());
-						a.setStoredValue(STORE_QUARTILE3 + "-" + axis, s);
-					}
-					s = (CompoundDoubleDataset) a.getStoredValue(STORE_MEDIAN + "-" + axis);
-					s.setElements(c, j);
-
-					s = (CompoundDoubleDataset) a.getStoredValue(STORE_QUARTILE1 + "-" + axis);
-					s.setElements(pQuantile(w, axis, 0.25), j);
-
-					s = (CompoundDoubleDataset) a.getStoredValue(STORE_QUARTILE3 + "-" + axis);
-					s.setElements(pQuantile(w, axis, 0.75), j);
-				}
-			}
+			final AbstractDataset[] q = pQuantile(a, axis, QUARTILES);
+			a.setStoredValue(STORE_QUARTILE1 + "-" + axis, q[0]);
+			a.setStoredValue(STORE_MEDIAN + "-" + axis, q[1]);
+			a.setStoredValue(STORE_QUARTILE3 + "-" + axis, q[2]);
 			obj = a.getStoredValue(stat);
 		}
 
 		return (AbstractDataset) obj;
 	}
 
-	// process a sorted dataset
-	private static double pQuantile(final AbstractDataset s, final double q) {
-		double f = (s.size - 1) * q; // fraction of sample number
-		if (f < 0)
-			return Double.NaN;
-		int qpt = (int) Math.floor(f); // quantile point
-		f -= qpt;
-
-		double quantile = s.getElementDoubleAbs(qpt);
-		if (f > 0) {
-			quantile = (1-f)*quantile + f*s.getElementDoubleAbs(qpt+1);
+	/**
+	 * Copy element of items in dataset to buffer with any NaNs placed at its end
+	 * @param a
+	 * @param element
+	 * @param w buffer with length of dataset size
+	 * @return number of values that are not NaNs
+	 */
+	private static int fillBuffer(final AbstractDataset a, final int element, final double[] w) {
+		final IndexIterator it = a.getIterator();
+		int m = 0;
+		int n = w.length;
+		while (it.hasNext()) {
+			final double v = a.getElementDoubleAbs(it.index + element);
+			if (Double.isNaN(v)) {
+				w[--n] = v;
+			} else {
+				w[m++] = v;
+			}
 		}
-		return quantile;
+		return m;
 	}
 
-	// process a sorted dataset and returns a double or compound double dataset
-	private static AbstractDataset pQuantile(final AbstractDataset s, final int axis, final double q) {
-		final int rank = s.getRank();
-		final int is = s.getElementsPerItem();
+	/**
+	 * Copy values spaced by a step in an array to buffer with any NaNs placed at its end
+	 * @param values
+	 * @param start index of first value
+	 * @param step between values
+	 * @param w buffer
+	 * @return number of values that are not NaNs
+	 */
+	static int fillBuffer(final double[] values, final int start, final int step, final double[] w) {
+		int m = 0;
+		int n = w.length;
+		for (int i = start; i < values.length; i += step) {
+			final double v = values[i];
+			if (Double.isNaN(v)) {
+				w[--n] = v;
+			} else {
+				w[m++] = v;
+			}
+		}
+		return m;
+	}
 
-		int[] oshape = s.getShape();
+	/**
+	 * Calculate quantiles of values in buffer as if it were sorted with NaNs at its end. The buffer
+	 * is partially reordered in-place by selection so no sorting is done
+	 * @param w buffer with NaNs placed at its end
+	 * @param m number of values that are not NaNs
+	 * @param q quantiles
+	 * @return quantile values
+	 */
+	static double[] pQuantile(final double[] w, final int m, final double... q) {
+		final int nq = q.length;
+		final double[] points = new double[nq];
+		final int n = w.length;
+		if (n == 0) {
+			Arrays.fill(points, Double.NaN);
+			return points;
+		}
 
-		double f = (oshape[axis] - 1) * q; // fraction of sample number
-		int qpt = (int) Math.floor(f); // quantile point
-		f -= qpt;
+		// visit quantiles in increasing order so each selection works on what is left
+		final int[] order = new int[nq];
+		for (int i = 0; i < nq; i++) {
+			int k = i;
+			for (; k > 0 && q[order[k - 1]] > q[i]; k--) {
+				order[k] = order[k - 1];
+			}
+			order[k] = i;
+		}
 
-		oshape[axis] = 1;
-		int[] qshape = AbstractDataset.squeezeShape(oshape, false);
-		AbstractDataset qds = AbstractDataset.zeros(is, qshape, AbstractDataset.FLOAT64);
+		int lo = 0;
+		for (int o : order) {
+			double f = (n - 1) * q[o]; // fraction of sample number
+			final int qpt = (int) Math.floor(f); // quantile point
+			f -= qpt;
+			if (qpt >= m) {
+				points[o] = Double.NaN;
+				continue;
+			}
 
-		IndexIterator qiter = qds.getIterator(true);
-		int[] qpos = qiter.getPos();
-		int[] spos = oshape;
+			select(w, lo, m - 1, qpt);
+			lo = qpt;
+			double quantile = w[qpt];
+			if (f > 0) {
+				double next = Double.NaN;
+				if (qpt + 1 < m) { // values after quantile point are not less so find smallest
+					next = w[qpt + 1];
+					for (int i = qpt + 2; i < m; i++) {
+						if (w[i] < next) {
+							next = w[i];
+						}
+					}
+				}
+				quantile = (1 - f) * quantile + f * next;
+			}
+			points[o] = quantile;
+		}
+		return points;
+	}
 
-		while (qiter.hasNext()) {
-			int i = 0;
-			for (; i < axis; i++) {
-				spos[i] = qpos[i];
+	/**
+	 * Partially order given range of buffer so that the k-th value is in the place it would be
+	 * if the range was sorted, with no larger values before it and no smaller values after it.
+	 * This uses quickselect with median-of-three pivots and falls back to sorting if too many
+	 * partitions are needed
+	 * @param w buffer with no NaNs in range
+	 * @param lo start of range
+	 * @param hi end of range (inclusive)
+	 * @param k
+	 */
+	private static void select(final double[] w, int lo, int hi, final int k) {
+		int depth = 2 * (32 - Integer.numberOfLeadingZeros(hi - lo + 1));
+		while (hi - lo > INSERTION_LIMIT) {
+			if (depth-- == 0) {
+				Arrays.sort(w, lo, hi + 1);
+				return;
 			}
-			spos[i++] = qpt;
-			for (; i < rank; i++) {
-				spos[i] = qpos[i-1];
+
+			final int mid = (lo + hi) >>> 1;
+			if (w[mid] < w[lo])
+				swap(w, lo, mid);
+			if (w[hi] < w[lo])
+				swap(w, lo, hi);
+			if (w[hi] < w[mid])
+				swap(w, mid, hi);
+			final double pivot = w[mid];
+
+			int i = lo;
+			int j = hi;
+			while (i <= j) {
+				while (w[i] < pivot)
+					i++;
+				while (w[j] > pivot)
+					j--;
+				if (i <= j) {
+					swap(w, i++, j--);
+				}
 			}
 
-			Object obj = s.getObject(spos);
-			qds.set(obj, qpos);
+			if (k <= j) {
+				hi = j;
+			} else if (k >= i) {
+				lo = i;
+			} else {
+				return; // values between j and i are equal to pivot
+			}
 		}
 
-		if (f > 0) {
-			qiter = qds.getIterator(true);
-			qpos = qiter.getPos();
-			qpt++;
-			AbstractDataset rds = AbstractDataset.zeros(is, qshape, AbstractDataset.FLOAT64);
-			
-			while (qiter.hasNext()) {
-				int i = 0;
-				for (; i < axis; i++) {
-					spos[i] = qpos[i];
-				}
-				spos[i++] = qpt;
-				for (; i < rank; i++) {
-					spos[i] = qpos[i-1];
+		for (int i = lo + 1; i <= hi; i++) {
+			final double v = w[i];
+			int j = i - 1;
+			for (; j >= lo && w[j] > v; j--) {
+				w[j + 1] = w[j];
+			}
+			w[j + 1] = v;
+		}
+	}
+
+	private static void swap(final double[] w, final int i, final int j) {
+		final double t = w[i];
+		w[i] = w[j];
+		w[j] = t;
+	}
+
+	// calculate quantiles along axis and returns double or compound double datasets
+	private static AbstractDataset[] pQuantile(final AbstractDataset a, final int axis, final double... q) {
+		final int is = a.getElementsPerItem();
+		final int[] oshape = a.getShape();
+		final int alen = oshape[axis];
+		oshape[axis] = 1;
+
+		final int[] qshape = AbstractDataset.squeezeShape(oshape, false);
+		final AbstractDataset[] qds = new AbstractDataset[q.length];
+		final double[][] qdata = new double[q.length][];
+		for (int i = 0; i < q.length; i++) {
+			qds[i] = AbstractDataset.zeros(is, qshape, AbstractDataset.FLOAT64);
+			qdata[i] = (double[]) qds[i].getBuffer();
+		}
+
+		final double[] w = new double[alen];
+		final int scale = a.stride == null ? is : 1; // as index of contiguous dataset is in items
+		final PositionIterator iter = a.getPositionIterator(axis);
+		final int[] pos = iter.getPos();
+		int c = 0;
+		while (iter.hasNext()) {
+			pos[axis] = 0;
+			final int start = scale * a.get1DIndex(pos);
+			int step = 0;
+			if (alen > 1) {
+				pos[axis] = 1;
+				step = scale * a.get1DIndex(pos) - start;
+				pos[axis] = 0;
+			}
+
+			for (int j = 0; j < is; j++) {
+				int m = 0;
+				int n = alen;
+				for (int k = 0, index = start + j; k < alen; k++, index += step) {
+					final double v = a.getElementDoubleAbs(index);
+					if (Double.isNaN(v)) {
+						w[--n] = v;
+					} else {
+						w[m++] = v;
+					}
 				}
 
-				Object obj = s.getObject(spos);
-				rds.set(obj, qpos);
+				final double[] points = pQuantile(w, m, q);
+				for (int i = 0; i < q.length; i++) {
+					qdata[i][c + j] = points[i];
+				}
 			}
-			rds.imultiply(f);
-			qds.imultiply(1-f);
-			qds.iadd(rds);
+			c += is;
 		}
 
 		return qds;
 	}
 
+	private static void checkQuantiles(final double... values) {
+		for (double q : values) {
+			if (q < 0 || q > 1) {
+				throw new IllegalArgumentException("Quantile requested is outside [0,1]");
+			}
+		}
+	}
+
 	/**
 	 * Calculate quantile of dataset which is defined as the inverse of the cumulative distribution function (CDF)
 	 * @param a
@@ -209,11 +328,7 @@ public class Stats {
 	 * @return point at which CDF has value q
 	 */
 	public static double quantile(final AbstractDataset a, final double q) {
-		if (q < 0 || q > 1) {
-			throw new IllegalArgumentException("Quantile requested is outside [0,1]");
-		}
-		final AbstractDataset s = calcQuartileStats(a);
-		return pQuantile(s, q);
+		return quantile(a, new double[] {q})[0];
 	}
 
 	/**
@@ -223,16 +338,9 @@ public class Stats {
 	 * @return points at which CDF has given values
 	 */
 	public static double[] quantile(final AbstractDataset a, final double... values) {
-		final double[] points  = new double[values.length];
-		final AbstractDataset s = calcQuartileStats(a);
-		for (int i = 0; i < points.length; i++) {
-			final double q = values[i];
-			if (q < 0 || q > 1) {
-				throw new IllegalArgumentException("Quantile requested is outside [0,1]");
-			}
-			points[i] = pQuantile(s, q);
-		}
-		return points;
+		checkQuantiles(values);
+		final double[] w = new double[a.getSize()];
+		return pQuantile(w, fillBuffer(a, 0, w), values);
 	}
 
 	/**
@@ -243,39 +351,8 @@ public class Stats {
 	 * @return points at which CDF has given values
 	 */
 	public static AbstractDataset[] quantile(final AbstractDataset a, final int axis, final double... values) {
-		final AbstractDataset[] points  = new AbstractDataset[values.length];
-		final int is = a.getElementsPerItem();
-
-		if (is == 1) {
-			AbstractDataset s = DatasetUtils.sort(a, axis);
-			for (int i = 0; i < points.length; i++) {
-				final double q = values[i];
-				if (q < 0 || q > 1) {
-					throw new IllegalArgumentException("Quantile requested is outside [0,1]");
-				}
-				points[i] = pQuantile(s, axis, q);
-			}
-		} else {
-			AbstractDataset w = AbstractDataset.zeros(a.shape, a.getDtype());
-			for (int j = 0; j < is; j++) {
-				((AbstractCompoundDataset) a).copyElements(w, j);
-				w.sort(axis);
-
-				for (int i = 0; i < points.length; i++) {
-					final double q = values[i];
-					if (q < 0 || q > 1) {
-						throw new IllegalArgumentException("Quantile requested is outside [0,1]");
-					}
-					final AbstractDataset c = pQuantile(w, axis, q);
-					if (j == 0) {
-						points[i] = AbstractDataset.zeros(is, c.shape, c.getDtype());
-					}
-					((CompoundDoubleDataset) points[i]).setElements(c, j);
-				}
-			}
-		}
-
-		return points;
+		checkQuantiles(values);
+		return pQuantile(a, a.checkAxis(axis), values);
 	}
 
 	/**
@@ -284,7 +361,7 @@ public class Stats {
 	 * @return median
 	 */
 	public static AbstractDataset median(final AbstractDataset a, final int axis) {
-		return getQStatistics(a, axis, STORE_MEDIAN + "-" + axis);
+		return getQStatistics(a, axis, STORE_MEDIAN + "-" + a.checkAxis(axis));
 	}
 
 	/**
@@ -308,7 +385,7 @@ public class Stats {
 		}
 
 		double[] q1 = (double[]) getQStatistics(a, STORE_QUARTILE1);
-		double[] q3 = (double[]) getQStatistics(a, STORE_QUARTILE3);
+		double[] q3 = ((double[]) getQStatistics(a, STORE_QUARTILE3)).clone();
 		for (int j = 0; j < is; j++) {
 			q3[j] -= q1[j];
 		}
@@ -321,12 +398,93 @@ public class Stats {
 	 * @param axis
 	 * @return range
 	 */
-	public static AbstractDataset iqr(final AbstractDataset a, final int axis) {
+	public static AbstractDataset iqr(final AbstractDataset a, int axis) {
+		axis = a.checkAxis(axis);
 		AbstractDataset q3 = getQStatistics(a, axis, STORE_QUARTILE3 + "-" + axis);
 
 		return Maths.subtract(q3, a.getStoredValue(STORE_QUARTILE1 + "-" + axis));
 	}
 
+	/**
+	 * Maximum number of items loaded at once from a lazy dataset into a sketch
+	 */
+	private static final int SKETCH_BLOCK = 1 << 22;
+
+	/**
+	 * Create a quantile sketch of lazy dataset. The dataset is loaded in slices along its first
+	 * axis so that datasets larger than memory can be processed
+	 * @param a
+	 * @return sketch
+	 */
+	public static QuantileSketch createQuantileSketch(final ILazyDataset a) {
+		return createQuantileSketch(a, QuantileSketch.DEFAULT_K);
+	}
+
+	/**
+	 * Create a quantile sketch of lazy dataset. The dataset is loaded in slices along its first
+	 * axis so that datasets larger than memory can be processed
+	 * @param a
+	 * @param k parameter that sets size and accuracy of sketch
+	 * @return sketch
+	 */
+	public static QuantileSketch createQuantileSketch(final ILazyDataset a, final int k) {
+		final QuantileSketch sketch = new QuantileSketch(k);
+		final int[] shape = a.getShape();
+		final int rank = shape.length;
+		if (rank == 0 || a.getSize() <= SKETCH_BLOCK) {
+			updateSketch(sketch, a.getSlice((int[]) null, null, null));
+			return sketch;
+		}
+
+		final int length = shape[0];
+		final int rows = Math.max(1, SKETCH_BLOCK / (a.getSize() / length));
+		final int[] start = new int[rank];
+		final int[] stop = shape.clone();
+		for (int i = 0; i < length; i += rows) {
+			start[0] = i;
+			stop[0] = Math.min(length, i + rows);
+			updateSketch(sketch, a.getSlice(start, stop, null));
+		}
+		return sketch;
+	}
+
+	private static void updateSketch(final QuantileSketch sketch, final IDataset slice) {
+		if (slice == null) {
+			throw new IllegalArgumentException("Could not get slice of dataset");
+		}
+		sketch.update(slice);
+	}
+
+	/**
+	 * Calculate approximate quantiles of lazy dataset using a quantile sketch
+	 * @param a
+	 * @param values
+	 * @return points at which CDF has given values
+	 * @see QuantileSketch
+	 */
+	public static double[] approximateQuantile(final ILazyDataset a, final double... values) {
+		checkQuantiles(values);
+		return createQuantileSketch(a).getQuantiles(values);
+	}
+
+	/**
+	 * @param a
+	 * @return approximate median of lazy dataset
+	 * @see QuantileSketch
+	 */
+	public static double approximateMedian(final ILazyDataset a) {
+		return createQuantileSketch(a).getMedian();
+	}
+
+	/**
+	 * @param a
+	 * @return approximate interquartile range of lazy dataset
+	 * @see QuantileSketch
+	 */
+	public static double approximateIQR(final ILazyDataset a) {
+		return createQuantileSketch(a).getIQR();
+	}
+
 	static private Object getHigherStatistic(final AbstractDataset a, final boolean ignoreNaNs, String stat) {
 		Object obj = a.getStoredValue(stat);
 		if (obj == null) {
@@ -129,9 +129,10 @@ public class StrideIterator extends SliceIterator {
 				return false;
 			}
 			index += istep;
+			return index != imax;
 		}
 
-		return index != imax;
+		return true; // zero or negative strides can revisit imax so do not compare
 	}
 
 	@Override
@@ -17,12 +17,16 @@
 package uk.ac.diamond.scisoft.analysis.dataset.function;
 
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveTask;
 
 import javax.vecmath.Point2i;
@@ -37,6 +41,7 @@ import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.FloatDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.Maths;
+import uk.ac.diamond.scisoft.analysis.diffraction.DetectorProperties;
 import uk.ac.diamond.scisoft.analysis.diffraction.QSpace;
 import uk.ac.diamond.scisoft.analysis.roi.ROIProfile.XAxis;
 
@@ -46,6 +51,13 @@ import uk.ac.diamond.scisoft.analysis.roi.ROIProfile.XAxis;
  * 
  * Cartesian coordinate system is x from left to right and y from top to bottom on the display
  * so corresponding polar coordinate is radius from centre and azimuthal angle clockwise from positive x axis
+ * <p>
+ * When plans are used, applying this with interpolation (and without errors) or over a q-space axis
+ * creates a {@link PolarIntegrationPlan} for the image shape which is used for that and later images.
+ * Creating a plan takes several times as long as a direct integration so it only pays off when many
+ * images are integrated with the same settings. Plans are shared by all functions through a small cache
+ * which is keyed by the shape, the settings, and the identity and contents of the mask, so a mask that
+ * is modified in place (with its dataset set dirty) gets a new plan.
  */
 public class MapToPolarAndIntegrate implements DatasetToDatasetFunction {
 	private double cx, cy;
@@ -62,6 +74,104 @@ public class MapToPolarAndIntegrate implements DatasetToDatasetFunction {
 	
 	private QSpace qSpace;
 
+	private boolean usePlan = usePlanByDefault;
+
+	private static final int MAX_PLANS = 4;
+
+	private static volatile boolean usePlanByDefault = Boolean.getBoolean("uk.ac.diamond.scisoft.analysis.dataset.function.polarplan");
+
+	@SuppressWarnings("serial")
+	private static final Map<PlanKey, Reference<PolarIntegrationPlan>> plans = new LinkedHashMap<PlanKey, Reference<PolarIntegrationPlan>>(8, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Entry<PlanKey, Reference<PolarIntegrationPlan>> eldest) {
+			return size() > MAX_PLANS;
+		}
+	};
+
+	/**
+	 * @return true if functions created afterwards use plans. This can be set with the system
+	 * property <tt>uk.ac.diamond.scisoft.analysis.dataset.function.polarplan</tt>
+	 */
+	public static boolean isUsePlanByDefault() {
+		return usePlanByDefault;
+	}
+
+	/**
+	 * Set whether functions created afterwards (including those used for sector profiles) use plans
+	 * @param use
+	 */
+	public static void setUsePlanByDefault(boolean use) {
+		usePlanByDefault = use;
+	}
+
+	/**
+	 * Identifies the settings and mask that a plan is made from
+	 */
+	private static class PlanKey {
+		private final int[] shape;
+		private final double[] geometry;
+		private final boolean clip, doRadial, doAzimuthal;
+		private final Reference<AbstractDataset> mask;
+		private final int maskHash;
+		private final XAxis axisType;
+		private final DetectorProperties detProps;
+		private final Vector3d ki;
+
+		PlanKey(MapToPolarAndIntegrate f, int[] shape) {
+			this.shape = shape.clone();
+			geometry = new double[] { f.cx, f.cy, f.srad, f.sphi, f.erad, f.ephi, f.dpp,
+					f.isQSpaceAxis() ? f.qSpace.getWavelength() : 0 };
+			clip = f.clip;
+			doRadial = f.doRadial;
+			doAzimuthal = f.doAzimuthal;
+			mask = f.mask == null ? null : new WeakReference<AbstractDataset>(f.mask);
+			maskHash = f.mask == null ? 0 : f.mask.hashCode();
+			if (f.isQSpaceAxis()) {
+				axisType = f.axisType;
+				detProps = f.qSpace.getDetectorProperties().clone();
+				ki = new Vector3d(f.qSpace.getInitialWavevector());
+			} else {
+				axisType = null;
+				detProps = null;
+				ki = null;
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return (Arrays.hashCode(shape) * 31 + Arrays.hashCode(geometry)) * 31 + maskHash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof PlanKey))
+				return false;
+			PlanKey other = (PlanKey) obj;
+			if (mask == null || other.mask == null) {
+				if (mask != other.mask)
+					return false;
+			} else if (mask.get() == null || mask.get() != other.mask.get()) {
+				return false;
+			}
+			return maskHash == other.maskHash && clip == other.clip && doRadial == other.doRadial
+					&& doAzimuthal == other.doAzimuthal && axisType == other.axisType
+					&& Arrays.equals(shape, other.shape) && Arrays.equals(geometry, other.geometry)
+					&& (detProps == null ? other.detProps == null : detProps.equals(other.detProps))
+					&& (ki == null ? other.ki == null : ki.equals(other.ki));
+		}
+	}
+
+	/**
+	 * Set whether plans are used. The default is given by {@link #isUsePlanByDefault()}
+	 * 
+	 * @param usePlan
+	 */
+	public void setUsePlan(boolean usePlan) {
+		this.usePlan = usePlan;
+	}
+
 	public void setQSpace(QSpace qSpace, XAxis axisType) {
 		this.qSpace = (qSpace == null) ? null : qSpace;
 		this.axisType = (qSpace == null || axisType == null) ? XAxis.PIXEL : axisType;
@@ -178,6 +288,58 @@ public class MapToPolarAndIntegrate implements DatasetToDatasetFunction {
 		}
 	}
 
+	private boolean isQSpaceAxis() {
+		return qSpace != null && axisType != null && axisType != XAxis.PIXEL;
+	}
+
+	/**
+	 * Create plan for integrating images of given shape with the current settings, using bilinear
+	 * interpolation and without errors or over the q-space axis if one is set. This function then
+	 * uses plans
+	 * 
+	 * @param shape
+	 * @return plan
+	 */
+	public PolarIntegrationPlan createPlan(int[] shape) {
+		usePlan = true;
+		return getPlan(shape);
+	}
+
+	/**
+	 * @return plan from cache or a new plan
+	 */
+	private PolarIntegrationPlan getPlan(int[] shape) {
+		final PlanKey key = new PlanKey(this, shape);
+		synchronized (plans) {
+			final Reference<PolarIntegrationPlan> ref = plans.get(key);
+			final PolarIntegrationPlan plan = ref == null ? null : ref.get();
+			if (plan != null) {
+				return plan;
+			}
+		}
+
+		final PolarIntegrationPlan plan;
+		if (isQSpaceAxis()) {
+			final int npts = (int) ((erad - srad + 1) * dpp);
+			final int apts = (int) (erad * (ephi - sphi) * dpp + 1);
+			final AbstractDataset[] axes = setupSelectedAxes(npts, apts, 1.0 / dpp, (ephi - sphi) / apts);
+			plan = new PolarIntegrationPlan(shape, mask, cx, cy, srad, sphi, erad, ephi, dpp, doRadial, doAzimuthal,
+					axes[0], axes[1], new PolarIntegrationPlan.PixelMapper() {
+						@Override
+						public double value(double x, double y) {
+							return pixelToValue(x, y);
+						}
+					});
+		} else {
+			plan = new PolarIntegrationPlan(shape, mask, cx, cy, srad, sphi, erad, ephi, dpp, clip, doRadial,
+					doAzimuthal);
+		}
+		synchronized (plans) {
+			plans.put(key, new SoftReference<PolarIntegrationPlan>(plan));
+		}
+		return plan;
+	}
+
 	/**
 	 * Wrapper call that selects the appropriate integration algorithm
 	 *
@@ -187,9 +349,12 @@ public class MapToPolarAndIntegrate implements DatasetToDatasetFunction {
 	 */
 	@Override
 	public List<AbstractDataset> value(IDataset... datasets) {
-		if (qSpace != null && axisType != null && axisType != XAxis.PIXEL) {
+		if (isQSpaceAxis()) {
 			return simple_qvalue(datasets);
 		}
+		if (usePlan && interpolate && !doErrors) {
+			return planned_value(datasets);
+		}
 		if (doErrors || interpolate) {
 			return interpolate_value_fj(datasets);
 		}
@@ -474,18 +639,30 @@ public class MapToPolarAndIntegrate implements DatasetToDatasetFunction {
 			if (ids.getRank() != 2) {
 				throw new IllegalArgumentException("operating on 2d arrays only");
 			}
-			double dr = 1.0/dpp;
-			int npts =  (int) ((erad - srad + 1) * dpp);
-			int apts = (int) (erad * (ephi - sphi) * dpp + 1);
-			double dphi = (ephi - sphi) / apts;
-			
-			// Calculate bounding rectangle around the sector
-			int nxstart = (int) Math.max(0, cx - erad);
-			int nx = (int) Math.min(ids.getShape()[1], cx + erad);
-			int nystart = (int) Math.max(0, cy - erad);
-			int ny = (int) Math.min(ids.getShape()[0], cy + erad);
-			
-			AbstractDataset[] rAxis = setupSelectedAxes(npts, apts, dr, dphi);
+			AbstractDataset[] rAxis;
+			if (usePlan && ids.getElementsPerItem() == 1) {
+				PolarIntegrationPlan plan = getPlan(ids.getShape());
+				for (AbstractDataset p : plan.value(ids)) {
+					result.add(DatasetUtils.cast(p, AbstractDataset.FLOAT32));
+				}
+				rAxis = plan.getAxes();
+			} else {
+				double dr = 1.0/dpp;
+				int npts =  (int) ((erad - srad + 1) * dpp);
+				int apts = (int) (erad * (ephi - sphi) * dpp + 1);
+				double dphi = (ephi - sphi) / apts;
+
+				// Calculate bounding rectangle around the sector
+				int nxstart = (int) Math.max(0, cx - erad);
+				int nx = (int) Math.min(ids.getShape()[1], cx + erad);
+				int nystart = (int) Math.max(0, cy - erad);
+				int ny = (int) Math.min(ids.getShape()[0], cy + erad);
+
+				rAxis = setupSelectedAxes(npts, apts, dr, dphi);
+				QSpaceProfileTask profileTask = new QSpaceProfileTask(nxstart, nx, nystart, ny, ids);
+				profileTask.setAxes(rAxis);
+				result.addAll(ProfileForkJoinPool.profileForkJoinPool.invoke(profileTask));
+			}
 			
 			AbstractDataset radAxis = rAxis[0];
 			AbstractDataset azAxis = rAxis[1];
@@ -507,9 +684,6 @@ public class MapToPolarAndIntegrate implements DatasetToDatasetFunction {
 				break;
 			}
 			azAxis.setName("Angle (\u00b0)");
-			QSpaceProfileTask profileTask = new QSpaceProfileTask(nxstart, nx, nystart, ny, ids);
-			profileTask.setAxes(rAxis);
-			result.addAll(ProfileForkJoinPool.profileForkJoinPool.invoke(profileTask));
 			result.add(new FloatDataset()) ;
 			result.add(new FloatDataset()) ;
 			result.add(azAxis) ;
@@ -666,6 +840,24 @@ public class MapToPolarAndIntegrate implements DatasetToDatasetFunction {
 	}
 	
 			
+	/**
+	 * Use plan for datasets with single-element items
+	 */
+	private List<AbstractDataset> planned_value(IDataset... datasets) {
+		if (datasets.length == 0) {
+			return null;
+		}
+
+		List<AbstractDataset> result = new ArrayList<AbstractDataset>();
+		for (IDataset ids : datasets) {
+			if (ids.getRank() != 2) {
+				throw new IllegalArgumentException("operating on 2d arrays only");
+			}
+			result.addAll(ids.getElementsPerItem() == 1 ? getPlan(ids.getShape()).value(ids) : interpolate_value_fj(ids));
+		}
+		return result;
+	}
+
 	/**
 	 * This is a recursive method that implements mapping and integration
 	 * of a Cartesian grid sampled data (pixels) to polar grid
@@ -917,12 +1109,3 @@ public class MapToPolarAndIntegrate implements DatasetToDatasetFunction {
 		
 	}
 }
-
-
-final class ProfileForkJoinPool {
-	
-    private ProfileForkJoinPool() {
-	}
-
-	static final ForkJoinPool profileForkJoinPool = new ForkJoinPool();
-}
\ No newline at end of file
@@ -22,6 +22,7 @@ import java.util.List;
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
 import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.Image;
 import uk.ac.diamond.scisoft.analysis.dataset.PositionIterator;
 import uk.ac.diamond.scisoft.analysis.dataset.Stats;
 
@@ -58,7 +59,12 @@ public class Median implements DatasetToDatasetFunction {
 			
 			if (ishape.length > 1)
 				throw new IllegalArgumentException("Only 1D input datasets are supported");
-			
+
+			if (is == 1 && ishape.length == 1) {
+				result.add(Image.medianFilter(dataset, new int[] {2 * window + 1}));
+				continue;
+			}
+
 			AbstractDataset filtered = AbstractDataset.zeros(is , ishape, dt);
 			
 			final PositionIterator iterPos = filtered.getPositionIterator();
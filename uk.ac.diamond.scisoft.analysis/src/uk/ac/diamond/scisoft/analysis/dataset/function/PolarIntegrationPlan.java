@@ -0,0 +1,521 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.math3.util.MathUtils;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ContiguousIterator;
+import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
+
+/**
+ * Precomputed plan for the interpolating integration or the integration over q-space axes done
+ * by {@link MapToPolarAndIntegrate}
+ * <p>
+ * The weights of every pixel, that is the bilinear interpolation weights of every sampling point
+ * scaled by the mask and by the area of the sample or the weights of the nearest points of a
+ * q-space axis, are summed once for each radial and azimuthal bin and held as compressed sparse
+ * rows of pixel indices and weights. Integrating a frame is then a sparse matrix-vector product
+ * that is split over bins in a fork-join pool. A plan is only valid for images of the shape and
+ * for the geometry, mask and flags it was created with.
+ *
+ * @see MapToPolarAndIntegrate#createPlan(int[])
+ */
+public class PolarIntegrationPlan implements DatasetToDatasetFunction {
+	/**
+	 * Minimum number of weights summed in a task
+	 */
+	private static final int GRAIN = 32768;
+
+	private final int[] shape;
+	private final int nr;
+	private final int np;
+	private final Rows radial;
+	private final Rows azimuthal;
+	private final AbstractDataset[] axes;
+
+	/**
+	 * Compressed sparse rows with a constant term for each row
+	 */
+	private static class Rows {
+		int[] start;
+		int[] index;
+		float[] weight;
+		double[] offset;
+
+		int size() {
+			return start[start.length - 1];
+		}
+	}
+
+	/**
+	 * Accumulator of weights for one row
+	 */
+	private static class RowBuilder {
+		private final double[] dense;
+		private final int[] touched;
+		private int ntouched;
+
+		private final Rows rows;
+		private int nrows;
+		private int size;
+
+		RowBuilder(int pixels, int n) {
+			dense = new double[pixels];
+			touched = new int[pixels];
+			rows = new Rows();
+			rows.start = new int[n + 1];
+			rows.offset = new double[n];
+			rows.index = new int[Math.max(16, pixels)];
+			rows.weight = new float[rows.index.length];
+		}
+
+		void add(int i, double w) {
+			if (w == 0) {
+				return;
+			}
+			if (dense[i] == 0) {
+				touched[ntouched++] = i;
+			}
+			dense[i] += w;
+		}
+
+		void addOffset(double v) {
+			rows.offset[nrows] += v;
+		}
+
+		void endRow() {
+			if (size + ntouched > rows.index.length) {
+				final int n = Math.max(size + ntouched, 2 * rows.index.length);
+				rows.index = Arrays.copyOf(rows.index, n);
+				rows.weight = Arrays.copyOf(rows.weight, n);
+			}
+			Arrays.sort(touched, 0, ntouched);
+			for (int j = 0; j < ntouched; j++) {
+				final int i = touched[j];
+				rows.index[size] = i;
+				rows.weight[size++] = (float) dense[i];
+				dense[i] = 0;
+			}
+			ntouched = 0;
+			rows.start[++nrows] = size;
+		}
+
+		Rows getRows() {
+			rows.index = Arrays.copyOf(rows.index, size);
+			rows.weight = Arrays.copyOf(rows.weight, size);
+			return rows;
+		}
+	}
+
+	/**
+	 * Accumulator of weights that are added pixel by pixel to any row. As pixels are added in
+	 * order, sorting the weights by row keeps the pixel indices of each row in order
+	 */
+	private static class PixelBuilder {
+		private final int n;
+		private int size;
+		private int[] row;
+		private int[] index;
+		private float[] weight;
+
+		PixelBuilder(int n) {
+			this.n = n;
+			row = new int[1024];
+			index = new int[row.length];
+			weight = new float[row.length];
+		}
+
+		void add(int r, int i, double w) {
+			if (w == 0) {
+				return;
+			}
+			if (size == row.length) {
+				final int l = 2 * size;
+				row = Arrays.copyOf(row, l);
+				index = Arrays.copyOf(index, l);
+				weight = Arrays.copyOf(weight, l);
+			}
+			row[size] = r;
+			index[size] = i;
+			weight[size++] = (float) w;
+		}
+
+		Rows getRows() {
+			final Rows rows = new Rows();
+			rows.start = new int[n + 1];
+			rows.offset = new double[n];
+			for (int k = 0; k < size; k++) {
+				rows.start[row[k] + 1]++;
+			}
+			for (int r = 0; r < n; r++) {
+				rows.start[r + 1] += rows.start[r];
+			}
+			rows.index = new int[size];
+			rows.weight = new float[size];
+			final int[] next = Arrays.copyOf(rows.start, n);
+			for (int k = 0; k < size; k++) {
+				final int j = next[row[k]]++;
+				rows.index[j] = index[k];
+				rows.weight[j] = weight[k];
+			}
+			return rows;
+		}
+	}
+
+	/**
+	 * Maps pixel to value on radial axis
+	 */
+	interface PixelMapper {
+		double value(double x, double y);
+	}
+
+	/**
+	 * Create plan for integration of images of given shape
+	 * @param shape
+	 * @param mask (can be null)
+	 * @param cx centre x
+	 * @param cy centre y
+	 * @param srad start radius
+	 * @param sphi start phi in radians
+	 * @param erad end radius
+	 * @param ephi end phi in radians
+	 * @param dpp number of samples per pixel
+	 * @param clip if false, samples outside image contribute as if pixel value is one
+	 * @param doRadial
+	 * @param doAzimuthal
+	 */
+	PolarIntegrationPlan(int[] shape, IDataset mask, double cx, double cy, double srad, double sphi, double erad,
+			double ephi, double dpp, boolean clip, boolean doRadial, boolean doAzimuthal) {
+		if (shape.length != 2) {
+			throw new IllegalArgumentException("operating on 2d arrays only");
+		}
+		this.shape = shape.clone();
+
+		final double dr = 1.0 / dpp;
+		nr = Math.max(1, (int) Math.ceil((erad - srad) / dr));
+		np = Math.max(1, (int) Math.ceil((ephi - sphi) * erad / dr));
+		final double dphi = (ephi - sphi) / np;
+
+		final double[] cos = new double[np];
+		final double[] sin = new double[np];
+		for (int p = 0; p < np; p++) {
+			final double phi = sphi + p * dphi;
+			cos[p] = Math.cos(phi);
+			sin[p] = Math.sin(phi);
+		}
+
+		final int pixels = shape[0] * shape[1];
+		final Sampler sampler = new Sampler(shape, mask, cx, cy, clip);
+		if (doRadial) {
+			final RowBuilder b = new RowBuilder(pixels, nr);
+			for (int r = 0; r < nr; r++) {
+				final double rad = srad + r * dr;
+				final double du = rad * dr * dphi;
+				for (int p = 0; p < np; p++) {
+					sampler.sample(b, rad, cos[p], sin[p], du);
+				}
+				b.endRow();
+			}
+			radial = b.getRows();
+		} else {
+			radial = null;
+		}
+
+		if (doAzimuthal) {
+			final RowBuilder b = new RowBuilder(pixels, np);
+			for (int p = 0; p < np; p++) {
+				for (int r = 0; r < nr; r++) {
+					final double rad = srad + r * dr;
+					sampler.sample(b, rad, cos[p], sin[p], rad * dr * dphi);
+				}
+				b.endRow();
+			}
+			azimuthal = b.getRows();
+		} else {
+			azimuthal = null;
+		}
+		axes = null;
+	}
+
+	/**
+	 * Create plan for integration of images of given shape over a q-space axis. Each pixel in the
+	 * sector is split between the two nearest points of the radial axis and spread evenly over
+	 * the azimuthal bins it covers, as done in {@link MapToPolarAndIntegrate}
+	 * @param shape
+	 * @param mask (can be null) pixels are excluded where it is false
+	 * @param cx centre x
+	 * @param cy centre y
+	 * @param srad start radius
+	 * @param sphi start phi in radians
+	 * @param erad end radius
+	 * @param ephi end phi in radians
+	 * @param dpp number of samples per pixel
+	 * @param doRadial
+	 * @param doAzimuthal
+	 * @param rAxis radial axis
+	 * @param aAxis azimuthal axis
+	 * @param mapper maps pixel to value on radial axis
+	 */
+	PolarIntegrationPlan(int[] shape, IDataset mask, double cx, double cy, double srad, double sphi, double erad,
+			double ephi, double dpp, boolean doRadial, boolean doAzimuthal, AbstractDataset rAxis,
+			AbstractDataset aAxis, PixelMapper mapper) {
+		if (shape.length != 2) {
+			throw new IllegalArgumentException("operating on 2d arrays only");
+		}
+		this.shape = shape.clone();
+
+		nr = (int) ((erad - srad + 1) * dpp);
+		np = (int) (erad * (ephi - sphi) * dpp + 1);
+		final double dphi = (ephi - sphi) / np;
+
+		// bounding rectangle around the sector
+		final int nxstart = (int) Math.max(0, cx - erad);
+		final int nx = (int) Math.min(shape[1], cx + erad);
+		final int nystart = (int) Math.max(0, cy - erad);
+		final int ny = (int) Math.min(shape[0], cy + erad);
+
+		final PixelBuilder rb = doRadial ? new PixelBuilder(nr) : null;
+		final PixelBuilder ab = doAzimuthal ? new PixelBuilder(np) : null;
+		for (int j = nystart; j < ny; j++) {
+			for (int i = nxstart; i < nx; i++) {
+				final double theta = MathUtils.normalizeAngle(Math.atan2(j - cy, i - cx), sphi + Math.PI);
+				if (theta < sphi || theta > ephi) {
+					continue;
+				}
+				final double xr = i - cx;
+				final double yr = j - cy;
+				final double rad = Math.sqrt(xr * xr + yr * yr);
+				if (rad < srad || rad >= erad) {
+					continue;
+				}
+				final double v = mapper.value(i, j);
+				final int k = DatasetUtils.findIndexGreaterThan(rAxis, v) - 1;
+				if (k < 0 || (k + 1) >= rAxis.getSize()) {
+					continue;
+				}
+				if (mask != null && !mask.getBoolean(j, i)) {
+					continue;
+				}
+
+				final int pixel = j * shape[1] + i;
+				if (rb != null) {
+					final double r1 = rAxis.getDouble(k);
+					final double r2 = rAxis.getDouble(k + 1);
+					final double f = (r2 - v) / (r2 - r1);
+					rb.add(k, pixel, f);
+					if (k < (nr - 1)) {
+						rb.add(k + 1, pixel, 1 - f);
+					}
+				}
+				if (ab != null) {
+					final double dk = 1. / v;
+					final int ak1 = Math.max(0, (int) ((theta - dk / 2.0 - sphi) / dphi));
+					final int ak2 = Math.min(np - 1, (int) ((theta + dk / 2.0 - sphi) / dphi));
+					final double w = 1. / (ak2 - ak1 + 1.0);
+					for (int n = ak1; n <= ak2; n++) {
+						ab.add(n, pixel, w);
+					}
+				}
+			}
+		}
+		radial = rb == null ? null : rb.getRows();
+		azimuthal = ab == null ? null : ab.getRows();
+		axes = new AbstractDataset[] { rAxis, aAxis };
+	}
+
+	/**
+	 * Adds weights of sampling points as done in {@link MapToPolarAndIntegrate} and
+	 * {@link uk.ac.diamond.scisoft.analysis.dataset.Maths#getBilinear(IDataset, IDataset, double, double)}
+	 */
+	private static class Sampler {
+		private final int[] s;
+		private final IDataset mask;
+		private final double cx, cy;
+		private final boolean clip;
+
+		Sampler(int[] shape, IDataset mask, double cx, double cy, boolean clip) {
+			s = shape;
+			this.mask = mask;
+			this.cx = cx;
+			this.cy = cy;
+			this.clip = clip;
+		}
+
+		void sample(RowBuilder b, double rad, double cos, double sin, double du) {
+			final double x = cx + rad * cos;
+			final double y = cy + rad * sin;
+			if (x < 0. || x > (s[1] + 1.) || y < 0. || y > (s[0] + 1.)) {
+				if (!clip) {
+					b.addOffset(du);
+				}
+				return;
+			}
+
+			final int i0 = (int) Math.floor(y);
+			final int i1 = (int) Math.floor(x);
+			final double u0 = y - i0;
+			final double u1 = x - i1;
+			if (i0 < -1 || i0 >= s[0] || i1 < -1 || i1 >= s[1]) {
+				return;
+			}
+
+			if (u1 > 0) {
+				if (i1 == s[1] - 1 || (u0 > 0 && i0 == s[0] - 1)) {
+					add(b, i0, i1, du);
+				} else if (u0 > 0) {
+					add(b, i0, i1, du * (1 - u1) * (1 - u0));
+					add(b, i0, i1 + 1, du * u1 * (1 - u0));
+					add(b, i0 + 1, i1 + 1, du * u1 * u0);
+					add(b, i0 + 1, i1, du * (1 - u1) * u0);
+				} else {
+					add(b, i0, i1, du * (1 - u1));
+					add(b, i0, i1 + 1, du * u1);
+				}
+			} else if (u0 > 0) {
+				if (i0 == s[0] - 1) {
+					add(b, i0, i1, du);
+				} else {
+					add(b, i0, i1, du * (1 - u0));
+					add(b, i0 + 1, i1, du * u0);
+				}
+			} else {
+				add(b, i0, i1, du);
+			}
+		}
+
+		private void add(RowBuilder b, int i0, int i1, double w) {
+			if (i0 < 0 || i1 < 0) {
+				return;
+			}
+			b.add(i0 * s[1] + i1, mask == null ? w : w * mask.getDouble(i0, i1));
+		}
+	}
+
+	/**
+	 * Sums rows of sparse matrix multiplied by pixel values
+	 */
+	private static class RowTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Rows rows;
+		private final AbstractDataset data;
+		private final double[] out;
+		private final int start, end;
+
+		RowTask(Rows rows, AbstractDataset data, double[] out, int start, int end) {
+			this.rows = rows;
+			this.data = data;
+			this.out = out;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1 && rows.start[end] - rows.start[start] > 2 * GRAIN) {
+				final int mid = (start + end) >>> 1;
+				invokeAll(new RowTask(rows, data, out, start, mid), new RowTask(rows, data, out, mid, end));
+				return;
+			}
+
+			final int[] index = rows.index;
+			final float[] weight = rows.weight;
+			for (int r = start; r < end; r++) {
+				double sum = rows.offset[r];
+				for (int k = rows.start[r], kend = rows.start[r + 1]; k < kend; k++) {
+					sum += weight[k] * data.getElementDoubleAbs(index[k]);
+				}
+				out[r] = sum;
+			}
+		}
+	}
+
+	/**
+	 * @return shape of images that can be integrated
+	 */
+	public int[] getShape() {
+		return shape.clone();
+	}
+
+	/**
+	 * @return copies of radial and azimuthal axes of a q-space plan or null
+	 */
+	AbstractDataset[] getAxes() {
+		return axes == null ? null : new AbstractDataset[] { axes[0].clone(), axes[1].clone() };
+	}
+
+	/**
+	 * @return number of weights held by plan
+	 */
+	public long getSize() {
+		return (radial == null ? 0L : radial.size()) + (azimuthal == null ? 0L : azimuthal.size());
+	}
+
+	/**
+	 * @param datasets
+	 *            input 2D datasets of the plan's shape
+	 * @return 2 1D datasets for each input: integral over radius and integral over azimuth
+	 */
+	@Override
+	public List<AbstractDataset> value(IDataset... datasets) {
+		if (datasets.length == 0) {
+			return null;
+		}
+
+		List<AbstractDataset> result = new ArrayList<AbstractDataset>();
+		for (IDataset ids : datasets) {
+			if (!Arrays.equals(shape, ids.getShape())) {
+				throw new IllegalArgumentException("Dataset shape does not match shape of plan");
+			}
+			AbstractDataset data = DatasetUtils.convertToAbstractDataset(ids);
+			if (data.getElementsPerItem() != 1) {
+				throw new IllegalArgumentException("Dataset must have single-element items");
+			}
+			if (!(data.getIterator() instanceof ContiguousIterator)) {
+				data = data.clone();
+			}
+
+			final int dtype = AbstractDataset.getBestFloatDType(ids.elementClass());
+			result.add(integrate(azimuthal, data, np, dtype));
+			result.add(integrate(radial, data, nr, dtype));
+		}
+		return result;
+	}
+
+	private static AbstractDataset integrate(Rows rows, AbstractDataset data, int n, int dtype) {
+		if (rows == null) {
+			return AbstractDataset.zeros(new int[] { n }, dtype);
+		}
+
+		final double[] out = new double[n];
+		final RowTask task = new RowTask(rows, data, out, 0, n);
+		if (rows.size() > 2 * GRAIN) {
+			ProfileForkJoinPool.profileForkJoinPool.invoke(task);
+		} else {
+			task.compute();
+		}
+		return DatasetUtils.cast(new DoubleDataset(out, n), dtype);
+	}
+}
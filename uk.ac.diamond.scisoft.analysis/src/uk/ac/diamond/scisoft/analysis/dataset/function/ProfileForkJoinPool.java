@@ -0,0 +1,30 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset.function;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Fork-join pool shared by the tasks that integrate polar profiles
+ */
+final class ProfileForkJoinPool {
+
+	private ProfileForkJoinPool() {
+	}
+
+	static final ForkJoinPool profileForkJoinPool = new ForkJoinPool();
+}
@@ -0,0 +1,294 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset.function;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+
+/**
+ * Summed-area table (or integral image) of a 2D dataset
+ * <p>
+ * Holds the prefix sums of the pixel values, optionally multiplied by a mask, so that the sum
+ * over any rectangle takes four lookups and its row or column profiles take time proportional
+ * to their length. NaNs are skipped and a companion table counts the pixels that are valid,
+ * i.e. not NaN and not masked out. Tables are cached through soft references in the stored
+ * values of the dataset so they are discarded when it is set dirty or when memory is short, and
+ * a mask is tracked through a token in its own stored values.
+ */
+public class SummedAreaTable {
+	/**
+	 * Stored value names contain a hyphen so that they are dropped when a view changes shape
+	 */
+	private static final String STORE_TABLE = "summedArea-table";
+	private static final String STORE_MASKED_TABLE = "summedArea-maskedTable";
+	private static final String STORE_TOKEN = "summedArea-token";
+
+	private final Key key;
+	private final int rows;
+	private final int cols;
+	private final double[] sum;
+	private final int[] count;
+
+	/**
+	 * Identifies the dataset, its shape and the mask state that a table is made from and refers
+	 * to the table once it is made. The dataset is held as stored values are copied to casts and
+	 * views which must not use its table
+	 */
+	private static class Key {
+		final AbstractDataset data;
+		final int dtype;
+		final int[] shape;
+		final Object token;
+		Reference<SummedAreaTable> table;
+
+		Key(AbstractDataset data, int[] shape, Object token) {
+			this.data = data;
+			this.dtype = data.getDtype();
+			this.shape = shape;
+			this.token = token;
+		}
+
+		boolean matches(AbstractDataset odata, int[] oshape, Object otoken) {
+			return data == odata && dtype == odata.getDtype() && token == otoken && Arrays.equals(shape, oshape);
+		}
+	}
+
+	/**
+	 * Get table for dataset, or null if it cannot be used. A table is only built on the second
+	 * request for the same dataset and mask, so that one-off profiles of a large image do not
+	 * pay for it. An unmasked and a masked table can be held at the same time
+	 * @param data 2D dataset with single-element items
+	 * @param mask (can be null) of same shape as data
+	 * @return table or null
+	 */
+	public static SummedAreaTable getTable(AbstractDataset data, AbstractDataset mask) {
+		final int[] shape = data.getShape();
+		if (shape.length != 2 || data.getElementsPerItem() != 1)
+			return null;
+		if (mask != null && (mask.getElementsPerItem() != 1 || !Arrays.equals(shape, mask.getShape())))
+			return null;
+
+		final Object token = mask == null ? null : getToken(mask);
+		final String name = mask == null ? STORE_TABLE : STORE_MASKED_TABLE;
+		final Object stored = data.getStoredValue(name);
+		if (stored instanceof Key && ((Key) stored).matches(data, shape, token)) {
+			final Key key = (Key) stored;
+			SummedAreaTable table = key.table == null ? null : key.table.get();
+			if (table == null) {
+				table = new SummedAreaTable(data, mask, key);
+				key.table = new SoftReference<SummedAreaTable>(table);
+			}
+			return table.sum == null ? null : table;
+		}
+
+		data.setStoredValue(name, new Key(data, shape, token));
+		return null;
+	}
+
+	private static Object getToken(AbstractDataset mask) {
+		Object token = mask.getStoredValue(STORE_TOKEN);
+		if (token == null) {
+			token = new Object();
+			mask.setStoredValue(STORE_TOKEN, token);
+		}
+		return token;
+	}
+
+	/**
+	 * Create table. If the data holds infinities then no sums are held as differences of
+	 * prefix sums would be NaN
+	 */
+	private SummedAreaTable(AbstractDataset data, AbstractDataset mask, Key key) {
+		this.key = key;
+		rows = key.shape[0];
+		cols = key.shape[1];
+
+		final int w = cols + 1;
+		double[] s = new double[(rows + 1) * w];
+		int[] c = new int[s.length];
+		boolean allValid = true;
+		for (int i = 0; i < rows; i++) {
+			double rsum = 0;
+			int rcount = 0;
+			int k = (i + 1) * w + 1;
+			for (int j = 0; j < cols; j++, k++) {
+				double v = data.getDouble(i, j);
+				boolean valid = true;
+				if (mask != null) {
+					final double m = mask.getDouble(i, j);
+					v *= m;
+					if (m == 0)
+						valid = false;
+				}
+				if (Double.isNaN(v)) {
+					valid = false;
+				} else if (Double.isInfinite(v)) {
+					s = null;
+					break;
+				} else {
+					rsum += v;
+				}
+				if (valid) {
+					rcount++;
+				} else {
+					allValid = false;
+				}
+				s[k] = s[k - w] + rsum;
+				c[k] = c[k - w] + rcount;
+			}
+			if (s == null)
+				break;
+		}
+		sum = s;
+		count = s == null || allValid ? null : c;
+	}
+
+	/**
+	 * @return shape of dataset
+	 */
+	public int[] getShape() {
+		return key.shape.clone();
+	}
+
+	private void checkBounds(int r0, int c0, int r1, int c1) {
+		if (r0 < 0 || c0 < 0 || r1 > rows || c1 > cols || r0 > r1 || c0 > c1)
+			throw new IllegalArgumentException("Rectangle is not within table");
+	}
+
+	/**
+	 * @param r0 start row
+	 * @param c0 start column
+	 * @param r1 end row (exclusive)
+	 * @param c1 end column (exclusive)
+	 * @return sum over rectangle
+	 */
+	public double getSum(int r0, int c0, int r1, int c1) {
+		checkBounds(r0, c0, r1, c1);
+		return area(sum, r0, c0, r1, c1);
+	}
+
+	/**
+	 * @param r0 start row
+	 * @param c0 start column
+	 * @param r1 end row (exclusive)
+	 * @param c1 end column (exclusive)
+	 * @return number of valid pixels in rectangle
+	 */
+	public int getCount(int r0, int c0, int r1, int c1) {
+		checkBounds(r0, c0, r1, c1);
+		return count == null ? (r1 - r0) * (c1 - c0) : area(count, r0, c0, r1, c1);
+	}
+
+	/**
+	 * @param r0 start row
+	 * @param c0 start column
+	 * @param r1 end row (exclusive)
+	 * @param c1 end column (exclusive)
+	 * @return sums of each row of rectangle
+	 */
+	public double[] getRowSums(int r0, int c0, int r1, int c1) {
+		checkBounds(r0, c0, r1, c1);
+		final int w = cols + 1;
+		final double[] out = new double[r1 - r0];
+		for (int i = 0; i < out.length; i++) {
+			final int a = (r0 + i) * w;
+			final int b = a + w;
+			out[i] = (sum[b + c1] - sum[a + c1]) - (sum[b + c0] - sum[a + c0]);
+		}
+		return out;
+	}
+
+	/**
+	 * @param r0 start row
+	 * @param c0 start column
+	 * @param r1 end row (exclusive)
+	 * @param c1 end column (exclusive)
+	 * @return sums of each column of rectangle
+	 */
+	public double[] getColumnSums(int r0, int c0, int r1, int c1) {
+		checkBounds(r0, c0, r1, c1);
+		final int a = r0 * (cols + 1);
+		final int b = r1 * (cols + 1);
+		final double[] out = new double[c1 - c0];
+		for (int j = 0; j < out.length; j++) {
+			final int c = c0 + j;
+			out[j] = (sum[b + c + 1] - sum[a + c + 1]) - (sum[b + c] - sum[a + c]);
+		}
+		return out;
+	}
+
+	/**
+	 * @param r0 start row
+	 * @param c0 start column
+	 * @param r1 end row (exclusive)
+	 * @param c1 end column (exclusive)
+	 * @return numbers of valid pixels in each row of rectangle
+	 */
+	public int[] getRowCounts(int r0, int c0, int r1, int c1) {
+		checkBounds(r0, c0, r1, c1);
+		final int[] out = new int[r1 - r0];
+		if (count == null) {
+			Arrays.fill(out, c1 - c0);
+			return out;
+		}
+		final int w = cols + 1;
+		for (int i = 0; i < out.length; i++) {
+			final int a = (r0 + i) * w;
+			final int b = a + w;
+			out[i] = (count[b + c1] - count[a + c1]) - (count[b + c0] - count[a + c0]);
+		}
+		return out;
+	}
+
+	/**
+	 * @param r0 start row
+	 * @param c0 start column
+	 * @param r1 end row (exclusive)
+	 * @param c1 end column (exclusive)
+	 * @return numbers of valid pixels in each column of rectangle
+	 */
+	public int[] getColumnCounts(int r0, int c0, int r1, int c1) {
+		checkBounds(r0, c0, r1, c1);
+		final int[] out = new int[c1 - c0];
+		if (count == null) {
+			Arrays.fill(out, r1 - r0);
+			return out;
+		}
+		final int a = r0 * (cols + 1);
+		final int b = r1 * (cols + 1);
+		for (int j = 0; j < out.length; j++) {
+			final int c = c0 + j;
+			out[j] = (count[b + c + 1] - count[a + c + 1]) - (count[b + c] - count[a + c]);
+		}
+		return out;
+	}
+
+	private double area(double[] table, int r0, int c0, int r1, int c1) {
+		final int a = r0 * (cols + 1);
+		final int b = r1 * (cols + 1);
+		return (table[b + c1] - table[a + c1]) - (table[b + c0] - table[a + c0]);
+	}
+
+	private int area(int[] table, int r0, int c0, int r1, int c1) {
+		final int a = r0 * (cols + 1);
+		final int b = r1 * (cols + 1);
+		return (table[b + c1] - table[a + c1]) - (table[b + c0] - table[a + c0]);
+	}
+}
@@ -80,43 +80,92 @@ class StateMachine:
                 handler = newState
 
 
+class MethodState:
+    name = None
+    jdoc = None
+    plist = []
+    allocs = []
+    shell = None
+    body = None
+
+current = MethodState()
+
 def beginmethod(name, jdoc=None, params=0):
-    print("\t/**\n\t * %s - %s" %  (name, jdoc))
-    print("\t * @param a\n\t * @return dataset\n\t */")
-    print("\t@SuppressWarnings(\"cast\")")
+    import sys, StringIO
     plist = []
     if params > 0:
         plist = ["pa"]
-        psig = "final Object " + plist[0]
         for p in range(1,params):
             plist.append("p"+chr(ord('a')+p))
-            psig += ", final Object " + plist[p]
-        print("\tpublic static AbstractDataset %s(final AbstractDataset a, %s) {" % (name, psig))
-    else:
-        print("\tpublic static AbstractDataset %s(final AbstractDataset a) {" % name)
-    print("\t\tfinal int isize;")
-    print("\t\tfinal IndexIterator it = a.getIterator();")
-    print("\t\tAbstractDataset ds;")
-    print("\t\tfinal int dt = a.getDtype();")
+    current.name = name
+    current.jdoc = jdoc
+    current.plist = plist
+    current.allocs = []
+    # case code for the kernel method is gathered here and printed by endmethod
+    current.shell = sys.stdout
+    current.body = StringIO.StringIO()
+    sys.stdout = current.body
+
+def endmethod(name, types):
+    import sys
+    sys.stdout = current.shell
+    plist = current.plist
+    psig = ""
+    pargs = ""
     for p in plist:
-        print("\t\tfinal double %s = AbstractDataset.toReal(%s);" % (p+"x", p))
-        print("\t\tfinal double %s = AbstractDataset.toImag(%s);" % (p+"y", p))
+        psig += ", final Object " + p
+        pargs += p + ", "
+
+    print("\t/**\n\t * %s - %s" %  (name, current.jdoc))
+    print("\t * @param a\n\t * @return dataset\n\t */")
+    print("\tpublic static AbstractDataset %s(final AbstractDataset a%s) {" % (name, psig))
+    print("\t\treturn %s(a, %snull);" % (name, pargs))
+    print("\t}\n")
 
+    print("\t/**\n\t * %s - %s" %  (name, current.jdoc))
+    print("\t * @param a\n\t * @param o output can be null - in which case, a new dataset is created")
+    print("\t * @return dataset\n\t */")
+    print("\tpublic static AbstractDataset %s(final AbstractDataset a%s, final AbstractDataset o) {" % (name, psig))
+    print("\t\tfinal AbstractDataset ds;")
+    print("\t\tfinal int dt = a.getDtype();")
     print("")
     print("\t\tswitch(dt) {")
-
-def endmethod(name, types):
+    for dtype, odtype in current.allocs:
+        print("\t\tcase AbstractDataset.%s:" % dtype)
+        print("\t\t\tds = AbstractDataset.checkOutput(o, a, AbstractDataset.%s);" % odtype)
+        print("\t\t\tbreak;")
     print("\t\tdefault:")
     dtypes = types[0]
     for t in types[1:]:
         dtypes += ", %s" % t
     print("\t\t\tthrow new IllegalArgumentException(\"%s supports %s datasets only\");" % (name, dtypes))
     print("\t\t}\n")
+    print("\t\tChunkedExecutor.execute(a.getSize(), new ChunkedExecutor.Task() {")
+    print("\t\t\t@Override")
+    print("\t\t\tpublic void run(final int start, final int end) {")
+    print("\t\t\t\t%s(a, %sds, start, end);" % (name, pargs))
+    print("\t\t\t}")
+    print("\t\t});\n")
     print("\t\tds.setName(a.getName());")
     print("\t\taddFunctionName(ds, \"%s\");" % name)
     print("\t\treturn ds;")
     print("\t}\n")
 
+    print("\t@SuppressWarnings(\"cast\")")
+    print("\tprivate static void %s(final AbstractDataset a%s, final AbstractDataset ds, final int start, final int end) {" % (name, psig))
+    print("\t\tfinal int isize;")
+    print("\t\tfinal IndexIterator it = ChunkedExecutor.getIterator(a, start, end);")
+    print("\t\tfinal int ostart = start * ds.getElementsPerItem();")
+    for p in plist:
+        print("\t\tfinal double %s = AbstractDataset.toReal(%s);" % (p+"x", p))
+        if "complex" in types:
+            print("\t\tfinal double %s = AbstractDataset.toImag(%s);" % (p+"y", p))
+    print("")
+    print("\t\tswitch(a.getDtype()) {")
+    sys.stdout.write(current.body.getvalue())
+    print("\t\t}")
+    print("\t}\n")
+
 def sameloop(codedict, cprefix, vletter, text, oclass=None, otype=None, odtype=None):
     for w in codedict.keys():
         dtype = "%s%d" % (cprefix, w)
@@ -200,14 +249,14 @@ def transtext(text, jtype, otype=None, lprefix="\t\t\t\t"):
 #    print("vars used", vars)
 
 def loop(text, jtype, ivar, ovar, otype):
-    print("\t\t\tfor (int i = 0; it.hasNext();) {")
+    print("\t\t\tfor (int i = ostart; it.hasNext();) {")
     print("\t\t\t\tfinal %s %s = %s[it.index];" % (jtype, "ix", ivar))
     transtext(text, jtype, otype)
     print("\t\t\t\t%s[i++] = %s;" % (ovar, "ox"))
     print("\t\t\t}")
 
 def loopcomplex(text, jtype, ivar, ovar, real):
-    print("\t\t\tfor (int i = 0; it.hasNext();) {")
+    print("\t\t\tfor (int i = ostart; it.hasNext();) {")
     print("\t\t\t\tfinal %s %s = %s[it.index];" % (jtype, "ix", ivar))
     print("\t\t\t\tfinal %s %s = %s[it.index+1];" % (jtype, "iy", ivar))
     transtext(text, jtype)
@@ -217,7 +266,7 @@ def loopcomplex(text, jtype, ivar, ovar, real):
     print("\t\t\t}")
 
 def loopcompound(text, jtype, ivar, ovar, otype):
-    print("\t\t\tfor (int i = 0; it.hasNext();) {")
+    print("\t\t\tfor (int i = ostart; it.hasNext();) {")
     print("\t\t\t\tfor (int j = 0; j < isize; j++) {")
     print("\t\t\t\t\tfinal %s %s = %s[it.index+j];" % (jtype, "ix", ivar))
     transtext(text, jtype, otype, lprefix="\t\t\t\t\t")
@@ -233,8 +282,8 @@ def preloop(dtype, itype, iclass, ivar, oclass=None, ovar=None, otype=None, odty
         otype = itype
     if odtype == None:
         odtype = dtype
+    current.allocs.append((dtype, odtype))
     print("\t\tcase AbstractDataset.%s:" % dtype)
-    print("\t\t\tds = AbstractDataset.zeros(a, AbstractDataset.%s);" % odtype)
     print("\t\t\tfinal %s[] %s = ((%s) a).data;" % (itype, ivar, iclass))
     print("\t\t\tfinal %s[] %s = ((%s) ds).getData();" % (otype, ovar, oclass))
 
@@ -245,8 +294,8 @@ def preloopcompound(dtype, itype, iclass, ivar, oclass=None, ovar=None, otype=No
         otype = itype
     if odtype == None:
         odtype = dtype
+    current.allocs.append((dtype, odtype))
     print("\t\tcase AbstractDataset.%s:" % dtype)
-    print("\t\t\tds = AbstractDataset.zeros(a, AbstractDataset.%s);" % odtype)
     print("\t\t\tisize = a.getElementsPerItem();")
     print("\t\t\tfinal %s[] %s = ((%s) a).data;" % (itype, ivar, iclass))
     print("\t\t\tfinal %s[] %s = ((%s) ds).getData();" % (otype, ovar, oclass))
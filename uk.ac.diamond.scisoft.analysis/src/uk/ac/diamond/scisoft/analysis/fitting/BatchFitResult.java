@@ -0,0 +1,72 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.fitting;
+
+import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
+
+/**
+ * Maps of fitted parameters and goodness of fit from a {@link BatchFitter}. Each map has the
+ * shape of the data without its fitting axis and holds NaN where a fit failed
+ */
+public class BatchFitResult {
+
+	private final DoubleDataset[] parameters;
+	private final DoubleDataset residual;
+	private final DoubleDataset rSquared;
+
+	BatchFitResult(DoubleDataset[] parameters, DoubleDataset residual, DoubleDataset rSquared) {
+		this.parameters = parameters;
+		this.residual = residual;
+		this.rSquared = rSquared;
+	}
+
+	/**
+	 * @return number of parameter maps
+	 */
+	public int getNoOfParameters() {
+		return parameters.length;
+	}
+
+	/**
+	 * @param index
+	 * @return map of values of parameter
+	 */
+	public DoubleDataset getParameterMap(int index) {
+		return parameters[index];
+	}
+
+	/**
+	 * @return maps of values of all parameters
+	 */
+	public DoubleDataset[] getParameterMaps() {
+		return parameters.clone();
+	}
+
+	/**
+	 * @return map of sums of squared deviations of fitted functions from data
+	 */
+	public DoubleDataset getResidualMap() {
+		return residual;
+	}
+
+	/**
+	 * @return map of coefficients of determination
+	 */
+	public DoubleDataset getRSquaredMap() {
+		return rSquared;
+	}
+}
@@ -0,0 +1,343 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.fitting;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ChunkedExecutor;
+import uk.ac.diamond.scisoft.analysis.dataset.ContiguousIterator;
+import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ILazyDataset;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.CompositeFunction;
+import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
+import uk.ac.diamond.scisoft.analysis.optimize.IOptimizer;
+import uk.ac.diamond.scisoft.analysis.optimize.LevenbergMarquardt;
+
+/**
+ * Fits the same model to every spectrum of a (lazy) dataset, e.g. to each pixel of an (X, Y, E)
+ * stack from a mapping experiment
+ * <p>
+ * The dataset is read a row at a time, where a row holds the spectra along the last dimension
+ * that is not the fitting axis. Rows are fitted in the pool of {@link ChunkedExecutor}, each with
+ * its own copy of the model, while the next rows are read, and only a few rows are held at once.
+ * Within a row, each fit starts from the result of the previous spectrum and falls back to the
+ * model's parameters if that fails; the first spectrum of a row starts from the model. Results
+ * therefore do not depend on the number of threads.
+ */
+public class BatchFitter {
+	/**
+	 * Setup the logging facilities
+	 */
+	private static final Logger logger = LoggerFactory.getLogger(BatchFitter.class);
+
+	private final CompositeFunction template;
+	private IOptimizer optimizer = new LevenbergMarquardt();
+	private boolean warmStart = true;
+
+	/**
+	 * @param template model whose parameters are the starting point of the fits. It is not changed
+	 */
+	public BatchFitter(CompositeFunction template) {
+		this.template = template;
+	}
+
+	/**
+	 * @param optimizer used for every fit. This is called from several threads at once so it
+	 * must not keep state between calls
+	 */
+	public void setOptimizer(IOptimizer optimizer) {
+		this.optimizer = optimizer;
+	}
+
+	/**
+	 * @param warmStart if true, start each fit from the result of the previous spectrum in a row
+	 */
+	public void setWarmStart(boolean warmStart) {
+		this.warmStart = warmStart;
+	}
+
+	/**
+	 * Fit model to all spectra
+	 * @param data
+	 * @param axis dimension of data along which spectra lie
+	 * @param xAxis 1D dataset of coordinates of spectrum points
+	 * @param monitor (can be null) told of number of spectra fitted
+	 * @return maps of fitted parameters and goodness of fit or null if cancelled
+	 * @throws Exception if data cannot be read or model cannot be copied
+	 */
+	public BatchFitResult fit(ILazyDataset data, int axis, IDataset xAxis, IMonitor monitor) throws Exception {
+		final int[] shape = data.getShape();
+		final int rank = shape.length;
+		if (axis < 0 || axis >= rank) {
+			throw new IllegalArgumentException("Axis " + axis + " is not a dimension of data");
+		}
+		final int n = shape[axis];
+		if (xAxis.getRank() != 1 || xAxis.getSize() != n) {
+			throw new IllegalArgumentException("Fitting axis must be 1D and match length of spectra");
+		}
+
+		// map has data shape without the fitting axis and a row is along its last dimension
+		final int[] mshape = rank == 1 ? new int[] { 1 } : new int[rank - 1];
+		int rdim = -1;
+		for (int i = 0, j = 0; i < rank; i++) {
+			if (i != axis) {
+				mshape[j++] = shape[i];
+				rdim = i;
+			}
+		}
+		final int length = rdim < 0 ? 1 : shape[rdim];
+		final int pixels = AbstractDataset.calcSize(mshape);
+		final int rows = length == 0 ? 0 : pixels / length;
+
+		final int nparams = template.getNoOfParameters();
+		final double[][] values = new double[nparams][pixels];
+		final double[] residual = new double[pixels];
+		final double[] rSquared = new double[pixels];
+		final DoubleDataset x = (DoubleDataset) DatasetUtils.convertToAbstractDataset(xAxis).cast(AbstractDataset.FLOAT64);
+		final Output output = new Output(values, residual, rSquared, template.getParameterValues(), x, monitor);
+
+		final ForkJoinPool pool = ChunkedExecutor.getPool();
+		final boolean parallel = ChunkedExecutor.isEnabled() && pool.getParallelism() > 1 && rows > 1;
+		final int maxPending = 2 * pool.getParallelism();
+		final Deque<ForkJoinTask<?>> pending = new ArrayDeque<ForkJoinTask<?>>();
+		final int[] start = new int[rank];
+		final int[] stop = shape.clone();
+		boolean done = false;
+		try {
+			for (int k = 0; k < rows; k++) {
+				if (output.isCancelled()) {
+					break;
+				}
+
+				// set position of row in other dimensions
+				for (int i = rank - 1, r = k; i >= 0; i--) {
+					if (i == axis || i == rdim)
+						continue;
+					start[i] = r % shape[i];
+					stop[i] = start[i] + 1;
+					r /= shape[i];
+				}
+				final IDataset read = data.getSlice(monitor, start, stop, null);
+				if (read == null) {
+					throw new IllegalArgumentException("Data cannot be read");
+				}
+				AbstractDataset slice = DatasetUtils.convertToAbstractDataset(read).cast(AbstractDataset.FLOAT64);
+				if (!(slice.getIterator() instanceof ContiguousIterator)) {
+					slice = slice.clone();
+				}
+
+				final RowTask task = new RowTask(output, template.duplicate(), ((DoubleDataset) slice).getData(),
+						k * length, length, axis > rdim);
+				if (parallel) {
+					pending.add(pool.submit(task));
+					if (pending.size() >= maxPending) {
+						pending.poll().join();
+						if (monitor != null)
+							monitor.worked(length);
+					}
+				} else {
+					task.run();
+					if (monitor != null)
+						monitor.worked(length);
+				}
+			}
+
+			while (!pending.isEmpty() && !output.isCancelled()) {
+				pending.poll().join();
+				if (monitor != null)
+					monitor.worked(length);
+			}
+			done = true;
+		} finally {
+			if (!done || !pending.isEmpty()) {
+				output.cancelled.set(true);
+				for (ForkJoinTask<?> t : pending) {
+					t.quietlyJoin();
+				}
+			}
+		}
+
+		if (output.cancelled.get()) {
+			return null;
+		}
+
+		final DoubleDataset[] maps = new DoubleDataset[nparams];
+		for (int i = 0; i < nparams; i++) {
+			maps[i] = new DoubleDataset(values[i], mshape);
+			maps[i].setName("parameter " + i);
+		}
+		final DoubleDataset rmap = new DoubleDataset(residual, mshape);
+		rmap.setName("residual");
+		final DoubleDataset r2map = new DoubleDataset(rSquared, mshape);
+		r2map.setName("R squared");
+		return new BatchFitResult(maps, rmap, r2map);
+	}
+
+	/**
+	 * Holds the arrays that rows are fitted into
+	 */
+	private class Output {
+		final double[][] values;
+		final double[] residual;
+		final double[] rSquared;
+		final double[] initial;
+		final DoubleDataset x;
+		final IMonitor monitor;
+		final AtomicBoolean cancelled = new AtomicBoolean();
+
+		Output(double[][] values, double[] residual, double[] rSquared, double[] initial, DoubleDataset x, IMonitor monitor) {
+			this.values = values;
+			this.residual = residual;
+			this.rSquared = rSquared;
+			this.initial = initial;
+			this.x = x;
+			this.monitor = monitor;
+		}
+
+		/**
+		 * @return true if fitting has been stopped or the monitor has been cancelled. This is
+		 * called from the fitting threads too so all rows stop promptly
+		 */
+		boolean isCancelled() {
+			if (cancelled.get())
+				return true;
+			if (monitor != null && monitor.isCancelled()) {
+				cancelled.set(true);
+				return true;
+			}
+			return false;
+		}
+
+		void set(int pixel, CompositeFunction function, DoubleDataset y) {
+			final double[] p = function.getParameterValues();
+			for (int i = 0; i < p.length; i++) {
+				values[i][pixel] = p[i];
+			}
+
+			final double r = function.residual(true, y, x);
+			final double[] data = y.getData();
+			double mean = 0;
+			for (double v : data) {
+				mean += v;
+			}
+			mean /= data.length;
+			double total = 0;
+			for (double v : data) {
+				total += (v - mean) * (v - mean);
+			}
+			residual[pixel] = r;
+			rSquared[pixel] = total == 0 ? Double.NaN : 1 - r / total;
+		}
+
+		void setFailed(int pixel) {
+			for (double[] v : values) {
+				v[pixel] = Double.NaN;
+			}
+			residual[pixel] = Double.NaN;
+			rSquared[pixel] = Double.NaN;
+		}
+
+		/**
+		 * @return true if fit succeeded
+		 */
+		boolean fit(CompositeFunction function, double[] start, DoubleDataset y) {
+			function.setParameterValues(start);
+			try {
+				optimizer.optimize(new IDataset[] { x }, y, function);
+			} catch (Exception e) {
+				logger.debug("Fit failed", e);
+				return false;
+			}
+			for (double p : function.getParameterValues()) {
+				if (Double.isNaN(p) || Double.isInfinite(p))
+					return false;
+			}
+			final double r = function.residual(true, y, x);
+			return !Double.isNaN(r) && !Double.isInfinite(r);
+		}
+	}
+
+	/**
+	 * Fits the spectra of one row
+	 */
+	private class RowTask implements Runnable {
+		private final Output output;
+		private final CompositeFunction function;
+		private final double[] slice;
+		private final int offset;
+		private final int length;
+		private final boolean axisLast;
+
+		/**
+		 * @param output
+		 * @param function copy of model for this row
+		 * @param slice data of row
+		 * @param offset index of row's first pixel in maps
+		 * @param length number of spectra in row
+		 * @param axisLast true if fitting axis comes after row dimension
+		 */
+		RowTask(Output output, CompositeFunction function, double[] slice, int offset, int length, boolean axisLast) {
+			this.output = output;
+			this.function = function;
+			this.slice = slice;
+			this.offset = offset;
+			this.length = length;
+			this.axisLast = axisLast;
+		}
+
+		@Override
+		public void run() {
+			final int n = slice.length / length;
+			double[] previous = null;
+			for (int j = 0; j < length; j++) {
+				if (output.isCancelled())
+					return;
+
+				final double[] y = axisLast ? Arrays.copyOfRange(slice, j * n, (j + 1) * n) : new double[n];
+				if (!axisLast) {
+					for (int e = 0; e < n; e++) {
+						y[e] = slice[e * length + j];
+					}
+				}
+				final DoubleDataset yd = new DoubleDataset(y, n);
+
+				boolean ok = previous != null && output.fit(function, previous, yd);
+				if (!ok)
+					ok = output.fit(function, output.initial, yd);
+
+				if (ok) {
+					output.set(offset + j, function, yd);
+					previous = warmStart ? function.getParameterValues() : null;
+				} else {
+					output.setFailed(offset + j);
+					previous = null;
+				}
+			}
+		}
+	}
+}
@@ -32,6 +32,7 @@ import uk.ac.diamond.scisoft.analysis.optimize.GeneticAlg;
 import uk.ac.diamond.scisoft.analysis.optimize.GradientDescent;
 import uk.ac.diamond.scisoft.analysis.optimize.IOptimizer;
 import uk.ac.diamond.scisoft.analysis.optimize.LeastSquares;
+import uk.ac.diamond.scisoft.analysis.optimize.LevenbergMarquardt;
 import uk.ac.diamond.scisoft.analysis.optimize.NelderMead;
 
 public class Fitter {
@@ -120,6 +121,19 @@ public class Fitter {
 		lsq.optimize(coords, yAxis, function);
 	}
 
+	/**
+	 * Levenberg-Marquardt fitter
+	 * @param coords
+	 * @param yAxis
+	 * @param function
+	 * @throws Exception 
+	 */
+	public static void lmFit(final AbstractDataset[] coords, final AbstractDataset yAxis, final IFunction function) throws Exception {
+		LevenbergMarquardt lm = new LevenbergMarquardt();
+
+		lm.optimize(coords, yAxis, function);
+	}
+
 	/**
 	 * Polynomial fitter
 	 * @param coords
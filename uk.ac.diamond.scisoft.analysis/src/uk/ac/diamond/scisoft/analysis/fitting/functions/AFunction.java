@@ -25,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ContiguousIterator;
 import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
 import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
@@ -277,44 +278,101 @@ public abstract class AFunction implements IFunction, Serializable {
 		}
 
 		DoubleDataset result = new DoubleDataset(shape);
+		fillFromHypergrid(result.getData(), values);
+		return result;
+	}
 
-		double[] data = result.getData();
-		IndexIterator iter = result.getIterator(true);
-		int[] pos = iter.getPos();
-		double[] coords = new double[endrank + 1];
+	protected DoubleDataset makeDatasetFromDatasets(IDataset... values) {
+		DoubleDataset result = new DoubleDataset(values[0].getShape());
+		fillFromDatasets(result.getData(), values);
+		return result;
+	}
 
-		while (iter.hasNext()) {
-			// shortcut that sets all coords only when starting a row
-			if (pos[endrank] == 0) {
-				for (int i = 0; i <= endrank; i++) {
-					coords[i] = values[i].getDouble(pos[i]);
-				}
-			} else {
-				coords[endrank] = values[endrank].getDouble(pos[endrank]);
+	/**
+	 * Evaluate function on hypergrid a row at a time
+	 * @param output array to fill in row-major order
+	 * @param values 1D datasets of each independent variable
+	 */
+	private void fillFromHypergrid(double[] output, IDataset... values) {
+		if (output.length == 0)
+			return;
+
+		final int endrank = values.length - 1;
+		final double[][] coords = new double[endrank + 1][];
+		coords[endrank] = toDoubleArray(values[endrank]);
+		if (endrank == 0) {
+			fillWithValues(output, coords);
+			return;
+		}
+
+		final int rlen = coords[endrank].length;
+		for (int i = 0; i < endrank; i++) {
+			coords[i] = new double[rlen];
+		}
+		final double[] row = new double[rlen];
+		final int[] pos = new int[endrank];
+		for (int start = 0; start < output.length; start += rlen) {
+			for (int i = 0; i < endrank; i++) {
+				Arrays.fill(coords[i], values[i].getDouble(pos[i]));
+			}
+			fillWithValues(row, coords);
+			System.arraycopy(row, 0, output, start, rlen);
+
+			for (int i = endrank - 1; i >= 0; i--) {
+				if (++pos[i] < values[i].getShape()[0])
+					break;
+				pos[i] = 0;
 			}
-			data[iter.index] = val(coords);
 		}
-		return result;
 	}
 
-	protected DoubleDataset makeDatasetFromDatasets(IDataset... values) {
-		int varlen = values.length;
-		int[] shape = values[0].getShape();
-
-		DoubleDataset result = new DoubleDataset(shape);
+	/**
+	 * Evaluate function at points given by datasets
+	 * @param output array to fill in row-major order
+	 * @param values datasets of each independent variable
+	 */
+	private void fillFromDatasets(double[] output, IDataset... values) {
+		final double[][] coords = new double[values.length][];
+		for (int i = 0; i < values.length; i++) {
+			coords[i] = toDoubleArray(values[i]);
+		}
+		fillWithValues(output, coords);
+	}
 
-		double[] data = result.getData();
-		IndexIterator iter = result.getIterator(true);
-		int[] pos = iter.getPos();
-		double[] coords = new double[varlen];
+	/**
+	 * @return values of dataset in row-major order (can be the dataset's own buffer so must not be modified)
+	 */
+	private static double[] toDoubleArray(IDataset values) {
+		final AbstractDataset a = DatasetUtils.convertToAbstractDataset(values);
+		final IndexIterator iter = a.getIterator();
+		if (a instanceof DoubleDataset && iter instanceof ContiguousIterator) {
+			final double[] buffer = ((DoubleDataset) a).getData();
+			if (buffer.length == a.getSize())
+				return buffer;
+		}
 
+		final double[] array = new double[a.getSize()];
+		int i = 0;
 		while (iter.hasNext()) {
-			for (int i = 0; i < varlen; i++) {
-				coords[i] = values[i].getDouble(pos);
+			array[i++] = a.getElementDoubleAbs(iter.index);
+		}
+		return array;
+	}
+
+	/**
+	 * Evaluate function at each point by calling {@link #val(double...)}. Subclasses should
+	 * override this with a loop that avoids the per-point call
+	 */
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		final int nc = coords.length;
+		final double[] position = new double[nc];
+		for (int i = 0; i < output.length; i++) {
+			for (int j = 0; j < nc; j++) {
+				position[j] = coords[j][i];
 			}
-			data[iter.index] = val(coords);
+			output[i] = val(position);
 		}
-		return result;
 	}
 
 	public boolean areParametersDirty() {
@@ -329,38 +387,25 @@ public abstract class AFunction implements IFunction, Serializable {
 	public double residual(boolean allValues, IDataset data, IDataset... values) {
 		double residual = 0;
 		if (allValues) {
-			DoubleDataset ddata = (DoubleDataset) DatasetUtils.convertToAbstractDataset(data).cast(AbstractDataset.FLOAT64);
-			double[] dbuffer = ddata.getData();
-			IndexIterator iter = ddata.getIterator(true);
-			int rank = checkAndGetRank(values);
-			int[] pos = iter.getPos();
-			if (rank == 1) {
-				int endrank = values.length - 1;
-				double[] coords = new double[endrank + 1];
-
-				while (iter.hasNext()) {
-					// shortcut that sets all coords only when starting a row
-					if (pos[endrank] == 0) {
-						for (int i = 0; i <= endrank; i++) {
-							coords[i] = values[i].getDouble(pos[i]);
-						}
-					} else {
-						coords[endrank] = values[endrank].getDouble(pos[endrank]);
-					}
-					double dev = dbuffer[iter.index] - val(coords);
-					residual += dev*dev;
+			final double[] dbuffer = toDoubleArray(data);
+			final double[] fvalues = new double[dbuffer.length];
+			if (checkAndGetRank(values) == 1) {
+				int size = 1;
+				for (IDataset v : values) {
+					size *= v.getShape()[0];
 				}
-			} else {
-				int varlen = values.length;
-				double[] coords = new double[varlen];
-
-				while (iter.hasNext()) {
-					for (int i = 0; i < varlen; i++) {
-						coords[i] = values[i].getDouble(pos);
-					}
-					double dev = dbuffer[iter.index] - val(coords);
-					residual += dev*dev;
+				if (size != fvalues.length) {
+					logger.error("Size of data does not match hypergrid of values");
+					throw new IllegalArgumentException("Size of data does not match hypergrid of values");
 				}
+				fillFromHypergrid(fvalues, values);
+			} else {
+				fillFromDatasets(fvalues, values);
+			}
+
+			for (int i = 0; i < fvalues.length; i++) {
+				double dev = dbuffer[i] - fvalues[i];
+				residual += dev*dev;
 			}
 		} else {
 			// stochastic sampling of coords;
@@ -93,4 +93,16 @@ public class Box extends AFunction {
 		return valFermi2 - valFermi1;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			final double position = x[i];
+			output[i] = scale / (Math.exp((position - mu2) / kT2) + 1.0) - scale / (Math.exp((position - mu1) / kT1) + 1.0);
+		}
+	}
+
 }
@@ -19,6 +19,7 @@ package uk.ac.diamond.scisoft.analysis.fitting.functions;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.TreeMap;
@@ -33,7 +34,7 @@ import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
  * Class which contains all the information about a particular function which is made up out of several other
  * functions
  */
-public class CompositeFunction extends AFunction {
+public class CompositeFunction extends AFunction implements IDifferentiableFunction {
 
 	private List<IParameter> parameterList; // holds a list of all parameters
 	private List<AFunction> functionList; // holds a list of all functions
@@ -155,6 +156,18 @@ public class CompositeFunction extends AFunction {
 		return y;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		// Just sum over the individual functions
+		Arrays.fill(output, 0);
+		final double[] values = new double[output.length];
+		for (AFunction f : functionList) {
+			f.fillWithValues(values, coords);
+			for (int i = 0; i < output.length; i++)
+				output[i] += values[i];
+		}
+	}
+
 	/**
 	 * Create a set of datasets each containing the composite function and its constituent
 	 * parts evaluated over the values
@@ -329,6 +342,23 @@ public class CompositeFunction extends AFunction {
 		return functionMap.get(count).partialDeriv(parameter - count, position);
 	}
 
+	/**
+	 * Functions that do not give all their partial derivatives use {@link #partialDeriv(int, double...)}
+	 */
+	@Override
+	public void fillPartialDerivatives(double[] derivatives, int offset, double... position) {
+		for (Integer count : functionMap.keySet()) {
+			AFunction f = functionMap.get(count);
+			if (f instanceof IDifferentiableFunction) {
+				((IDifferentiableFunction) f).fillPartialDerivatives(derivatives, offset + count, position);
+			} else {
+				for (int i = 0, imax = f.getNoOfParameters(); i < imax; i++) {
+					derivatives[offset + count + i] = f.partialDeriv(i, position);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Attempts to cast and return the function at i as a Peak
 	 * @param i
@@ -114,6 +114,18 @@ public class Cubic extends AFunction {
 		return a * position * position * position + b * position * position + c * position + d;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			final double position = x[i];
+			output[i] = a * position * position * position + b * position * position + c * position + d;
+		}
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder out = new StringBuilder();
@@ -173,4 +173,17 @@ public class CubicSpline extends AFunction {
 		return evaluateSpline(values[0]);		
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if(changed()) {
+			// build the spline
+			generateSpline(x, getParameterDoubleList());
+		}
+
+		final double[] xvalues = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			output[i] = evaluateSpline(xvalues[i]);
+		}
+	}
+
 }
@@ -119,4 +119,15 @@ public class Fermi extends AFunction implements Serializable{
 		return (scale/(Math.exp(arg) + 1.0) + C);
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			output[i] = scale / (Math.exp((x[i] - mu) / kT) + 1.0) + C;
+		}
+	}
+
 }
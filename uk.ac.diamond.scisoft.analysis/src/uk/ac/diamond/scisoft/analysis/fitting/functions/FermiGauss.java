@@ -17,6 +17,7 @@
 package uk.ac.diamond.scisoft.analysis.fitting.functions;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.IndexIterator;
 import uk.ac.diamond.scisoft.analysis.dataset.Maths;
 
 /**
@@ -141,6 +143,18 @@ public class FermiGauss extends AFunction implements Serializable{
 		AbstractDataset fermiDS = getFermiDS(new DoubleDataset(values, new int[] {values.length}));
 		return fermiDS.getDouble(0);
 	}
+
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		final int n = output.length;
+		final double[] x = coords[0].length == n ? coords[0] : Arrays.copyOf(coords[0], n);
+		final DoubleDataset fermiDS = (DoubleDataset) getFermiDS(new DoubleDataset(x, n)).cast(AbstractDataset.FLOAT64);
+		final IndexIterator iter = fermiDS.getIterator();
+		final double[] data = fermiDS.getData();
+		for (int i = 0; iter.hasNext(); i++) {
+			output[i] = data[iter.index];
+		}
+	}
 	
 	@Override
 	public DoubleDataset makeDataset(IDataset... values) {
@@ -21,7 +21,7 @@ package uk.ac.diamond.scisoft.analysis.fitting.functions;
 /**
  * Class which expands on the AFunction class to give the properties of a gaussian. A 1D implementation
  */
-public class Gaussian extends APeak implements IPeak {
+public class Gaussian extends APeak implements IPeak, IDifferentiableFunction {
 	private static final double FWHM_TO_SIGMA = 1./Math.sqrt(8.*Math.log(2.));
 	private static String cname = "Gaussian";
 	private static String cdescription = "y(x) = A exp(-((x-b)^2)/(2*c^2))";
@@ -150,6 +150,33 @@ public class Gaussian extends APeak implements IPeak {
 		return norm * ex;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			final double arg = (x[i] - pos) / sigma;
+			output[i] = norm * Math.exp(-0.5 * arg * arg);
+		}
+	}
+
+	@Override
+	public void fillPartialDerivatives(double[] derivatives, int offset, double... values) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		double position = values[0];
+		double arg = (position - pos) / sigma;
+
+		double ex = Math.exp(-0.5 * arg * arg);
+		double y = norm * ex;
+		derivatives[offset] = y * arg / sigma;
+		derivatives[offset + 1] = y * (arg * arg - 1) * FWHM_TO_SIGMA / sigma;
+		derivatives[offset + 2] = ex / Math.sqrt(2.0 * Math.PI * sigma * sigma);
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder out = new StringBuilder();
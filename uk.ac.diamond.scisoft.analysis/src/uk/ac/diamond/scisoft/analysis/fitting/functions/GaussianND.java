@@ -221,4 +221,27 @@ public class GaussianND extends AFunction {
 		return norm * ex;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[][] m = invcov.getDataRef();
+		final double[] v = new double[rank];
+		for (int i = 0; i < output.length; i++) {
+			for (int j = 0; j < rank; j++)
+				v[j] = coords[j][i] - pos[j];
+
+			double arg = 0;
+			for (int j = 0; j < rank; j++) {
+				final double[] mj = m[j];
+				double u = 0;
+				for (int k = 0; k < rank; k++)
+					u += mj[k] * v[k];
+				arg += u * v[j];
+			}
+			output[i] = norm * Math.exp(-0.5 * arg);
+		}
+	}
+
 }
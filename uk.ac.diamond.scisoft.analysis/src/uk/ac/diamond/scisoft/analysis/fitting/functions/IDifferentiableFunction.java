@@ -0,0 +1,36 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.fitting.functions;
+
+/**
+ * Function that can give the partial derivatives with respect to all its parameters in one go,
+ * so that optimizers need not use finite differences
+ */
+public interface IDifferentiableFunction extends IFunction {
+
+	/**
+	 * Calculate partial derivatives with respect to all parameters at a position
+	 *
+	 * @param derivatives
+	 *            array to fill, from offset, with as many values as there are parameters
+	 * @param offset
+	 *            index of first value to fill
+	 * @param position
+	 *            The function arguments
+	 */
+	public void fillPartialDerivatives(double[] derivatives, int offset, double... position);
+}
@@ -26,7 +26,7 @@ package uk.ac.diamond.scisoft.analysis.fitting.functions;
  * and <br>
  * x(half) is the half width at half maximum, known as gamma
  */
-public class Lorentzian extends APeak {
+public class Lorentzian extends APeak implements IDifferentiableFunction {
 	private static String cname = "Lorentzian";
 	private static String[] paramNames = new String[]{"Position", "Height", "Half width"};
 	private static double[] params = new double[]{0,0,0};
@@ -153,6 +153,32 @@ public class Lorentzian extends APeak {
 		return area * result;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			final double dist = x[i] - mean;
+			output[i] = area * (one_by_pi * (hwhm / ((dist*dist) + hwhm_sq)));
+		}
+	}
+
+	@Override
+	public void fillPartialDerivatives(double[] derivatives, int offset, double... values) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		double position = values[0];
+		double dist = position - mean;
+		double den = 1.0 / ((dist*dist) + hwhm_sq);
+		double aden = area * one_by_pi * den * den;
+		derivatives[offset] = 2 * aden * hwhm * dist;
+		derivatives[offset + 1] = 0.5 * aden * (dist*dist - hwhm_sq);
+		derivatives[offset + 2] = one_by_pi * hwhm * den;
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder out = new StringBuilder();
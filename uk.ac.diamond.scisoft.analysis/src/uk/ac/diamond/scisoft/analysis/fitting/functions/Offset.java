@@ -16,6 +16,7 @@
 
 package uk.ac.diamond.scisoft.analysis.fitting.functions;
 
+import java.util.Arrays;
 
 /**
  * This class basically wraps the function y(x) = c
@@ -68,6 +69,11 @@ public class Offset extends AFunction {
 		return getParameterValue(0);
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		Arrays.fill(output, getParameterValue(0));
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder out = new StringBuilder();
@@ -25,7 +25,7 @@ import org.apache.commons.math3.special.Gamma;
  * First experiments at the Swiss Light Source Materials Science beamline powder diffractometer.
  * Journal of Alloys and Compounds, 362(1-2), 206-217. doi:10.1016/S0925-8388(03)00585-1
  */
-public class PearsonVII extends APeak implements IPeak {
+public class PearsonVII extends APeak implements IPeak, IDifferentiableFunction {
 	private static String cname = "PearsonVII";
 	private static String[] paramNames = new String[]{"Min Peak Position", "Max Peak Position", "Max FWHM", "Max Area"};
 	private static String cdescription = "y(x) = PearsonVII distribution";
@@ -213,6 +213,41 @@ public class PearsonVII extends APeak implements IPeak {
 		return result * area;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		final double f = c3 / (FWHM * FWHM);
+		for (int i = 0; i < output.length; i++) {
+			final double dist = x[i] - mean;
+			output[i] = c2_fwhm * Math.pow(1.0 + f * dist * dist, -mixing) * area;
+		}
+	}
+
+	@Override
+	public void fillPartialDerivatives(double[] derivatives, int offset, double... values) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		double position = values[0];
+		double dist = position - mean;
+		double a = c3 * dist * dist / (FWHM * FWHM);
+		double unit = c2_fwhm * Math.pow(1.0 + a, -mixing);
+		double y = unit * area;
+
+		// derivative of log(sqrt(2^(1/m) - 1)) with respect to m, for c2 and c3
+		double q = Math.pow(2.0, 1.0 / mixing);
+		double dlq = -0.5 * q * Math.log(2.0) / (mixing * mixing * (q - 1.0));
+
+		derivatives[offset] = y * 2 * mixing * c3 * dist / (FWHM * FWHM * (1.0 + a));
+		derivatives[offset + 1] = y * (2 * mixing * a / (1.0 + a) - 1.0) / FWHM;
+		derivatives[offset + 2] = y * (Gamma.digamma(mixing) - Gamma.digamma(mixing - 0.5) + dlq
+				- Math.log(1.0 + a) - mixing * a * dlq / (1.0 + a));
+		derivatives[offset + 3] = unit;
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder out = new StringBuilder();
@@ -25,7 +25,7 @@ import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
  * Class that wrappers the equation <br>
  * y(x) = a_0 x^n + a_1 x^(n-1) + a_2 x^(n-2) + ... + a_(n-1) x + a_n
  */
-public class Polynomial extends AFunction {
+public class Polynomial extends AFunction implements IDifferentiableFunction {
 	private static String cname = "Polynomial";
 	private static String cdescription = "y(x) = a_0 x^n + a_1 x^(n-1) + a_2 x^(n-2) + ... + a_(n-1) x + a_n";
 	double[] a;
@@ -154,6 +154,22 @@ public class Polynomial extends AFunction {
 		return v;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			final double position = x[i];
+			double v = a[0];
+			for (int j = 1; j < nparams; j++) {
+				v = v * position + a[j];
+			}
+			output[i] = v;
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder out = new StringBuilder();
@@ -185,6 +201,17 @@ public class Polynomial extends AFunction {
 		}
 	}
 
+	@Override
+	public void fillPartialDerivatives(double[] derivatives, int offset, double... position) {
+		final double pos = position[0];
+
+		double v = 1.0;
+		for (int i = nparams - 1; i >= 0; i--) {
+			derivatives[offset + i] = v;
+			v *= pos;
+		}
+	}
+
 	/**
 	 * Create a 2D dataset which contains in each row a coordinate raised to n-th powers.
 	 * <p>
@@ -28,7 +28,7 @@ import uk.ac.diamond.scisoft.analysis.dataset.Maths;
 /**
  * PseudoVoigt Class
  */
-public class PseudoVoigt extends APeak implements IPeak{
+public class PseudoVoigt extends APeak implements IPeak, IDifferentiableFunction {
 	private static final double FWHM_TO_SIGMA = 1./Math.sqrt(8.*Math.log(2.));
 	private static String cname = "PseudoVoigt";
 	private static String[] paramNames = new String[]{"Position", "GaussianFWHM", "LorentzianFWHM", "area", "mix"};
@@ -182,6 +182,41 @@ public class PseudoVoigt extends APeak implements IPeak{
 		return y;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			final double dist = x[i] - pos;
+			final double arg = dist / sigma;
+			output[i] = top / (dist * dist + gsq) + norm * Math.exp(-0.5 * arg * arg);
+		}
+	}
+
+	@Override
+	public void fillPartialDerivatives(double[] derivatives, int offset, double... values) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		double position = values[0];
+		double area = getParameter(3).getValue();
+
+		// unit area Lorentzian and Gaussian parts
+		double dist = position - pos;
+		double den = 1.0 / (dist * dist + gsq);
+		double lor = gamma * den / Math.PI;
+		double arg = dist / sigma;
+		double gau = Math.exp(-0.5 * arg * arg) / Math.sqrt(2.0 * Math.PI * sigma * sigma);
+
+		derivatives[offset] = area * ((1. - mixing) * 2 * lor * dist * den + mixing * gau * arg / sigma);
+		derivatives[offset + 1] = area * mixing * gau * (arg * arg - 1) * FWHM_TO_SIGMA / sigma;
+		derivatives[offset + 2] = 0.5 * area * (1. - mixing) * (dist * dist - gsq) * den * den / Math.PI;
+		derivatives[offset + 3] = (1. - mixing) * lor + mixing * gau;
+		derivatives[offset + 4] = area * (gau - lor);
+	}
+
 	@Override
 	public double getArea() {
 		return getParameter(3).getValue();
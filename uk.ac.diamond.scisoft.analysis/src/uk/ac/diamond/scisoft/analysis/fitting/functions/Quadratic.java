@@ -112,6 +112,18 @@ public class Quadratic extends AFunction {
 		return a * position * position + b * position + c;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			final double position = x[i];
+			output[i] = a * position * position + b * position + c;
+		}
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder out = new StringBuilder();
@@ -157,4 +157,23 @@ public class Step extends AFunction {
 		return inner;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		final double end = start + width;
+		for (int i = 0; i < output.length; i++) {
+			final double position = x[i];
+			if (position <= pmin || position >= pmax) {
+				output[i] = base;
+			} else if (position <= start || position >= end) {
+				output[i] = outer;
+			} else {
+				output[i] = inner;
+			}
+		}
+	}
+
 }
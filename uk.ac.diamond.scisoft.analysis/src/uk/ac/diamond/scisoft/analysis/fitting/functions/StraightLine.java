@@ -98,6 +98,17 @@ public class StraightLine extends AFunction {
 		return a * position + b;
 	}
 
+	@Override
+	public void fillWithValues(double[] output, double[]... coords) {
+		if (areParametersDirty())
+			calcCachedParameters();
+
+		final double[] x = coords[0];
+		for (int i = 0; i < output.length; i++) {
+			output[i] = a * x[i] + b;
+		}
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder out = new StringBuilder();
@@ -31,7 +31,7 @@ import javax.vecmath.Matrix3d;
 import javax.vecmath.Vector3d;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
-import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.ILazyDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.IntegerDataset;
 import uk.ac.diamond.scisoft.analysis.diffraction.DetectorProperties;
 import uk.ac.diamond.scisoft.analysis.diffraction.DiffractionCrystalEnvironment;
@@ -128,46 +128,21 @@ public class ADSCImageLoader extends AbstractFileLoader implements IMetaLoader {
 			int width = getInteger("SIZE2");
 			int pointer = getInteger("HEADER_BYTES");
 
-			raf.seek(pointer);
-
-			int[] shape = { height, width };
-			AbstractDataset data;
-
-			// read in all the data at once for speed.
-
-			byte[] read = new byte[(height * width) * 2];
-			raf.read(read);
-
-			// and put it into the dataset
-			data = new IntegerDataset(shape);
-			int[] databuf = ((IntegerDataset) data).getData();
-			int amax = Integer.MIN_VALUE;
-			int amin = Integer.MAX_VALUE;
-			int hash = 0;
-			for (int i = 0, j = 0; i < databuf.length; i++, j += 2) {
-				int value = Utils.leInt(read[j], read[j + 1]);
-				hash = (hash * 19 + value);
-				databuf[i] = value;
-				if (value > amax) {
-					amax = value;
-				}
-				if (value < amin) {
-					amin = value;
+			if (loadLazily) {
+				UncompressedImageLoader loader = new UncompressedImageLoader(fileName, pointer, height, width,
+						UncompressedImageLoader.Encoding.UNSIGNED_SHORT, true, keepBitWidth);
+				ILazyDataset lazy = loader.createLazyDataset(DEF_IMAGE_NAME);
+				output.addDataset("ADSC Image", lazy);
+				if (loadMetadata) {
+					lazy.setMetadata(getMetaData());
+					output.setMetadata(lazy.getMetadata());
 				}
+				return output;
 			}
 
-			if (keepBitWidth||amax < (1 << 15)) {
-					data = DatasetUtils.cast(data, AbstractDataset.INT16);
-			}
-
-			hash = hash*19 + data.getDtype()*17 + data.getElementsPerItem();
-			int rank = shape.length;
-			for (int i = 0; i < rank; i++) {
-				hash = hash*17 + shape[i];
-			}
-			data.setStoredValue(AbstractDataset.STORE_MAX, amax);
-			data.setStoredValue(AbstractDataset.STORE_MIN, amin);
-			data.setStoredValue(AbstractDataset.STORE_HASH, hash);
+			UncompressedImageLoader loader = new UncompressedImageLoader(fileName, pointer, height, width,
+					UncompressedImageLoader.Encoding.UNSIGNED_SHORT, true, false);
+			AbstractDataset data = UncompressedImageLoader.storeStatistics((IntegerDataset) loader.load(null), true, keepBitWidth);
 
 			data.setName(DEF_IMAGE_NAME);
 			output.addDataset("ADSC Image", data);
@@ -336,4 +311,10 @@ public class ADSCImageLoader extends AbstractFileLoader implements IMetaLoader {
 	public IMetaData getMetaData() {
 		return diffMetadata;
 	}
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		String text = getHeaderText(header);
+		return text.contains("{") && text.contains("HEADER_BYTES") ? HeaderMatch.MATCH : HeaderMatch.UNKNOWN;
+	}
 }
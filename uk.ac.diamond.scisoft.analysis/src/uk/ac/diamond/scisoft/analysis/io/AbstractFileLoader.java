@@ -18,6 +18,9 @@ package uk.ac.diamond.scisoft.analysis.io;
 
 import gda.analysis.io.IFileLoader;
 import gda.analysis.io.ScanFileHolderException;
+
+import java.nio.charset.Charset;
+
 import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
 
 /**
@@ -39,8 +42,35 @@ public abstract class AbstractFileLoader implements IFileLoader {
 	 */
 	public static final String FILEPATH_DATASET_SEPARATOR = ":";
 
+	/**
+	 * Number of bytes from the start of a file that are given to {@link #probe(byte[])}
+	 */
+	public static final int PROBE_LENGTH = 512;
+
+	/**
+	 * Result of checking the start of a file
+	 */
+	public enum HeaderMatch {
+		/**
+		 * Header is that of a format the loader can read
+		 */
+		MATCH,
+		/**
+		 * Header is not that of a format the loader can read
+		 */
+		MISMATCH,
+		/**
+		 * Loader cannot tell from the header
+		 */
+		UNKNOWN
+	}
+
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+
 	protected boolean loadMetadata = true;
 
+	protected boolean loadLazily = false;
+
 	@Override
 	public DataHolder loadFile(IMonitor mon) throws ScanFileHolderException {
 		return loadFile();
@@ -51,6 +81,50 @@ public abstract class AbstractFileLoader implements IFileLoader {
 		loadMetadata = willLoadMetadata;
 	}
 
+	/**
+	 * Set loader to hold images as lazy datasets so that only slices are read from the file.
+	 * Such datasets must be retrieved with {@link DataHolder#getLazyDataset(int)}. Loaders
+	 * that cannot read slices ignore this
+	 * @param willLoadLazily
+	 */
+	public void setLoadLazily(boolean willLoadLazily) {
+		loadLazily = willLoadLazily;
+	}
+
+	/**
+	 * Check start of file to see if this loader can read it. Override this in loaders whose
+	 * files start with a magic number or other signature. It must be cheap as it is used to
+	 * pick which loader to try first
+	 * @param header first bytes of file (fewer than {@link #PROBE_LENGTH} if the file is short)
+	 * @return {@link HeaderMatch#UNKNOWN} unless overridden
+	 */
+	public HeaderMatch probe(byte[] header) {
+		return HeaderMatch.UNKNOWN;
+	}
+
+	/**
+	 * @param header
+	 * @param magic
+	 * @return true if header starts with magic bytes
+	 */
+	protected static boolean startsWith(byte[] header, byte[] magic) {
+		if (header.length < magic.length)
+			return false;
+		for (int i = 0; i < magic.length; i++) {
+			if (header[i] != magic[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param header
+	 * @return header as text (bytes outside ASCII are replaced)
+	 */
+	protected static String getHeaderText(byte[] header) {
+		return new String(header, ASCII);
+	}
+
 	/**
 	 * @param mon
 	 * @return false if cancelled
@@ -1021,4 +1021,9 @@ public class CBFLoader extends AbstractFileLoader implements IMetaLoader {
 	public IMetaData getMetaData() {
 		return diffMetadata;
 	}
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return getHeaderText(header).startsWith("###CBF") ? HeaderMatch.MATCH : HeaderMatch.UNKNOWN;
+	}
 }
@@ -222,4 +222,9 @@ public class CrysalisLoader extends AbstractFileLoader implements IFileSaver, IM
 		md.setFilePath(fileName);
 		return md;
 	}
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return getHeaderText(header).startsWith("OD") ? HeaderMatch.MATCH : HeaderMatch.UNKNOWN;
+	}
 }
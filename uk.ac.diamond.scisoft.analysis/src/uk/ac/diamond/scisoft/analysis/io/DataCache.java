@@ -0,0 +1,367 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ILazyDataset;
+
+/**
+ * Cache of loaded data that is bounded by the estimated number of bytes it holds
+ * <p>
+ * Entries are evicted in least-recently-used order once the total exceeds the maximum. Values
+ * are held through soft (or weak) references so the garbage collector can still reclaim them
+ * when memory is short. Keys include the size and modification time of a file so entries for a
+ * file that has since been rewritten are never returned and are dropped when the file is next
+ * loaded. Concurrent loads of the same key are run once with the other callers waiting for its
+ * result.
+ */
+public class DataCache {
+	/**
+	 * Estimated number of bytes used by an entry in addition to the data held
+	 */
+	static final long ENTRY_OVERHEAD = 1024;
+
+	private final Map<LoaderKey, Entry> entries; // in access order
+	private final Map<String, List<LoaderKey>> keysByPath;
+	private final ConcurrentMap<LoaderKey, FutureTask<?>> loading;
+	private final boolean weak;
+	private long maximumBytes;
+	private long bytes;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private long evictions;
+	private long invalidations;
+
+	private static class Entry {
+		final Reference<IDataAnalysisObject> value;
+		final long bytes;
+
+		public Entry(Reference<IDataAnalysisObject> value, long bytes) {
+			this.value = value;
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * @param maximumBytes maximum estimated number of bytes held
+	 */
+	public DataCache(long maximumBytes) {
+		this(maximumBytes, false);
+	}
+
+	/**
+	 * @param maximumBytes maximum estimated number of bytes held
+	 * @param weak if true, hold values through weak rather than soft references
+	 */
+	public DataCache(long maximumBytes, boolean weak) {
+		this.weak = weak;
+		entries = new LinkedHashMap<LoaderKey, Entry>(64, 0.75f, true);
+		keysByPath = new HashMap<String, List<LoaderKey>>();
+		loading = new ConcurrentHashMap<LoaderKey, FutureTask<?>>();
+		setMaximumBytes(maximumBytes);
+	}
+
+	/**
+	 * @return maximum estimated number of bytes held
+	 */
+	public synchronized long getMaximumBytes() {
+		return maximumBytes;
+	}
+
+	/**
+	 * Set maximum size, evicting entries if necessary
+	 * @param maximumBytes
+	 */
+	public synchronized void setMaximumBytes(long maximumBytes) {
+		if (maximumBytes < 0) {
+			throw new IllegalArgumentException("Maximum size must not be negative");
+		}
+		this.maximumBytes = maximumBytes;
+		evict();
+	}
+
+	/**
+	 * @return estimated number of bytes held
+	 */
+	public synchronized long getBytes() {
+		purge();
+		return bytes;
+	}
+
+	/**
+	 * @return number of entries
+	 */
+	public synchronized int size() {
+		purge();
+		return entries.size();
+	}
+
+	/**
+	 * @return number of successful look-ups
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return number of unsuccessful look-ups
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return number of entries evicted to keep within the maximum size
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return number of entries dropped because their files have changed
+	 */
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * Reset statistics
+	 */
+	public synchronized void resetStatistics() {
+		hits.set(0);
+		misses.set(0);
+		evictions = 0;
+		invalidations = 0;
+	}
+
+	/**
+	 * @param key
+	 * @return cached object or null
+	 */
+	public IDataAnalysisObject get(LoaderKey key) {
+		IDataAnalysisObject value = null;
+		synchronized (this) {
+			final Entry e = entries.get(key);
+			if (e != null) {
+				value = e.value.get();
+				if (value == null) { // reclaimed by garbage collector
+					remove(key);
+				}
+			}
+		}
+		if (value == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return value;
+	}
+
+	/**
+	 * @param key
+	 * @return key of cached object for same file that has metadata or null
+	 */
+	public synchronized LoaderKey findKeyWithMetadata(LoaderKey key) {
+		final List<LoaderKey> keys = keysByPath.get(key.getFilePath());
+		if (keys != null) {
+			for (LoaderKey k : keys) {
+				if (k.isSameFile(key) && k.hasMetadata()) {
+					return k;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Add object to cache. Objects that are larger than the maximum size are not held
+	 * @param key
+	 * @param value
+	 * @return true if another value has been replaced
+	 */
+	public synchronized boolean put(LoaderKey key, IDataAnalysisObject value) {
+		final long size = estimateBytes(value);
+
+		// drop entries for earlier versions of file
+		List<LoaderKey> keys = keysByPath.get(key.getFilePath());
+		if (keys != null) {
+			for (LoaderKey k : new ArrayList<LoaderKey>(keys)) {
+				if (!k.isSameFile(key)) {
+					remove(k);
+					invalidations++;
+				}
+			}
+		}
+
+		final Entry old = remove(key);
+		purge();
+		if (size > maximumBytes) {
+			return old != null;
+		}
+
+		final Reference<IDataAnalysisObject> ref = weak ? new WeakReference<IDataAnalysisObject>(value)
+				: new SoftReference<IDataAnalysisObject>(value);
+		entries.put(key, new Entry(ref, size));
+		keys = keysByPath.get(key.getFilePath());
+		if (keys == null) {
+			keys = new ArrayList<LoaderKey>(2);
+			keysByPath.put(key.getFilePath(), keys);
+		}
+		keys.add(key);
+		bytes += size;
+		evict();
+		return old != null;
+	}
+
+	private Entry remove(LoaderKey key) {
+		final Entry e = entries.remove(key);
+		if (e != null) {
+			bytes -= e.bytes;
+			final List<LoaderKey> keys = keysByPath.get(key.getFilePath());
+			if (keys != null) {
+				keys.remove(key);
+				if (keys.isEmpty()) {
+					keysByPath.remove(key.getFilePath());
+				}
+			}
+		}
+		return e;
+	}
+
+	/**
+	 * Remove entries whose values have been reclaimed by the garbage collector
+	 */
+	private void purge() {
+		final Iterator<Map.Entry<LoaderKey, Entry>> it = entries.entrySet().iterator();
+		while (it.hasNext()) {
+			final Map.Entry<LoaderKey, Entry> e = it.next();
+			if (e.getValue().value.get() != null) {
+				continue;
+			}
+			final LoaderKey k = e.getKey();
+			it.remove();
+			bytes -= e.getValue().bytes;
+			final List<LoaderKey> keys = keysByPath.get(k.getFilePath());
+			if (keys != null) {
+				keys.remove(k);
+				if (keys.isEmpty()) {
+					keysByPath.remove(k.getFilePath());
+				}
+			}
+		}
+	}
+
+	private void evict() {
+		final Iterator<Map.Entry<LoaderKey, Entry>> it = entries.entrySet().iterator();
+		while (bytes > maximumBytes && it.hasNext()) {
+			final Map.Entry<LoaderKey, Entry> e = it.next();
+			final LoaderKey k = e.getKey();
+			it.remove();
+			bytes -= e.getValue().bytes;
+			final List<LoaderKey> keys = keysByPath.get(k.getFilePath());
+			if (keys != null) {
+				keys.remove(k);
+				if (keys.isEmpty()) {
+					keysByPath.remove(k.getFilePath());
+				}
+			}
+			evictions++;
+		}
+	}
+
+	/**
+	 * Remove all entries
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		keysByPath.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * Run loader unless another thread is already running a loader with an equal key. In that
+	 * case, wait and return that loader's result instead
+	 * @param key (must not be changed afterwards)
+	 * @param loader
+	 * @return result of loader
+	 * @throws Exception thrown by loader
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T load(LoaderKey key, Callable<T> loader) throws Exception {
+		final FutureTask<T> task = new FutureTask<T>(loader);
+		FutureTask<T> running = (FutureTask<T>) loading.putIfAbsent(key, task);
+		if (running == null) {
+			running = task;
+			try {
+				task.run();
+			} finally {
+				loading.remove(key, task);
+			}
+		}
+
+		try {
+			return running.get();
+		} catch (ExecutionException e) {
+			final Throwable c = e.getCause();
+			if (c instanceof Exception) {
+				throw (Exception) c;
+			}
+			if (c instanceof Error) {
+				throw (Error) c;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @param value
+	 * @return estimated number of bytes used by object
+	 */
+	static long estimateBytes(IDataAnalysisObject value) {
+		long size = ENTRY_OVERHEAD;
+		if (value instanceof DataHolder) {
+			final DataHolder holder = (DataHolder) value;
+			for (int i = 0, imax = holder.size(); i < imax; i++) {
+				final ILazyDataset l = holder.getLazyDataset(i);
+				if (l instanceof AbstractDataset) {
+					size += ((AbstractDataset) l).getNbytes();
+				} else if (l instanceof IDataset) {
+					size += 8L * l.getSize();
+				}
+			}
+		}
+		return size;
+	}
+}
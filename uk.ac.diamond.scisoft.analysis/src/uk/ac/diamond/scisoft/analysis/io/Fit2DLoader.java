@@ -201,4 +201,9 @@ public class Fit2DLoader extends AbstractFileLoader implements IMetaLoader {
 			textMetadata.put("Dim_2", y.toString());
 		}
 	}
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return getHeaderText(header).trim().startsWith("\\") ? HeaderMatch.MATCH : HeaderMatch.MISMATCH;
+	}
 }
@@ -0,0 +1,592 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import ncsa.hdf.hdf5lib.H5;
+import ncsa.hdf.hdf5lib.HDF5Constants;
+import ncsa.hdf.hdf5lib.exceptions.HDF5Exception;
+import ncsa.hdf.hdf5lib.structs.H5O_info_t;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of open HDF5 file and dataset handles that are shared by reads of lazy datasets
+ * <p>
+ * Opening a file and a dataset and querying its type and layout can take longer than reading
+ * a small slice so these handles are kept open between reads. This also keeps the chunk cache
+ * of each dataset so chunks that span several slices are decompressed once. Entries are keyed
+ * by file path and node path, and are reference-counted while in use. Unused entries are closed
+ * when the pool grows beyond its maximum size (least recently used first), when they have been
+ * idle for longer than the idle time, or when their file has been modified since it was opened.
+ * Code in the same process that writes to a file should call {@link #close(String)} first.
+ * <p>
+ * All methods are thread-safe. Files and datasets are opened without holding the pool's lock.
+ * Callers must release each entry they acquire and should hold the lock on an entry while
+ * reading with it as its dataspace selection is changed by reads.
+ */
+public class HDF5HandlePool {
+	private static final Logger logger = LoggerFactory.getLogger(HDF5HandlePool.class);
+
+	/**
+	 * Default maximum number of datasets held open
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 32;
+
+	/**
+	 * Default time in milliseconds after which unused datasets are closed
+	 */
+	public static final long DEFAULT_IDLE_TIME = 30000;
+
+	/**
+	 * Default size in bytes of the cache of decompressed chunks of each dataset. This can be
+	 * changed with the system property <tt>uk.ac.diamond.scisoft.analysis.io.hdf5.chunkcache</tt>
+	 */
+	public static final long DEFAULT_CHUNK_CACHE_SIZE = 32L * 1024 * 1024;
+
+	private static final long CHUNK_CACHE_SLOTS = 12421; // prime number of hash table slots
+	private static final double CHUNK_CACHE_W0 = 0.75; // preemption policy
+
+	private static final HDF5HandlePool instance = new HDF5HandlePool(DEFAULT_MAXIMUM_SIZE, DEFAULT_IDLE_TIME);
+
+	/**
+	 * @return pool shared by HDF5 loaders
+	 */
+	public static HDF5HandlePool getInstance() {
+		return instance;
+	}
+
+	private static class FileHandle {
+		final String path;
+		final int fid;
+		final long modified;
+		int datasets; // number of open datasets
+		int pins; // number of datasets being opened
+
+		FileHandle(final String path, final int fid, final long modified) {
+			this.path = path;
+			this.fid = fid;
+			this.modified = modified;
+		}
+	}
+
+	/**
+	 * Handles of open dataset with information about its type and layout
+	 */
+	public static class DatasetHandles {
+		private final String key;
+		private final FileHandle file;
+		private int count; // number of users
+		private long lastUsed;
+
+		/**
+		 * Dataset identifier
+		 */
+		public final int did;
+
+		/**
+		 * Datatype identifier
+		 */
+		public final int tid;
+
+		/**
+		 * Dataspace identifier
+		 */
+		public final int sid;
+
+		/**
+		 * Datatype class (of base type for array and variable length types)
+		 */
+		public final int typeClass;
+
+		/**
+		 * True if datatype is a string
+		 */
+		public final boolean isText;
+
+		/**
+		 * True if datatype has variable length
+		 */
+		public final boolean isVLEN;
+
+		/**
+		 * True if datatype is an object reference
+		 */
+		public final boolean isREF;
+
+		/**
+		 * Dimensions of dataset (a single data point has one dimension of one)
+		 */
+		public final long[] dims;
+
+		/**
+		 * Dimensions of chunks or null if dataset is not chunked
+		 */
+		public final long[] chunks;
+
+		private DatasetHandles(final String key, final FileHandle file, final int did, final int tid, final int sid,
+				final int typeClass, final boolean isText, final boolean isVLEN, final boolean isREF, final long[] dims,
+				final long[] chunks) {
+			this.key = key;
+			this.file = file;
+			this.did = did;
+			this.tid = tid;
+			this.sid = sid;
+			this.typeClass = typeClass;
+			this.isText = isText;
+			this.isVLEN = isVLEN;
+			this.isREF = isREF;
+			this.dims = dims;
+			this.chunks = chunks;
+		}
+
+		@Override
+		public String toString() {
+			return key;
+		}
+	}
+
+	private final Map<String, DatasetHandles> datasets; // in order of use
+	private final Map<String, FileHandle> files;
+	private final ScheduledThreadPoolExecutor reaper;
+	private boolean reaping;
+	private int maximumSize;
+	private long idleTime;
+	private long chunkCacheSize = Long.getLong("uk.ac.diamond.scisoft.analysis.io.hdf5.chunkcache", DEFAULT_CHUNK_CACHE_SIZE);
+
+	/**
+	 * @param maximumSize maximum number of datasets held open
+	 * @param idleTime time in milliseconds after which unused datasets are closed
+	 */
+	public HDF5HandlePool(final int maximumSize, final long idleTime) {
+		datasets = new LinkedHashMap<String, DatasetHandles>(16, 0.75f, true);
+		files = new HashMap<String, FileHandle>();
+		setMaximumSize(maximumSize);
+		setIdleTime(idleTime);
+
+		reaper = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "HDF5 handle pool reaper");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		reaper.setKeepAliveTime(1, TimeUnit.SECONDS);
+		reaper.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * @return maximum number of datasets held open
+	 */
+	public synchronized int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Set maximum number of datasets held open. Datasets in use are not closed so the pool may
+	 * temporarily hold more
+	 * @param maximumSize
+	 */
+	public synchronized void setMaximumSize(final int maximumSize) {
+		if (maximumSize < 0) {
+			throw new IllegalArgumentException("Maximum size must not be negative");
+		}
+		this.maximumSize = maximumSize;
+		evict();
+	}
+
+	/**
+	 * @return time in milliseconds after which unused datasets are closed
+	 */
+	public synchronized long getIdleTime() {
+		return idleTime;
+	}
+
+	/**
+	 * @param idleTime time in milliseconds after which unused datasets are closed
+	 */
+	public synchronized void setIdleTime(final long idleTime) {
+		if (idleTime < 0) {
+			throw new IllegalArgumentException("Idle time must not be negative");
+		}
+		this.idleTime = idleTime;
+	}
+
+	/**
+	 * @return size in bytes of chunk cache of each dataset
+	 */
+	public synchronized long getChunkCacheSize() {
+		return chunkCacheSize;
+	}
+
+	/**
+	 * Set size of chunk cache of each dataset. The default cache of the HDF5 library (1MB)
+	 * cannot hold a typical detector frame so reads that each cover part of a chunk would
+	 * decompress it again. Unused datasets are closed so they are reopened with the new cache
+	 * @param bytes
+	 */
+	public synchronized void setChunkCacheSize(final long bytes) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("Chunk cache size must not be negative");
+		}
+		if (bytes != chunkCacheSize) {
+			chunkCacheSize = bytes;
+			clear();
+		}
+	}
+
+	/**
+	 * @return number of datasets held open
+	 */
+	public synchronized int size() {
+		return datasets.size();
+	}
+
+	private static String createKey(final String path, final String node) {
+		return path + ":" + node;
+	}
+
+	/**
+	 * Get handles for dataset, opening file and dataset if necessary. These must be released
+	 * after use
+	 * @param path canonical path of file
+	 * @param node path of dataset in file
+	 * @return handles
+	 * @throws HDF5Exception if file or dataset cannot be opened
+	 * @throws IllegalArgumentException if node is not a dataset or is of a compound datatype
+	 */
+	public DatasetHandles acquire(final String path, final String node) throws HDF5Exception {
+		final String key = createKey(path, node);
+		final long modified = new File(path).lastModified();
+		FileHandle file;
+		final long cacheSize;
+		synchronized (this) {
+			DatasetHandles h = datasets.get(key);
+			if (h != null && h.file.modified != modified) {
+				logger.debug("File {} has been modified so closing {}", path, key);
+				remove(h);
+				h = null;
+			}
+			if (h != null) {
+				h.count++;
+				h.lastUsed = System.currentTimeMillis();
+				return h;
+			}
+
+			file = files.get(path);
+			if (file != null && file.modified != modified) {
+				files.remove(path); // closed when its last dataset is closed
+				file = null;
+			}
+			if (file != null) {
+				file.pins++; // keep file open while dataset is opened
+			}
+			cacheSize = chunkCacheSize;
+		}
+
+		DatasetHandles n = null;
+		try {
+			if (file == null) {
+				file = new FileHandle(path, H5.H5Fopen(path, HDF5Constants.H5F_ACC_RDONLY, HDF5Constants.H5P_DEFAULT), modified);
+				file.pins = 1;
+			}
+			n = open(key, file, node, cacheSize);
+		} finally {
+			if (n == null && file != null) {
+				synchronized (this) {
+					file.pins--;
+					closeFileIfUnused(file);
+				}
+			}
+		}
+
+		synchronized (this) {
+			file.pins--;
+			file.datasets++;
+			if (!files.containsKey(path)) {
+				files.put(path, file);
+			}
+			DatasetHandles h = datasets.get(key);
+			if (h != null && h.file.modified == modified) { // opened by another thread in the meantime
+				close(n);
+				h.count++;
+				h.lastUsed = System.currentTimeMillis();
+				return h;
+			}
+			if (h != null) {
+				remove(h);
+			}
+
+			logger.debug("Opened {}", key);
+			n.count = 1;
+			n.lastUsed = System.currentTimeMillis();
+			datasets.put(key, n);
+			evict();
+			return n;
+		}
+	}
+
+	/**
+	 * Release handles so they can be closed when no longer used
+	 * @param h
+	 */
+	public synchronized void release(final DatasetHandles h) {
+		if (h.count <= 0) {
+			throw new IllegalStateException("Handles have already been released");
+		}
+		h.lastUsed = System.currentTimeMillis();
+		if (--h.count == 0) {
+			if (datasets.get(h.key) != h) { // removed while in use
+				close(h);
+			} else {
+				evict();
+				scheduleReap(idleTime);
+			}
+		}
+	}
+
+	/**
+	 * Close all datasets of given file, for example, before it is written to or deleted.
+	 * Datasets in use are closed when they are released
+	 * @param path canonical path of file
+	 */
+	public synchronized void close(final String path) {
+		Iterator<DatasetHandles> it = datasets.values().iterator();
+		while (it.hasNext()) {
+			DatasetHandles h = it.next();
+			if (h.file.path.equals(path)) {
+				it.remove();
+				if (h.count == 0) {
+					close(h);
+				}
+			}
+		}
+		FileHandle file = files.remove(path);
+		if (file != null) {
+			closeFileIfUnused(file);
+		}
+	}
+
+	/**
+	 * Close all unused datasets
+	 */
+	public synchronized void clear() {
+		Iterator<DatasetHandles> it = datasets.values().iterator();
+		while (it.hasNext()) {
+			DatasetHandles h = it.next();
+			if (h.count == 0) {
+				it.remove();
+				close(h);
+			}
+		}
+	}
+
+	/**
+	 * Open dataset and query its type and layout
+	 */
+	private static DatasetHandles open(final String key, final FileHandle file, final String node, final long cacheSize) throws HDF5Exception {
+		int did = -1, tid = -1, sid = -1;
+		boolean opened = false;
+		try {
+			H5O_info_t info = H5.H5Oget_info_by_name(file.fid, node, HDF5Constants.H5P_DEFAULT);
+			if (info.type != HDF5Constants.H5O_TYPE_DATASET) {
+				throw new IllegalArgumentException("Node " + node + " was not a dataset");
+			}
+
+			int apid = H5.H5Pcreate(HDF5Constants.H5P_DATASET_ACCESS);
+			try {
+				H5.H5Pset_chunk_cache(apid, CHUNK_CACHE_SLOTS, cacheSize, CHUNK_CACHE_W0);
+				did = H5.H5Dopen(file.fid, node, apid);
+			} finally {
+				try {
+					H5.H5Pclose(apid);
+				} catch (HDF5Exception ex) {
+				}
+			}
+			tid = H5.H5Dget_type(did);
+			int tclass = H5.H5Tget_class(tid);
+			if (tclass == HDF5Constants.H5T_ARRAY || tclass == HDF5Constants.H5T_VLEN) {
+				// for ARRAY, the type is determined by the base type
+				int btid = H5.H5Tget_super(tid);
+				tclass = H5.H5Tget_class(btid);
+				try {
+					H5.H5Tclose(btid);
+				} catch (HDF5Exception ex) {
+				}
+			}
+			if (tclass == HDF5Constants.H5T_COMPOUND) {
+				throw new IllegalArgumentException("Compound dataset not supported");
+			}
+			final boolean isText = tclass == HDF5Constants.H5T_STRING;
+			final boolean isVLEN = tclass == HDF5Constants.H5T_VLEN || H5.H5Tis_variable_str(tid);
+			final boolean isREF = H5.H5Tequal(tid, HDF5Constants.H5T_STD_REF_OBJ);
+
+			sid = H5.H5Dget_space(did);
+			int rank = H5.H5Sget_simple_extent_ndims(sid);
+			long[] dims;
+			if (rank == 0) {
+				// a single data point
+				rank = 1;
+				dims = new long[] {1};
+			} else {
+				dims = new long[rank];
+				H5.H5Sget_simple_extent_dims(sid, dims, null);
+			}
+
+			long[] chunks = null;
+			int pid = H5.H5Dget_create_plist(did);
+			try {
+				if (H5.H5Pget_layout(pid) == HDF5Constants.H5D_CHUNKED) {
+					chunks = new long[rank];
+					H5.H5Pget_chunk(pid, rank, chunks);
+				}
+			} finally {
+				try {
+					H5.H5Pclose(pid);
+				} catch (HDF5Exception ex) {
+				}
+			}
+
+			DatasetHandles h = new DatasetHandles(key, file, did, tid, sid, tclass, isText, isVLEN, isREF, dims, chunks);
+			opened = true;
+			return h;
+		} finally {
+			if (!opened) {
+				closeHandles(did, tid, sid);
+			}
+		}
+	}
+
+	/**
+	 * Remove dataset from pool and close it unless it is in use
+	 */
+	private void remove(final DatasetHandles h) {
+		datasets.remove(h.key);
+		if (h.count == 0) {
+			close(h);
+		}
+	}
+
+	/**
+	 * Close least recently used datasets that are unused while there are too many
+	 */
+	private void evict() {
+		int excess = datasets.size() - maximumSize;
+		Iterator<DatasetHandles> it = datasets.values().iterator();
+		while (excess > 0 && it.hasNext()) {
+			DatasetHandles h = it.next();
+			if (h.count == 0) {
+				it.remove();
+				close(h);
+				excess--;
+			}
+		}
+	}
+
+	private void scheduleReap(final long delay) {
+		if (reaping) {
+			return;
+		}
+		reaping = true;
+		reaper.schedule(new Runnable() {
+			@Override
+			public void run() {
+				reap();
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Close datasets that have been unused for longer than the idle time
+	 */
+	private synchronized void reap() {
+		reaping = false;
+		final long now = System.currentTimeMillis();
+		long next = Long.MAX_VALUE; // time until next unused dataset expires
+		Iterator<DatasetHandles> it = datasets.values().iterator();
+		while (it.hasNext()) {
+			DatasetHandles h = it.next();
+			if (h.count == 0) {
+				final long idle = now - h.lastUsed;
+				if (idle >= idleTime) {
+					it.remove();
+					close(h);
+				} else {
+					next = Math.min(next, idleTime - idle);
+				}
+			}
+		}
+		if (next < Long.MAX_VALUE) {
+			scheduleReap(next);
+		}
+	}
+
+	private void close(final DatasetHandles h) {
+		logger.debug("Closing {}", h.key);
+		closeHandles(h.did, h.tid, h.sid);
+		h.file.datasets--;
+		closeFileIfUnused(h.file);
+	}
+
+	private static void closeHandles(final int did, final int tid, final int sid) {
+		if (sid >= 0) {
+			try {
+				H5.H5Sclose(sid);
+			} catch (HDF5Exception ex) {
+			}
+		}
+		if (tid >= 0) {
+			try {
+				H5.H5Tclose(tid);
+			} catch (HDF5Exception ex) {
+			}
+		}
+		if (did >= 0) {
+			try {
+				H5.H5Dclose(did);
+			} catch (HDF5Exception ex) {
+			}
+		}
+	}
+
+	/**
+	 * Close file if it has no open datasets and none are being opened
+	 */
+	private void closeFileIfUnused(final FileHandle file) {
+		if (file.datasets > 0 || file.pins > 0) {
+			return;
+		}
+		if (files.get(file.path) == file) {
+			files.remove(file.path);
+		}
+		try {
+			H5.H5Fclose(file.fid);
+		} catch (HDF5Exception ex) {
+			logger.error("Could not close file {}", file.path, ex);
+		}
+	}
+}
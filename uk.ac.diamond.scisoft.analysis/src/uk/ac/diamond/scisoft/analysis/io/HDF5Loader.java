@@ -1571,185 +1571,261 @@ public class HDF5Loader extends AbstractFileLoader implements IMetaLoader {
 			logger.error("Could not get canonical path", e);
 			throw new ScanFileHolderException("Could not get canonical path", e);
 		}
-		int fid = -1;
+		HDF5HandlePool pool = HDF5HandlePool.getInstance();
+		HDF5HandlePool.DatasetHandles h = null;
 		try {
 			HierarchicalDataFactory.acquireLowLevelReadingAccess(cPath);
-			fid = H5.H5Fopen(fileName, HDF5Constants.H5F_ACC_RDONLY, HDF5Constants.H5P_DEFAULT);
-
 			try {
-				H5O_info_t info = H5.H5Oget_info_by_name(fid, node, HDF5Constants.H5P_DEFAULT);
-				int t = info.type;
-				if (t != HDF5Constants.H5O_TYPE_DATASET) {
-					logger.error("Node {} was not a dataset", node);
-					return data;
-				}
-			} catch (HDF5Exception ex) {
-				logger.error("Could not find info about object {}" + node);
+				h = pool.acquire(cPath, node);
+			} catch (IllegalArgumentException ex) { // not a dataset or not supported
+				logger.error(ex.getMessage());
 				return data;
 			}
 
-			int did = -1, tid = -1, tclass = -1;
-			try {
-				did = H5.H5Dopen(fid, node, HDF5Constants.H5P_DEFAULT);
-				tid = H5.H5Dget_type(did);
-
-				tclass = H5.H5Tget_class(tid);
-				if (tclass == HDF5Constants.H5T_ARRAY || tclass == HDF5Constants.H5T_VLEN) {
-					// for ARRAY, the type is determined by the base type
-					int btid = H5.H5Tget_super(tid);
-					tclass = H5.H5Tget_class(btid);
-					try {
-						H5.H5Tclose(btid);
-					} catch (HDF5Exception ex) {
-					}
-				}
-				if (tclass == HDF5Constants.H5T_COMPOUND) {
-					logger.error("Compound dataset not supported"); // TODO
-					return data;
-				}
-				int sid = -1, pid = -1;
-				int rank;
-				boolean isText, isVLEN; //, isUnsigned = false;
-//				boolean isEnum, isRegRef, isNativeDatatype;
-				long[] dims;
-
-				// create a new scalar dataset
+			synchronized (h) { // dataspace selection is changed by reads
+				data = loadData(h, start, count, step, dtype, extend);
+			}
+		} catch (Throwable le) {
+			throw new ScanFileHolderException("Problem loading file: " + fileName, le);
+		} finally {
+			if (h != null) {
+				pool.release(h);
+			}
+			HierarchicalDataFactory.releaseLowLevelReadingAccess(cPath);
+		}
 
-				try {
-					pid = H5.H5Dget_create_plist(did);
+		return data;
+	}
 
-					sid = H5.H5Dget_space(did);
+	/**
+	 * Read strided selection of chunked dataset in storage order straight into the given buffer
+	 * (whose shape is that of the selection). The selection along each split axis is divided into
+	 * runs of positions that lie in the same chunk and a read is made for each combination of runs,
+	 * so each chunk is read (and so is decompressed) once and no temporary buffer is needed
+	 * @param did dataset
+	 * @param tid datatype
+	 * @param sid dataspace
+	 * @param chunks chunk dimensions of dataset
+	 * @param isSplit true for axes that are split
+	 * @param start
+	 * @param count
+	 * @param step
+	 * @param odata destination buffer
+	 * @throws HDF5Exception
+	 */
+	private static void readByChunks(final int did, final int tid, final int sid, final long[] chunks, final boolean[] isSplit,
+			final int[] start, final int[] count, final int[] step, final Object odata) throws HDF5Exception {
+		final int rank = count.length;
+		final int[][] ranges = new int[rank][];
+		final long[] mdims = new long[rank];
+		for (int i = 0; i < rank; i++) {
+			if (count[i] <= 0)
+				return;
+			ranges[i] = isSplit[i] ? getChunkRanges(start[i], count[i], step[i], Math.max(chunks[i], 1)) : new int[] {0, count[i]};
+			mdims[i] = count[i];
+		}
 
-					rank = H5.H5Sget_simple_extent_ndims(sid);
+		final long[] sstart = new long[rank]; // source start
+		final long[] sstride = new long[rank]; // source steps
+		final long[] mstart = new long[rank]; // destination start
+		final long[] mstride = new long[rank];
+		final long[] lcount = new long[rank]; // number of items read
+		for (int i = 0; i < rank; i++) {
+			sstride[i] = step[i];
+			mstride[i] = 1;
+		}
 
-					isText = tclass == HDF5Constants.H5T_STRING;
-					isVLEN = tclass == HDF5Constants.H5T_VLEN || H5.H5Tis_variable_str(tid);
+		int msid = H5.H5Screate_simple(rank, mdims, null);
+		try {
+			final int[] r = new int[rank]; // index of range in each dimension
+			while (true) {
+				for (int i = 0; i < rank; i++) {
+					final int k = ranges[i][2 * r[i]];
+					mstart[i] = k;
+					lcount[i] = ranges[i][2 * r[i] + 1];
+					sstart[i] = start[i] + (long) k * step[i];
+				}
+				H5.H5Sselect_hyperslab(sid, HDF5Constants.H5S_SELECT_SET, sstart, sstride, lcount, null);
+				H5.H5Sselect_hyperslab(msid, HDF5Constants.H5S_SELECT_SET, mstart, mstride, lcount, null);
+				H5.H5Dread(did, tid, msid, sid, HDF5Constants.H5P_DEFAULT, odata);
+
+				int j = rank - 1; // move to next split position in row-major order
+				for (; j >= 0; j--) {
+					if (++r[j] < ranges[j].length / 2)
+						break;
+					r[j] = 0;
+				}
+				if (j < 0)
+					break;
+			}
+		} finally {
+			H5.H5Sclose(msid);
+		}
+	}
 
-					Datatype type = new H5Datatype(tid);
-					final int ldtype = dtype >= 0 ? dtype : getDtype(type.getDatatypeClass(), type.getDatatypeSize());
+	/**
+	 * Split positions selected in a dimension into runs that lie in the same chunk
+	 * @param start
+	 * @param count
+	 * @param step
+	 * @param chunk size of chunks
+	 * @return pairs of index of first position and number of positions in each run
+	 */
+	static int[] getChunkRanges(final int start, final int count, final int step, final long chunk) {
+		final List<Integer> ranges = new ArrayList<Integer>();
+		int k = 0;
+		while (k < count) {
+			final long pos = start + (long) k * step;
+			final long end = (pos / chunk + 1) * chunk; // end of chunk
+			final int n = (int) Math.min((end - 1 - pos) / step + 1, count - k);
+			ranges.add(k);
+			ranges.add(n);
+			k += n;
+		}
+		final int[] result = new int[ranges.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = ranges.get(i);
+		}
+		return result;
+	}
 
-					if (rank == 0) {
-						// a single data point
-						rank = 1;
-						dims = new long[1];
-						dims[0] = 1;
-					} else {
-						dims = new long[rank];
-						H5.H5Sget_simple_extent_dims(sid, dims, null);
-					}
+	/**
+	 * Read slice of dataset using open handles
+	 */
+	private static AbstractDataset loadData(final HDF5HandlePool.DatasetHandles h,
+			                                final int[]   start,
+			                                final int[]   count,
+			                                final int[]   step,
+			                                final int     dtype,
+			                                final boolean extend) throws Exception {
+		AbstractDataset data = null;
+		final int did = h.did;
+		final int tid = h.tid;
+		final int sid = h.sid;
+		final boolean isText = h.isText;
+		final boolean isVLEN = h.isVLEN;
+		final boolean isREF = h.isREF;
+		final long[] dims = h.dims;
+		final long[] schunk = h.chunks; // source chunking
+		final int rank = dims.length;
 
-					long[] schunk = null; // source chunking
+		try {
+			int ldtype = dtype;
+			if (ldtype < 0) {
+				Datatype type = new H5Datatype(tid);
+				ldtype = getDtype(type.getDatatypeClass(), type.getDatatypeSize());
+			}
 
-					try {
-						if (H5.H5Pget_layout(pid) == HDF5Constants.H5D_CHUNKED) {
-							schunk = new long[rank];
-							H5.H5Pget_chunk(pid, rank, schunk);
-						}
-					} catch (HDF5Exception ex) {
-						logger.error("Could not get chunk size");
-						return data;
-					}
+			final long[] sstart = new long[rank]; // source start
+			final long[] sstride = new long[rank]; // source steps
+			final long[] dsize = new long[rank]; // destination size
 
-					final long[] sstart = new long[rank]; // source start
-					final long[] sstride = new long[rank]; // source steps
-					final long[] dsize = new long[rank]; // destination size
+			for (int i = 0; i < rank; i++) {
+				sstart[i] = start[i];
+				sstride[i] = step[i];
+				dsize[i] = count[i];
+			}
 
-					for (int i = 0; i < rank; i++) {
-						sstart[i] = start[i];
-						sstride[i] = step[i];
-						dsize[i] = count[i];
+			boolean all = false;
+			if (schunk == null) {
+				all = true;
+			} else {
+				if (Arrays.equals(dims, schunk)) {
+					all = true;
+				} else {
+					int j = rank - 1; // find last chunked dimension that is sliced across
+					while (j >= 0) {
+						if (schunk[j] > 1 && dsize[j] <= 1)
+							break;
+						j--;
 					}
+					all = j < 0;
+				}
+			}
+			if (schunk == null || all) {
+				H5.H5Sselect_hyperslab(sid, HDF5Constants.H5S_SELECT_SET, sstart, sstride, dsize, null);
+				int length = 1;
+				for (int i = 0; i < rank; i++)
+					length *= count[i];
 
-					boolean all = false;
-					if (schunk == null) {
-						all = true;
+				int msid = H5.H5Screate_simple(1, new long[] {length}, null);
+				try {
+					H5.H5Sselect_all(msid);
+					data = AbstractDataset.zeros(count, ldtype);
+					Object odata = data.getBuffer();
+
+					if (isVLEN) {
+						H5.H5DreadVL(did, tid, msid, sid, HDF5Constants.H5P_DEFAULT, (Object[]) odata);
 					} else {
-						if (Arrays.equals(dims, schunk)) {
-							all = true;
-						} else {
-							int j = rank - 1; // find last chunked dimension that is sliced across
-							while (j >= 0) {
-								if (schunk[j] > 1 && dsize[j] <= 1)
-									break;
-								j--;
+						H5.H5Dread(did, tid, msid, sid, HDF5Constants.H5P_DEFAULT, odata);
+
+						if (odata instanceof byte[] && ldtype != AbstractDataset.INT8) {
+							// TODO check if this is actually used
+							Object idata = null;
+							byte[] bdata = (byte[]) odata;
+							if (isText) {
+								idata = Dataset.byteToString(bdata, H5.H5Tget_size(tid));
+							} else if (isREF) {
+								idata = HDFNativeData.byteToLong(bdata);
 							}
-							all = j < 0;
-						}
-					}
-					if (schunk == null || all) {
-						H5.H5Sselect_hyperslab(sid, HDF5Constants.H5S_SELECT_SET, sstart, sstride, dsize, null);
-						int length = 1;
-						for (int i = 0; i < rank; i++)
-							length *= count[i];
-
-						int msid = H5.H5Screate_simple(1, new long[] {length}, null);
-						H5.H5Sselect_all(msid);
-						data = AbstractDataset.zeros(count, ldtype);
-						Object odata = data.getBuffer();
-
-						boolean isREF = H5.H5Tequal(tid, HDF5Constants.H5T_STD_REF_OBJ);
-						if (isVLEN) {
-							H5.H5DreadVL(did, tid, msid, sid, HDF5Constants.H5P_DEFAULT, (Object[]) odata);
-						} else {
-							H5.H5Dread(did, tid, msid, sid, HDF5Constants.H5P_DEFAULT, odata);
-
-							if (odata instanceof byte[] && ldtype != AbstractDataset.INT8) {
-								// TODO check if this is actually used
-								Object idata = null;
-								byte[] bdata = (byte[]) odata;
-								if (isText) {
-									idata = Dataset.byteToString(bdata, H5.H5Tget_size(tid));
-								} else if (isREF) {
-									idata = HDFNativeData.byteToLong(bdata);
-								}
 
-								if (idata != null) {
-									data = createDataset(idata, count, ldtype, false); // extend later, if necessary
-								}
+							if (idata != null) {
+								data = createDataset(idata, count, ldtype, false); // extend later, if necessary
 							}
 						}
+					}
+				} finally {
+					H5.H5Sclose(msid);
+				}
+			} else {
+				// read in many split chunks
+				final boolean[] isSplit = new boolean[rank];
+				final long[] send = new long[rank];
+				int length = 1;
+				for (int i = 0; i < rank; i++) {
+					send[i] = sstart[i] + count[i] * step[i];
+					isSplit[i] = schunk[i] <= 1 && dsize[i] > 1;
+					if (isSplit[i]) {
+						dsize[i] = 1;
 					} else {
-						// read in many split chunks
-						final boolean[] isSplit = new boolean[rank];
-						final long[] send = new long[rank];
-						int length = 1;
-						for (int i = 0; i < rank; i++) {
-							send[i] = sstart[i] + count[i] * step[i];
-							isSplit[i] = schunk[i] <= 1 && dsize[i] > 1;
-							if (isSplit[i]) {
-								dsize[i] = 1;
-							} else {
-								length *= dsize[i];
-							}
-						}
-						if (length == 1) { // if just single point then bulk up request
-							for (int i = rank - 1; i >= 0; i--) {
-								int l = count[i];
-								if (l > 1) {
-									dsize[i] = l;
-									length = l;
-									isSplit[i] = false;
-									break;
-								}
-							}
-						}
-						final List<Integer> notSplit = new ArrayList<Integer>();
-						for (int i = 0; i < rank; i++) {
-							if (!isSplit[i])
-								notSplit.add(i);
-						}
-						final int[] axes = new int[notSplit.size()];
-						for (int i = 0; i < axes.length; i++) {
-							axes[i] = notSplit.get(i);
-						}
-						data = AbstractDataset.zeros(count, ldtype);
-						Object odata;
-						try {
-							odata = H5Datatype.allocateArray(tid, length);
-						} catch (OutOfMemoryError err) {
-							throw new ScanFileHolderException("Out Of Memory", err);
+						length *= dsize[i];
+					}
+				}
+				if (length == 1) { // if just single point then bulk up request
+					for (int i = rank - 1; i >= 0; i--) {
+						int l = count[i];
+						if (l > 1) {
+							dsize[i] = l;
+							length = l;
+							isSplit[i] = false;
+							break;
 						}
-						int msid = H5.H5Screate_simple(1, new long[] {length}, null);
+					}
+				}
+
+				if (!isVLEN && !isText && !isREF) {
+					// read each split chunk once, straight into place
+					data = AbstractDataset.zeros(count, ldtype);
+					readByChunks(did, tid, sid, schunk, isSplit, start, count, step, data.getBuffer());
+				} else {
+					final List<Integer> notSplit = new ArrayList<Integer>();
+					for (int i = 0; i < rank; i++) {
+						if (!isSplit[i])
+							notSplit.add(i);
+					}
+					final int[] axes = new int[notSplit.size()];
+					for (int i = 0; i < axes.length; i++) {
+						axes[i] = notSplit.get(i);
+					}
+					data = AbstractDataset.zeros(count, ldtype);
+					Object odata;
+					try {
+						odata = H5Datatype.allocateArray(tid, length);
+					} catch (OutOfMemoryError err) {
+						throw new ScanFileHolderException("Out Of Memory", err);
+					}
+					int msid = H5.H5Screate_simple(1, new long[] {length}, null);
+					try {
 						H5.H5Sselect_all(msid);
 
 						PositionIterator it = data.getPositionIterator(axes);
@@ -1757,7 +1833,6 @@ public class HDF5Loader extends AbstractFileLoader implements IMetaLoader {
 						final boolean[] hit = it.getOmit();
 						while (it.hasNext()) {
 							H5.H5Sselect_hyperslab(sid, HDF5Constants.H5S_SELECT_SET, sstart, sstride, dsize, null);
-							boolean isREF = H5.H5Tequal(tid, HDF5Constants.H5T_STD_REF_OBJ);
 							Object idata;
 							if (isVLEN) {
 								H5.H5DreadVL(did, tid, msid, sid, HDF5Constants.H5P_DEFAULT, (Object[]) odata);
@@ -1795,66 +1870,29 @@ public class HDF5Loader extends AbstractFileLoader implements IMetaLoader {
 							if (j == -1)
 								break;
 						}
-					}
-					if (extend) {
-						switch (ldtype) {
-						case AbstractDataset.INT32:
-							data = new LongDataset(data);
-							DatasetUtils.unwrapUnsigned(data, 32);
-							break;
-						case AbstractDataset.INT16:
-							data = new IntegerDataset(data);
-							DatasetUtils.unwrapUnsigned(data, 16);
-							break;
-						case AbstractDataset.INT8:
-							data = new ShortDataset(data);
-							DatasetUtils.unwrapUnsigned(data, 8);
-							break;
-						}
-					}
-				} catch (HDF5Exception ex) {
-					logger.error("Could not get data space information", ex);
-					return data;
-				} finally {
-					if (sid >= 0) {
-						try {
-							H5.H5Sclose(sid);
-						} catch (HDF5Exception ex2) {
-						}
-					}
-					if (pid >= 0) {
-						try {
-							H5.H5Pclose(pid);
-						} catch (HDF5Exception ex) {
-						}
-					}
-				}
-
-			} catch (HDF5Exception ex) {
-				logger.error("Could not open dataset", ex);
-			} finally {
-				if (tid >= 0) {
-					try {
-						H5.H5Tclose(tid);
-					} catch (HDF5Exception ex) {
-					}
-				}
-				if (did >= 0) {
-					try {
-						H5.H5Dclose(did);
-					} catch (HDF5Exception ex) {
+					} finally {
+						H5.H5Sclose(msid);
 					}
 				}
 			}
-
-		} catch (Throwable le) {
-			throw new ScanFileHolderException("Problem loading file: " + fileName, le);
-		} finally {
-			try {
-				H5.H5Fclose(fid);
-			} catch (Throwable e) {
+			if (extend) {
+				switch (ldtype) {
+				case AbstractDataset.INT32:
+					data = new LongDataset(data);
+					DatasetUtils.unwrapUnsigned(data, 32);
+					break;
+				case AbstractDataset.INT16:
+					data = new IntegerDataset(data);
+					DatasetUtils.unwrapUnsigned(data, 16);
+					break;
+				case AbstractDataset.INT8:
+					data = new ShortDataset(data);
+					DatasetUtils.unwrapUnsigned(data, 8);
+					break;
+				}
 			}
-			HierarchicalDataFactory.releaseLowLevelReadingAccess(cPath);
+		} catch (HDF5Exception ex) {
+			logger.error("Could not get data space information", ex);
 		}
 
 		return data;
@@ -2176,4 +2214,14 @@ public class HDF5Loader extends AbstractFileLoader implements IMetaLoader {
 
 		return loadData(object.getPath(), object.getName(), lstart, newShape, lstep, -1, true);
 	}
+
+	private static final byte[] HDF5_SIGNATURE = {(byte) 0x89, 'H', 'D', 'F', '\r', '\n', 0x1a, '\n'};
+
+	/**
+	 * The signature can also be after a user block but that is beyond the probed header
+	 */
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return startsWith(header, HDF5_SIGNATURE) ? HeaderMatch.MATCH : HeaderMatch.UNKNOWN;
+	}
 }
@@ -0,0 +1,398 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import gda.analysis.io.ScanFileHolderException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
+
+/**
+ * Class to load frames of an image stack (one frame per file) concurrently
+ * <p>
+ * Frames are decoded by a bounded pool of worker threads shared by all stacks and each is
+ * passed to a sink on the worker thread so it can be copied into its (disjoint) slice of the
+ * destination dataset. When a caller steps forwards along the stack, the next few frames can
+ * be read ahead in the background and held within a memory budget until they are requested.
+ * <p>
+ * The defaults can be changed with the system properties
+ * <tt>uk.ac.diamond.scisoft.analysis.io.imagestack.threads</tt>,
+ * <tt>uk.ac.diamond.scisoft.analysis.io.imagestack.readahead</tt> (number of frames) and
+ * <tt>uk.ac.diamond.scisoft.analysis.io.imagestack.budget</tt> (in bytes)
+ */
+public class ImageFrameLoader {
+	private static final String PROPERTY_PREFIX = "uk.ac.diamond.scisoft.analysis.io.imagestack";
+
+	/**
+	 * Default number of frames to read ahead
+	 */
+	public static final int DEFAULT_READ_AHEAD = 0;
+
+	/**
+	 * Default number of bytes that read-ahead frames can occupy
+	 */
+	public static final long DEFAULT_MEMORY_BUDGET = 256L * 1024 * 1024;
+
+	private static final long KEEP_ALIVE_TIME = 30; // in seconds
+
+	private static volatile ThreadPoolExecutor pool = createPool(getIntegerProperty(PROPERTY_PREFIX + ".threads", 0));
+
+	/**
+	 * Source of frames
+	 */
+	public interface Source {
+		/**
+		 * This can be called from many threads at once
+		 * @param frame index of frame
+		 * @param mon
+		 * @return frame
+		 * @throws ScanFileHolderException
+		 */
+		public AbstractDataset load(int frame, IMonitor mon) throws ScanFileHolderException;
+	}
+
+	/**
+	 * Destination of loaded frames
+	 */
+	public interface Sink {
+		/**
+		 * Put frame in destination. This can be called from many threads at once but each
+		 * position is given once
+		 * @param position in list of frames requested
+		 * @param frame
+		 */
+		public void put(int position, AbstractDataset frame);
+	}
+
+	private final Source source;
+	private final int total;
+	private volatile int readAhead;
+	private volatile long budget;
+
+	private final Map<Integer, Future<AbstractDataset>> ahead; // frames read ahead, in order of request
+	private int lastFrame = -1;
+
+	/**
+	 * @param source
+	 * @param frames total number of frames in source
+	 */
+	public ImageFrameLoader(Source source, int frames) {
+		this.source = source;
+		total = frames;
+		readAhead = getIntegerProperty(PROPERTY_PREFIX + ".readahead", DEFAULT_READ_AHEAD);
+		budget = getLongProperty(PROPERTY_PREFIX + ".budget", DEFAULT_MEMORY_BUDGET);
+		ahead = new LinkedHashMap<Integer, Future<AbstractDataset>>();
+	}
+
+	private static int getIntegerProperty(final String key, final int def) {
+		final String value = System.getProperty(key);
+		if (value != null) {
+			try {
+				return Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+			}
+		}
+		return def;
+	}
+
+	private static long getLongProperty(final String key, final long def) {
+		final String value = System.getProperty(key);
+		if (value != null) {
+			try {
+				return Long.parseLong(value);
+			} catch (NumberFormatException e) {
+			}
+		}
+		return def;
+	}
+
+	private static ThreadPoolExecutor createPool(int threads) {
+		if (threads <= 0) {
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+		final AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor p = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "Image frame loader " + count.incrementAndGet());
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		p.allowCoreThreadTimeOut(true);
+		return p;
+	}
+
+	/**
+	 * @return number of threads used to load frames
+	 */
+	public static int getParallelism() {
+		return pool.getMaximumPoolSize();
+	}
+
+	/**
+	 * Replace the pool with one that uses the given number of threads. The old pool is not shut
+	 * down as frames may still be read ahead or loaded in it; its threads time out once it is idle
+	 * @param threads (if zero, then use the number of available processors)
+	 */
+	public static synchronized void setParallelism(final int threads) {
+		if (threads < 0) {
+			throw new IllegalArgumentException("Number of threads must not be negative");
+		}
+		pool = createPool(threads);
+	}
+
+	/**
+	 * @return number of frames to read ahead
+	 */
+	public int getReadAhead() {
+		return readAhead;
+	}
+
+	/**
+	 * @param frames number of frames to read ahead when frames are requested in increasing order
+	 * (zero to disable)
+	 */
+	public void setReadAhead(final int frames) {
+		if (frames < 0) {
+			throw new IllegalArgumentException("Number of frames must not be negative");
+		}
+		readAhead = frames;
+		if (frames == 0) {
+			clear();
+		}
+	}
+
+	/**
+	 * @return maximum number of bytes held by frames read ahead
+	 */
+	public long getMemoryBudget() {
+		return budget;
+	}
+
+	/**
+	 * @param bytes maximum number of bytes held by frames read ahead
+	 */
+	public void setMemoryBudget(final long bytes) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("Memory budget must not be negative");
+		}
+		budget = bytes;
+	}
+
+	/**
+	 * Discard all frames read ahead
+	 */
+	public synchronized void clear() {
+		for (Future<AbstractDataset> f : ahead.values()) {
+			f.cancel(false);
+		}
+		ahead.clear();
+		lastFrame = -1;
+	}
+
+	/**
+	 * Load frames and pass each to the sink. This returns when all frames have been put in the sink
+	 * @param frames indexes of frames
+	 * @param mon
+	 * @param sink
+	 * @throws ScanFileHolderException if any frame cannot be loaded or if the monitor is cancelled
+	 */
+	public void load(final int[] frames, final IMonitor mon, final Sink sink) throws ScanFileHolderException {
+		final int n = frames.length;
+		if (n == 0) {
+			return;
+		}
+
+		final List<Future<AbstractDataset>> found = takeReadAhead(frames);
+		final ThreadPoolExecutor p = pool;
+		final boolean parallel = n > 1 && p.getMaximumPoolSize() > 1;
+		final ExecutorCompletionService<Integer> service = parallel ? new ExecutorCompletionService<Integer>(p) : null;
+		final List<Future<Integer>> tasks = new ArrayList<Future<Integer>>();
+		long bytes = 0;
+		try {
+			for (int i = 0; i < n; i++) {
+				final Future<AbstractDataset> f = found.get(i);
+				if (f != null) { // wait for frames already read ahead
+					bytes = put(sink, i, get(f));
+				} else if (parallel) {
+					tasks.add(service.submit(new LoadTask(source, frames[i], sink, i)));
+				} else {
+					bytes = put(sink, i, source.load(frames[i], mon));
+				}
+				if (mon != null) {
+					if (mon.isCancelled()) {
+						throw new ScanFileHolderException("Loading of image stack cancelled");
+					}
+					if (f != null || !parallel) { // submitted frames are counted when taken
+						mon.worked(1);
+					}
+				}
+			}
+
+			for (int i = 0, imax = tasks.size(); i < imax; i++) {
+				bytes = get(service.take()); // rethrows first failure
+				if (mon != null) {
+					if (mon.isCancelled()) {
+						throw new ScanFileHolderException("Loading of image stack cancelled");
+					}
+					mon.worked(1);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ScanFileHolderException("Loading of image stack interrupted", e);
+		} finally {
+			for (Future<Integer> t : tasks) {
+				t.cancel(false);
+			}
+		}
+
+		startReadAhead(frames, bytes);
+	}
+
+	private static long put(final Sink sink, final int position, final AbstractDataset frame) {
+		sink.put(position, frame);
+		return frame.getNbytes();
+	}
+
+	private static <T> T get(final Future<T> f) throws ScanFileHolderException, InterruptedException {
+		try {
+			return f.get();
+		} catch (CancellationException e) {
+			throw new ScanFileHolderException("Loading of image in image stack was cancelled", e);
+		} catch (ExecutionException e) {
+			final Throwable c = e.getCause();
+			if (c instanceof ScanFileHolderException) {
+				throw (ScanFileHolderException) c;
+			}
+			if (c instanceof RuntimeException) {
+				throw (RuntimeException) c;
+			}
+			throw new ScanFileHolderException("Cannot load image in image stack", c);
+		}
+	}
+
+	/**
+	 * Remove frames that were read ahead. Any others are discarded if the access is not sequential
+	 * @param frames
+	 * @return list of futures (with nulls for frames not found)
+	 */
+	private synchronized List<Future<AbstractDataset>> takeReadAhead(final int[] frames) {
+		final List<Future<AbstractDataset>> found = new ArrayList<Future<AbstractDataset>>(frames.length);
+		for (int f : frames) {
+			found.add(ahead.remove(f));
+		}
+		if (!ahead.isEmpty() && frames[0] <= lastFrame) { // moved backwards so stop reading ahead
+			for (Future<AbstractDataset> f : ahead.values()) {
+				f.cancel(false);
+			}
+			ahead.clear();
+		}
+		return found;
+	}
+
+	/**
+	 * Read ahead frames that follow those requested when frames are requested in increasing order
+	 * @param frames
+	 * @param bytes size of a frame in bytes
+	 */
+	private synchronized void startReadAhead(final int[] frames, final long bytes) {
+		final int n = frames.length;
+		final int last = frames[n - 1];
+		final int previous = lastFrame;
+		lastFrame = last;
+		final int count = bytes > 0 ? (int) Math.min(readAhead, budget / bytes) : 0;
+		if (count <= 0 || previous < 0 || frames[0] <= previous) {
+			return;
+		}
+
+		final int delta = n > 1 ? last - frames[n - 2] : frames[0] - previous;
+		if (delta <= 0) {
+			return;
+		}
+
+		// discard frames no longer ahead of caller
+		Iterator<Integer> it = ahead.keySet().iterator();
+		while (it.hasNext()) {
+			int f = it.next();
+			if (f <= last || f > last + count * delta) {
+				ahead.get(f).cancel(false);
+				it.remove();
+			}
+		}
+
+		final ThreadPoolExecutor p = pool;
+		for (int i = 1; i <= count; i++) {
+			final int f = last + i * delta;
+			if (f >= total) {
+				break;
+			}
+			if (!ahead.containsKey(f)) {
+				try {
+					ahead.put(f, p.submit(new Callable<AbstractDataset>() {
+						@Override
+						public AbstractDataset call() throws Exception {
+							return source.load(f, null);
+						}
+					}));
+				} catch (RejectedExecutionException e) {
+					break;
+				}
+			}
+		}
+	}
+
+	private static class LoadTask implements Callable<Integer> {
+		private final Source source;
+		private final int frame;
+		private final Sink sink;
+		private final int position;
+
+		public LoadTask(Source source, int frame, Sink sink, int position) {
+			this.source = source;
+			this.frame = frame;
+			this.sink = sink;
+			this.position = position;
+		}
+
+		@Override
+		public Integer call() throws Exception {
+			final AbstractDataset d = source.load(frame, null);
+			sink.put(position, d);
+			return d.getNbytes();
+		}
+	}
+}
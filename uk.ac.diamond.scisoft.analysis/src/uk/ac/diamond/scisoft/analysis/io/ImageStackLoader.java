@@ -18,12 +18,10 @@ package uk.ac.diamond.scisoft.analysis.io;
 
 import gda.analysis.io.ScanFileHolderException;
 
-import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.List;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
-import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
 import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
 
 public class ImageStackLoader implements ILazyLoader {
@@ -31,7 +29,8 @@ public class ImageStackLoader implements ILazyLoader {
 	private List<String> imageFilenames;
 	private int[] shape;
 	private int dtype;
-	private Class<? extends AbstractFileLoader> loaderClass;
+	private volatile Class<? extends AbstractFileLoader> loaderClass;
+	private final ImageFrameLoader frameLoader;
 	
 	
 	public int getDtype() {
@@ -58,85 +57,111 @@ public class ImageStackLoader implements ILazyLoader {
 		for( int i=0;i<data_shape.length;i++){
 			shape[i+1]=data_shape[i];
 		}
+
+		frameLoader = new ImageFrameLoader(new ImageFrameLoader.Source() {
+			@Override
+			public AbstractDataset load(int frame, IMonitor mon) throws ScanFileHolderException {
+				return loadImage(frame, mon);
+			}
+		}, stack);
 	}
 
 	@Override
 	public boolean isFileReadable() {
 		return true;
 	}
-	
 
-	private AbstractDataset getFullStack() throws ScanFileHolderException {
-		
- 		
-    	DataHolder      data = LoaderFactory.getData(loaderClass, imageFilenames.get(0), true, new IMonitor.Stub());
-    	AbstractDataset a    = data.getDataset(0);
-    	
-		AbstractDataset result = AbstractDataset.zeros(shape, dtype);
-     	Object          buffer = result.getBuffer();
-		
-		int image = 0;
-        for (String path : imageFilenames) {
-        	final DataHolder      d = LoaderFactory.getData(loaderClass, path, true, new IMonitor.Stub());
-        	final AbstractDataset i = d.getDataset(0);
-        	System.arraycopy(i.getBuffer(), 0, buffer, image*a.getSize(), a.getSize());
-        	++image;
+	/**
+	 * @return loader used to read images (which can be used to set up read-ahead)
+	 */
+	public ImageFrameLoader getFrameLoader() {
+		return frameLoader;
+	}
+
+	private AbstractDataset loadImage(int i, IMonitor mon) throws ScanFileHolderException {
+		// load the file
+		DataHolder data = null;
+		final Class<? extends AbstractFileLoader> lClass = loaderClass;
+		if (lClass != null) {
+			try {
+				data = LoaderFactory.getData(lClass, imageFilenames.get(i), true, mon);
+			} catch (Exception e) {
+				// do nothing and try with all registered loaders
+			}
+		}
+		if (data == null) {
+			try {
+				data = LoaderFactory.getData(imageFilenames.get(i), mon);
+			} catch (Exception e) {
+				throw new ScanFileHolderException("Cannot load image in image stack", e);
+			}
+			if (data == null) {
+				throw new ScanFileHolderException("Cannot load image in image stack");
+			}
+		} else if (lClass == null) {
+			loaderClass = data.getLoaderClass();
 		}
-        
-        return result;
+
+		return data.getDataset(0);
+	}
+
+	private AbstractDataset getFullStack(IMonitor mon) throws ScanFileHolderException {
+		final AbstractDataset result = AbstractDataset.zeros(shape, dtype);
+		final Object buffer = result.getBuffer();
+		final int size = AbstractDataset.calcSize(Arrays.copyOfRange(shape, 1, shape.length));
+
+		final int[] frames = new int[shape[0]];
+		for (int i = 0; i < frames.length; i++) {
+			frames[i] = i;
+		}
+		frameLoader.load(frames, mon, new ImageFrameLoader.Sink() {
+			@Override
+			public void put(int position, AbstractDataset image) {
+				System.arraycopy(image.cast(dtype).getBuffer(), 0, buffer, position * size, size);
+			}
+		});
+		result.setDirty();
+		return result;
 	}
 
 
 	@Override
 	public AbstractDataset getDataset(IMonitor mon, int[] shape, int[] start, int[] stop, int[] step) throws ScanFileHolderException {
 		
-		if (start==null && step==null) return getFullStack();// Might cause out of memory!
+		if (start==null && step==null) return getFullStack(mon);// Might cause out of memory!
 		                                                     // But this allows expressions of the stack to work if the stack fit in memory.
 		
 		if (step == null) {
 			step = new int[shape.length];
 			Arrays.fill(step, 1);
 		}
-		int[] newShape = AbstractDataset.checkSlice(shape, start, stop, start, stop, step);
-
-		AbstractDataset result = AbstractDataset.zeros(newShape, dtype);
-
-		for (int i = start[0], j = 0; i < stop[0]; i += step[0], j++) {
-			// load the file
-			DataHolder data = null;
-			if (loaderClass != null) {
-				try {
-					data = LoaderFactory.getData(loaderClass, imageFilenames.get(i), true, mon);
-				} catch (Exception e) {
-					// do nothing and try with all registered loaders
-				}
-			}
-			if (data == null) {
-				try {
-					data = LoaderFactory.getData(imageFilenames.get(i), mon);
-				} catch (Exception e) {
-					throw new ScanFileHolderException("Cannot load image in image stack", e);
-				}
-				if (data == null) {
-					throw new ScanFileHolderException("Cannot load image in image stack");
-				}
-			} else if (loaderClass == null) {
-				loaderClass = data.getLoaderClass();
-			}
+		final int[] newShape = AbstractDataset.checkSlice(shape, start, stop, start, stop, step);
+
+		final AbstractDataset result = AbstractDataset.zeros(newShape, dtype);
 
-			AbstractDataset abstractDataset = data.getDataset(0);
-			
-			int[] imageStart = new int[] {start[1],start[2]};
-			int[] imageStop = new int[] {stop[1],stop[2]};
-			int[] imageStep = new int[] {step[1],step[2]};
-			
-			AbstractDataset slice = abstractDataset.getSlice(imageStart, imageStop, imageStep);
-			
-			int[] resultStart = new int[] {j,0,0};
-			int[] resultStop = new int[] {j+1,newShape[1], newShape[2]};
-			int[] resultStep = new int[] {1,1,1};
-			result.setSlice(slice, resultStart, resultStop, resultStep);
+		final int rank = newShape.length;
+		final int[] imageStart = Arrays.copyOfRange(start, 1, rank);
+		final int[] imageStop = Arrays.copyOfRange(stop, 1, rank);
+		final int[] imageStep = Arrays.copyOfRange(step, 1, rank);
+
+		final int[] frames = new int[newShape[0]];
+		for (int i = start[0], j = 0; j < frames.length; i += step[0], j++) {
+			frames[j] = i;
 		}
+
+		// images are loaded concurrently and each is copied into its own slice of the result
+		frameLoader.load(frames, mon, new ImageFrameLoader.Sink() {
+			@Override
+			public void put(int j, AbstractDataset image) {
+				AbstractDataset slice = image.getSlice(imageStart, imageStop, imageStep);
+
+				int[] resultStart = new int[rank];
+				int[] resultStop = newShape.clone();
+				resultStart[0] = j;
+				resultStop[0] = j + 1;
+				result.setSlice(slice, resultStart, resultStop, null);
+			}
+		});
 		
 		return result;	
 		
@@ -46,9 +46,10 @@ public class ImageStackLoaderEx implements ILazyLoader {
 	int dtype;
 	int [] dimensions;
 	private int[] data_shapes;
-	AbstractDatasetRecord cache;
+	volatile AbstractDatasetRecord cache;
 	String parent;
-	private Class<? extends AbstractFileLoader> loaderClass;
+	private volatile Class<? extends AbstractFileLoader> loaderClass;
+	private final ImageFrameLoader frameLoader;
 	
 	public int getDtype() {
 		return dtype;
@@ -90,6 +91,20 @@ public class ImageStackLoaderEx implements ILazyLoader {
 		for( int i=0;i<data_shapes.length;i++){
 			shape[i+offset]=data_shapes[i];
 		}
+
+		frameLoader = new ImageFrameLoader(new ImageFrameLoader.Source() {
+			@Override
+			public AbstractDataset load(int frame, IMonitor mon) throws ScanFileHolderException {
+				return getDataSetFromFile(getLocation(frame), mon);
+			}
+		}, totalLength);
+	}
+
+	/**
+	 * @return loader used to read images (which can be used to set up read-ahead)
+	 */
+	public ImageFrameLoader getFrameLoader() {
+		return frameLoader;
 	}
 
 	String getFilename(int [] pos){
@@ -99,10 +114,18 @@ public class ImageStackLoaderEx implements ILazyLoader {
 			return imageFilenames[pos[0]*dimensions[1]+pos[1]];
 		return null;
 	}
-	
+
+	private int getIndex(int[] pos) {
+		return dimensions.length == 1 ? pos[0] : pos[0] * dimensions[1] + pos[1];
+	}
+
+	private int[] getLocation(int index) {
+		return dimensions.length == 1 ? new int[] {index} : new int[] {index / dimensions[1], index % dimensions[1]};
+	}
 
 	private AbstractDataset getDataSetFromFile(int[] location, IMonitor mon) throws ScanFileHolderException {
-		if (cache == null || !java.util.Arrays.equals(location, cache.location)) {
+		AbstractDatasetRecord record = cache;
+		if (record == null || !java.util.Arrays.equals(location, record.location)) {
 			// load the file
 			String filename = getFilename(location);
 			if (parent != null) {
@@ -113,9 +136,10 @@ public class ImageStackLoaderEx implements ILazyLoader {
 				filename = new File(parent, filename).getAbsolutePath();
 			}
 			DataHolder data = null;
-			if (loaderClass != null) {
+			final Class<? extends AbstractFileLoader> lClass = loaderClass;
+			if (lClass != null) {
 				try {
-					data = LoaderFactory.getData(loaderClass, filename, true, mon);
+					data = LoaderFactory.getData(lClass, filename, true, mon);
 				} catch (Exception e) {
 					// do nothing and try with all registered loaders
 				}
@@ -129,16 +153,17 @@ public class ImageStackLoaderEx implements ILazyLoader {
 				if (data == null) {
 					throw new ScanFileHolderException("Cannot load image in image stack");
 				}
-			} else if (loaderClass == null) {
+			} else if (lClass == null) {
 				loaderClass = data.getLoaderClass();
 			}
 
 			AbstractDataset abstractDataset = data.getDataset(0);
 			abstractDataset.setName(filename);
 
-			cache = new AbstractDatasetRecord(abstractDataset, location);
+			record = new AbstractDatasetRecord(abstractDataset, location);
+			cache = record;
 		}
-		return cache.dataset;
+		return record.dataset;
 	}
 
 	@Override
@@ -159,68 +184,60 @@ public class ImageStackLoaderEx implements ILazyLoader {
 		final int[] newShape = AbstractDataset.checkSlice(shape, start, stop, start, stop, step);
 
 		//dataset we will return
-		AbstractDataset result = AbstractDataset.zeros(newShape, dtype);
+		final AbstractDataset result = AbstractDataset.zeros(newShape, dtype);
 
-		int [] resultStart = new int[newShape.length];
-		java.util.Arrays.fill(resultStart, 0);
+		final int fileRank = dimensions.length;
+		final int rank = newShape.length;
+		final int[] fileImageStart = java.util.Arrays.copyOfRange(start, fileRank, rank);
+		final int[] fileImageStop = java.util.Arrays.copyOfRange(stop, fileRank, rank);
+		final int[] fileImageStep = java.util.Arrays.copyOfRange(step, fileRank, rank);
 
-		int [] resultStep= new int[step.length];
-		java.util.Arrays.fill(resultStep, 1);
-
-		//location in result for current file
-		int [] currentResultStart= new int[start.length];
-		java.util.Arrays.fill(currentResultStart, 0);
-		
-		int [] currentResultStop= new int[start.length];
-		java.util.Arrays.fill(currentResultStop, 1);
-		for( int i=dimensions.length; i< start.length;i++){
-			currentResultStop[i] = newShape[i];
+		//positions in result and indexes of files required
+		final int nFiles = AbstractDataset.calcSize(java.util.Arrays.copyOf(newShape, fileRank));
+		final int[][] resultPositions = new int[nFiles][];
+		final int[] files = new int[nFiles];
+		final int [] currentResultStart = new int[fileRank];
+		final int [] fileLocation = new int[fileRank];
+		for (int n = 0; n < nFiles; n++) {
+			for(int i=0; i< fileRank;i++){
+				fileLocation[i] = start[i] + currentResultStart[i] * step[i];
+			}
+			resultPositions[n] = currentResultStart.clone();
+			files[n] = getIndex(fileLocation);
+			addStep(currentResultStart, newShape, fileRank - 1);
 		}
 
-		//iterate over all files
-		do {
-			
-			//get pointer into file set = start+file in iteration
-			int [] fileLocation = java.util.Arrays.copyOfRange(start, 0, dimensions.length);
-			for(int i=0; i< fileLocation.length;i++){
-				fileLocation[i]+=currentResultStart[i];
-			}
+		//files are loaded concurrently and the slice required from each is added to the overall result
+		frameLoader.load(files, mon, new ImageFrameLoader.Sink() {
+			@Override
+			public void put(int n, AbstractDataset dataSetFromFile) {
+				AbstractDataset slice = dataSetFromFile.getSlice(fileImageStart, fileImageStop, fileImageStep);
 
-			AbstractDataset dataSetFromFile = getDataSetFromFile(fileLocation, mon);
-
-			int[] fileImageStart = java.util.Arrays.copyOfRange(start, dimensions.length, start.length);
-			int[] fileImageStop = java.util.Arrays.copyOfRange(stop, dimensions.length, start.length);
-			int[] fileImageStep = java.util.Arrays.copyOfRange(step, dimensions.length, start.length);
-			
-			//extract the slice required
-			AbstractDataset slice = dataSetFromFile.getSlice(fileImageStart, fileImageStop, fileImageStep);
-			
-			try{
-				//add data from this file to the overall result
-				result.setSlice(slice, currentResultStart, currentResultStop, resultStep);
-			} catch( Exception e){
-				throw new IllegalArgumentException("Error adding slice",e);
+				int [] currentResultStart= new int[rank];
+				int [] currentResultStop= newShape.clone();
+				for (int i = 0; i < fileRank; i++) {
+					currentResultStart[i] = resultPositions[n][i];
+					currentResultStop[i] = currentResultStart[i] + 1;
+				}
+				try{
+					result.setSlice(slice, currentResultStart, currentResultStop, null);
+				} catch( Exception e){
+					throw new IllegalArgumentException("Error adding slice",e);
+				}
 			}
-		
-		} while(addStep(currentResultStart, currentResultStop, resultStart, newShape, step, dimensions.length-1));
-		
+		});
+
 		return result;	
 		
 	}
 
-	private boolean addStep( int [] currentStart, int [] currentStop, int start[], int [] stop, int [] step, int index){
+	private boolean addStep(int[] current, int[] stop, int index) {
 		if( index < 0)
 			return false;
-		int newStart = currentStart[index] + step[index];
-		if( newStart < stop[index])
-		{
-			currentStart[index] = newStart;
-			currentStop[index] = newStart+1;
+		if (++current[index] < stop[index])
 			return true;
-		} 
-		currentStart[index] = start[index];
-		currentStop[index] = start[index]+1;
-		return addStep( currentStart, currentStop, start, stop, step, index-1);
+		current[index] = 0;
+		return addStep(current, stop, index-1);
 	}
 
 	public int[] getShape() {
@@ -47,5 +47,11 @@ public class JPEGLoader extends JavaImageLoader {
 	public JPEGLoader(String FileName, boolean convertToGrey, boolean keepBitWidth) {
 		super(FileName, "jpeg", convertToGrey, keepBitWidth);
 	}
-	
+
+	private static final byte[] JPEG_SIGNATURE = {(byte) 0xff, (byte) 0xd8, (byte) 0xff};
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return startsWith(header, JPEG_SIGNATURE) ? HeaderMatch.MATCH : HeaderMatch.MISMATCH;
+	}
 }
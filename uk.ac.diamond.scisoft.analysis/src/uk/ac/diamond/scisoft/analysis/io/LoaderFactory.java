@@ -19,23 +19,24 @@ package uk.ac.diamond.scisoft.analysis.io;
 import gda.analysis.io.ScanFileHolderException;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
-import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
@@ -48,6 +49,7 @@ import uk.ac.diamond.scisoft.analysis.Activator;
 import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.ILazyDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.LazyDataset;
+import uk.ac.diamond.scisoft.analysis.io.AbstractFileLoader.HeaderMatch;
 import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
 import uk.ac.diamond.scisoft.analysis.utils.FileUtils;
 // TODO Not sure if org.eclipse.core could break GDA server.
@@ -76,19 +78,29 @@ import uk.ac.diamond.scisoft.analysis.utils.FileUtils;
  */
 public class LoaderFactory {
 	/**
-	 * A caching mechanism using soft references. Soft references attempt to keep things
-	 * in memory until the system is short on memory. Hashtable used because it is synchronized
-	 * which should reduce chances of getting the wrong data for the key.
+	 * A cache of loaded data that is bounded by the estimated number of bytes held (by default,
+	 * a quarter of the maximum heap size) and that ignores entries for files that have changed.
+	 * Data is held through soft references (or weak references if the system property
+	 * uk.ac.diamond.scisoft.analysis.io.weakcaching is true) so it can still be reclaimed when
+	 * the system is short on memory.
 	 */
-	private static final Map<LoaderKey, Reference<IDataAnalysisObject>> SOFT_CACHE = new Hashtable<LoaderKey, Reference<IDataAnalysisObject>>(89);
+	private static final DataCache CACHE = new DataCache(Long.getLong("uk.ac.diamond.scisoft.analysis.io.cachesize",
+			Runtime.getRuntime().maxMemory() / 4), Boolean.getBoolean("uk.ac.diamond.scisoft.analysis.io.weakcaching"));
 	
 	/**
-	 * This method may be called to ensure that the soft reference cache of data is
+	 * This method may be called to ensure that the cache of data is
 	 * empty. It is required from the unit tests which attempt to measure memory
-	 * leaks, which otherwise would measure the "leak" of the soft reference cache.
+	 * leaks, which otherwise would measure the "leak" of the cache.
 	 */
 	public static void clear() {
-		SOFT_CACHE.clear();
+		CACHE.clear();
+	}
+
+	/**
+	 * @return cache of loaded data (which can be used to change its size or get its statistics)
+	 */
+	public static DataCache getCache() {
+		return CACHE;
 	}
 
 	private static final Logger logger = LoggerFactory.getLogger(LoaderFactory.class);
@@ -302,36 +314,16 @@ public class LoaderFactory {
 		DataHolder holder = null;
 		if (cachedObject!=null && cachedObject instanceof DataHolder) holder = (DataHolder)cachedObject;
 
-		if (holder==null) { // try and load it
-			final Iterator<Class<? extends AbstractFileLoader>> it = getIterator(path);
-			if (it == null) return null;
-	
-			// Currently this method simply cycles through all loaders.
-			// When it finds one which does not give an exception on loading it
-			// returns the data from this loader.
-			while (it.hasNext()) {
-				final Class<? extends AbstractFileLoader> clazz = it.next();
-				final AbstractFileLoader loader = LoaderFactory.getLoader(clazz, path);
-				loader.setLoadMetadata(willLoadMetadata);
-				try {
-					// NOTE Assumes loader fails quickly and nicely
-					// if given the wrong file. If a loader does not
-					// do this it should not be registered with LoaderFactory
-					holder = loader.loadFile(mon);
-					holder.setLoaderClass(clazz);
-					holder.setFilePath(path);
-					key.setMetadata(holder.getMetadata() != null);
-					recordSoftReference(key, holder);
-					break;
-					
-				} catch (OutOfMemoryError ome) {
-					logger.error("There was not enough memory to load {}", path);
-					throw new ScanFileHolderException("Out of memory in loader factory", ome);
-				} catch (Throwable ne) {
-					logger.trace("Loader {} error", loader, ne);
-					continue;
+		if (holder==null) { // try and load it, waiting if another thread is already doing so
+			final LoaderKey loadKey = new LoaderKey();
+			loadKey.setFilePath(path);
+			loadKey.setMetadata(willLoadMetadata);
+			holder = CACHE.load(loadKey, new Callable<DataHolder>() {
+				@Override
+				public DataHolder call() throws Exception {
+					return loadData(path, willLoadMetadata, key, mon);
 				}
-			}
+			});
 		}
 		
 		// For images, we can put another item in the data holder
@@ -348,6 +340,39 @@ public class LoaderFactory {
 		return holder;
 	}
 	
+	private static DataHolder loadData(final String path, final boolean willLoadMetadata, final LoaderKey key, final IMonitor mon) throws Exception {
+		final Iterator<Class<? extends AbstractFileLoader>> it = getIterator(path);
+		if (it == null) return null;
+
+		// Currently this method simply cycles through all loaders.
+		// When it finds one which does not give an exception on loading it
+		// returns the data from this loader.
+		while (it.hasNext()) {
+			final Class<? extends AbstractFileLoader> clazz = it.next();
+			final AbstractFileLoader loader = LoaderFactory.getLoader(clazz, path);
+			loader.setLoadMetadata(willLoadMetadata);
+			try {
+				// NOTE Assumes loader fails quickly and nicely
+				// if given the wrong file. If a loader does not
+				// do this it should not be registered with LoaderFactory
+				DataHolder holder = loader.loadFile(mon);
+				holder.setLoaderClass(clazz);
+				holder.setFilePath(path);
+				key.setMetadata(holder.getMetadata() != null);
+				recordSoftReference(key, holder);
+				return holder;
+				
+			} catch (OutOfMemoryError ome) {
+				logger.error("There was not enough memory to load {}", path);
+				throw new ScanFileHolderException("Out of memory in loader factory", ome);
+			} catch (Throwable ne) {
+				logger.trace("Loader {} error", loader, ne);
+				continue;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * This method can be used to load an image stack of other images in the same directory.
 	 * 
@@ -392,7 +417,7 @@ public class LoaderFactory {
 	 * @return data holder (can be null)
 	 * @throws ScanFileHolderException
 	 */
-	public static DataHolder getData(Class<? extends AbstractFileLoader> loaderClass, String path, boolean willLoadMetadata, IMonitor mon) throws ScanFileHolderException {
+	public static DataHolder getData(final Class<? extends AbstractFileLoader> loaderClass, String path, boolean willLoadMetadata, final IMonitor mon) throws ScanFileHolderException {
 		final LoaderKey key = new LoaderKey();
 		key.setFilePath(path);
 		key.setMetadata(willLoadMetadata);
@@ -412,13 +437,23 @@ public class LoaderFactory {
 			throw new ScanFileHolderException("Cannot create loader");
 		}
 
-		loader.setLoadMetadata(willLoadMetadata);
+		final AbstractFileLoader fLoader = loader;
+		fLoader.setLoadMetadata(willLoadMetadata);
+		final LoaderKey loadKey = new LoaderKey();
+		loadKey.setFilePath(path);
+		loadKey.setMetadata(willLoadMetadata);
 		try {
-			DataHolder holder = loader.loadFile(mon);
-			holder.setLoaderClass(loaderClass);
-			key.setMetadata(holder.getMetadata() != null);
-			recordSoftReference(key, holder);
-			return holder;
+			// wait if another thread is already loading this file
+			return CACHE.load(loadKey, new Callable<DataHolder>() {
+				@Override
+				public DataHolder call() throws Exception {
+					DataHolder holder = fLoader.loadFile(mon);
+					holder.setLoaderClass(loaderClass);
+					key.setMetadata(holder.getMetadata() != null);
+					recordSoftReference(key, holder);
+					return holder;
+				}
+			});
 		} catch (OutOfMemoryError ome) {
 			logger.error("There was not enough memory to load {}", path);
 			throw new ScanFileHolderException("Out of memory in loader factory", ome);
@@ -429,12 +464,10 @@ public class LoaderFactory {
 	}
 
 
-	private final static Object LOCK = new Object();
-
 	/**
 	 * May be null
 	 * @param key
-	 * @return the object referenced or null if it got garbaged or was not cached yet
+	 * @return the object cached or null if it was evicted or was not cached yet
 	 */
 	private static Object getSoftReference(LoaderKey key) {
 		Object o = getReference(key);
@@ -451,7 +484,7 @@ public class LoaderFactory {
 	/**
 	 * May be null
 	 * @param key
-	 * @return the object referenced or null if it got garbaged or was not cached yet
+	 * @return the object cached or null if it was evicted or was not cached yet
 	 */
 	private static Object getSoftReferenceWithMetadata(LoaderKey key) {
 		Object o = getReference(key);
@@ -467,32 +500,16 @@ public class LoaderFactory {
 	/**
 	 * May be null
 	 * @param key
-	 * @return the object referenced or null if it got garbaged or was not cached yet
+	 * @return the object cached or null if it was evicted or was not cached yet
 	 */
 	private static IDataAnalysisObject getReference(LoaderKey key) {
 		if (Boolean.getBoolean(NO_CACHING)) return null;
-		synchronized (LOCK) {
-			try {
-		        final Reference<IDataAnalysisObject> ref = SOFT_CACHE.get(key);
-		        if (ref == null) return null;
-		        return ref.get();
-			} catch (Throwable ne) {
-				return null;
-			}
-		}
+		return CACHE.get(key);
 	}
 
 	private static LoaderKey findKeyWithMetadata(LoaderKey key) {
 		if (Boolean.getBoolean(NO_CACHING)) return null;
-		synchronized (LOCK) {
-			for (LoaderKey k : SOFT_CACHE.keySet()) {
-				if (k.isSameFile(key) && k.hasMetadata()) {
-					return k;
-				}
-			}
-			return null;
-		}
-
+		return CACHE.findKeyWithMetadata(key);
 	}
 
 	/**
@@ -504,16 +521,7 @@ public class LoaderFactory {
 	private static boolean recordSoftReference(LoaderKey key, IDataAnalysisObject value) {
 		
 		if (Boolean.getBoolean(NO_CACHING)) return false;
-		synchronized (LOCK) {
-			try {
-				Reference<IDataAnalysisObject> ref = Boolean.getBoolean("uk.ac.diamond.scisoft.analysis.io.weakcaching")
-						                           ? new WeakReference<IDataAnalysisObject>(value)
-						                           : new SoftReference<IDataAnalysisObject>(value);
-				return SOFT_CACHE.put(key, ref)!=null;
-			} catch (Throwable ne) {
-				return false;
-			}
-		}
+		return CACHE.put(key, value);
 	}
 
 	/**
@@ -676,7 +684,7 @@ public class LoaderFactory {
 		Iterator<Class<? extends AbstractFileLoader>> it = null;
 
 		if (LOADERS.containsKey(extension)) {
-			it = LOADERS.get(extension).iterator();
+			it = orderByProbe(path, LOADERS.get(extension));
 		} else {
 			// We may have a zipped file type that we support
 			final File file = new File(path);
@@ -699,11 +707,101 @@ public class LoaderFactory {
 			final Set<Class<? extends AbstractFileLoader>> all = new HashSet<Class<? extends AbstractFileLoader>>();
 			for (String ext : LOADERS.keySet())
 				all.addAll(LOADERS.get(ext));
-			it = all.iterator();
+			it = orderByProbe(path, all);
 		}
 		return it;
 	}
 
+	/**
+	 * Read start of file once and order loaders so those whose probes match the header are tried
+	 * first, followed by those that cannot tell and then those whose probes do not match. If no
+	 * candidate can read the header then any other registered loader that can is tried first as
+	 * the file may have the wrong extension
+	 * @param path
+	 * @param candidates
+	 * @return iterator over loader classes
+	 */
+	private static Iterator<Class<? extends AbstractFileLoader>> orderByProbe(final String path, final Collection<Class<? extends AbstractFileLoader>> candidates) {
+		final byte[] header = readHeader(path);
+		if (header == null)
+			return candidates.iterator();
+
+		final List<Class<? extends AbstractFileLoader>> matched = new ArrayList<Class<? extends AbstractFileLoader>>();
+		final List<Class<? extends AbstractFileLoader>> unknown = new ArrayList<Class<? extends AbstractFileLoader>>();
+		final List<Class<? extends AbstractFileLoader>> mismatched = new ArrayList<Class<? extends AbstractFileLoader>>();
+		for (Class<? extends AbstractFileLoader> clazz : candidates) {
+			switch (probe(clazz, path, header)) {
+			case MATCH:
+				matched.add(clazz);
+				break;
+			case UNKNOWN:
+				unknown.add(clazz);
+				break;
+			default:
+				mismatched.add(clazz);
+				break;
+			}
+		}
+
+		if (matched.isEmpty() && unknown.isEmpty()) {
+			final Set<Class<? extends AbstractFileLoader>> others = new LinkedHashSet<Class<? extends AbstractFileLoader>>();
+			for (List<Class<? extends AbstractFileLoader>> l : LOADERS.values())
+				others.addAll(l);
+			others.removeAll(mismatched);
+			for (Class<? extends AbstractFileLoader> clazz : others) {
+				if (probe(clazz, path, header) == HeaderMatch.MATCH) {
+					logger.debug("Extension of {} does not match its contents so trying {}", path, clazz);
+					matched.add(clazz);
+				}
+			}
+		}
+
+		matched.addAll(unknown);
+		matched.addAll(mismatched);
+		return matched.iterator();
+	}
+
+	/**
+	 * @param path
+	 * @return first bytes of file or null if it cannot be read
+	 */
+	private static byte[] readHeader(final String path) {
+		InputStream in = null;
+		try {
+			in = new FileInputStream(path);
+			final byte[] header = new byte[AbstractFileLoader.PROBE_LENGTH];
+			int n = 0;
+			while (n < header.length) {
+				final int r = in.read(header, n, header.length - n);
+				if (r < 0)
+					break;
+				n += r;
+			}
+			return n < header.length ? Arrays.copyOf(header, n) : header;
+		} catch (IOException e) {
+			logger.trace("Cannot read header of {}", path, e);
+			return null;
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+
+	private static HeaderMatch probe(final Class<? extends AbstractFileLoader> clazz, final String path, final byte[] header) {
+		try {
+			final AbstractFileLoader loader = getLoader(clazz, path);
+			if (loader != null)
+				return loader.probe(header);
+		} catch (Throwable ne) {
+			logger.trace("Cannot probe with loader {}", clazz, ne);
+		}
+		return HeaderMatch.UNKNOWN;
+	}
+
 	public static void registerUnzip(final String extension, final Class<? extends InputStream> input) {
 		UNZIPERS.put(extension, input);
 	}
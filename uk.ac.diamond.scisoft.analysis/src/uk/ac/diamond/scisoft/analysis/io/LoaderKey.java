@@ -26,6 +26,7 @@ public class LoaderKey {
 
 	private String  filePath;
 	private long    dateStamp;
+	private long    fileSize;
 	private String  datasetName;
 	private List<String> datasetNames;
 	private SliceObject slice;
@@ -39,12 +40,14 @@ public class LoaderKey {
 	}
 
 	/**
-	 * Gets date stamp of file, may throw exception
+	 * Gets date stamp and size of file, may throw exception
 	 * @param filePath
 	 */
 	public void setFilePath(String filePath) {
+		final File file = new File(filePath);
 		this.filePath  = filePath;
-		this.dateStamp = (new File(filePath)).lastModified();
+		this.dateStamp = file.lastModified();
+		this.fileSize  = file.length();
 	}
 
 	public long getDatStamp() {
@@ -55,6 +58,14 @@ public class LoaderKey {
 		this.dateStamp = dataStamp;
 	}
 
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	public void setFileSize(long fileSize) {
+		this.fileSize = fileSize;
+	}
+
 	public String getDatasetName() {
 		return datasetName;
 	}
@@ -68,6 +79,7 @@ public class LoaderKey {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + (int) (dateStamp ^ (dateStamp >>> 32));
+		result = prime * result + (int) (fileSize ^ (fileSize >>> 32));
 		result = prime * result + ((datasetName == null) ? 0 : datasetName.hashCode());
 		result = prime * result + ((datasetNames == null) ? 0 : datasetNames.hashCode());
 		result = prime * result + ((filePath == null) ? 0 : filePath.hashCode());
@@ -87,6 +99,8 @@ public class LoaderKey {
 		LoaderKey other = (LoaderKey) obj;
 		if (dateStamp != other.dateStamp)
 			return false;
+		if (fileSize != other.fileSize)
+			return false;
 		if (datasetName == null) {
 			if (other.datasetName != null)
 				return false;
@@ -150,10 +164,11 @@ public class LoaderKey {
 
 	/**
 	 * @param other
-	 * @return true if file and date stamp are the same.
+	 * @return true if file, date stamp and size are the same.
 	 */
 	public boolean isSameFile(LoaderKey other) {
 		if (dateStamp != other.dateStamp)               return false;
+		if (fileSize != other.fileSize)                 return false;
 		if (!getFilePath().equals(other.getFilePath())) return false;
 		return true;
 	}
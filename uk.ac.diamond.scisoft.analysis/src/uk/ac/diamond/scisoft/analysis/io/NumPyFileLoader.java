@@ -205,4 +205,8 @@ public class NumPyFileLoader extends AbstractFileLoader {
 		return dataset;
 	}
 
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return startsWith(header, NumPyFile.magic) ? HeaderMatch.MATCH : HeaderMatch.MISMATCH;
+	}
 }
@@ -30,6 +30,7 @@ import java.text.NumberFormat;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
 import uk.ac.diamond.scisoft.analysis.io.NumPyFile.DataTypeInfo;
 
 /**
@@ -91,88 +92,15 @@ public class NumPyFileSaver implements IFileSaver {
 			if (dataset == null) {
 				throw new ScanFileHolderException("Dataset null at index " + i + " unsupported");
 			}
-			AbstractDataset sdata = DatasetUtils.convertToAbstractDataset(dataset);
-			int dtype = sdata.getDtype();
-			DataTypeInfo dataTypeInfo;
-			dataTypeInfo = unsigned ? NumPyFile.unsignedNumPyTypeMap.get(dtype) : NumPyFile.numPyTypeMap.get(dtype);
-			if (unsigned) {
-				dataTypeInfo = NumPyFile.unsignedNumPyTypeMap.get(dtype);
-			}
-			if (dataTypeInfo == null) { // ignore unsigned flag if not found
-				dataTypeInfo = NumPyFile.numPyTypeMap.get(dtype);
-			}
-			if (dataTypeInfo == null) {
-				throw new ScanFileHolderException("Unsupported data types for NumPy File Saver");
-			}
-
-			int is = sdata.getElementsPerItem();
-			if (is > 255) {
-				throw new ScanFileHolderException("Number of elements in each item exceeds allowed maximum of 255");
-			}
-			if (unsigned) {
-				dtype = dataTypeInfo.dType;
-				sdata = DatasetUtils.cast(sdata, dtype);
-			}
-
-			byte isize = (byte) is;
-
-			int[] shape = sdata.getShape();
-			if (shape.length > 255) {
-				throw new ScanFileHolderException("Rank exceeds 255!");
-			}
-			StringBuilder shapeTuple = new StringBuilder();
-			for (int j = 0; j < shape.length; j++) {
-				shapeTuple.append(shape[j]);
-				shapeTuple.append(", ");
-			}
-			shapeTuple.deleteCharAt(shapeTuple.length() - 1); // remove final space
-			if (shape.length > 1) {
-				shapeTuple.deleteCharAt(shapeTuple.length() - 1); // remove final comma
-			}
-
-			// format looks like this, and always in this order: 
-			// {'descr': '<i4', 'fortran_order': False, 'shape': (100,), }
-			// or:
-			// {'descr': '<i4', 'fortran_order': False, 'shape': (100, 100), }
-			StringBuilder formatBuilder = new StringBuilder();
-			formatBuilder.append("{'descr': '");
-			formatBuilder.append(dataTypeInfo.numPyType); // e.g. <i4
-			formatBuilder.append("', 'fortran_order': False, 'shape': (");
-			formatBuilder.append(shapeTuple); // e.g. 100, or 100, 100
-			formatBuilder.append("), }");
-			int hdrSize = formatBuilder.length() + NumPyFile.magic.length + 2 /* header size */;
-			hdrSize = ((hdrSize + 15) / 16) * 16; // round up header length to multiple of 16
-			while (formatBuilder.length() + NumPyFile.magic.length + 2 < hdrSize) {
-				formatBuilder.append(' ');
-			}
-
-			byte[] formatBytes;
-			try {
-				formatBytes = formatBuilder.toString().getBytes("US-ASCII");
-			} catch (UnsupportedEncodingException e) {
-				throw new ScanFileHolderException("Impossible error, US-ASCII is always available?", e);
-			}
+			ByteBuffer[] buffers = saveDataset(dataset, unsigned);
 
 			try {
 				FileOutputStream fout = new FileOutputStream(f);
 				FileChannel fc = fout.getChannel();
-				ByteBuffer hdrBuffer = ByteBuffer.allocateDirect(hdrSize);
-				hdrBuffer.order(ByteOrder.LITTLE_ENDIAN);
-				for (int j = 0; j < NumPyFile.magic.length; j++) {
-					hdrBuffer.put(NumPyFile.magic[j]);
-				}
-				hdrBuffer.putShort((short) formatBytes.length);
-				for (int j = 0; j < formatBytes.length; j++) {
-					hdrBuffer.put(formatBytes[j]);
+				for (ByteBuffer b : buffers) {
+					while (b.hasRemaining())
+						fc.write(b);
 				}
-				hdrBuffer.rewind();
-				while (hdrBuffer.hasRemaining())
-					fc.write(hdrBuffer);
-
-				ByteBuffer dbBuffer = RawBinarySaver.saveRawDataset(sdata, dtype, isize);
-				dbBuffer.rewind();
-				while (dbBuffer.hasRemaining())
-					fc.write(dbBuffer);
 				fc.close();
 				fout.close();
 			} catch (Exception e) {
@@ -181,4 +109,85 @@ public class NumPyFileSaver implements IFileSaver {
 		}
 	}
 
+	/**
+	 * Create npy format representation of dataset
+	 * @param dataset
+	 * @param unsigned
+	 * @return header and data buffers, each ready to be read from its start
+	 * @throws ScanFileHolderException
+	 */
+	public static ByteBuffer[] saveDataset(IDataset dataset, boolean unsigned) throws ScanFileHolderException {
+		AbstractDataset sdata = DatasetUtils.convertToAbstractDataset(dataset);
+		int dtype = sdata.getDtype();
+		DataTypeInfo dataTypeInfo;
+		dataTypeInfo = unsigned ? NumPyFile.unsignedNumPyTypeMap.get(dtype) : NumPyFile.numPyTypeMap.get(dtype);
+		if (unsigned) {
+			dataTypeInfo = NumPyFile.unsignedNumPyTypeMap.get(dtype);
+		}
+		if (dataTypeInfo == null) { // ignore unsigned flag if not found
+			dataTypeInfo = NumPyFile.numPyTypeMap.get(dtype);
+		}
+		if (dataTypeInfo == null) {
+			throw new ScanFileHolderException("Unsupported data types for NumPy File Saver");
+		}
+
+		int is = sdata.getElementsPerItem();
+		if (is > 255) {
+			throw new ScanFileHolderException("Number of elements in each item exceeds allowed maximum of 255");
+		}
+		if (unsigned) {
+			dtype = dataTypeInfo.dType;
+			sdata = DatasetUtils.cast(sdata, dtype);
+		}
+
+		byte isize = (byte) is;
+
+		int[] shape = sdata.getShape();
+		if (shape.length > 255) {
+			throw new ScanFileHolderException("Rank exceeds 255!");
+		}
+		StringBuilder shapeTuple = new StringBuilder();
+		for (int j = 0; j < shape.length; j++) {
+			shapeTuple.append(shape[j]);
+			shapeTuple.append(", ");
+		}
+		shapeTuple.deleteCharAt(shapeTuple.length() - 1); // remove final space
+		if (shape.length > 1) {
+			shapeTuple.deleteCharAt(shapeTuple.length() - 1); // remove final comma
+		}
+
+		// format looks like this, and always in this order: 
+		// {'descr': '<i4', 'fortran_order': False, 'shape': (100,), }
+		// or:
+		// {'descr': '<i4', 'fortran_order': False, 'shape': (100, 100), }
+		StringBuilder formatBuilder = new StringBuilder();
+		formatBuilder.append("{'descr': '");
+		formatBuilder.append(dataTypeInfo.numPyType); // e.g. <i4
+		formatBuilder.append("', 'fortran_order': False, 'shape': (");
+		formatBuilder.append(shapeTuple); // e.g. 100, or 100, 100
+		formatBuilder.append("), }");
+		int hdrSize = formatBuilder.length() + NumPyFile.magic.length + 2 /* header size */;
+		hdrSize = ((hdrSize + 15) / 16) * 16; // round up header length to multiple of 16
+		while (formatBuilder.length() + NumPyFile.magic.length + 2 < hdrSize) {
+			formatBuilder.append(' ');
+		}
+
+		byte[] formatBytes;
+		try {
+			formatBytes = formatBuilder.toString().getBytes("US-ASCII");
+		} catch (UnsupportedEncodingException e) {
+			throw new ScanFileHolderException("Impossible error, US-ASCII is always available?", e);
+		}
+
+		ByteBuffer hdrBuffer = ByteBuffer.allocate(hdrSize);
+		hdrBuffer.order(ByteOrder.LITTLE_ENDIAN);
+		hdrBuffer.put(NumPyFile.magic);
+		hdrBuffer.putShort((short) formatBytes.length);
+		hdrBuffer.put(formatBytes);
+		hdrBuffer.rewind();
+
+		ByteBuffer dbBuffer = RawBinarySaver.saveRawDataset(sdata, dtype, isize);
+		dbBuffer.rewind();
+		return new ByteBuffer[] {hdrBuffer, dbBuffer};
+	}
 }
@@ -47,4 +47,11 @@ public class PNGLoader extends JavaImageLoader {
 	public PNGLoader(String FileName, boolean convertToGrey, boolean keepBitWidth) {
 		super(FileName, "png", convertToGrey, keepBitWidth);
 	}
+
+	private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return startsWith(header, PNG_SIGNATURE) ? HeaderMatch.MATCH : HeaderMatch.MISMATCH;
+	}
 }
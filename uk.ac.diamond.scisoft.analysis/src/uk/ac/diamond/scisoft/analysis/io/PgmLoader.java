@@ -183,4 +183,9 @@ public class PgmLoader extends AbstractFileLoader implements IMetaLoader {
 	public String getHeaderValue(String key) {
 		return textMetadata.get(key);	
 	}
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return getHeaderText(header).startsWith("P5") ? HeaderMatch.MATCH : HeaderMatch.MISMATCH;
+	}
 }
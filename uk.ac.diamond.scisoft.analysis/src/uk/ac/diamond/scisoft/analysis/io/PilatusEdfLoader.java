@@ -20,7 +20,6 @@ import gda.analysis.io.ScanFileHolderException;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.HashMap;
@@ -28,6 +27,7 @@ import java.util.Map;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.FloatDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ILazyDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.IntegerDataset;
 import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
 
@@ -35,7 +35,8 @@ import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
  * This class should be used to load ESRF datafiles created by the Pilatus detector system
  * into the ScanFileHolder object. This has not been tested on general ESRF datafiles.
  * <p>
- * <b>Note</b>: the header data from this loader is left as strings
+ * <b>Note</b>: the header data from this loader is left as strings. Pixels are read in the byte
+ * order given in the header; float images without a byte order are read as little endian
  */
 public class PilatusEdfLoader extends AbstractFileLoader implements IMetaLoader {
 
@@ -59,15 +60,12 @@ public class PilatusEdfLoader extends AbstractFileLoader implements IMetaLoader
 	@Override
 	public DataHolder loadFile(IMonitor mon) throws ScanFileHolderException {
 		AbstractDataset data = null;
+		ILazyDataset lazy = null;
 		final DataHolder output = new DataHolder();
-		File f = null;
-		FileInputStream fi = null;
+		BufferedReader br = null;
 		try {
 
-			f = new File(fileName);
-			fi = new FileInputStream(f);
-
-			BufferedReader br = new BufferedReader(new FileReader(f));
+			br = new BufferedReader(new FileReader(new File(fileName)));
 			String line = br.readLine();
 			
 			// If the first line is not a { then we fail this loader.
@@ -82,44 +80,49 @@ public class PilatusEdfLoader extends AbstractFileLoader implements IMetaLoader
 				int height = Integer.parseInt(textMetadata.get("Dim_1"));
 				int width = Integer.parseInt(textMetadata.get("Dim_2"));
 				String dataType = textMetadata.get("DataType");
+				UncompressedImageLoader loader;
 				if (dataType.equals("Float")) {
-					data = new FloatDataset(width, height);
-					Utils.readFloat(fi, (FloatDataset) data, index);
+					boolean le = !"HighByteFirst".equals(textMetadata.get("ByteOrder"));
+					loader = new UncompressedImageLoader(fileName, index, width, height, UncompressedImageLoader.Encoding.FLOAT, le, false);
 				} else {
-					data = new IntegerDataset(width, height);
-					boolean le = "LowByteFirst".equals(textMetadata.get("ByteOrder")); 
+					boolean le = "LowByteFirst".equals(textMetadata.get("ByteOrder"));
+					UncompressedImageLoader.Encoding encoding;
 					if (dataType.contains("Short")) {
-						boolean signed = dataType.startsWith("Signed");
-						if (le)
-							Utils.readLeShort(fi, (IntegerDataset) data, index, signed);
-						else
-							Utils.readBeShort(fi, (IntegerDataset) data, index, signed);
+						encoding = dataType.startsWith("Signed") ? UncompressedImageLoader.Encoding.SHORT : UncompressedImageLoader.Encoding.UNSIGNED_SHORT;
+					} else {
+						encoding = UncompressedImageLoader.Encoding.INT;
+					}
+					loader = new UncompressedImageLoader(fileName, index, width, height, encoding, le, false);
+				}
+				if (loadLazily) {
+					lazy = loader.createLazyDataset(DEF_IMAGE_NAME);
+				} else {
+					data = loader.load(mon);
+					data.setName(DEF_IMAGE_NAME);
+					if (data instanceof FloatDataset) {
+						UncompressedImageLoader.storeStatistics((FloatDataset) data);
 					} else {
-						if (le)
-							Utils.readLeInt(fi, (IntegerDataset) data, index);
-						else
-							Utils.readBeInt(fi, (IntegerDataset) data, index);
+						UncompressedImageLoader.storeStatistics((IntegerDataset) data, false, false);
 					}
+					lazy = data;
 				}
-				data.setName(DEF_IMAGE_NAME);
 			}
 		} catch (Exception e) {
 			throw new ScanFileHolderException("File failed to load " + fileName, e);
 		} finally {
-			if (fi != null) {
+			if (br != null) {
 				try {
-					fi.close();
+					br.close();
 				} catch (IOException ex) {
 					// do nothing
 				}
-				fi = null;
 			}
 		}
-		if (data != null) {
-			output.addDataset(DATA_NAME, data);
+		if (lazy != null) {
+			output.addDataset(DATA_NAME, lazy);
 			if (loadMetadata) {
 				createMetadata();
-				data.setMetadata(metadata);
+				lazy.setMetadata(metadata);
 				output.setMetadata(metadata);
 			}
 		}
@@ -177,4 +180,9 @@ public class PilatusEdfLoader extends AbstractFileLoader implements IMetaLoader
 		
 		return index;
 	}
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return getHeaderText(header).trim().startsWith("{") ? HeaderMatch.MATCH : HeaderMatch.MISMATCH;
+	}
 }
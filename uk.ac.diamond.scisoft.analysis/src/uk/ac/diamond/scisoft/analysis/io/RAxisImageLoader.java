@@ -22,12 +22,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import javax.vecmath.Vector3d;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
-import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.ILazyDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.IntegerDataset;
 import uk.ac.diamond.scisoft.analysis.diffraction.DetectorProperties;
 import uk.ac.diamond.scisoft.analysis.diffraction.DiffractionCrystalEnvironment;
@@ -121,45 +122,23 @@ public class RAxisImageLoader extends AbstractFileLoader implements IMetaLoader,
 		try {
 
 			// poke with stick int[] shape = { height, width };
-			int[] shape = { width, height };
-			AbstractDataset data;
-
-			// read in all the data at once for speed.
-
-			byte[] read = new byte[(height * width) * 2];
-			
-			raf.read(read);
-
-			// and put it into the dataset
-			data = new IntegerDataset(shape);
-			int[] databuf = ((IntegerDataset) data).getData();
-			int amax = Integer.MIN_VALUE;
-			int amin = Integer.MAX_VALUE;
-			int hash = 0;
-			for (int i = 0, j = 0; i < databuf.length; i++) {
-				int value = Utils.beInt(read[j++], read[j++]);
-				hash = hash * 19 + value;
-				databuf[i] = value;
-				if (value > amax) {
-					amax = value;
+			long pointer = raf.getFilePointer();
+
+			if (loadLazily) {
+				UncompressedImageLoader loader = new UncompressedImageLoader(fileName, pointer, width, height,
+						UncompressedImageLoader.Encoding.UNSIGNED_SHORT, false, keepBitWidth);
+				ILazyDataset lazy = loader.createLazyDataset(DEF_IMAGE_NAME);
+				output.addDataset(DATA_NAME, lazy);
+				if (loadMetadata) {
+					lazy.setMetadata(getMetaData());
+					output.setMetadata(lazy.getMetadata());
 				}
-				if (value < amin) {
-					amin = value;
-				}
-		
-			}
-			if (keepBitWidth || amax < (1 << 15)) {
-				data = DatasetUtils.cast(data, AbstractDataset.INT16);
+				return output;
 			}
 
-			hash = hash*19 + data.getDtype()*17 + data.getElementsPerItem();
-			int rank = shape.length;
-			for (int i = 0; i < rank; i++) {
-				hash = hash*17 + shape[i];
-			}
-			data.setStoredValue(AbstractDataset.STORE_MAX, amax);
-			data.setStoredValue(AbstractDataset.STORE_MIN, amin);
-			data.setStoredValue(AbstractDataset.STORE_HASH, hash);
+			UncompressedImageLoader loader = new UncompressedImageLoader(fileName, pointer, width, height,
+					UncompressedImageLoader.Encoding.UNSIGNED_SHORT, false, false);
+			AbstractDataset data = UncompressedImageLoader.storeStatistics((IntegerDataset) loader.load(null), true, keepBitWidth);
 
 			data.setName(DEF_IMAGE_NAME);
 			output.addDataset(DATA_NAME, data);
@@ -520,4 +499,10 @@ public class RAxisImageLoader extends AbstractFileLoader implements IMetaLoader,
 	public IMetaData getMetaData() {
 		return diffMetadata;
 	}
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		String device = getHeaderText(Arrays.copyOf(header, Math.min(10, header.length)));
+		return device.contains("RAXIS") ? HeaderMatch.MATCH : HeaderMatch.MISMATCH;
+	}
 }
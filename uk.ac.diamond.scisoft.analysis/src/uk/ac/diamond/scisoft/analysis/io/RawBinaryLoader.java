@@ -530,4 +530,12 @@ public class RawBinaryLoader extends AbstractFileLoader {
 		data.setStoredValue(AbstractDataset.STORE_HASH, hash);
 		return data;
 	}
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		if (header.length < 4)
+			return HeaderMatch.MISMATCH;
+		int tag = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN).getInt();
+		return tag == RawBinarySaver.getFormatTag() ? HeaderMatch.MATCH : HeaderMatch.MISMATCH;
+	}
 }
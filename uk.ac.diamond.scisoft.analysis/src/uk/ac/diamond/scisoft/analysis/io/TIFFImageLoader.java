@@ -22,18 +22,24 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteOrder;
 import java.util.Map;
 
 import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOInvalidTreeException;
 import javax.imageio.metadata.IIOMetadata;
 import javax.imageio.stream.FileImageInputStream;
 import javax.imageio.stream.ImageInputStream;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ILazyDataset;
 import uk.ac.diamond.scisoft.analysis.io.tiff.Grey12bitTIFFReader;
 import uk.ac.diamond.scisoft.analysis.io.tiff.Grey12bitTIFFReaderSpi;
 import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
 
+import com.sun.media.imageio.plugins.tiff.BaselineTIFFTagSet;
+import com.sun.media.imageio.plugins.tiff.TIFFDirectory;
+import com.sun.media.imageio.plugins.tiff.TIFFField;
 import com.sun.media.imageioimpl.plugins.tiff.TIFFImageReader;
 import com.sun.media.imageioimpl.plugins.tiff.TIFFImageReaderSpi;
 
@@ -76,6 +82,8 @@ public class TIFFImageLoader extends JavaImageLoader implements IMetaLoader {
 	@Override
 	public DataHolder loadFile() throws ScanFileHolderException {
 		AbstractDataset data = null;
+		ILazyDataset lazy = null;
+		UncompressedImageLoader uncompressed = null;
 		File f = null;
 		BufferedImage input = null;
 
@@ -96,7 +104,9 @@ public class TIFFImageLoader extends JavaImageLoader implements IMetaLoader {
 			try {
 				reader = new TIFFImageReader(new TIFFImageReaderSpi());
 				reader.setInput(iis);
-				if (loadData)
+				if (loadData && loadLazily)
+					uncompressed = createUncompressedLoader(reader.getImageMetadata(0), iis.getByteOrder());
+				if (loadData && uncompressed == null)
 					input = reader.read(0);
 			} catch (IllegalArgumentException e) { // catch bad number of bits
 				logger.warn("Exception using TIFFImageReader for file:" + fileName,e);
@@ -106,16 +116,19 @@ public class TIFFImageLoader extends JavaImageLoader implements IMetaLoader {
 					input = reader.read(0);
 			}
 
-			if (loadData && input == null) {
+			if (loadData && input == null && uncompressed == null) {
 				throw new ScanFileHolderException("File format in '" + fileName + "' cannot be read");
 			}
 
 			if (loadMetadata)
 				metadata = createMetadata(reader.getImageMetadata(0));
 
-			if (loadData) {
+			if (uncompressed != null) {
+				lazy = uncompressed.createLazyDataset(DEF_IMAGE_NAME);
+			} else if (loadData) {
 				data = createDataset(input);
 				data.setName(DEF_IMAGE_NAME);
+				lazy = data;
 			}
 		} catch (IOException e) {
 			throw new ScanFileHolderException("IOException loading file '" + fileName + "'", e);
@@ -127,19 +140,81 @@ public class TIFFImageLoader extends JavaImageLoader implements IMetaLoader {
 		}
 
 
-		if (!loadData || data == null) {
+		if (!loadData || lazy == null) {
 			return null;
 		}
 
 		DataHolder output = new DataHolder();
-		output.addDataset(DEF_IMAGE_NAME, data, data.getMetadata());
+		output.addDataset(DEF_IMAGE_NAME, lazy, data == null ? null : data.getMetadata());
 		if (loadMetadata) {
-			data.setMetadata(getMetaData(data));
-			output.setMetadata(data.getMetadata());
+			IMetaData md = getMetaData(data);
+			lazy.setMetadata(md);
+			output.setMetadata(md);
 		}
 		return output;
 	}
 
+	/**
+	 * @param imageMetadata
+	 * @param order
+	 * @return lazy loader if image is held uncompressed in contiguous strips of single 16-bit or
+	 * 32-bit samples, otherwise null
+	 */
+	private UncompressedImageLoader createUncompressedLoader(IIOMetadata imageMetadata, ByteOrder order) throws IIOInvalidTreeException {
+		TIFFDirectory dir = TIFFDirectory.createFromMetadata(imageMetadata);
+		TIFFField compression = dir.getTIFFField(BaselineTIFFTagSet.TAG_COMPRESSION);
+		TIFFField samples = dir.getTIFFField(BaselineTIFFTagSet.TAG_SAMPLES_PER_PIXEL);
+		TIFFField bits = dir.getTIFFField(BaselineTIFFTagSet.TAG_BITS_PER_SAMPLE);
+		TIFFField format = dir.getTIFFField(BaselineTIFFTagSet.TAG_SAMPLE_FORMAT);
+		TIFFField offsets = dir.getTIFFField(BaselineTIFFTagSet.TAG_STRIP_OFFSETS);
+		TIFFField counts = dir.getTIFFField(BaselineTIFFTagSet.TAG_STRIP_BYTE_COUNTS);
+		if (offsets == null || counts == null || bits == null || offsets.getCount() != counts.getCount())
+			return null;
+		if (compression != null && compression.getAsInt(0) != BaselineTIFFTagSet.COMPRESSION_NONE)
+			return null;
+		if (samples != null && samples.getAsInt(0) != 1)
+			return null;
+
+		int sampleFormat = format == null ? BaselineTIFFTagSet.SAMPLE_FORMAT_UNSIGNED_INTEGER : format.getAsInt(0);
+		UncompressedImageLoader.Encoding encoding;
+		switch (bits.getAsInt(0)) {
+		case 16:
+			if (sampleFormat == BaselineTIFFTagSet.SAMPLE_FORMAT_UNSIGNED_INTEGER)
+				encoding = UncompressedImageLoader.Encoding.UNSIGNED_SHORT;
+			else if (sampleFormat == BaselineTIFFTagSet.SAMPLE_FORMAT_SIGNED_INTEGER)
+				encoding = UncompressedImageLoader.Encoding.SHORT;
+			else
+				return null;
+			break;
+		case 32:
+			if (sampleFormat == BaselineTIFFTagSet.SAMPLE_FORMAT_SIGNED_INTEGER)
+				encoding = UncompressedImageLoader.Encoding.INT;
+			else if (sampleFormat == BaselineTIFFTagSet.SAMPLE_FORMAT_FLOATING_POINT)
+				encoding = UncompressedImageLoader.Encoding.FLOAT;
+			else
+				return null;
+			break;
+		default:
+			return null;
+		}
+
+		// strips must follow one another
+		long next = offsets.getAsLong(0);
+		for (int i = 0, imax = offsets.getCount(); i < imax; i++) {
+			if (offsets.getAsLong(i) != next)
+				return null;
+			next += counts.getAsLong(i);
+		}
+
+		int width = dir.getTIFFField(BaselineTIFFTagSet.TAG_IMAGE_WIDTH).getAsInt(0);
+		int height = dir.getTIFFField(BaselineTIFFTagSet.TAG_IMAGE_LENGTH).getAsInt(0);
+		if (next - offsets.getAsLong(0) < (long) width * height * encoding.getBytes())
+			return null;
+
+		return new UncompressedImageLoader(fileName, offsets.getAsLong(0), height, width, encoding,
+				order == ByteOrder.LITTLE_ENDIAN, isKeepBitWidth());
+	}
+
 	/**
 	 * This can be overridden to add metadata
 	 * @param imageMetadata
@@ -174,4 +249,12 @@ public class TIFFImageLoader extends JavaImageLoader implements IMetaLoader {
 		md.setFilePath(fileName);
 		return md;
 	}
+
+	private static final byte[] TIFF_LITTLE_ENDIAN = {'I', 'I', 42, 0};
+	private static final byte[] TIFF_BIG_ENDIAN = {'M', 'M', 0, 42};
+
+	@Override
+	public HeaderMatch probe(byte[] header) {
+		return startsWith(header, TIFF_LITTLE_ENDIAN) || startsWith(header, TIFF_BIG_ENDIAN) ? HeaderMatch.MATCH : HeaderMatch.MISMATCH;
+	}
 }
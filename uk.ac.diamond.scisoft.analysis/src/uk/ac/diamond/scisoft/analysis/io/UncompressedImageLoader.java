@@ -0,0 +1,335 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import gda.analysis.io.ScanFileHolderException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.FloatDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.IntegerDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.LazyDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ShortDataset;
+import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
+
+/**
+ * Lazy loader for an uncompressed image stored as a contiguous block of pixels in a file
+ * <p>
+ * Only the part of each row of the file that covers a requested slice is read, with positional
+ * reads into a buffer, and only the requested pixels are decoded, using bulk buffer views for
+ * runs of adjacent pixels. A full load is a slice of the whole image.
+ */
+public class UncompressedImageLoader implements ILazyLoader {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Encoding of pixels in file
+	 */
+	public enum Encoding {
+		UNSIGNED_SHORT(2), SHORT(2), INT(4), FLOAT(4);
+
+		private final int bytes;
+
+		private Encoding(int bytes) {
+			this.bytes = bytes;
+		}
+
+		/**
+		 * @return number of bytes per pixel
+		 */
+		public int getBytes() {
+			return bytes;
+		}
+	}
+
+	private final String fileName;
+	private final long offset;
+	private final int rows;
+	private final int columns;
+	private final Encoding encoding;
+	private final boolean littleEndian;
+	private final int dtype;
+
+	/**
+	 * @param fileName
+	 * @param offset number of bytes from start of file to first pixel
+	 * @param rows
+	 * @param columns
+	 * @param encoding
+	 * @param littleEndian
+	 * @param keepBitWidth if true, shorts are loaded as shorts rather than integers
+	 */
+	public UncompressedImageLoader(String fileName, long offset, int rows, int columns, Encoding encoding, boolean littleEndian, boolean keepBitWidth) {
+		this.fileName = fileName;
+		this.offset = offset;
+		this.rows = rows;
+		this.columns = columns;
+		this.encoding = encoding;
+		this.littleEndian = littleEndian;
+		switch (encoding) {
+		case FLOAT:
+			dtype = AbstractDataset.FLOAT32;
+			break;
+		case INT:
+			dtype = AbstractDataset.INT32;
+			break;
+		default:
+			dtype = keepBitWidth ? AbstractDataset.INT16 : AbstractDataset.INT32;
+			break;
+		}
+	}
+
+	/**
+	 * @return shape of image
+	 */
+	public int[] getShape() {
+		return new int[] {rows, columns};
+	}
+
+	/**
+	 * @return dataset type of loaded slices
+	 */
+	public int getDtype() {
+		return dtype;
+	}
+
+	/**
+	 * @param name
+	 * @return lazy dataset of image
+	 */
+	public LazyDataset createLazyDataset(String name) {
+		return new LazyDataset(name, dtype, getShape(), this);
+	}
+
+	@Override
+	public boolean isFileReadable() {
+		return new File(fileName).canRead();
+	}
+
+	/**
+	 * @param mon
+	 * @return whole image
+	 * @throws ScanFileHolderException
+	 */
+	public AbstractDataset load(IMonitor mon) throws ScanFileHolderException {
+		return getDataset(mon, getShape(), null, null, null);
+	}
+
+	@Override
+	public AbstractDataset getDataset(IMonitor mon, int[] shape, int[] start, int[] stop, int[] step) throws ScanFileHolderException {
+		final int[] lstart = start == null ? new int[2] : start;
+		final int[] lstop = stop == null ? new int[2] : stop;
+		int[] lstep = step;
+		if (lstep == null) {
+			lstep = new int[2];
+			Arrays.fill(lstep, 1);
+		}
+		final int[] nshape = AbstractDataset.checkSlice(getShape(), start, stop, lstart, lstop, lstep);
+		final int nrows = nshape[0];
+		final int ncols = nshape[1];
+
+		final AbstractDataset data = AbstractDataset.zeros(nshape, dtype);
+		if (nrows == 0 || ncols == 0) {
+			return data;
+		}
+
+		// read only the columns that are needed
+		final int bytes = encoding.getBytes();
+		final int last = lstart[1] + (ncols - 1) * lstep[1];
+		final int first = Math.min(lstart[1], last);
+		final long rowBytes = (long) columns * bytes;
+		final int maxRow = Math.max(lstart[0], lstart[0] + (nrows - 1) * lstep[0]);
+
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(fileName, "r");
+			if (offset + (maxRow + 1) * rowBytes > raf.length()) {
+				throw new ScanFileHolderException("File " + fileName + " is too short to contain image");
+			}
+			final FileChannel channel = raf.getChannel();
+			final ByteBuffer buffer = ByteBuffer.allocate((Math.max(lstart[1], last) - first + 1) * bytes);
+			buffer.order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+			final short[] row = dtype == AbstractDataset.INT32 && encoding.getBytes() == 2 && lstep[1] == 1 ? new short[ncols] : null;
+
+			for (int r = 0; r < nrows; r++) {
+				if (mon != null) {
+					mon.worked(1);
+					if (mon.isCancelled()) {
+						throw new ScanFileHolderException("Loader cancelled during reading!");
+					}
+				}
+				final long position = offset + (lstart[0] + r * lstep[0]) * rowBytes + (long) first * bytes;
+				buffer.clear();
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer, position + buffer.position()) < 0) {
+						throw new ScanFileHolderException("File " + fileName + " is too short to contain image");
+					}
+				}
+				buffer.flip();
+				decodeRow(buffer, lstart[1] - first, lstep[1], data, r * ncols, ncols, row);
+			}
+		} catch (IOException e) {
+			throw new ScanFileHolderException("Problem reading image from " + fileName, e);
+		} finally {
+			if (raf != null) {
+				try {
+					raf.close();
+				} catch (IOException e) {
+					// do nothing
+				}
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Decode n pixels, starting at given pixel position and separated by step, into data
+	 * @param row buffer of n shorts used when adjacent shorts are widened to integers
+	 */
+	private void decodeRow(ByteBuffer buffer, int pos, int step, AbstractDataset data, int index, int n, short[] row) {
+		switch (encoding) {
+		case FLOAT:
+			final FloatBuffer fb = buffer.asFloatBuffer();
+			final float[] fdata = ((FloatDataset) data).getData();
+			if (step == 1) {
+				fb.position(pos);
+				fb.get(fdata, index, n);
+			} else {
+				for (int i = 0; i < n; i++, pos += step) {
+					fdata[index + i] = fb.get(pos);
+				}
+			}
+			break;
+		case INT:
+			final IntBuffer ib = buffer.asIntBuffer();
+			final int[] idata = ((IntegerDataset) data).getData();
+			if (step == 1) {
+				ib.position(pos);
+				ib.get(idata, index, n);
+			} else {
+				for (int i = 0; i < n; i++, pos += step) {
+					idata[index + i] = ib.get(pos);
+				}
+			}
+			break;
+		default:
+			final ShortBuffer sb = buffer.asShortBuffer();
+			if (data instanceof ShortDataset) {
+				final short[] sdata = ((ShortDataset) data).getData();
+				if (step == 1) {
+					sb.position(pos);
+					sb.get(sdata, index, n);
+				} else {
+					for (int i = 0; i < n; i++, pos += step) {
+						sdata[index + i] = sb.get(pos);
+					}
+				}
+				break;
+			}
+
+			final int[] odata = ((IntegerDataset) data).getData();
+			final int mask = encoding == Encoding.UNSIGNED_SHORT ? 0xffff : 0xffffffff;
+			if (step == 1) {
+				sb.position(pos);
+				sb.get(row, 0, n);
+				for (int i = 0; i < n; i++) {
+					odata[index + i] = row[i] & mask;
+				}
+			} else {
+				for (int i = 0; i < n; i++, pos += step) {
+					odata[index + i] = sb.get(pos) & mask;
+				}
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Calculate and store the maximum, minimum and hash of a fully loaded integer image
+	 * @param data
+	 * @param narrow if true, return image cast to shorts when its values fit or when keeping bit width
+	 * @param keepBitWidth
+	 * @return image
+	 */
+	static AbstractDataset storeStatistics(IntegerDataset data, boolean narrow, boolean keepBitWidth) {
+		final int[] databuf = data.getData();
+		int amax = Integer.MIN_VALUE;
+		int amin = Integer.MAX_VALUE;
+		int hash = 0;
+		for (int value : databuf) {
+			hash = hash * 19 + value;
+			if (value > amax) {
+				amax = value;
+			}
+			if (value < amin) {
+				amin = value;
+			}
+		}
+
+		AbstractDataset result = data;
+		if (narrow && (keepBitWidth || amax < (1 << 15))) {
+			result = DatasetUtils.cast(data, AbstractDataset.INT16);
+		}
+		hash = hash * 19 + result.getDtype() * 17 + result.getElementsPerItem();
+		for (int s : result.getShape()) {
+			hash = hash * 17 + s;
+		}
+		result.setStoredValue(AbstractDataset.STORE_MAX, amax);
+		result.setStoredValue(AbstractDataset.STORE_MIN, amin);
+		result.setStoredValue(AbstractDataset.STORE_HASH, hash);
+		return result;
+	}
+
+	/**
+	 * Calculate and store the maximum, minimum and hash of a fully loaded float image
+	 * @param data
+	 */
+	static void storeStatistics(FloatDataset data) {
+		final float[] databuf = data.getData();
+		float fmax = -Float.MAX_VALUE;
+		float fmin = Float.MAX_VALUE;
+		double hash = 0;
+		for (float value : databuf) {
+			hash = hash * 19 + value;
+			if (value > fmax) {
+				fmax = value;
+			}
+			if (value < fmin) {
+				fmin = value;
+			}
+		}
+
+		hash = hash * 19 + data.getDtype() * 17 + data.getElementsPerItem();
+		for (int s : data.getShape()) {
+			hash = hash * 17 + s;
+		}
+		data.setStoredValue(AbstractDataset.STORE_MAX, fmax);
+		data.setStoredValue(AbstractDataset.STORE_MIN, fmin);
+		data.setStoredValue(AbstractDataset.STORE_HASH, (int) hash);
+	}
+}
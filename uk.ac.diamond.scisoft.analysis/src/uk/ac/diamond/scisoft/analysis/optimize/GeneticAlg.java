@@ -16,18 +16,27 @@
 
 package uk.ac.diamond.scisoft.analysis.optimize;
 
+import java.util.concurrent.RecursiveAction;
+
 import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.commons.math3.random.RandomDataGenerator;
 import org.apache.commons.math3.random.RandomGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import uk.ac.diamond.scisoft.analysis.dataset.ChunkedExecutor;
 import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.AFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.CompositeFunction;
 import uk.ac.diamond.scisoft.analysis.fitting.functions.IFunction;
 import uk.ac.diamond.scisoft.analysis.fitting.functions.IParameter;
 
 /**
  * This class uses the Differential evolution genetic algorithm as an optimizer.
+ * <p>
+ * When there is enough work, the fitness of each epoch is evaluated in the pool of
+ * {@link ChunkedExecutor} with a copy of the function for each block of members. Only
+ * the fitness evaluation is done concurrently so results for a given seed do not change.
  */
 public class GeneticAlg implements IOptimizer {
 	
@@ -111,9 +120,9 @@ public class GeneticAlg implements IOptimizer {
 		}
 
 		// now the first epoch has been created and calculate the fitness
+		final Evaluator evaluator = createEvaluator(coords, yAxis, function, epoch);
+		evaluator.evaluate(epoch);
 		for (int i = 0; i < epochSize; i++) {
-			function.setParameterValues(epoch[i]);
-			epoch[i][nparams] = function.residual(true, yAxis, coords);
 			if (((Double) (epoch[i][nparams])).isNaN()) {
 				epoch[i][nparams] = Double.MAX_VALUE;
 			}
@@ -230,17 +239,14 @@ public class GeneticAlg implements IOptimizer {
 						epoch[i][j] = 2. * p.getLowerLimit() - epoch[i][j];
 					}
 				}
+			}
 
-				// finally calculate the fitness and put it in the last digit
-				function.setParameterValues(epoch[i]);
-				epoch[i][nparams] = function.residual(true, yAxis, coords);
+			// finally calculate the fitness and put it in the last digit
+			evaluator.evaluate(epoch);
 
-			 
-	
+			for (int i = 0; i < epochSize; i++) {
 			    double delta = epoch[i][nparams] - mean;
 			    mean = mean + delta/(i+1);
-
-				
 			}
 			
 			//mean = mean;
@@ -296,4 +302,115 @@ public class GeneticAlg implements IOptimizer {
 
 	}
 
+	private static double fitness(final IFunction function, final double[] member, final IDataset yAxis, final IDataset[] coords) {
+		function.setParameterValues(member);
+		return function.residual(true, yAxis, coords);
+	}
+
+	/**
+	 * Create evaluator with as many copies of the function as the pool has threads if the
+	 * epoch and data are large enough. Each copy must give the same fitness as the function
+	 * for the first member of the epoch, otherwise the epoch is evaluated sequentially
+	 */
+	private static Evaluator createEvaluator(final IDataset[] coords, final IDataset yAxis, final IFunction function, final double[][] epoch) {
+		int n = 1;
+		if (ChunkedExecutor.isEnabled() && (long) epoch.length * yAxis.getSize() >= 2L * ChunkedExecutor.getThreshold())
+			n = Math.min(ChunkedExecutor.getParallelism(), epoch.length);
+
+		final IFunction[] functions = new IFunction[n];
+		functions[0] = function;
+		if (n > 1) {
+			final int nparams = function.getNoOfParameters();
+			final double expected = fitness(function, epoch[0], yAxis, coords);
+			try {
+				for (int i = 1; i < n; i++) {
+					final IFunction f = copy(function);
+					if (f == null || f.getNoOfParameters() != nparams
+							|| Double.compare(fitness(f, epoch[0], yAxis, coords), expected) != 0) {
+						GAlogger.debug("Function cannot be copied so population is evaluated sequentially");
+						return new Evaluator(coords, yAxis, new IFunction[] { function });
+					}
+					functions[i] = f;
+				}
+			} catch (Exception e) {
+				GAlogger.debug("Function cannot be copied so population is evaluated sequentially", e);
+				return new Evaluator(coords, yAxis, new IFunction[] { function });
+			}
+		}
+		return new Evaluator(coords, yAxis, functions);
+	}
+
+	private static IFunction copy(final IFunction function) throws Exception {
+		if (function instanceof CompositeFunction)
+			return ((CompositeFunction) function).duplicate();
+		if (function instanceof AFunction)
+			return ((AFunction) function).copy();
+		return null;
+	}
+
+	/**
+	 * Evaluates the fitness of the members of an epoch, splitting them into contiguous blocks
+	 * that each use their own function
+	 */
+	private static class Evaluator {
+		private final IDataset[] coords;
+		private final IDataset yAxis;
+		private final IFunction[] functions;
+
+		Evaluator(final IDataset[] coords, final IDataset yAxis, final IFunction[] functions) {
+			this.coords = coords;
+			this.yAxis = yAxis;
+			this.functions = functions;
+		}
+
+		/**
+		 * Put fitness of each member in its last element. The function is left with the
+		 * parameters of the last member as it would be by a sequential evaluation
+		 * @param epoch
+		 */
+		void evaluate(final double[][] epoch) {
+			if (functions.length == 1) {
+				evaluate(epoch, 0);
+			} else {
+				ChunkedExecutor.getPool().invoke(new BlockAction(this, epoch, 0, functions.length));
+				functions[0].setParameterValues(epoch[epoch.length - 1]);
+			}
+		}
+
+		void evaluate(final double[][] epoch, final int block) {
+			final IFunction f = functions[block];
+			final int nblocks = functions.length;
+			final int end = (block + 1) * epoch.length / nblocks;
+			for (int i = block * epoch.length / nblocks; i < end; i++) {
+				final double[] member = epoch[i];
+				member[member.length - 1] = fitness(f, member, yAxis, coords);
+			}
+		}
+	}
+
+	private static class BlockAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Evaluator evaluator;
+		private final double[][] epoch;
+		private final int start, end;
+
+		BlockAction(final Evaluator evaluator, final double[][] epoch, final int start, final int end) {
+			this.evaluator = evaluator;
+			this.epoch = epoch;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1) {
+				final int mid = (start + end) >>> 1;
+				invokeAll(new BlockAction(evaluator, epoch, start, mid), new BlockAction(evaluator, epoch, mid, end));
+			} else {
+				evaluator.evaluate(epoch, start);
+			}
+		}
+	}
+
 }
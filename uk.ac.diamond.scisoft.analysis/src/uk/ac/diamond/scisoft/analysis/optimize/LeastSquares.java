@@ -52,8 +52,13 @@ public class LeastSquares implements IOptimizer {
 
 		function.setParameterValues(params);
 
-		for (int i = 0; i < xAxis.getSize(); i++) {
-			final double x = (yAxis.getDouble(i) - function.val(xAxis.getDouble(i))) / sigma.getDouble(i);
+		final int n = xAxis.getSize();
+		final double[] xValues = getValues(xAxis);
+		final double[] fValues = new double[n];
+		function.fillWithValues(fValues, xValues);
+
+		for (int i = 0; i < n; i++) {
+			final double x = (yAxis.getDouble(i) - fValues[i]) / sigma.getDouble(i);
 			result += x*x;
 		}
 
@@ -62,36 +67,75 @@ public class LeastSquares implements IOptimizer {
 		return result;
 	}
 
-	private double alpha(int k, int l, IDataset xAxis, AbstractDataset sigma,
-			IFunction func) {
-		double sum = 0.0;
-		final int n = xAxis.getShape()[0];
+	private static double[] getValues(IDataset data) {
+		final int n = data.getSize();
+		final double[] values = new double[n];
 		for (int i = 0; i < n; i++) {
-			double value = 1.0 / Math.pow(sigma.getDouble(i), 2);
-			value *= func.partialDeriv(k, xAxis.getDouble(i));
-			value *= func.partialDeriv(l, xAxis.getDouble(i));
-			sum += value;
+			values[i] = data.getDouble(i);
 		}
-		return sum;
+		return values;
 	}
 
-	private double alphaPrime(int k, int l, IDataset xAxis, AbstractDataset sigma,
-			IFunction func, double lambda) {
-		if (k == l) {
-			return (alpha(k, l, xAxis, sigma, func)) * (1 + lambda);
-		}
-
-		return (alpha(k, l, xAxis, sigma, func));
+	/**
+	 * Calculate partial derivatives with respect to each parameter at every point by central
+	 * differences (with the same steps as {@link IFunction#partialDeriv(int, double...)} of
+	 * AFunction) of values that are filled in bulk
+	 * @return array of derivatives for each parameter
+	 */
+	private double[][] partialDerivs(double[] xValues, IFunction func) {
+		final double[] params = func.getParameterValues();
+		final int n = xValues.length;
+		final double[][] derivs = new double[params.length][n];
+		final double[] lower = new double[n];
+		final double[] upper = new double[n];
+		for (int k = 0; k < params.length; k++) {
+			final double v = params[k];
+			final double vl = v != 0 ? v * (1 - PERT) : -PERT;
+			final double vu = v != 0 ? v * (1 + PERT) : PERT;
+			params[k] = vl;
+			func.setParameterValues(params);
+			func.fillWithValues(lower, xValues);
+			params[k] = vu;
+			func.setParameterValues(params);
+			func.fillWithValues(upper, xValues);
+			params[k] = v;
 
+			final double f = 1. / (vu - vl);
+			final double[] d = derivs[k];
+			for (int i = 0; i < n; i++) {
+				d[i] = (upper[i] - lower[i]) * f;
+			}
+		}
+		func.setParameterValues(params);
+		return derivs;
 	}
 
 	private Matrix evaluateMatrix(IDataset xAxis, AbstractDataset sigma,
 			IFunction func, double lambda) {
-		int nparams = func.getNoOfParameters();
+		final double[][] derivs = partialDerivs(getValues(xAxis), func);
+		final int nparams = derivs.length;
+		final int n = xAxis.getSize();
+		final double[] weights = new double[n];
+		for (int i = 0; i < n; i++) {
+			final double s = sigma.getDouble(i);
+			weights[i] = 1.0 / (s * s);
+		}
+
 		Matrix mat = new Matrix(nparams, nparams);
-		for (int i = 0; i < nparams; i++) {
-			for (int j = 0; j < nparams; j++) {
-				mat.set(i, j, alphaPrime(i, j, xAxis, sigma, func, lambda));
+		for (int k = 0; k < nparams; k++) {
+			final double[] dk = derivs[k];
+			for (int l = 0; l <= k; l++) {
+				final double[] dl = derivs[l];
+				double sum = 0.0;
+				for (int i = 0; i < n; i++) {
+					sum += weights[i] * dk[i] * dl[i];
+				}
+				if (k == l) {
+					mat.set(k, k, sum * (1 + lambda));
+				} else {
+					mat.set(k, l, sum);
+					mat.set(l, k, sum);
+				}
 			}
 		}
 		return mat;
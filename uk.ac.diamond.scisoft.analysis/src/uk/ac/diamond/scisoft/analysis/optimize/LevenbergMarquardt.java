@@ -0,0 +1,306 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.optimize;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.IndexIterator;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.IDifferentiableFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.IFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.IParameter;
+import Jama.CholeskyDecomposition;
+import Jama.Matrix;
+
+/**
+ * Levenberg-Marquardt least squares optimiser
+ * <p>
+ * The Jacobian is calculated once per iteration: analytically when the function implements
+ * {@link IDifferentiableFunction} and by central differences otherwise. Steps are solved from the
+ * normal equations with their diagonal scaled by the damping factor and are then clipped to the
+ * parameter limits. Fixed parameters are not changed.
+ */
+public class LevenbergMarquardt implements IOptimizer {
+
+	/**
+	 * Setup the logging facilities
+	 */
+	private static final Logger logger = LoggerFactory.getLogger(LevenbergMarquardt.class);
+
+	private static final double INITIAL_LAMBDA = 1e-3;
+	private static final double MAX_LAMBDA = 1e10;
+	private static final double STEP = 1e-6;
+
+	private double tolerance = 1e-8;
+	private int maxIterations = 200;
+
+	public LevenbergMarquardt() {
+	}
+
+	/**
+	 * @param tolerance
+	 *            relative decrease in sum of squared residuals below which fitting stops
+	 */
+	public LevenbergMarquardt(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * @param maxIterations
+	 *            maximum number of Jacobian evaluations
+	 */
+	public void setMaximumIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	@Override
+	public void optimize(IDataset[] coords, IDataset data, IFunction function) throws Exception {
+		final AbstractDataset values = DatasetUtils.convertToAbstractDataset(data);
+		final int n = values.getSize();
+		final double[] y = new double[n];
+		final double[][] x = makeCoordinates(coords, values, y);
+
+		final IParameter[] params = function.getParameters();
+		final int np = params.length;
+		int nfree = 0;
+		for (IParameter p : params) {
+			if (!p.isFixed())
+				nfree++;
+		}
+		if (nfree == 0 || n == 0)
+			return;
+
+		final int[] free = new int[nfree];
+		for (int i = 0, j = 0; i < np; i++) {
+			if (!params[i].isFixed())
+				free[j++] = i;
+		}
+
+		double[] p = function.getParameterValues();
+		for (int k : free) {
+			p[k] = clip(params[k], p[k]);
+		}
+
+		double[] r = new double[n];
+		double[] tr = new double[n];
+		double chi2 = residuals(function, p, x, y, r);
+		if (Double.isNaN(chi2)) {
+			logger.warn("Function cannot be evaluated with its initial parameters");
+			function.setParameterValues(p);
+			return;
+		}
+
+		final double[][] jac = new double[n][nfree];
+		final double[][] alpha = new double[nfree][nfree];
+		final double[] beta = new double[nfree];
+		final double[] trial = new double[np];
+		double lambda = INITIAL_LAMBDA;
+
+		for (int iter = 0; iter < maxIterations && chi2 > 0; iter++) {
+			jacobian(function, params, free, p, x, jac);
+
+			for (int a = 0; a < nfree; a++) {
+				beta[a] = 0;
+				for (int b = 0; b <= a; b++)
+					alpha[a][b] = 0;
+			}
+			for (int i = 0; i < n; i++) {
+				final double[] row = jac[i];
+				for (int a = 0; a < nfree; a++) {
+					final double ja = row[a];
+					beta[a] += ja * r[i];
+					for (int b = 0; b <= a; b++)
+						alpha[a][b] += ja * row[b];
+				}
+			}
+
+			boolean improved = false;
+			boolean small = false;
+			double tchi2 = chi2;
+			while (lambda < MAX_LAMBDA) {
+				final double[] delta = solve(alpha, beta, lambda);
+				if (delta == null) {
+					lambda *= 10;
+					continue;
+				}
+
+				System.arraycopy(p, 0, trial, 0, np);
+				small = true;
+				for (int a = 0; a < nfree; a++) {
+					final int k = free[a];
+					trial[k] = clip(params[k], p[k] + delta[a]);
+					if (Math.abs(trial[k] - p[k]) > tolerance * (Math.abs(p[k]) + tolerance))
+						small = false;
+				}
+
+				tchi2 = residuals(function, trial, x, y, tr);
+				if (tchi2 < chi2) {
+					improved = true;
+					lambda = Math.max(lambda / 10, Double.MIN_NORMAL);
+					break;
+				}
+				lambda *= 10;
+			}
+
+			if (!improved)
+				break;
+
+			final double decrease = chi2 - tchi2;
+			System.arraycopy(trial, 0, p, 0, np);
+			double[] t = r;
+			r = tr;
+			tr = t;
+			chi2 = tchi2;
+			if (small || decrease <= tolerance * (chi2 + decrease))
+				break;
+		}
+
+		function.setParameterValues(p);
+	}
+
+	/**
+	 * @param y array to fill with values of data
+	 * @return arrays of each coordinate, holding its value at each point of data
+	 */
+	private static double[][] makeCoordinates(IDataset[] coords, AbstractDataset values, double[] y) {
+		final int nc = coords.length;
+		final double[][] x = new double[nc][values.getSize()];
+		final boolean grid = coords[0].getRank() == 1;
+		final IndexIterator iter = values.getIterator(true);
+		final int[] pos = iter.getPos();
+		int i = 0;
+		while (iter.hasNext()) {
+			for (int j = 0; j < nc; j++) {
+				x[j][i] = grid ? coords[j].getDouble(pos[j]) : coords[j].getDouble(pos);
+			}
+			y[i++] = values.getElementDoubleAbs(iter.index);
+		}
+		return x;
+	}
+
+	private static double clip(IParameter p, double v) {
+		return Math.max(p.getLowerLimit(), Math.min(p.getUpperLimit(), v));
+	}
+
+	/**
+	 * Set function parameters and calculate residuals
+	 * @return sum of squared residuals or NaN if function could not be evaluated
+	 */
+	private static double residuals(IFunction function, double[] p, double[][] x, double[] y, double[] r) {
+		function.setParameterValues(p);
+		function.fillWithValues(r, x);
+		double sum = 0;
+		for (int i = 0; i < y.length; i++) {
+			final double d = y[i] - r[i];
+			r[i] = d;
+			sum += d * d;
+		}
+		return Double.isInfinite(sum) ? Double.NaN : sum;
+	}
+
+	/**
+	 * Calculate derivatives of function with respect to free parameters at each point
+	 */
+	private static void jacobian(IFunction function, IParameter[] params, int[] free, double[] p, double[][] x, double[][] jac) {
+		final int n = jac.length;
+		function.setParameterValues(p);
+		if (function instanceof IDifferentiableFunction) {
+			final IDifferentiableFunction df = (IDifferentiableFunction) function;
+			final double[] derivs = new double[p.length];
+			final double[] position = new double[x.length];
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < x.length; j++) {
+					position[j] = x[j][i];
+				}
+				df.fillPartialDerivatives(derivs, 0, position);
+				final double[] row = jac[i];
+				for (int a = 0; a < free.length; a++) {
+					row[a] = derivs[free[a]];
+				}
+			}
+			return;
+		}
+
+		final double[] t = p.clone();
+		final double[] lower = new double[n];
+		final double[] upper = new double[n];
+		for (int a = 0; a < free.length; a++) {
+			final int k = free[a];
+			final double v = p[k];
+			final double h = STEP * Math.max(1, Math.abs(v));
+			final double vl = clip(params[k], v - h);
+			final double vu = clip(params[k], v + h);
+			if (vu == vl) {
+				for (int i = 0; i < n; i++)
+					jac[i][a] = 0;
+				continue;
+			}
+
+			t[k] = vl;
+			function.setParameterValues(t);
+			function.fillWithValues(lower, x);
+			t[k] = vu;
+			function.setParameterValues(t);
+			function.fillWithValues(upper, x);
+			final double f = 1. / (vu - vl);
+			for (int i = 0; i < n; i++)
+				jac[i][a] = (upper[i] - lower[i]) * f;
+			t[k] = v;
+		}
+		function.setParameterValues(p);
+	}
+
+	/**
+	 * Solve damped normal equations
+	 * @param alpha lower triangle of curvature matrix
+	 * @param beta gradient
+	 * @param lambda damping factor
+	 * @return step or null if equations are singular
+	 */
+	private static double[] solve(double[][] alpha, double[] beta, double lambda) {
+		final int m = beta.length;
+		final Matrix a = new Matrix(m, m);
+		for (int i = 0; i < m; i++) {
+			for (int j = 0; j < i; j++) {
+				a.set(i, j, alpha[i][j]);
+				a.set(j, i, alpha[i][j]);
+			}
+			final double d = alpha[i][i];
+			a.set(i, i, d == 0 ? lambda : d * (1 + lambda));
+		}
+
+		final Matrix b = new Matrix(beta, m);
+		try {
+			final CholeskyDecomposition chol = a.chol();
+			final double[] delta = (chol.isSPD() ? chol.solve(b) : a.solve(b)).getColumnPackedCopy();
+			for (double d : delta) {
+				if (Double.isNaN(d) || Double.isInfinite(d))
+					return null;
+			}
+			return delta;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+}
@@ -17,11 +17,13 @@
 package uk.ac.diamond.scisoft.analysis.roi;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.BooleanDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.FloatDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.Maths;
@@ -30,6 +32,7 @@ import uk.ac.diamond.scisoft.analysis.dataset.function.Integrate2D;
 import uk.ac.diamond.scisoft.analysis.dataset.function.LineSample;
 import uk.ac.diamond.scisoft.analysis.dataset.function.MapToPolarAndIntegrate;
 import uk.ac.diamond.scisoft.analysis.dataset.function.MapToRotatedCartesianAndIntegrate;
+import uk.ac.diamond.scisoft.analysis.dataset.function.SummedAreaTable;
 import uk.ac.diamond.scisoft.analysis.diffraction.QSpace;
 
 /**
@@ -116,6 +119,35 @@ public class ROIProfile {
 		profiles[1] = Maths.dividez(profiles[1], ninty);
 	}
 
+	/**
+	 * @param sums
+	 * @param counts numbers of valid pixels, if not null then profile is NaN where there are none
+	 * @param dtype
+	 * @return profile
+	 */
+	private static AbstractDataset createProfile(double[] sums, int[] counts, int dtype) {
+		if (counts != null) {
+			for (int i = 0; i < sums.length; i++) {
+				if (counts[i] == 0)
+					sums[i] = Double.NaN;
+			}
+		}
+		return DatasetUtils.cast(new DoubleDataset(sums, sums.length), dtype);
+	}
+
+	/**
+	 * @param sums
+	 * @param counts numbers of valid pixels
+	 * @param n number of pixels in each sum
+	 * @return mean profile which is NaN where any pixel is not valid
+	 */
+	private static AbstractDataset createMeanProfile(double[] sums, int[] counts, int n) {
+		for (int i = 0; i < sums.length; i++) {
+			sums[i] = counts[i] < n ? Double.NaN : sums[i] / n;
+		}
+		return new DoubleDataset(sums, sums.length);
+	}
+
 	/**
 	 * @param data
 	 * @param rroi
@@ -166,6 +198,26 @@ public class ROIProfile {
 			final int xend   = Math.min(spt[1] + len[1],  data.getShape()[0]);
 			final int ystart = Math.max(0,  spt[0]);
 			final int yend   = Math.min(spt[0] + len[0],  data.getShape()[1]);
+
+			// When a region is dragged over the same image, answer from its summed-area table
+			if (xend > xtart && yend > ystart && (mask == null || !maskWithNans || mask instanceof BooleanDataset)) {
+				final SummedAreaTable table = SummedAreaTable.getTable(data, mask);
+				if (table != null) {
+					final int dtype;
+					if (mask == null) {
+						dtype = AbstractDataset.getBestFloatDType(data.getDtype());
+					} else if (maskWithNans) {
+						dtype = AbstractDataset.FLOAT32; // as nanalized
+					} else {
+						dtype = AbstractDataset.getBestFloatDType(AbstractDataset.getBestDType(data.getDtype(), mask.getDtype()));
+					}
+					profiles[0] = createProfile(table.getColumnSums(xtart, ystart, xend, yend),
+							maskWithNans ? table.getColumnCounts(xtart, ystart, xend, yend) : null, dtype);
+					profiles[1] = createProfile(table.getRowSums(xtart, ystart, xend, yend),
+							maskWithNans ? table.getRowCounts(xtart, ystart, xend, yend) : null, dtype);
+					return profiles;
+				}
+			}
 			
 			// We slice down data to reduce the work the masking and the integrate needs to do.
 			// TODO Does this always work? This makes large images profile better...
@@ -282,6 +334,20 @@ public class ROIProfile {
 			final int xend   = Math.min(spt[1] + len[1],  data.getShape()[0]);
 			final int ystart = Math.max(0,  spt[0]);
 			final int yend   = Math.min(spt[0] + len[0],  data.getShape()[1]);
+
+			// When a region is dragged over the same image, answer from its summed-area table
+			if (xend > xtart && yend > ystart && (mask == null || Arrays.equals(data.getShape(), mask.getShape()))) {
+				// mask is only used to set NaNs
+				final SummedAreaTable table = SummedAreaTable.getTable(data,
+						maskWithNans && mask instanceof BooleanDataset ? mask : null);
+				if (table != null) {
+					profiles[0] = createMeanProfile(table.getColumnSums(xtart, ystart, xend, yend),
+							table.getColumnCounts(xtart, ystart, xend, yend), xend - xtart);
+					profiles[1] = createMeanProfile(table.getRowSums(xtart, ystart, xend, yend),
+							table.getRowCounts(xtart, ystart, xend, yend), yend - ystart);
+					return profiles;
+				}
+			}
 			
 			// We slice down data to reduce the work the masking and the integrate needs to do.
 			// TODO Does this always work? This makes large images profile better...
@@ -510,6 +576,15 @@ public class ROIProfile {
 			line1 = new LinearROI(startpt, righttoppt);
 			line2 = new LinearROI(leftbottompt, endpt);
 		}
+		if (mask != null && data != null && data.isCompatibleWith(mask)) {
+			// mask once for both lines
+			if (!maskWithNans || !(mask instanceof BooleanDataset)) {
+				data = Maths.multiply(DatasetUtils.convertToAbstractDataset(data), DatasetUtils.convertToAbstractDataset(mask));
+			} else {
+				data = nanalize(data, (BooleanDataset)mask);
+			}
+			mask = null;
+		}
 		AbstractDataset[] lineProfiles = ROIProfile.line(data, mask, line1, 1d, maskWithNans);
 		profiles[0] = lineProfiles != null ? lineProfiles[0] : null;
 		if(profiles[0] == null) return null;
@@ -611,6 +686,8 @@ public class ROIProfile {
 		return sector(data, mask, sroi, doRadial, doAzimuthal, fast, null, null, false);
 	}
 	/**
+	 * Profiles use plans shared with other sector profiles of the same geometry when
+	 * {@link MapToPolarAndIntegrate#isUsePlanByDefault()} is true
 	 * @param data
 	 * @param mask
 	 *            used for clipping compensation (can be null)
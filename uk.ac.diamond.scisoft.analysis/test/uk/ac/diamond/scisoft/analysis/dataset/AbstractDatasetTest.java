@@ -1842,4 +1842,66 @@ public class AbstractDatasetTest {
 			fail("Should have thrown an illegal argument exception");
 		}
 	}
+
+	@Test
+	public void testBroadcastView() {
+		AbstractDataset a = AbstractDataset.arange(4, AbstractDataset.INT32);
+		AbstractDataset b = a.getBroadcastView(3, 4);
+		assertArrayEquals(new int[] {3, 4}, b.getShape());
+		assertEquals(12, b.getSize());
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 4; j++) {
+				assertEquals(j, b.getInt(i, j));
+			}
+		}
+		AbstractDataset c = b.clone();
+		c.set(-1, 0, 0);
+		assertEquals(0, a.getInt(0));
+		assertEquals(-1, c.getInt(0, 0));
+		assertEquals(0, c.getInt(1, 0));
+
+		AbstractDataset d = AbstractDataset.arange(3, AbstractDataset.INT32).reshape(3, 1).getBroadcastView(2, 3, 4);
+		assertEquals(2, d.getInt(1, 2, 3));
+		assertEquals(24, d.cast(AbstractDataset.FLOAT64).getSize());
+
+		assertArrayEquals(new int[] {2, 3, 4}, AbstractDataset.getBroadcastShape(new int[] {3, 1}, new int[] {2, 1, 4}));
+		assertArrayEquals(new int[] {4, 1}, AbstractDataset.getBroadcastShape(new int[] {4, 1}, new int[] {4}));
+		try {
+			a.getBroadcastView(4, 3);
+			fail("Should have thrown an illegal argument exception");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testInplaceBroadcast() {
+		AbstractDataset a = AbstractDataset.arange(12, AbstractDataset.FLOAT64).reshape(3, 4);
+		AbstractDataset e = a.clone();
+		a.iadd(AbstractDataset.arange(4, AbstractDataset.INT16));
+		a.imultiply(AbstractDataset.ones(new int[] {3, 1}, AbstractDataset.FLOAT32).imultiply(2));
+		a.isubtract(AbstractDataset.arange(4, AbstractDataset.FLOAT64).getBroadcastView(3, 4));
+		a.idivide(new DoubleDataset(new double[] {2}, 1, 1));
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 4; j++) {
+				assertEquals(e.getDouble(i, j) + j / 2., a.getDouble(i, j), 1e-15);
+			}
+		}
+
+		AbstractDataset z = AbstractDataset.zeros(new int[] {2, 3}, AbstractDataset.COMPLEX128);
+		z.iadd(new ComplexDoubleDataset(new double[] {1, 2, 3, 4, 5, 6}, 3));
+		assertEquals(new Complex(5, 6), ((ComplexDoubleDataset) z).get(1, 2));
+
+		AbstractDataset p = new CompoundDoubleDataset(2, new double[] {1, 2, 3, 4}, 2, 1);
+		AbstractDataset q = AbstractDataset.zeros(2, new int[] {2, 3}, AbstractDataset.ARRAYFLOAT64);
+		q.iadd(p);
+		assertArrayEquals(new double[] {3, 4}, ((CompoundDoubleDataset) q).getDoubleArray(1, 2), 1e-15);
+
+		try {
+			a.iadd(AbstractDataset.arange(3, AbstractDataset.FLOAT64));
+			fail("Should have thrown an illegal argument exception");
+		} catch (IllegalArgumentException ex) {
+			// expected
+		}
+	}
 }
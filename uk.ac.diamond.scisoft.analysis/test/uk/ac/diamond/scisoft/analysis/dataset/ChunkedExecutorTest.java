@@ -0,0 +1,133 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChunkedExecutorTest {
+	private int threshold;
+
+	@Before
+	public void setUp() {
+		threshold = ChunkedExecutor.getThreshold();
+		ChunkedExecutor.setThreshold(16);
+		ChunkedExecutor.setParallelism(4);
+	}
+
+	@After
+	public void tearDown() {
+		ChunkedExecutor.setThreshold(threshold);
+		ChunkedExecutor.setEnabled(true);
+		ChunkedExecutor.setParallelism(0);
+	}
+
+	private void checkChunks(AbstractDataset a) {
+		IndexIterator it = a.getIterator();
+		int size = a.getSize();
+		int[] bounds = new int[] {0, 1, size / 3, size / 2 + 1, size};
+		for (int b = 1; b < bounds.length; b++) {
+			IndexIterator ci = ChunkedExecutor.getIterator(a, bounds[b - 1], bounds[b]);
+			for (int i = bounds[b - 1]; i < bounds[b]; i++) {
+				assertTrue(it.hasNext());
+				assertTrue(ci.hasNext());
+				assertEquals("Index at item " + i, it.index, ci.index);
+			}
+			assertFalse(ci.hasNext());
+		}
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testChunkIterator() {
+		AbstractDataset a = AbstractDataset.arange(120, AbstractDataset.FLOAT64);
+		checkChunks(a);
+		checkChunks(a.reshape(4, 30));
+		checkChunks(a.reshape(4, 5, 6).getSliceView(new int[] {1, 0, 1}, new int[] {4, 5, 6}, new int[] {1, 2, 2}));
+		checkChunks(a.reshape(10, 12).getTransposedView());
+		checkChunks(AbstractDataset.arange(60, AbstractDataset.COMPLEX128).reshape(6, 10).getSliceView(null, null, new int[] {2, 3}));
+
+		IndexIterator ci = ChunkedExecutor.getIterator(a, 10, 10);
+		assertFalse(ci.hasNext());
+	}
+
+	private void checkUnary(AbstractDataset a) {
+		ChunkedExecutor.setEnabled(false);
+		AbstractDataset es = Maths.sin(a);
+		AbstractDataset ea = Maths.abs(a);
+		AbstractDataset ec = a.isComplex() ? null : Maths.clip(a, 10, 100);
+		ChunkedExecutor.setEnabled(true);
+		assertEquals(es, Maths.sin(a));
+		assertEquals(ea, Maths.abs(a));
+		if (ec != null) {
+			assertEquals(ec, Maths.clip(a, 10, 100));
+		}
+	}
+
+	@Test
+	public void testUnary() {
+		AbstractDataset a = AbstractDataset.arange(-500, 1500, 1, AbstractDataset.FLOAT64);
+		checkUnary(a);
+		checkUnary(a.reshape(40, 50));
+		checkUnary(a.reshape(40, 50).getSliceView(new int[] {1, 3}, null, new int[] {3, 2}));
+		checkUnary(a.reshape(40, 50).getTransposedView());
+		checkUnary(a.cast(AbstractDataset.INT16));
+		checkUnary(a.cast(AbstractDataset.COMPLEX128));
+		checkUnary(a.cast(true, AbstractDataset.ARRAYFLOAT32, 3));
+	}
+
+	@Test
+	public void testBinary() {
+		AbstractDataset a = AbstractDataset.arange(-500, 1500, 1, AbstractDataset.FLOAT64).reshape(40, 50);
+		AbstractDataset b = Random.rand(40, 50);
+		AbstractDataset bv = Random.rand(50, 80).getSliceView(null, null, new int[] {1, 2}).getTransposedView();
+
+		ChunkedExecutor.setEnabled(false);
+		AbstractDataset es = Maths.subtract(a, b);
+		AbstractDataset ed = Maths.divide(a, bv);
+		AbstractDataset ep = Maths.power(b, bv);
+		ChunkedExecutor.setEnabled(true);
+		assertEquals(es, Maths.subtract(a, b));
+		assertEquals(ed, Maths.divide(a, bv));
+		assertEquals(ep, Maths.power(b, bv));
+	}
+
+	@Test
+	public void testSetParallelism() {
+		ForkJoinPool old = ChunkedExecutor.getPool();
+		ChunkedExecutor.setParallelism(2);
+		assertEquals(2, ChunkedExecutor.getParallelism());
+
+		// pool already in use can still run tasks
+		final AtomicBoolean ran = new AtomicBoolean();
+		old.submit(new Runnable() {
+			@Override
+			public void run() {
+				ran.set(true);
+			}
+		}).join();
+		assertTrue(ran.get());
+	}
+}
@@ -19,7 +19,10 @@ package uk.ac.diamond.scisoft.analysis.dataset;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
 
 import uk.ac.diamond.scisoft.analysis.DoubleUtils;
@@ -32,6 +35,9 @@ import uk.ac.diamond.scisoft.analysis.io.LoaderFactory;
 public class CollectionStatsTest {
 
 
+   @Rule
+   public ParallelismRule parallelism = new ParallelismRule();
+
    private static List<IDataset> SETS1D, SETS2D;
    static {
 	   SETS1D = new ArrayList<IDataset>(5);
@@ -75,6 +81,89 @@ public class CollectionStatsTest {
 	   if (!DoubleUtils.equalsWithinTolerance(mean.getDouble(4), 104, 0.0001)) throw new Exception("Mean not calculated correctly!");  
     }
 
+   @Test
+   public void testOtherStats() throws Exception {
+
+	   final AbstractDataset min = CollectionStats.min(SETS2D);
+	   Assert.assertArrayEquals(new double[] {1, 2, 1, 4}, ((DoubleDataset) min).getData(), 0);
+	   final AbstractDataset max = CollectionStats.max(SETS2D);
+	   Assert.assertArrayEquals(new double[] {500, 2, 300, 500}, ((DoubleDataset) max).getData(), 0);
+
+	   final AbstractDataset variance = CollectionStats.variance(SETS1D);
+	   for (int i = 0; i < 5; i++) {
+		   final DoubleDataset pixel = new DoubleDataset(new double[] {SETS1D.get(0).getDouble(i), SETS1D.get(1).getDouble(i),
+				   SETS1D.get(2).getDouble(i), SETS1D.get(3).getDouble(i), SETS1D.get(4).getDouble(i)}, 5);
+		   Assert.assertEquals(pixel.variance().doubleValue(), variance.getDouble(i), 1e-9);
+	   }
+
+	   // outliers are rejected
+	   final List<IDataset> sets = new ArrayList<IDataset>(SETS1D);
+	   for (int i = 0; i < 15; i++) {
+		   sets.add(new DoubleDataset(new double[] {1, 2, 1, 4, 5}, 5));
+	   }
+	   final AbstractDataset clipped = CollectionStats.sigmaClippedMean(sets, 3);
+	   Assert.assertArrayEquals(new double[] {1, 2, 1, 4, 5}, ((DoubleDataset) clipped).getData(), 1e-12);
+   }
+
+   @Test
+   public void testScalars() throws Exception {
+
+	   final List<IDataset> sets = new ArrayList<IDataset>();
+	   for (double v : new double[] {3, 1, 2}) {
+		   final DoubleDataset set = new DoubleDataset(new int[0]);
+		   set.set(v);
+		   sets.add(set);
+	   }
+	   final AbstractDataset median = CollectionStats.median(sets);
+	   Assert.assertEquals(1, median.getSize());
+	   Assert.assertEquals(2, median.getDouble(), 0);
+	   Assert.assertEquals(2, CollectionStats.mean(sets).getDouble(), 0);
+   }
+
+   private static void assertClose(AbstractDataset expected, AbstractDataset actual) {
+	   Assert.assertArrayEquals(expected.getShape(), actual.getShape());
+	   final IndexIterator it = expected.getIterator(true);
+	   while (it.hasNext()) {
+		   final int[] pos = it.getPos();
+		   Assert.assertEquals(expected.getDouble(pos), actual.getDouble(pos), 1e-12);
+	   }
+   }
+
+   @Test
+   public void testAxis() throws Exception {
+
+	   final int frames = 2000;
+	   final DoubleDataset stack = new DoubleDataset(30, frames, 40);
+	   final Random rand = new Random(123);
+	   final double[] data = stack.getData();
+	   for (int i = 0; i < data.length; i++) {
+		   data[i] = rand.nextGaussian();
+	   }
+
+	   // too many values for a single tile
+	   Assert.assertTrue(data.length > (1 << 20));
+	   final AbstractDataset mean = CollectionStats.mean(stack, 1);
+	   assertClose(stack.mean(1), mean);
+	   Assert.assertEquals(stack.min(1), CollectionStats.min(stack, 1));
+	   Assert.assertEquals(stack.max(1), CollectionStats.max(stack, 1));
+	   Assert.assertEquals(Stats.median(stack, 1), CollectionStats.median(stack, 1));
+	   assertClose(stack.variance(1), CollectionStats.variance(stack, 1));
+
+	   final List<IDataset> sets = new ArrayList<IDataset>(frames);
+	   for (int i = 0; i < frames; i++) {
+		   sets.add(stack.getSlice(new int[] {0, i, 0}, new int[] {30, i + 1, 40}, null).squeeze());
+	   }
+	   Assert.assertEquals(CollectionStats.median(stack, 1), CollectionStats.median(sets));
+	   Assert.assertEquals(CollectionStats.sigmaClippedMean(stack, 1, 2.5), CollectionStats.sigmaClippedMean(sets, 2.5));
+
+	   parallelism.sequential();
+	   final AbstractDataset sequential = CollectionStats.sigmaClippedMean(stack, 1, 2.5);
+
+	   parallelism.parallel(3);
+	   Assert.assertEquals(sequential, CollectionStats.sigmaClippedMean(stack, 1, 2.5));
+	   Assert.assertEquals(mean, CollectionStats.mean(sets));
+   }
+
    @Test
    public void testLarge() throws Exception {
 	   
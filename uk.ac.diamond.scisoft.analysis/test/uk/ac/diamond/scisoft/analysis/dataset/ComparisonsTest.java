@@ -221,4 +221,27 @@ public class ComparisonsTest {
 		AbstractDatasetTest.checkDatasets(Comparisons.isNegativeInfinite(c), new BooleanDataset(new boolean[] {false, true, false}));
 		AbstractDatasetTest.checkDatasets(Comparisons.isNaN(c), new BooleanDataset(new boolean[] {true, false, false}));
 	}
+
+	@Test
+	public void testOutput() {
+		BooleanDataset o = new BooleanDataset(a.getShape());
+		BooleanDataset c = Comparisons.greaterThan(a, b, o);
+		Assert.assertSame(o, c);
+		AbstractDatasetTest.checkDatasets(c, Comparisons.greaterThan(a, b));
+		c = Comparisons.lessThanOrEqualTo((Object) a, b, o);
+		AbstractDatasetTest.checkDatasets(c, Comparisons.lessThanOrEqualTo(a, b));
+		c = Comparisons.equalTo(3, a, o);
+		AbstractDatasetTest.checkDatasets(c, Comparisons.equalTo(a, 3));
+		c = Comparisons.logicalNot(c, c);
+		Assert.assertSame(o, c);
+		AbstractDatasetTest.checkDatasets(c, new BooleanDataset(new boolean[] {true, true, false, true, true, true}));
+		c = Comparisons.isNaN(AbstractDataset.arange(6, AbstractDataset.INT32), o);
+		AbstractDatasetTest.checkDatasets(c, new BooleanDataset(a.getShape()));
+
+		try {
+			Comparisons.equalTo(a, b, new BooleanDataset(5));
+			Assert.fail("Output of wrong shape should have been rejected");
+		} catch (IllegalArgumentException e) {
+		}
+	}
 }
@@ -0,0 +1,134 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.io.ILazyLoader;
+import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
+
+public class ExpressionDatasetTest {
+
+	private LazyDataset createLazy(final AbstractDataset d) {
+		return new LazyDataset("image", d.getDtype(), d.getShape(), new ILazyLoader() {
+			@Override
+			public boolean isFileReadable() {
+				return true;
+			}
+
+			@Override
+			public AbstractDataset getDataset(IMonitor mon, int[] shape, int[] start, int[] stop, int[] step)
+					throws Exception {
+				return d.getSlice(mon, start, stop, step);
+			}
+		});
+	}
+
+	@Test
+	public void testFlatField() {
+		final AbstractDataset image = Random.randint(100, 1000, new int[] {3, 40, 50});
+		final AbstractDataset dark = Random.rand(3, 40, 50);
+		final AbstractDataset flat = Maths.add(Random.rand(3, 40, 50), 50);
+
+		final AbstractDataset expected = Maths.divide(Maths.subtract(image, dark), Maths.subtract(flat, dark));
+
+		final ExpressionDataset d = new ExpressionDataset(dark);
+		final ExpressionDataset e = new ExpressionDataset(createLazy(image)).subtract(d).divide(new ExpressionDataset(flat).subtract(d));
+		Assert.assertArrayEquals(image.getShape(), e.getShape());
+		Assert.assertEquals(Double.class, e.elementClass());
+		Assert.assertEquals(expected, e.evaluate());
+
+		Slice[] slice = new Slice[] {new Slice(1, 3), null, new Slice(2, 40, 3)};
+		Assert.assertEquals(expected.getSlice(slice), e.getSlice(slice));
+		Assert.assertEquals(expected.getSlice(slice), e.getSliceView(null, null, new int[] {1, 1, 1}).getSlice(slice));
+		Assert.assertEquals(expected.getSlice(slice), new ExpressionDataset(image).subtract(d).divide(new ExpressionDataset(flat).subtract(d)).getSliceView(slice).getSlice());
+	}
+
+	@Test
+	public void testOperations() {
+		final AbstractDataset a = AbstractDataset.arange(1, 25, 1, AbstractDataset.FLOAT64).reshape(4, 6);
+		final AbstractDataset b = Maths.multiply(a, 0.25);
+		final ExpressionDataset ea = new ExpressionDataset(a);
+
+		Assert.assertEquals(Maths.sqrt(Maths.add(a, b)), ea.add(b).sqrt().evaluate());
+		Assert.assertEquals(Maths.multiply(Maths.exp(b), Maths.sin(a)), new ExpressionDataset(b).exp().multiply(ea.sin()).evaluate());
+		Assert.assertEquals(Maths.power(a, 2), ea.power(2).evaluate());
+		Assert.assertEquals(Maths.divide(2., a), new ExpressionDataset(2.).divide(a).evaluate());
+		Assert.assertEquals(DatasetUtils.maximum(a, 7.), ea.maximum(7).evaluate());
+		Assert.assertEquals(Maths.negative(Maths.log10(a)), ea.log10().negative().evaluate());
+		final AbstractDataset c = a.clone();
+		c.setName("c");
+		b.setName("b");
+		Assert.assertEquals("c+b", new ExpressionDataset(c).add(b).getName());
+
+		try {
+			ea.add(AbstractDataset.arange(24, AbstractDataset.FLOAT64));
+			Assert.fail("Mismatched shapes should have been rejected");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testReshape() {
+		final AbstractDataset image = Random.randint(100, 1000, new int[] {1, 4, 5});
+		final AbstractDataset dark = Random.rand(1, 4, 5);
+		final AbstractDataset expected = Maths.subtract(image, dark);
+
+		ExpressionDataset e = new ExpressionDataset(createLazy(image)).subtract(dark);
+		Assert.assertSame(e, e.squeeze());
+		Assert.assertArrayEquals(new int[] {4, 5}, e.getShape());
+		Assert.assertEquals(expected.reshape(4, 5), e.evaluate());
+		e.setShape(4, 5, 1);
+		Assert.assertEquals(expected.reshape(4, 5, 1), e.evaluate());
+
+		// inputs that are read before their slices are taken
+		e = new ExpressionDataset(createLazy(image)).subtract(dark).getSliceView(new int[] {0, 1, 0}, new int[] {1, 2, 5}, null);
+		Assert.assertArrayEquals(new int[] {5}, e.squeeze().getShape());
+		final AbstractDataset row = expected.getSlice(new int[] {0, 1, 0}, new int[] {1, 2, 5}, null).reshape(5);
+		Assert.assertEquals(row, e.evaluate());
+		Assert.assertEquals(row.getSlice(new Slice(1, 4)), e.getSlice(new Slice(1, 4)));
+
+		try {
+			e.setShape(4);
+			Assert.fail("Shape of wrong size should have been rejected");
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void testFailedRead() {
+		final Exception cause = new Exception("Cannot read");
+		final LazyDataset bad = new LazyDataset("bad", AbstractDataset.FLOAT64, new int[] {2, 3}, null) {
+			@Override
+			public IDataset getSlice(IMonitor monitor, int[] start, int[] stop, int[] step) throws Exception {
+				throw cause;
+			}
+		};
+
+		try {
+			new ExpressionDataset(bad).add(1).getSlice((int[]) null, null, null);
+			Assert.fail("Failed read should have been reported");
+		} catch (RuntimeException e) {
+			Throwable c = e;
+			while (c != null && c != cause) {
+				c = c.getCause();
+			}
+			Assert.assertSame(cause, c);
+		}
+	}
+}
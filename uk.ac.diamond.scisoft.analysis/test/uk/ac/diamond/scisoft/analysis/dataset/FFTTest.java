@@ -16,7 +16,9 @@
 
 package uk.ac.diamond.scisoft.analysis.dataset;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
@@ -772,6 +774,93 @@ public class FFTTest {
 		}
 	}
 
+	private static void checkClose(String msg, AbstractDataset e, AbstractDataset a, double abstol) {
+		assertArrayEquals(msg + ": shape", e.getShape(), a.getShape());
+		assertEquals(msg + ": dtype", e.getDtype(), a.getDtype());
+		AbstractDataset d = Maths.abs(Maths.subtract(e, a));
+		assertEquals(msg, 0, d.max().doubleValue(), abstol);
+	}
+
+	private static AbstractDataset cut(AbstractDataset a, int n, int axis) {
+		int[] stop = a.getShape();
+		stop[axis] = n;
+		return a.getSlice(null, stop, null);
+	}
+
+	@Test
+	public void testReal() {
+		AbstractDataset a = Random.randn(new int[] {6, 7, 10});
+		for (int n : new int[] {2, 5, 10, 13, 16}) {
+			for (int axis = 0; axis < 3; axis++) {
+				String msg = "n = " + n + ", axis = " + axis;
+				AbstractDataset t = n < a.getShape()[axis] ? cut(a, n, axis) : a;
+				AbstractDataset r = FFT.rfft(a, n, axis);
+				checkClose(msg, cut(FFT.fft(t, n, axis), n/2 + 1, axis), r, dabstol);
+				checkClose(msg, FFT.ifft(FFT.fft(t, n, axis), n, axis).real(), FFT.irfft(r, n, axis), dabstol);
+			}
+		}
+		checkClose("Single point", cut(a, 1, 1).cast(AbstractDataset.COMPLEX128), FFT.rfft(a, 1, 1), 0);
+		checkClose("Single point", cut(a, 1, 1), FFT.irfft(FFT.rfft(a, 1, 1), 1, 1), 0);
+		checkClose("Default", a, FFT.irfft(FFT.rfft(a)), dabstol);
+		checkClose("View", FFT.fft(a.getTransposedView(), 5, -1).getSlice(null, new int[] {10, 7, 3}, null),
+				FFT.rfft(a.getTransposedView(), 5, -1), dabstol);
+
+		AbstractDataset f = a.cast(AbstractDataset.FLOAT32);
+		checkClose("Float", cut(FFT.fft(f), 6, 2), FFT.rfft(f), fabstol);
+		checkClose("Float", f, FFT.irfft(FFT.rfft(f)), fabstol);
+
+		checkClose("2D", cut(FFT.fft2(a, null, null), 6, 2), FFT.rfft2(a, null, null), dabstol);
+		checkClose("2D", a, FFT.irfft2(FFT.rfft2(a, null, null), null, null), dabstol);
+		checkClose("2D axes", cut(FFT.fft2(a, null, new int[] {0, 1}), 4, 1), FFT.rfft2(a, null, new int[] {0, 1}), dabstol);
+		checkClose("nD", cut(FFT.fftn(a, null, null), 6, 2), FFT.rfftn(a, null, null), dabstol);
+		checkClose("nD", a, FFT.irfftn(FFT.rfftn(a, null, null), new int[] {6, 7, 10}, null), dabstol);
+
+		AbstractDataset b = a.getSlice(null, new int[] {6, 7, 9}, null);
+		int[] s = new int[] {8, 7, 9};
+		checkClose("nD odd", cut(FFT.fftn(b, s, null), 5, 2), FFT.rfftn(b, s, null), dabstol);
+		checkClose("nD odd", FFT.ifftn(FFT.fftn(b, s, null), s, null).real(), FFT.irfftn(FFT.rfftn(b, s, null), s, null), dabstol);
+	}
+
+	@Test
+	public void testScalar() {
+		AbstractDataset a = new DoubleDataset(new int[0]);
+		try {
+			FFT.rfft(a);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			FFT.rfft(a, 4, -1);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			FFT.irfft(a);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			FFT.rfftn(a, null, null);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			FFT.irfftn(a, null, null);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testPlanCache() {
+		AbstractDataset a = Random.randn(new int[] {5, 12});
+		AbstractDataset f = FFT.fft2(a, null, null);
+		checkClose("Cached", f, FFT.fft2(a, null, null), 0);
+		FFT.clearPlans();
+		checkClose("Cleared", f, FFT.fft2(a, null, null), 0);
+		checkClose("Round trip", a, FFT.ifft2(f, null, null).real(), dabstol);
+	}
+
 	@Test
 	public void testShift() {
 		AbstractDataset a;
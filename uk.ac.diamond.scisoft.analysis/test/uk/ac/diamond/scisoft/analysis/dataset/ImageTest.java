@@ -18,6 +18,9 @@ package uk.ac.diamond.scisoft.analysis.dataset;
 
 
 import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
 import org.junit.Test;
 
 
@@ -71,6 +74,139 @@ public class ImageTest {
 		assertEquals(result.getDouble(5,5,5), ds.getDouble(5,5,5), 0.001);
 	}
 	
+	// median filter that uses slices
+	private AbstractDataset medianFilterBySlices(AbstractDataset input, int[] kernel) {
+		int[] shape = input.getShape();
+		AbstractDataset result = AbstractDataset.zeros(shape, AbstractDataset.FLOAT64);
+		IndexIterator iter = input.getIterator(true);
+		int[] pos = iter.getPos();
+		int[] start = new int[pos.length];
+		int[] stop = new int[pos.length];
+		while (iter.hasNext()) {
+			for (int i = 0; i < pos.length; i++) {
+				start[i] = Math.max(0, pos[i] - kernel[i] / 2);
+				stop[i] = Math.min(shape[i], pos[i] - kernel[i] / 2 + kernel[i]);
+			}
+			result.set(Stats.median(input.getSlice(start, stop, null)), pos);
+		}
+		return result.cast(input.getDtype());
+	}
+
+	private void checkMedianFilter(AbstractDataset ds, int... kernel) {
+		String msg = "Kernel " + java.util.Arrays.toString(kernel) + " for dtype " + ds.getDtype();
+		AbstractDataset e = medianFilterBySlices(ds, kernel);
+		AbstractDataset r = Image.medianFilter(ds, kernel);
+		assertEquals(msg, ds.getDtype(), r.getDtype());
+		IndexIterator it = e.getIterator(true);
+		int[] pos = it.getPos();
+		while (it.hasNext()) {
+			assertEquals(msg, e.getDouble(pos), r.getDouble(pos), 0);
+		}
+	}
+
+	@Test
+	public void testSlidingMedianFilter() {
+		int threshold = ChunkedExecutor.getThreshold();
+		ChunkedExecutor.setThreshold(64);
+		try {
+			AbstractDataset ds = Random.randn(new int[] {23, 31});
+			ds.set(Double.NaN, 4, 5);
+			checkMedianFilter(ds, 3, 3);
+			checkMedianFilter(ds, 4, 1);
+			checkMedianFilter(ds, 1, 6);
+			checkMedianFilter(ds.getSliceView(null, null, new int[] {2, -1}), 5, 3);
+			checkMedianFilter(ds.getTransposedView(), 3, 2);
+
+			AbstractDataset is = Random.randint(-20, 20, new int[] {17, 19});
+			checkMedianFilter(is, 3, 3);
+			checkMedianFilter(is, 2, 5);
+			checkMedianFilter(is.cast(AbstractDataset.INT16), 4, 4);
+			checkMedianFilter(Maths.multiply(is, 100000), 3, 3);
+			checkMedianFilter(Random.randint(0, 5, new int[] {6, 7, 8}), 3, 2, 3);
+			checkMedianFilter(ds.reshape(713), 7);
+		} finally {
+			ChunkedExecutor.setThreshold(threshold);
+		}
+	}
+
+	private static int boundaryIndex(int j, int n, Image.BoundaryMode mode) {
+		switch (mode) {
+		case NEAREST:
+			return Math.min(Math.max(j, 0), n - 1);
+		case REFLECT:
+			while (j < 0 || j >= n) {
+				j = j < 0 ? -1 - j : 2 * n - 1 - j;
+			}
+			return j;
+		case WRAP:
+			return ((j % n) + n) % n;
+		default:
+			return j < 0 || j >= n ? -1 : j;
+		}
+	}
+
+	private void checkConvolutionFilter(AbstractDataset ds, AbstractDataset kernel, Image.BoundaryMode mode, double tolerance) {
+		AbstractDataset result = Image.convolutionFilter(ds, kernel, mode);
+		assertEquals(ds.getDtype(), result.getDtype());
+		int[] shape = ds.getShape();
+		int rank = shape.length;
+		int[] kShape = kernel.getShape();
+		int[] p = new int[rank];
+		IndexIterator iter = ds.getIterator(true);
+		int[] pos = iter.getPos();
+		while (iter.hasNext()) {
+			double expected = 0;
+			IndexIterator kiter = kernel.getIterator(true);
+			int[] kpos = kiter.getPos();
+			while (kiter.hasNext()) {
+				boolean zero = false;
+				for (int i = 0; i < rank; i++) {
+					p[i] = boundaryIndex(pos[i] + kpos[i] - kShape[i] / 2, shape[i], mode);
+					zero |= p[i] < 0;
+				}
+				if (!zero) {
+					expected += ds.getDouble(p) * kernel.getDouble(kpos);
+				}
+			}
+			if (ds.hasFloatingPointElements()) {
+				assertEquals("Mode " + mode + " at " + Arrays.toString(pos), expected, result.getDouble(pos), tolerance);
+			} else {
+				assertEquals("Mode " + mode + " at " + Arrays.toString(pos), (long) expected, result.getLong(pos));
+			}
+		}
+	}
+
+	@Test
+	public void testConvolutionFilterModes() {
+		int threshold = ChunkedExecutor.getThreshold();
+		ChunkedExecutor.setThreshold(64);
+		try {
+			AbstractDataset ds = Random.randn(new int[] {23, 31});
+			AbstractDataset sobel = new DoubleDataset(new double[] {-1, 0, 1, -2, 0, 2, -1, 0, 1}, 3, 3);
+			AbstractDataset kernel = Random.randn(new int[] {4, 5});
+			for (Image.BoundaryMode mode : Image.BoundaryMode.values()) {
+				checkConvolutionFilter(ds, sobel, mode, 1e-12);
+				checkConvolutionFilter(ds, kernel, mode, 1e-12);
+				checkConvolutionFilter(ds.getTransposedView(), kernel, mode, 1e-12);
+				checkConvolutionFilter(ds.reshape(713), Random.randn(7), mode, 1e-12);
+				checkConvolutionFilter(ds.reshape(23, 31, 1), Random.randn(new int[] {3, 2, 2}), mode, 1e-12);
+			}
+
+			// large kernel (uses FFT)
+			AbstractDataset line = Random.randn(4000);
+			AbstractDataset large = Random.randn(1001);
+			checkConvolutionFilter(line, large, Image.BoundaryMode.ZERO, 1e-9);
+			checkConvolutionFilter(line, large, Image.BoundaryMode.REFLECT, 1e-9);
+
+			// integer input
+			AbstractDataset is = Random.randint(-20, 20, new int[] {17, 19});
+			checkConvolutionFilter(is, sobel, Image.BoundaryMode.NEAREST, 0);
+			checkConvolutionFilter(is, Maths.multiply(kernel, 10).cast(AbstractDataset.INT32), Image.BoundaryMode.WRAP, 0);
+		} finally {
+			ChunkedExecutor.setThreshold(threshold);
+		}
+	}
+
 	@Test
 	public void testConvolutionFilter() {
 		AbstractDataset ds = DoubleDataset.arange(1000);
@@ -16,6 +16,7 @@
 
 package uk.ac.diamond.scisoft.analysis.dataset;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
@@ -1720,4 +1721,152 @@ public class MathsTest {
 			assertEquals(resRint[i], x.get(i), tol);
 		}
 	}
+
+	/**
+	 * Test functions that use a given output dataset
+	 */
+	@Test
+	public void testOutput() {
+		AbstractDataset a = AbstractDataset.arange(12, AbstractDataset.FLOAT64).reshape(3, 4);
+		AbstractDataset b = Maths.add(a, 1.5);
+		AbstractDataset o = AbstractDataset.zeros(a);
+
+		AbstractDataset r = Maths.sin(a, o);
+		Assert.assertSame(o, r);
+		assertEquals(Maths.sin(a), r);
+
+		r = Maths.clip(a, 2, 7, o);
+		Assert.assertSame(o, r);
+		assertEquals(Maths.clip(a, 2, 7), r);
+
+		r = Maths.subtract(a, b, o);
+		Assert.assertSame(o, r);
+		assertEquals(Maths.subtract(a, b), r);
+
+		r = Maths.multiply(a, 3, o);
+		Assert.assertSame(o, r);
+		assertEquals(Maths.multiply(a, 3), r);
+
+		r = Maths.divide(2, b, o);
+		Assert.assertSame(o, r);
+		assertEquals(Maths.divide(2, b), r);
+
+		r = Maths.hypot(a, b, o);
+		Assert.assertSame(o, r);
+		assertEquals(Maths.hypot(a, b), r);
+
+		r = DatasetUtils.maximum(a, 5, o);
+		Assert.assertSame(o, r);
+		assertEquals(DatasetUtils.maximum(a, 5), r);
+
+		r = Maths.dividez(a, 0, o);
+		assertEquals(AbstractDataset.zeros(a), r);
+
+		// output with shape that differs only in unit dimensions
+		o = new DoubleDataset(1, 3, 4);
+		r = Maths.add(a, b, o);
+		Assert.assertSame(o, r);
+		assertEquals(Maths.add(a, b).reshape(1, 3, 4), r);
+
+		// outputs that alias an input
+		AbstractDataset e = Maths.subtract(a, b);
+		AbstractDataset c = a.clone();
+		Assert.assertSame(c, Maths.subtract(c, b, c));
+		assertEquals(e, c);
+		c = b.clone();
+		Assert.assertSame(c, Maths.subtract(a, c, c));
+		assertEquals(e, c);
+		c = a.clone();
+		Assert.assertSame(c, Maths.cos(c, c));
+		assertEquals(Maths.cos(a), c);
+
+		// output of complex type
+		AbstractDataset z = a.cast(AbstractDataset.COMPLEX128);
+		o = AbstractDataset.zeros(z);
+		assertEquals(Maths.add(z, a), Maths.add(z, a, o));
+		assertEquals(Maths.exp(z), Maths.exp(z, o));
+
+		try {
+			Maths.sin(a, new FloatDataset(3, 4));
+			Assert.fail("Output of wrong type should have been rejected");
+		} catch (IllegalArgumentException ex) {
+		}
+		try {
+			Maths.sin(a, new DoubleDataset(4, 3));
+			Assert.fail("Output of wrong shape should have been rejected");
+		} catch (IllegalArgumentException ex) {
+		}
+		try {
+			Maths.sin(a, new DoubleDataset(6, 4).getSliceView(null, null, new int[] {2, 1}));
+			Assert.fail("Output that is not contiguous should have been rejected");
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void testBroadcast() {
+		AbstractDataset a = AbstractDataset.arange(12, AbstractDataset.FLOAT64).reshape(3, 4);
+		AbstractDataset row = AbstractDataset.arange(4, AbstractDataset.FLOAT64);
+		AbstractDataset col = AbstractDataset.arange(3, AbstractDataset.INT32).reshape(3, 1);
+
+		AbstractDataset r = Maths.add(a, row);
+		assertArrayEquals(new int[] {3, 4}, r.getShape());
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 4; j++) {
+				assertEquals(a.getDouble(i, j) + j, r.getDouble(i, j), 1e-15);
+			}
+		}
+
+		r = Maths.subtract(row, a);
+		assertArrayEquals(new int[] {3, 4}, r.getShape());
+		assertEquals(Maths.negative(Maths.subtract(a, row)), r);
+
+		r = Maths.multiply(col, row.reshape(1, 4));
+		assertArrayEquals(new int[] {3, 4}, r.getShape());
+		Assert.assertEquals(AbstractDataset.FLOAT64, r.getDtype());
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 4; j++) {
+				assertEquals(i * j, r.getDouble(i, j), 1e-15);
+			}
+		}
+
+		// broadcast views of strided datasets
+		AbstractDataset v = AbstractDataset.arange(8, AbstractDataset.FLOAT64).getSliceView(new int[] {7}, null, new int[] {-2});
+		r = Maths.divide(a, v);
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 4; j++) {
+				assertEquals(a.getDouble(i, j) / (7 - 2 * j), r.getDouble(i, j), 1e-15);
+			}
+		}
+
+		// output of broadcast shape
+		AbstractDataset o = new DoubleDataset(3, 4);
+		Assert.assertSame(o, Maths.add(row, col, o));
+		assertEquals(Maths.add(col, row), o);
+
+		try {
+			Maths.add(a, AbstractDataset.arange(3, AbstractDataset.FLOAT64));
+			Assert.fail("Shapes that cannot be broadcast should have been rejected");
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void testParallelBroadcast() {
+		int threshold = ChunkedExecutor.getThreshold();
+		ChunkedExecutor.setThreshold(16);
+		ChunkedExecutor.setParallelism(4);
+		try {
+			AbstractDataset a = Random.rand(40, 50);
+			AbstractDataset b = Random.rand(50);
+			ChunkedExecutor.setEnabled(false);
+			AbstractDataset e = Maths.multiply(a, b);
+			ChunkedExecutor.setEnabled(true);
+			assertEquals(e, Maths.multiply(a, b));
+		} finally {
+			ChunkedExecutor.setThreshold(threshold);
+			ChunkedExecutor.setEnabled(true);
+			ChunkedExecutor.setParallelism(0);
+		}
+	}
 }
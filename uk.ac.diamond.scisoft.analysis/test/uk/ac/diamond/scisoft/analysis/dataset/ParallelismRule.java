@@ -0,0 +1,63 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset;
+
+import org.junit.rules.ExternalResource;
+
+/**
+ * Rule that lets a test switch {@link ChunkedExecutor} between sequential and parallel runs
+ * and restores its settings afterwards
+ */
+public class ParallelismRule extends ExternalResource {
+	private boolean enabled;
+	private int threads;
+	private boolean changed;
+
+	@Override
+	protected void before() {
+		enabled = ChunkedExecutor.isEnabled();
+		threads = ChunkedExecutor.getParallelism();
+		changed = false;
+	}
+
+	@Override
+	protected void after() {
+		ChunkedExecutor.setEnabled(enabled);
+		if (changed) {
+			ChunkedExecutor.setParallelism(threads);
+		}
+	}
+
+	/**
+	 * Process everything on the calling thread
+	 */
+	public void sequential() {
+		ChunkedExecutor.setEnabled(false);
+	}
+
+	/**
+	 * Process in parallel even on a machine with a single processor
+	 * @param n number of threads
+	 */
+	public void parallel(int n) {
+		ChunkedExecutor.setEnabled(true);
+		if (ChunkedExecutor.getParallelism() != n) {
+			ChunkedExecutor.setParallelism(n);
+			changed = true;
+		}
+	}
+}
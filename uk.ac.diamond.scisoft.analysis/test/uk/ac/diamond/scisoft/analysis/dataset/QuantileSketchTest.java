@@ -0,0 +1,112 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.dataset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.io.ILazyLoader;
+import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
+
+public class QuantileSketchTest {
+	private static final double[] QS = new double[] {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1};
+
+	private void checkRanks(String msg, QuantileSketch sketch, AbstractDataset a, double tolerance) {
+		double[] e = Stats.quantile(a, QS);
+		double[] s = (double[]) a.cast(AbstractDataset.FLOAT64).clone().sort(null).getBuffer();
+		for (int i = 0; i < QS.length; i++) {
+			double v = sketch.getQuantile(QS[i]);
+			if (QS[i] == 0 || QS[i] == 1) {
+				assertEquals(msg, e[i], v, 0);
+				continue;
+			}
+			// rank of sketch quantile in sorted values
+			int r = java.util.Arrays.binarySearch(s, v);
+			if (r < 0) {
+				r = -r - 1;
+			}
+			assertEquals(msg + ": rank of quantile " + QS[i], QS[i], (double) r / s.length, tolerance);
+		}
+	}
+
+	@Test
+	public void testExact() {
+		AbstractDataset a = Random.randn(500);
+		QuantileSketch sketch = new QuantileSketch(1000);
+		sketch.update(a);
+		sketch.update(Double.NaN);
+		assertEquals(500, sketch.getCount());
+		double[] e = Stats.quantile(a, QS);
+		double[] v = sketch.getQuantiles(QS);
+		for (int i = 0; i < QS.length; i++) {
+			assertEquals(e[i], v[i], 1e-12);
+		}
+		assertEquals(((Number) Stats.iqr(a)).doubleValue(), sketch.getIQR(), 1e-12);
+		assertEquals(0.5, sketch.getRank(((Number) Stats.median(a)).doubleValue()), 1e-2);
+
+		assertTrue(Double.isNaN(new QuantileSketch().getMedian()));
+	}
+
+	@Test
+	public void testApproximate() {
+		Random.seed(12371);
+		AbstractDataset a = Random.exponential(3.75, 1000000);
+		QuantileSketch sketch = new QuantileSketch();
+		sketch.update(a);
+		assertEquals(a.getSize(), sketch.getCount());
+		checkRanks("Single", sketch, a, 0.01);
+
+		// merge sketches of parts
+		QuantileSketch merged = new QuantileSketch();
+		int n = a.getSize() / 4;
+		for (int i = 0; i < 4; i++) {
+			QuantileSketch part = new QuantileSketch();
+			part.update(a.getSliceView(new int[] {i * n}, new int[] {(i + 1) * n}, null));
+			merged.merge(part);
+		}
+		assertEquals(a.getSize(), merged.getCount());
+		checkRanks("Merged", merged, a, 0.01);
+	}
+
+	@Test
+	public void testLazyDataset() {
+		final AbstractDataset d = Random.randn(new int[] {5, 1024, 1024}).cast(AbstractDataset.FLOAT32);
+		final int[] calls = new int[1];
+		LazyDataset ld = new LazyDataset("", AbstractDataset.FLOAT32, d.getShape(), new ILazyLoader() {
+			@Override
+			public boolean isFileReadable() {
+				return true;
+			}
+
+			@Override
+			public AbstractDataset getDataset(IMonitor mon, int[] shape, int[] start, int[] stop, int[] step)
+					throws Exception {
+				calls[0]++;
+				return d.getSlice(mon, start, stop, step);
+			}
+		});
+
+		QuantileSketch sketch = Stats.createQuantileSketch(ld);
+		assertTrue("Loaded in slices", calls[0] > 1);
+		assertEquals(d.getSize(), sketch.getCount());
+		assertEquals(d.min().doubleValue(), sketch.getMin(), 0);
+		assertEquals(d.max().doubleValue(), sketch.getMax(), 0);
+		assertEquals(0.5, sketch.getRank(Stats.approximateMedian(ld)), 0.01);
+	}
+}
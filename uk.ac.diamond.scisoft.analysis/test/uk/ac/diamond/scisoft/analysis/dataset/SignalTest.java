@@ -18,6 +18,8 @@ package uk.ac.diamond.scisoft.analysis.dataset;
 
 import static org.junit.Assert.*;
 
+import java.util.List;
+
 import org.junit.Test;
 
 import uk.ac.diamond.scisoft.analysis.TestUtils;
@@ -277,4 +279,25 @@ public class SignalTest {
 		TestUtils.assertDatasetEquals(new DoubleDataset(new double[] { 0.08, 0.16785218, 0.39785218, 0.68214782,
 				0.91214782, 1., 0.91214782, 0.68214782, 0.39785218, 0.16785218, 0.08 }), w, 1e-5, 1e-6);
 	}
+
+	@Test
+	public void testPhaseCorrelate() {
+		AbstractDataset f = Random.rand(new int[] {32, 40});
+		AbstractDataset g = DatasetUtils.roll(DatasetUtils.roll(f, 3, 0), -5, 1);
+
+		// real datasets use real-to-complex transforms
+		List<AbstractDataset> r = Signal.phaseCorrelate(f, g, null, true);
+		List<AbstractDataset> c = Signal.phaseCorrelate(f.cast(AbstractDataset.COMPLEX128), g.cast(AbstractDataset.COMPLEX128), null, true);
+		assertEquals(2, r.size());
+		for (int i = 0; i < 2; i++) {
+			TestUtils.assertDatasetEquals(c.get(i).real(), r.get(i), 1e-9, 1e-12);
+		}
+
+		AbstractDataset e = Signal.convolve(f.cast(AbstractDataset.COMPLEX128), g, null).real();
+		TestUtils.assertDatasetEquals(e, Signal.convolve(f, g, null), 1e-9, 1e-12);
+
+		double[] shift = Image.findTranslation2D(f, g, null);
+		assertEquals(-3, shift[0], 0.1);
+		assertEquals(5, shift[1], 0.1);
+	}
 }
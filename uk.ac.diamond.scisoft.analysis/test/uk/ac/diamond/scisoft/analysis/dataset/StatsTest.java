@@ -133,6 +133,76 @@ public class StatsTest {
 		assertEquals("Product", 720, (Double) Stats.product(a, true), 1e-6);
 	}
 
+	// quantile from sorted values
+	private static double sortedQuantile(final double[] s, final double q) {
+		double f = (s.length - 1) * q;
+		int qpt = (int) Math.floor(f);
+		f -= qpt;
+		return f > 0 ? (1 - f) * s[qpt] + f * s[qpt + 1] : s[qpt];
+	}
+
+	@Test
+	public void testQuantiles() {
+		Random.seed(12371);
+		final double[] qs = new double[] {0.75, 0, 0.1, 0.5, 0.5, 1, 0.333};
+		for (int n : new int[] {1, 2, 7, 100, 1001}) {
+			AbstractDataset a = Random.randn(n);
+			if (n > 2) {
+				a.set(Double.NaN, n / 2);
+			}
+			AbstractDataset r = Maths.floor(Maths.multiply(a, 4)); // with repeated values
+			for (AbstractDataset d : new AbstractDataset[] {a, r, r.cast(AbstractDataset.INT32)}) {
+				double[] s = (double[]) d.cast(AbstractDataset.FLOAT64).clone().sort(null).getBuffer();
+				double[] vs = Stats.quantile(d, qs);
+				for (int i = 0; i < qs.length; i++) {
+					assertEquals("Quantile " + qs[i] + " of " + n, sortedQuantile(s, qs[i]), vs[i], 1e-12);
+				}
+				assertEquals(sortedQuantile(s, 0.5), ((Number) Stats.median(d)).doubleValue(), 1e-12);
+			}
+		}
+
+		AbstractDataset a = Random.rand(new int[] {6, 9, 5});
+		AbstractDataset[] q;
+		for (int axis = 0; axis < 3; axis++) {
+			q = Stats.quantile(a, axis, 0.9, 0.25);
+			AbstractDataset m = Stats.median(a, axis);
+			AbstractDataset s = DatasetUtils.sort(a, axis);
+			int[] shape = a.getShape();
+			shape[axis] = 1;
+			PositionIterator it = new PositionIterator(a.getShape(), axis);
+			int[] pos = it.getPos();
+			while (it.hasNext()) {
+				int[] start = pos.clone();
+				int[] stop = pos.clone();
+				for (int i = 0; i < stop.length; i++) {
+					stop[i]++;
+				}
+				stop[axis] = a.getShape()[axis];
+				double[] line = (double[]) s.getSlice(start, stop, null).getBuffer();
+				int[] qpos = new int[2];
+				for (int i = 0, j = 0; i < pos.length; i++) {
+					if (i != axis)
+						qpos[j++] = pos[i];
+				}
+				assertEquals(sortedQuantile(line, 0.9), q[0].getDouble(qpos), 1e-12);
+				assertEquals(sortedQuantile(line, 0.25), q[1].getDouble(qpos), 1e-12);
+				assertEquals(sortedQuantile(line, 0.5), m.getDouble(qpos), 1e-12);
+			}
+		}
+
+		// compound dataset and views
+		AbstractDataset c = DatasetUtils.cast(new AbstractDataset[] {a.getSliceView(null, null, new int[] {1, 2, 1}), Maths.negative(a.getSliceView(null, null, new int[] {1, 2, 1}))}, AbstractDataset.ARRAYFLOAT64);
+		double[] cm = (double[]) Stats.median(c);
+		assertEquals(((Number) Stats.median(a.getSliceView(null, null, new int[] {1, 2, 1}))).doubleValue(), cm[0], 1e-12);
+		assertEquals(-cm[0], cm[1], 1e-12);
+		AbstractDataset ca = Stats.median(c, -1);
+		assertEquals(2, ca.getElementsPerItem());
+		assertEquals(Stats.median(a.getSliceView(null, null, new int[] {1, 2, 1}), 2), ((AbstractCompoundDataset) ca).getElements(0));
+
+		double[] iqr = (double[]) Stats.iqr(c);
+		assertEquals(iqr[0], ((double[]) Stats.iqr(c))[0], 1e-15);
+	}
+
 	@Test
 	public void testQuantileSpeed() {
 		int REPEAT = 5;
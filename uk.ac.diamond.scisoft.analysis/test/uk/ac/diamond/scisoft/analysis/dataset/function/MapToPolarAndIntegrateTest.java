@@ -23,6 +23,11 @@ import junit.framework.TestCase;
 import org.junit.Test;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.Random;
+import uk.ac.diamond.scisoft.analysis.diffraction.DetectorProperties;
+import uk.ac.diamond.scisoft.analysis.diffraction.DiffractionCrystalEnvironment;
+import uk.ac.diamond.scisoft.analysis.diffraction.QSpace;
+import uk.ac.diamond.scisoft.analysis.roi.ROIProfile.XAxis;
 
 /**
  *
@@ -152,4 +157,101 @@ public class MapToPolarAndIntegrateTest extends TestCase {
 		assertEquals(answer, ((Number) dsets.get(1).sum()).doubleValue(), answer*racc);
 	}
 
+	/**
+	 * test plan gives same profiles as direct integration
+	 */
+	@Test
+	public void testPlan() {
+		AbstractDataset r = Random.rand(0., 100., 300, 400);
+		AbstractDataset mask = AbstractDataset.ones(new int[] {300, 400}, AbstractDataset.INT8);
+		mask.setSlice(0, new int[] {100, 200}, new int[] {120, 230}, new int[] {1, 1});
+		for (boolean clip : new boolean[] {true, false}) {
+			MapToPolarAndIntegrate direct = new MapToPolarAndIntegrate(180, 120, 20., -30., 250., 200., 2., true);
+			direct.setMask(mask);
+			direct.setClip(clip);
+			MapToPolarAndIntegrate planned = new MapToPolarAndIntegrate(180, 120, 20., -30., 250., 200., 2., true);
+			planned.setMask(mask);
+			planned.setClip(clip);
+			PolarIntegrationPlan plan = planned.createPlan(r.getShape());
+
+			List<AbstractDataset> expected = direct.value(r);
+			List<AbstractDataset> actual = plan.value(r);
+			for (int i = 0; i < 2; i++) {
+				AbstractDataset e = expected.get(i);
+				AbstractDataset a = actual.get(i);
+				assertEquals(e.getDtype(), a.getDtype());
+				assertEquals(e.getSize(), a.getSize());
+				for (int j = 0; j < e.getSize(); j++) {
+					assertEquals(e.getDouble(j), a.getDouble(j), 1e-4 * Math.max(1, Math.abs(e.getDouble(j))));
+				}
+			}
+			assertEquals(actual, planned.value(r));
+		}
+	}
+
+	/**
+	 * test plan is replaced when mask is modified in place
+	 */
+	@Test
+	public void testPlanWithModifiedMask() {
+		AbstractDataset r = Random.rand(0., 100., 200, 240);
+		AbstractDataset mask = AbstractDataset.ones(new int[] {200, 240}, AbstractDataset.INT8);
+		MapToPolarAndIntegrate planned = new MapToPolarAndIntegrate(120, 100, 10., 0., 90., 300., 2., true);
+		planned.setMask(mask);
+		planned.createPlan(r.getShape());
+		List<AbstractDataset> before = planned.value(r);
+
+		mask.setSlice(0, new int[] {100, 150}, new int[] {120, 180}, new int[] {1, 1});
+		MapToPolarAndIntegrate direct = new MapToPolarAndIntegrate(120, 100, 10., 0., 90., 300., 2., true);
+		direct.setMask(mask);
+		direct.setUsePlan(false);
+		List<AbstractDataset> after = planned.value(r);
+		checkProfiles(direct.value(r), after, 2);
+		assertFalse(before.get(1).equals(after.get(1)));
+	}
+
+	/**
+	 * test plan gives same profiles as direct integration over q-space axes
+	 */
+	@Test
+	public void testQSpacePlan() {
+		AbstractDataset r = Random.rand(0., 100., 200, 240);
+		AbstractDataset mask = AbstractDataset.ones(new int[] {200, 240}, AbstractDataset.INT8);
+		mask.setSlice(0, new int[] {100, 150}, new int[] {120, 180}, new int[] {1, 1});
+		QSpace qspace = new QSpace(DetectorProperties.getDefaultDetectorProperties(200, 240),
+				new DiffractionCrystalEnvironment(1.));
+		for (XAxis axis : new XAxis[] {XAxis.Q, XAxis.ANGLE, XAxis.RESOLUTION}) {
+			MapToPolarAndIntegrate direct = new MapToPolarAndIntegrate(120, 100, 10., -20., 90., 200., 1., true);
+			direct.setQSpace(qspace, axis);
+			direct.setMask(mask);
+			direct.setUsePlan(false);
+			MapToPolarAndIntegrate planned = new MapToPolarAndIntegrate(120, 100, 10., -20., 90., 200., 1., true);
+			planned.setQSpace(qspace, axis);
+			planned.setMask(mask);
+			planned.setUsePlan(true);
+
+			List<AbstractDataset> expected = direct.value(r);
+			for (int n = 0; n < 2; n++) {
+				List<AbstractDataset> actual = planned.value(r);
+				assertEquals(expected.size(), actual.size());
+				checkProfiles(expected, actual, 2);
+				for (int i = 4; i < expected.size(); i++) {
+					assertEquals(expected.get(i), actual.get(i));
+					assertEquals(expected.get(i).getName(), actual.get(i).getName());
+				}
+			}
+		}
+	}
+
+	private void checkProfiles(List<AbstractDataset> expected, List<AbstractDataset> actual, int n) {
+		for (int i = 0; i < n; i++) {
+			AbstractDataset e = expected.get(i);
+			AbstractDataset a = actual.get(i);
+			assertEquals(e.getDtype(), a.getDtype());
+			assertEquals(e.getSize(), a.getSize());
+			for (int j = 0; j < e.getSize(); j++) {
+				assertEquals(e.getDouble(j), a.getDouble(j), 1e-4 * Math.max(1, Math.abs(e.getDouble(j))));
+			}
+		}
+	}
 }
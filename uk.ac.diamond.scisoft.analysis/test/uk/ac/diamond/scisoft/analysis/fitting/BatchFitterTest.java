@@ -0,0 +1,166 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.fitting;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ParallelismRule;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.CompositeFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Gaussian;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Offset;
+import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
+
+public class BatchFitterTest {
+	private static final int NX = 3;
+	private static final int NY = 4;
+
+	@Rule
+	public ParallelismRule parallelism = new ParallelismRule();
+
+	private static double position(int i, int j) {
+		return -2 + 0.5 * i + 0.3 * j;
+	}
+
+	private static double area(int i, int j) {
+		return 5 + i + 0.5 * j;
+	}
+
+	/**
+	 * @return (X, Y, E) stack of Gaussian peaks on a background
+	 */
+	private static DoubleDataset createStack(AbstractDataset x) {
+		final int n = x.getSize();
+		DoubleDataset stack = new DoubleDataset(NX, NY, n);
+		for (int i = 0; i < NX; i++) {
+			for (int j = 0; j < NY; j++) {
+				Gaussian g = new Gaussian(position(i, j), 1.5, area(i, j));
+				for (int e = 0; e < n; e++) {
+					stack.set(g.val(x.getDouble(e)) + 0.2, i, j, e);
+				}
+			}
+		}
+		return stack;
+	}
+
+	private static CompositeFunction createModel() {
+		CompositeFunction model = new CompositeFunction();
+		model.addFunction(new Gaussian(-5, 5, 5, 20));
+		model.addFunction(new Offset(-10, 10));
+		model.setParameterValues(0, 2, 4, 0);
+		return model;
+	}
+
+	private static void checkMaps(BatchFitResult result, boolean transposed) {
+		Assert.assertEquals(4, result.getNoOfParameters());
+		for (int i = 0; i < NX; i++) {
+			for (int j = 0; j < NY; j++) {
+				final int[] pos = transposed ? new int[] { j, i } : new int[] { i, j };
+				Assert.assertEquals(position(i, j), result.getParameterMap(0).get(pos), 1e-5);
+				Assert.assertEquals(1.5, result.getParameterMap(1).get(pos), 1e-5);
+				Assert.assertEquals(area(i, j), result.getParameterMap(2).get(pos), 1e-5);
+				Assert.assertEquals(0.2, result.getParameterMap(3).get(pos), 1e-5);
+				Assert.assertEquals(0, result.getResidualMap().get(pos), 1e-8);
+				Assert.assertEquals(1, result.getRSquaredMap().get(pos), 1e-8);
+			}
+		}
+	}
+
+	@Test
+	public void testFitStack() throws Exception {
+		AbstractDataset x = AbstractDataset.arange(-10, 10, 0.1, AbstractDataset.FLOAT64);
+		DoubleDataset stack = createStack(x);
+		CompositeFunction model = createModel();
+		final double[] initial = model.getParameterValues();
+
+		BatchFitter fitter = new BatchFitter(model);
+		BatchFitResult result = fitter.fit(stack, 2, x, null);
+		Assert.assertArrayEquals(new int[] { NX, NY }, result.getResidualMap().getShape());
+		checkMaps(result, false);
+		Assert.assertArrayEquals(initial, model.getParameterValues(), 0);
+
+		// spectra along first axis
+		result = fitter.fit(stack.transpose(2, 1, 0), 0, x, null);
+		Assert.assertArrayEquals(new int[] { NY, NX }, result.getResidualMap().getShape());
+		checkMaps(result, true);
+
+		fitter.setWarmStart(false);
+		checkMaps(fitter.fit(stack, 2, x, null), false);
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		AbstractDataset x = AbstractDataset.arange(-10, 10, 0.1, AbstractDataset.FLOAT64);
+		DoubleDataset stack = createStack(x);
+		BatchFitter fitter = new BatchFitter(createModel());
+
+		parallelism.sequential();
+		BatchFitResult sequential = fitter.fit(stack, 2, x, null);
+
+		parallelism.parallel(3);
+		BatchFitResult parallel = fitter.fit(stack, 2, x, null);
+		for (int i = 0; i < sequential.getNoOfParameters(); i++) {
+			Assert.assertEquals(sequential.getParameterMap(i), parallel.getParameterMap(i));
+		}
+		Assert.assertEquals(sequential.getResidualMap(), parallel.getResidualMap());
+	}
+
+	@Test
+	public void testMonitor() throws Exception {
+		AbstractDataset x = AbstractDataset.arange(-10, 10, 0.1, AbstractDataset.FLOAT64);
+		DoubleDataset stack = createStack(x);
+		BatchFitter fitter = new BatchFitter(createModel());
+
+		final AtomicInteger worked = new AtomicInteger();
+		IMonitor monitor = new IMonitor.Stub() {
+			@Override
+			public void worked(int amount) {
+				worked.addAndGet(amount);
+			}
+
+			@Override
+			public boolean isCancelled() {
+				return worked.get() >= NY;
+			}
+		};
+		IMonitor counter = new IMonitor.Stub() {
+			@Override
+			public void worked(int amount) {
+				worked.addAndGet(amount);
+			}
+		};
+		Assert.assertNull(fitter.fit(stack, 2, x, monitor));
+
+		worked.set(0);
+		Assert.assertNotNull(fitter.fit(stack, 2, x, counter));
+		Assert.assertEquals(NX * NY, worked.get());
+
+		// all rows are submitted at once
+		parallelism.parallel(4);
+		worked.set(0);
+		Assert.assertNull(fitter.fit(stack, 2, x, monitor));
+
+		worked.set(0);
+		Assert.assertNotNull(fitter.fit(stack, 2, x, counter));
+		Assert.assertEquals(NX * NY, worked.get());
+	}
+}
@@ -0,0 +1,123 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.fitting;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.Maths;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.AFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Box;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.CompositeFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Cubic;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.CubicSpline;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Fermi;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.FermiGauss;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Gaussian;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.GaussianND;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Lorentzian;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Offset;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.PearsonVII;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Polynomial;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.PseudoVoigt;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Quadratic;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Step;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.StraightLine;
+
+public class FunctionValuesTest {
+
+	private static void checkValues(AFunction f) {
+		final double[] x = new double[37];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = -4.5 + 0.25 * i;
+		}
+		final double[] values = new double[x.length - 2];
+		f.fillWithValues(values, x);
+		for (int i = 0; i < values.length; i++) {
+			final double v = f.val(x[i]);
+			Assert.assertEquals(f.getName() + " at " + x[i], v, values[i], 1e-12 * Math.max(1, Math.abs(v)));
+		}
+
+		DoubleDataset xAxis = new DoubleDataset(x, x.length);
+		DoubleDataset data = f.makeDataset(xAxis);
+		for (int i = 0; i < x.length; i++) {
+			final double v = f.val(x[i]);
+			Assert.assertEquals(f.getName() + " at " + x[i], v, data.get(i), 1e-12 * Math.max(1, Math.abs(v)));
+		}
+		Assert.assertEquals(f.getName(), 0, f.residual(true, data, xAxis), 1e-20);
+	}
+
+	@Test
+	public void test1DFunctions() {
+		checkValues(new Box(-1.5, 0.3, 2.0, 0.5, 3.0));
+		checkValues(new Cubic(new double[] { 0.5, -1.5, 2, 3 }));
+		checkValues(new CubicSpline(new double[] { -5, -2, 0, 1, 5 }, new double[] { 1, 3, -1, 2, 0 }));
+		checkValues(new Fermi(0.3, 0.7, 2.5, 0.1));
+		checkValues(new FermiGauss(0.3, 50, 0.2, 1.5, 0.1, 0));
+		checkValues(new Gaussian(0.3, 1.7, 2.5));
+		checkValues(new Lorentzian(0.3, 1.7, 2.5));
+		checkValues(new Offset(new double[] { 0.7 }));
+		checkValues(new PearsonVII(new double[] { 0.3, 1.7, 2.2, 2.5 }));
+		checkValues(new Polynomial(new double[] { 0.5, -1.5, 2, 3 }));
+		checkValues(new PseudoVoigt(0.3, 1.7, 1.2, 2.5, 0.3));
+		checkValues(new Quadratic(new double[] { 0.5, -1.5, 2 }));
+		checkValues(new StraightLine(new double[] { 0.5, -1.5 }));
+
+		Step step = new Step();
+		step.setParameterValues(0.5, -2, 3, 1.5, 2, 0.4, 0.3);
+		checkValues(step);
+
+		CompositeFunction comp = new CompositeFunction();
+		comp.addFunction(new Gaussian(0.3, 1.7, 2.5));
+		comp.addFunction(new Offset(new double[] { 0.7 }));
+		comp.addFunction(new Fermi(0.3, 0.7, 2.5, 0.1));
+		checkValues(comp);
+	}
+
+	@Test
+	public void test2DFunction() {
+		GaussianND g = new GaussianND(10, new double[] { -2, -2 }, new double[] { 2, 2 }, 3);
+		g.setParameterValues(0.3, -0.2, 5, 1.5, 2.0, 0.4);
+
+		AbstractDataset x = AbstractDataset.arange(-3, 3, 0.5, AbstractDataset.FLOAT64);
+		AbstractDataset y = AbstractDataset.arange(-2, 2.5, 0.25, AbstractDataset.FLOAT64);
+		DoubleDataset grid = g.makeDataset(x, y);
+		Assert.assertArrayEquals(new int[] { x.getSize(), y.getSize() }, grid.getShape());
+		for (int i = 0; i < x.getSize(); i++) {
+			for (int j = 0; j < y.getSize(); j++) {
+				final double v = g.val(x.getDouble(i), y.getDouble(j));
+				Assert.assertEquals(v, grid.get(i, j), 1e-12 * Math.max(1, Math.abs(v)));
+			}
+		}
+
+		// same points given as 2D datasets with one a transposed view
+		AbstractDataset xs = Maths.add(x.reshape(x.getSize(), 1), AbstractDataset.zeros(new int[] { 1, y.getSize() }, AbstractDataset.FLOAT64));
+		AbstractDataset ys = Maths.add(y.reshape(y.getSize(), 1), AbstractDataset.zeros(new int[] { 1, x.getSize() }, AbstractDataset.FLOAT64)).transpose();
+		DoubleDataset points = g.makeDataset(xs, ys);
+		Assert.assertArrayEquals(grid.getShape(), points.getShape());
+		for (int i = 0; i < x.getSize(); i++) {
+			for (int j = 0; j < y.getSize(); j++) {
+				Assert.assertEquals(grid.get(i, j), points.get(i, j), 1e-15);
+			}
+		}
+
+		Assert.assertEquals(0, g.residual(true, grid, x, y), 1e-20);
+		Assert.assertEquals(0, g.residual(true, grid, xs, ys), 1e-20);
+	}
+}
@@ -21,14 +21,19 @@ import java.util.List;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
 
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.IDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ParallelismRule;
 import uk.ac.diamond.scisoft.analysis.fitting.functions.CompositeFunction;
 import uk.ac.diamond.scisoft.analysis.fitting.functions.Gaussian;
 import uk.ac.diamond.scisoft.analysis.fitting.functions.Lorentzian;
 import uk.ac.diamond.scisoft.analysis.fitting.functions.PearsonVII;
 import uk.ac.diamond.scisoft.analysis.optimize.GeneticAlg;
+import uk.ac.diamond.scisoft.analysis.optimize.IterationLimitException;
 
 public class GeneticAlgFittingTest {
 
@@ -50,6 +55,9 @@ public class GeneticAlgFittingTest {
 	private static List<CompositeFunction> fittedLorenzian;
 	private static List<CompositeFunction> fittedPearsonVII;
 	private static List<CompositeFunction> fittedPseudoVoigt;
+
+	@Rule
+	public ParallelismRule parallelism = new ParallelismRule();
 	
 	static final long seed = 12357L;
 
@@ -171,4 +179,31 @@ public class GeneticAlgFittingTest {
 	public void testAreaPseudoVoigt() {
 		Assert.assertEquals(area, fittedPseudoVoigt.get(0).getPeak(0).getArea(), delta);
 	}
+
+	private static double[] fitTwoPeaks(AbstractDataset x, DoubleDataset data) {
+		CompositeFunction comp = new CompositeFunction();
+		comp.addFunction(new Gaussian(-10, 10, 5, 20));
+		comp.addFunction(new Lorentzian(-10, 10, 20, 5));
+		try {
+			new GeneticAlg(0.0001, seed).optimize(new IDataset[] { x }, data, comp, 20);
+		} catch (IterationLimitException e) {
+		}
+		return comp.getParameterValues();
+	}
+
+	@Test
+	public void testParallelEvaluationIsReproducible() {
+		AbstractDataset x = AbstractDataset.arange(-10, 10, 0.02, AbstractDataset.FLOAT64);
+		CompositeFunction truth = new CompositeFunction();
+		truth.addFunction(new Gaussian(-3, 1.5, 5));
+		truth.addFunction(new Lorentzian(2, 1, 3));
+		DoubleDataset data = truth.makeDataset(x);
+
+		parallelism.sequential();
+		double[] sequential = fitTwoPeaks(x, data);
+
+		parallelism.parallel(4);
+		double[] parallel = fitTwoPeaks(x, data);
+		Assert.assertArrayEquals(sequential, parallel, 0);
+	}
 }
@@ -0,0 +1,115 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.fitting;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.AFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.CompositeFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Gaussian;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.IDifferentiableFunction;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Lorentzian;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Offset;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.PearsonVII;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.Polynomial;
+import uk.ac.diamond.scisoft.analysis.fitting.functions.PseudoVoigt;
+import uk.ac.diamond.scisoft.analysis.optimize.LevenbergMarquardt;
+
+public class LevenbergMarquardtFittingTest {
+
+	private static void checkDerivatives(AFunction f) {
+		final int n = f.getNoOfParameters();
+		final double[] derivs = new double[n + 2];
+		for (double x = -3; x <= 3; x += 0.75) {
+			((IDifferentiableFunction) f).fillPartialDerivatives(derivs, 2, x);
+			for (int i = 0; i < n; i++) {
+				final double fd = f.partialDeriv(i, x);
+				Assert.assertEquals(f.getName() + " parameter " + i + " at " + x, fd, derivs[i + 2],
+						1e-5 * Math.max(1, Math.abs(fd)));
+			}
+		}
+	}
+
+	@Test
+	public void testDerivatives() {
+		checkDerivatives(new Gaussian(0.3, 1.7, 2.5));
+		checkDerivatives(new Lorentzian(0.3, 1.7, 2.5));
+		checkDerivatives(new PseudoVoigt(0.3, 1.7, 1.2, 2.5, 0.3));
+		checkDerivatives(new PearsonVII(new double[] { 0.3, 1.7, 2.2, 2.5 }));
+		checkDerivatives(new Polynomial(new double[] { 0.5, -1.5, 2, 3 }));
+
+		CompositeFunction comp = new CompositeFunction();
+		comp.addFunction(new Gaussian(0.3, 1.7, 2.5));
+		comp.addFunction(new Offset(new double[] { 0.7 }));
+		comp.addFunction(new Lorentzian(-0.5, 1.1, 1.5));
+		checkDerivatives(comp);
+	}
+
+	private static void checkFit(AFunction expected, AFunction peak, double delta) throws Exception {
+		DoubleDataset xAxis = (DoubleDataset) AbstractDataset.arange(-20, 20, 0.25, AbstractDataset.FLOAT64);
+		CompositeFunction truth = new CompositeFunction();
+		truth.addFunction(expected);
+		truth.addFunction(new Offset(new double[] { 0.5 }));
+		DoubleDataset data = truth.makeDataset(xAxis);
+
+		CompositeFunction comp = new CompositeFunction();
+		comp.addFunction(peak);
+		comp.addFunction(new Offset(-10, 10));
+		Fitter.lmFit(new AbstractDataset[] { xAxis }, data, comp);
+
+		for (int i = 0; i < truth.getNoOfParameters(); i++) {
+			Assert.assertEquals(peak.getName() + " parameter " + i, truth.getParameterValue(i),
+					comp.getParameterValue(i), delta);
+		}
+	}
+
+	@Test
+	public void testPeakFits() throws Exception {
+		checkFit(new Gaussian(1.5, 4, 10), new Gaussian(0.5, 5, 5), 1e-4);
+		checkFit(new Lorentzian(1.5, 4, 10), new Lorentzian(0.5, 5, 5), 1e-4);
+		checkFit(new PseudoVoigt(1.5, 4, 3, 10, 0.4), new PseudoVoigt(0.5, 5, 4, 5, 0.5), 1e-3);
+		checkFit(new PearsonVII(new double[] { 1.5, 4, 2.5, 10 }), new PearsonVII(new double[] { 0.5, 5, 2, 5 }), 1e-3);
+	}
+
+	@Test
+	public void testLimitsAndFixed() throws Exception {
+		DoubleDataset xAxis = (DoubleDataset) AbstractDataset.arange(-20, 20, 0.25, AbstractDataset.FLOAT64);
+		DoubleDataset data = new Gaussian(1.5, 4, 10).makeDataset(xAxis);
+
+		Gaussian g = new Gaussian(0.5, 5, 5);
+		g.getParameter(0).setLimits(-1, 1);
+		g.getParameter(1).setFixed(true);
+		new LevenbergMarquardt().optimize(new AbstractDataset[] { xAxis }, data, g);
+		Assert.assertEquals(1, g.getParameterValue(0), 1e-12);
+		Assert.assertEquals(5, g.getParameterValue(1), 0);
+	}
+
+	@Test
+	public void testGeneric1DFitter() {
+		List<CompositeFunction> fitted = Generic1DFitter.fitPeakFunctions(Generic1DDatasetCreater.xAxis,
+				Generic1DDatasetCreater.createGaussianDataset(), new Gaussian(1, 1, 1, 1), new LevenbergMarquardt(),
+				Generic1DDatasetCreater.smoothing, Generic1DDatasetCreater.numPeaks);
+		Assert.assertEquals(1, fitted.size());
+		Assert.assertEquals(Generic1DDatasetCreater.peakPos, fitted.get(0).getPeak(0).getPosition(),
+				Generic1DDatasetCreater.delta);
+	}
+}
@@ -0,0 +1,169 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.TestUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+
+public class DataCacheTest {
+
+	private static DataHolder createHolder(int size) {
+		DataHolder holder = new DataHolder();
+		holder.addDataset("data", AbstractDataset.zeros(new int[] {size}, AbstractDataset.FLOAT64));
+		return holder;
+	}
+
+	private static LoaderKey createKey(String path, boolean metadata) {
+		LoaderKey key = new LoaderKey();
+		key.setFilePath(path);
+		key.setMetadata(metadata);
+		return key;
+	}
+
+	@Test
+	public void testEviction() {
+		final long entry = 8 * 1000 + DataCache.ENTRY_OVERHEAD;
+		DataCache cache = new DataCache(3 * entry);
+		for (int i = 0; i < 3; i++) {
+			assertFalse(cache.put(createKey("file" + i, false), createHolder(1000)));
+		}
+		assertEquals(3, cache.size());
+		assertEquals(3 * entry, cache.getBytes());
+
+		assertNotNull(cache.get(createKey("file0", false))); // now most recently used
+		assertNull(cache.get(createKey("file0", true)));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		cache.put(createKey("file3", false), createHolder(1000));
+		assertEquals(3, cache.size());
+		assertEquals(1, cache.getEvictions());
+		assertNull(cache.get(createKey("file1", false)));
+		assertNotNull(cache.get(createKey("file0", false)));
+
+		cache.put(createKey("large", false), createHolder(4000)); // too large to hold
+		assertNull(cache.get(createKey("large", false)));
+		assertEquals(3, cache.size());
+
+		cache.setMaximumBytes(entry);
+		assertEquals(1, cache.size());
+		assertEquals(entry, cache.getBytes());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getBytes());
+	}
+
+	@Test
+	public void testReclaimedValue() {
+		DataCache cache = new DataCache(Long.MAX_VALUE, true);
+		DataHolder kept = createHolder(10);
+		cache.put(createKey("kept", false), kept);
+		cache.put(createKey("dropped", false), createHolder(10));
+		for (int i = 0; i < 50 && cache.size() > 1; i++) {
+			System.gc();
+		}
+		assertEquals(1, cache.size());
+		assertEquals(8 * 10 + DataCache.ENTRY_OVERHEAD, cache.getBytes());
+		assertNull(cache.get(createKey("dropped", false)));
+		assertSame(kept, cache.get(createKey("kept", false)));
+	}
+
+	@Test
+	public void testModifiedFile() throws Exception {
+		final String dir = TestUtils.setUpTest(DataCacheTest.class, "testModifiedFile", true);
+		final String path = new File(dir, "test.npy").getAbsolutePath();
+		DataHolder dh = new DataHolder();
+		dh.addDataset("", AbstractDataset.arange(10, AbstractDataset.INT32));
+		new NumPyFileSaver(path).saveFile(dh);
+
+		LoaderFactory.clear();
+		DataHolder first = LoaderFactory.getData(path, null);
+		assertSame(first, LoaderFactory.getData(path, null));
+		assertEquals(9, first.getDataset(0).getInt(9));
+
+		// rewrite in place with a different size
+		dh = new DataHolder();
+		dh.addDataset("", AbstractDataset.arange(20, AbstractDataset.INT32));
+		new NumPyFileSaver(path).saveFile(dh);
+		DataHolder second = LoaderFactory.getData(path, null);
+		assertEquals(20, second.getDataset(0).getSize());
+		assertTrue(LoaderFactory.getCache().getInvalidations() > 0);
+	}
+
+	@Test
+	public void testConcurrentLoad() throws Exception {
+		final DataCache cache = new DataCache(1 << 20);
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final Callable<DataHolder> loader = new Callable<DataHolder>() {
+			@Override
+			public DataHolder call() throws Exception {
+				loads.incrementAndGet();
+				started.countDown();
+				release.await();
+				return createHolder(10);
+			}
+		};
+
+		final DataHolder[] results = new DataHolder[4];
+		Thread[] threads = new Thread[results.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int n = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						if (n > 0) {
+							started.await();
+						}
+						results[n] = cache.load(createKey("file", false), loader);
+					} catch (Exception e) {
+					}
+				}
+			};
+			threads[i].start();
+		}
+		started.await();
+		Thread.sleep(100);
+		release.countDown();
+		for (Thread t : threads) {
+			t.join();
+		}
+
+		assertEquals(1, loads.get());
+		assertNotNull(results[0]);
+		for (DataHolder r : results) {
+			assertSame(results[0], r);
+		}
+	}
+}
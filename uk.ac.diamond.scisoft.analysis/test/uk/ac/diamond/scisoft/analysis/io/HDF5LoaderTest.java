@@ -16,10 +16,13 @@
 
 package uk.ac.diamond.scisoft.analysis.io;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import gda.analysis.io.ScanFileHolderException;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -248,6 +251,74 @@ public class HDF5LoaderTest {
 		assertEquals("Username", "rjw82", a.getString(0));
 	}
 
+	@Test
+	public void testHandlePool() throws Exception {
+		String n = TestFileFolder + "FeKedge_1_15.nxs";
+		HDF5HandlePool pool = HDF5HandlePool.getInstance();
+		pool.clear();
+		assertEquals("Empty pool", 0, pool.size());
+
+		HDF5File tree = new HDF5Loader(n).loadTree(null);
+		ILazyDataset lazy = tree.getGroup().getDatasets("Energy").get(0);
+		IDataset all = lazy.getSlice();
+		for (int i = 0; i < 20; i++) {
+			IDataset d = lazy.getSlice(new Slice(i, i + 1));
+			assertEquals("Value of slice " + i, all.getDouble(i), d.getDouble(0), 1e-12);
+		}
+		assertEquals("Handles kept after reads", 1, pool.size());
+
+		String path = new File(n).getCanonicalPath();
+		HDF5HandlePool.DatasetHandles a = pool.acquire(path, "/entry1/FFI0/Energy");
+		HDF5HandlePool.DatasetHandles b = pool.acquire(path, "/entry1/FFI0/Energy");
+		assertSame("Handles shared", a, b);
+		assertEquals("Handles open", 1, pool.size());
+		pool.release(a);
+		pool.release(b);
+		assertEquals("Handles kept", 1, pool.size());
+
+		pool.close(path);
+		assertEquals("Handles closed", 0, pool.size());
+
+		HDF5HandlePool small = new HDF5HandlePool(1, 0);
+		a = small.acquire(path, "/entry1/FFI0/Energy");
+		b = small.acquire(path, "/entry1/FFI0/Time");
+		assertEquals("Handles in use", 2, small.size());
+		small.release(a);
+		assertEquals("Least recently used handles closed", 1, small.size());
+		small.release(b);
+		small.clear();
+		assertEquals("Handles closed", 0, small.size());
+	}
+
+	@Test
+	public void testSlicesShareHandles() throws Exception {
+		String n = TestFileFolder + "FeKedge_1_15.nxs";
+		String path = new File(n).getCanonicalPath();
+		HDF5HandlePool pool = HDF5HandlePool.getInstance();
+		pool.close(path);
+
+		// dataset and its chunk cache are kept open between reads
+		HDF5File tree = new HDF5Loader(n).loadTree(null);
+		ILazyDataset lazy = tree.getGroup().getDatasets("Energy").get(0);
+		lazy.getSlice(new Slice(0, 1));
+		HDF5HandlePool.DatasetHandles a = pool.acquire(path, "/entry1/FFI0/Energy");
+		pool.release(a);
+		lazy.getSlice(new Slice(1, 2));
+		HDF5HandlePool.DatasetHandles b = pool.acquire(path, "/entry1/FFI0/Energy");
+		pool.release(b);
+		assertSame("Same handles used by both reads", a, b);
+	}
+
+	@Test
+	public void testChunkRanges() {
+		assertArrayEquals(new int[] {0, 4, 4, 4, 8, 2}, HDF5Loader.getChunkRanges(0, 10, 1, 4));
+		assertArrayEquals(new int[] {0, 1, 1, 2, 3, 2, 5, 2, 7, 2, 9, 1}, HDF5Loader.getChunkRanges(3, 10, 2, 4));
+		assertArrayEquals(new int[] {0, 1, 1, 1, 2, 1}, HDF5Loader.getChunkRanges(5, 3, 7, 4));
+		assertArrayEquals(new int[] {0, 1, 1, 1, 2, 1}, HDF5Loader.getChunkRanges(2, 3, 1, 1));
+		assertArrayEquals(new int[] {0, 1, 1, 3, 4, 1}, HDF5Loader.getChunkRanges(6, 5, 3, 8));
+		assertArrayEquals(new int[] {0, 5}, HDF5Loader.getChunkRanges(0, 5, 1, 64));
+	}
+
 	@Test
 	public void testLoadingMetadata() throws Exception {
 		String n = TestFileFolder + "FeKedge_1_15.nxs";
@@ -0,0 +1,145 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import gda.analysis.io.ScanFileHolderException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.After;
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.monitor.IMonitor;
+
+public class ImageFrameLoaderTest {
+	private static final int FRAMES = 20;
+
+	private final AtomicIntegerArray loads = new AtomicIntegerArray(FRAMES);
+	private final CountDownLatch[] loaded = new CountDownLatch[FRAMES];
+	{
+		for (int i = 0; i < FRAMES; i++) {
+			loaded[i] = new CountDownLatch(1);
+		}
+	}
+
+	private final ImageFrameLoader.Source source = new ImageFrameLoader.Source() {
+		@Override
+		public AbstractDataset load(int frame, IMonitor mon) throws ScanFileHolderException {
+			if (frame == FRAMES - 1) {
+				throw new ScanFileHolderException("Bad frame");
+			}
+			loads.incrementAndGet(frame);
+			AbstractDataset a = AbstractDataset.zeros(new int[] {4, 5}, AbstractDataset.INT32);
+			a.fill(frame);
+			loaded[frame].countDown();
+			return a;
+		}
+	};
+
+	@After
+	public void tearDown() {
+		ImageFrameLoader.setParallelism(0);
+	}
+
+	private AbstractDataset load(ImageFrameLoader loader, int... frames) throws ScanFileHolderException {
+		return load(loader, null, frames);
+	}
+
+	private AbstractDataset load(ImageFrameLoader loader, IMonitor mon, int... frames) throws ScanFileHolderException {
+		final AbstractDataset result = AbstractDataset.zeros(new int[] {frames.length, 4, 5}, AbstractDataset.INT32);
+		loader.load(frames, mon, new ImageFrameLoader.Sink() {
+			@Override
+			public void put(int position, AbstractDataset frame) {
+				result.setSlice(frame, new int[] {position, 0, 0}, new int[] {position + 1, 4, 5}, null);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Wait for frame to be read ahead
+	 */
+	private void awaitLoad(int frame) throws InterruptedException {
+		assertTrue("Frame " + frame + " was not read ahead", loaded[frame].await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testLoad() throws ScanFileHolderException {
+		ImageFrameLoader.setParallelism(4);
+		ImageFrameLoader loader = new ImageFrameLoader(source, FRAMES);
+		int[] frames = new int[] {3, 5, 7, 9, 11, 13};
+		AbstractDataset a = load(loader, frames);
+		for (int i = 0; i < frames.length; i++) {
+			assertEquals(frames[i], a.getInt(i, 3, 4));
+			assertEquals(1, loads.get(frames[i]));
+		}
+
+		try {
+			load(loader, 17, 18, 19);
+			fail("Should have thrown an exception");
+		} catch (ScanFileHolderException e) {
+		}
+	}
+
+	@Test
+	public void testReadAhead() throws Exception {
+		ImageFrameLoader.setParallelism(2);
+		ImageFrameLoader loader = new ImageFrameLoader(source, FRAMES);
+		loader.setReadAhead(3);
+		load(loader, 0);
+		load(loader, 2); // stepping by 2 so frames 4, 6 and 8 are read ahead
+		awaitLoad(8);
+		assertEquals(1, loads.get(8));
+
+		assertEquals(4, load(loader, 4).getInt(0, 0, 0));
+		assertEquals(1, loads.get(4));
+		assertEquals(0, loads.get(5));
+
+		loader.setMemoryBudget(0); // nothing more read ahead
+		load(loader, 6);
+		awaitLoad(10);
+		assertEquals(1, loads.get(10)); // read ahead when frame 4 was requested
+		assertEquals(0, loads.get(12));
+		assertEquals(1, loads.get(6));
+	}
+
+	@Test
+	public void testProgress() throws Exception {
+		final AtomicInteger worked = new AtomicInteger();
+		IMonitor mon = new IMonitor.Stub() {
+			@Override
+			public void worked(int amount) {
+				worked.addAndGet(amount);
+			}
+		};
+
+		for (int threads : new int[] {1, 4}) {
+			ImageFrameLoader.setParallelism(threads);
+			ImageFrameLoader loader = new ImageFrameLoader(source, FRAMES);
+			worked.set(0);
+			load(loader, mon, 1, 2, 3, 4);
+			assertEquals("Progress with " + threads + " threads", 4, worked.get());
+		}
+	}
+}
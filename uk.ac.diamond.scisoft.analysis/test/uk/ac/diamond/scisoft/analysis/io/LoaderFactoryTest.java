@@ -0,0 +1,67 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.TestUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.io.AbstractFileLoader.HeaderMatch;
+
+public class LoaderFactoryTest {
+
+	@Test
+	public void testProbes() {
+		byte[] tiff = new byte[] {'I', 'I', 42, 0, 8, 0, 0, 0};
+		byte[] png = new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0};
+		assertEquals(HeaderMatch.MATCH, new TIFFImageLoader().probe(tiff));
+		assertEquals(HeaderMatch.MATCH, new PilatusTiffLoader("").probe(tiff));
+		assertEquals(HeaderMatch.MISMATCH, new TIFFImageLoader().probe(png));
+		assertEquals(HeaderMatch.MATCH, new PNGLoader().probe(png));
+		assertEquals(HeaderMatch.MISMATCH, new PNGLoader().probe(new byte[] {(byte) 0x89}));
+		assertEquals(HeaderMatch.MISMATCH, new JPEGLoader().probe(png));
+		assertEquals(HeaderMatch.MATCH, new PilatusEdfLoader("").probe("{\nHeaderID = EH:000001;\n".getBytes()));
+		assertEquals(HeaderMatch.MATCH, new ADSCImageLoader("").probe("{\nHEADER_BYTES=  512;\n".getBytes()));
+		assertEquals(HeaderMatch.UNKNOWN, new DatLoader().probe("# comment\n1 2 3\n".getBytes()));
+	}
+
+	@Test
+	public void testWrongExtension() throws Exception {
+		final String dir = TestUtils.setUpTest(LoaderFactoryTest.class, "testWrongExtension", true);
+		DataHolder dh = new DataHolder();
+		dh.addDataset("", AbstractDataset.arange(12, AbstractDataset.INT32).reshape(3, 4));
+
+		final String npy = new File(dir, "data.npy").getAbsolutePath();
+		new NumPyFileSaver(npy).saveFile(dh);
+		final String raw = new File(dir, "data.raw").getAbsolutePath();
+		new RawBinarySaver(raw).saveFile(dh);
+		final String misnamed = new File(dir, "numpy.raw").getAbsolutePath();
+		new NumPyFileSaver(misnamed).saveFile(dh);
+
+		LoaderFactory.clear();
+		assertEquals(NumPyFileLoader.class, LoaderFactory.getData(npy, null).getLoaderClass());
+		assertEquals(RawBinaryLoader.class, LoaderFactory.getData(raw, null).getLoaderClass());
+
+		DataHolder holder = LoaderFactory.getData(misnamed, null);
+		assertEquals(NumPyFileLoader.class, holder.getLoaderClass());
+		assertEquals(11, holder.getDataset(0).getInt(2, 3));
+	}
+}
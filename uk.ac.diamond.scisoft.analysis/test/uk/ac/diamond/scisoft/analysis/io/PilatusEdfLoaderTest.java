@@ -16,13 +16,21 @@
 
 package uk.ac.diamond.scisoft.analysis.io;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import uk.ac.diamond.scisoft.analysis.TestUtils;
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.FloatDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ILazyDataset;
 import uk.ac.diamond.scisoft.analysis.dataset.IntegerDataset;
 
 
@@ -165,4 +173,58 @@ public class PilatusEdfLoaderTest {
 		assertEquals(data.getDouble(194, 1474), 229.0, 0.0);
 		
 	}
+
+	@Test
+	public void loadLazily() throws Exception {
+		PilatusEdfLoader edfLoader = new PilatusEdfLoader(testFileFolder+"pilatus300k.edf");
+		AbstractDataset full = edfLoader.loadFile().getDataset(PilatusEdfLoader.DATA_NAME);
+
+		edfLoader.setLoadLazily(true);
+		ILazyDataset lazy = edfLoader.loadFile().getLazyDataset(PilatusEdfLoader.DATA_NAME);
+		assertArrayEquals(full.getShape(), lazy.getShape());
+
+		int[] start = {10, 1470};
+		int[] stop = {195, 1475};
+		int[] step = {23, 2};
+		assertEquals(full.getSlice(start, stop, step), lazy.getSlice(start, stop, step));
+		assertEquals(full, lazy.getSlice());
+	}
+
+	/**
+	 * Write float image of 3 rows and 4 columns with pixel values of 10 * row + column + 0.5
+	 */
+	private static String writeFloatFile(String name, String byteOrder, ByteOrder order) throws Exception {
+		String header = "{\nByteOrder = " + byteOrder + " ;\nDataType = Float ;\nDim_1 = 4 ;\nDim_2 = 3 ;\n}\n";
+		byte[] text = header.getBytes("US-ASCII");
+		ByteBuffer buffer = ByteBuffer.allocate(text.length + 4 * 12).order(order);
+		buffer.put(text);
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 4; j++) {
+				buffer.putFloat(10 * i + j + 0.5f);
+			}
+		}
+
+		File f = new File(testScratchDirectoryName, name);
+		FileOutputStream out = new FileOutputStream(f);
+		try {
+			out.write(buffer.array());
+		} finally {
+			out.close();
+		}
+		return f.getAbsolutePath();
+	}
+
+	@Test
+	public void loadFloatByteOrder() throws Exception {
+		// floats are read in the header's byte order
+		for (ByteOrder order : new ByteOrder[] {ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+			String byteOrder = order == ByteOrder.BIG_ENDIAN ? "HighByteFirst" : "LowByteFirst";
+			String path = writeFloatFile(byteOrder + ".edf", byteOrder, order);
+			AbstractDataset data = new PilatusEdfLoader(path).loadFile().getDataset(PilatusEdfLoader.DATA_NAME);
+			assertEquals(byteOrder, FloatDataset.class, data.getClass());
+			assertArrayEquals(byteOrder, new int[] {3, 4}, data.getShape());
+			assertEquals(byteOrder, 0.5, data.getDouble(0, 0), 0);
+			assertEquals(byteOrder, 23.5, data.getDouble(2, 3), 0);
+		}
+	}
 }
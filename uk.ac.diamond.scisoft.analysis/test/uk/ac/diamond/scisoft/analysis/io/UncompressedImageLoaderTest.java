@@ -0,0 +1,88 @@
+/*-
+ * Copyright 2013 Diamond Light Source Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.diamond.scisoft.analysis.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+import uk.ac.diamond.scisoft.analysis.TestUtils;
+import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.ILazyDataset;
+
+public class UncompressedImageLoaderTest {
+	private static final int ROWS = 30;
+	private static final int COLUMNS = 20;
+
+	/**
+	 * Write file with ADSC-like header and pixel values of 1000 * row + column + 30000
+	 */
+	private static String writeImage(String dir) throws Exception {
+		String header = "{\nHEADER_BYTES=  512;\nSIZE1=" + ROWS + ";\nSIZE2=" + COLUMNS + ";\n}\n";
+		ByteBuffer buffer = ByteBuffer.allocate(512 + 2 * ROWS * COLUMNS).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(header.getBytes("US-ASCII"));
+		buffer.position(512);
+		for (int i = 0; i < ROWS; i++) {
+			for (int j = 0; j < COLUMNS; j++) {
+				buffer.putShort((short) (1000 * i + j + 30000));
+			}
+		}
+
+		File f = new File(dir, "test.img");
+		FileOutputStream out = new FileOutputStream(f);
+		try {
+			out.write(buffer.array());
+		} finally {
+			out.close();
+		}
+		return f.getAbsolutePath();
+	}
+
+	@Test
+	public void testSlices() throws Exception {
+		final String dir = TestUtils.setUpTest(UncompressedImageLoaderTest.class, "testSlices", true);
+		UncompressedImageLoader loader = new UncompressedImageLoader(writeImage(dir), 512, ROWS, COLUMNS,
+				UncompressedImageLoader.Encoding.UNSIGNED_SHORT, true, false);
+
+		AbstractDataset full = loader.load(null);
+		assertEquals(AbstractDataset.INT32, full.getDtype());
+		assertEquals(30000, full.getInt(0, 0));
+		assertEquals(59019, full.getInt(ROWS - 1, COLUMNS - 1));
+
+		ILazyDataset lazy = loader.createLazyDataset("image");
+		int[] start = {3, 2};
+		int[] stop = {20, 19};
+		int[] step = {4, 3};
+		AbstractDataset slice = (AbstractDataset) lazy.getSlice(start, stop, step);
+		assertArrayEquals(new int[] {5, 6}, slice.getShape());
+		assertEquals(full.getSlice(start, stop, step), slice);
+
+		slice = (AbstractDataset) lazy.getSlice(new int[] {25, 5}, new int[] {10, 6}, new int[] {-5, 1});
+		assertEquals(55005, slice.getInt(0, 0));
+		assertEquals(45005, slice.getInt(2, 0));
+
+		loader = new UncompressedImageLoader("", 512, ROWS, COLUMNS,
+				UncompressedImageLoader.Encoding.UNSIGNED_SHORT, true, true);
+		assertEquals(AbstractDataset.INT16, loader.getDtype());
+	}
+}
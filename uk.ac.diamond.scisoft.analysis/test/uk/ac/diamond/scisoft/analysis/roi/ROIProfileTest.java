@@ -21,7 +21,13 @@ import static org.junit.Assert.*;
 import org.junit.Test;
 
 import uk.ac.diamond.scisoft.analysis.dataset.AbstractDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.BooleanDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.Comparisons;
+import uk.ac.diamond.scisoft.analysis.dataset.DatasetUtils;
 import uk.ac.diamond.scisoft.analysis.dataset.DoubleDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.IntegerDataset;
+import uk.ac.diamond.scisoft.analysis.dataset.Random;
+import uk.ac.diamond.scisoft.analysis.dataset.function.MapToPolarAndIntegrate;
 import uk.ac.diamond.scisoft.analysis.roi.GridROI;
 import uk.ac.diamond.scisoft.analysis.roi.LinearROI;
 import uk.ac.diamond.scisoft.analysis.roi.ROIProfile;
@@ -83,6 +89,27 @@ public class ROIProfileTest {
 		}
 	}
 	
+	@Test
+	public void testSectorWithPlan() {
+		AbstractDataset data = Random.rand(0., 100., 200, 240);
+		AbstractDataset mask = AbstractDataset.ones(new int[] {200, 240}, AbstractDataset.INT8);
+		mask.setSlice(0, new int[] {100, 150}, new int[] {120, 180}, new int[] {1, 1});
+		SectorROI roi = new SectorROI(120, 100, 10, 90, 0, 3);
+		AbstractDataset[] expected = ROIProfile.sector(data, mask, roi);
+		boolean old = MapToPolarAndIntegrate.isUsePlanByDefault();
+		try {
+			MapToPolarAndIntegrate.setUsePlanByDefault(true);
+			for (int n = 0; n < 2; n++) {
+				AbstractDataset[] actual = ROIProfile.sector(data, mask, roi);
+				for (int i = 0; i < 2; i++) {
+					checkProfile(expected[i], actual[i]);
+				}
+			}
+		} finally {
+			MapToPolarAndIntegrate.setUsePlanByDefault(old);
+		}
+	}
+
 	@Test
 	public void testGrid() {
 		DoubleDataset input = new DoubleDataset(new double[] { 0.0, 1.0, 2.0, 3.0 }, 2, 2);
@@ -98,4 +125,92 @@ public class ROIProfileTest {
 			}
 		}
 	}
+
+	/**
+	 * Compare box profiles of first request with those of later ones that use summed-area table
+	 */
+	private static void checkBoxes(AbstractDataset data, AbstractDataset mask, RectangularROI roi, boolean maskWithNans) {
+		AbstractDataset[] direct = ROIProfile.box(data, mask, roi, maskWithNans);
+		AbstractDataset[] dmean = ROIProfile.boxMean(data, mask, roi, maskWithNans);
+		for (int n = 0; n < 2; n++) {
+			AbstractDataset[] table = ROIProfile.box(data, mask, roi, maskWithNans);
+			AbstractDataset[] tmean = ROIProfile.boxMean(data, mask, roi, maskWithNans);
+			for (int i = 0; i < 2; i++) {
+				checkProfile(direct[i], table[i]);
+				checkProfile(dmean[i], tmean[i]);
+			}
+		}
+	}
+
+	private static void checkProfile(AbstractDataset expected, AbstractDataset actual) {
+		assertEquals("Dtype", expected.getDtype(), actual.getDtype());
+		assertArrayEquals("Shape", expected.getShape(), actual.getShape());
+		for (int i = 0; i < expected.getSize(); i++) {
+			final double e = expected.getElementDoubleAbs(i);
+			final double a = actual.getElementDoubleAbs(i);
+			if (Double.isNaN(e)) {
+				assertTrue("NaN expected at " + i, Double.isNaN(a));
+			} else {
+				assertEquals("Value at " + i, e, a, 1e-5 * Math.max(1, Math.abs(e)));
+			}
+		}
+	}
+
+	@Test
+	public void testBoxFromTable() {
+		AbstractDataset data = Random.rand(0., 100., 60, 50);
+		BooleanDataset mask = Comparisons.greaterThan(Random.rand(60, 50), 0.2);
+		data.set(Double.NaN, 7, 9);
+		for (int i = 0; i < 60; i++) {
+			data.set(Double.NaN, i, 12);
+			mask.set(false, i, 14);
+		}
+
+		RectangularROI[] rois = new RectangularROI[] { new RectangularROI(3, 5, 20, 30, 0),
+				new RectangularROI(-4, 40, 30, 40, 0), new RectangularROI(10, 0, 1, 1, 0) };
+		for (RectangularROI r : rois) {
+			checkBoxes(data, null, r, false);
+			checkBoxes(data, null, r, true);
+			checkBoxes(data, mask, r, false);
+			checkBoxes(data, mask, r, true);
+		}
+
+		AbstractDataset idata = IntegerDataset.arange(3000).reshape(60, 50);
+		checkBoxes(idata, null, rois[0], false);
+		checkBoxes(idata, mask, rois[0], false);
+
+		// changes are seen once data or mask are set dirty
+		mask.set(true, 10, 10);
+		mask.setDirty();
+		AbstractDataset[] before = ROIProfile.box(data, mask, rois[0], false);
+		data.set(1000., 10, 10);
+		data.setDirty();
+		mask.set(false, 11, 10);
+		mask.setDirty();
+		AbstractDataset[] after = ROIProfile.box(data, mask, rois[0], false);
+		checkBoxes(data, mask, rois[0], false);
+		assertEquals(after[0].getDouble(7), ROIProfile.box(data, mask, rois[0], false)[0].getDouble(7), 1e-10);
+		assertFalse(before[0].getDouble(7) == after[0].getDouble(7));
+	}
+
+	@Test
+	public void testBoxOfCast() {
+		AbstractDataset data = AbstractDataset.arange(0, 3, 0.5, AbstractDataset.FLOAT64).reshape(2, 3);
+		RectangularROI roi = new RectangularROI(0, 0, 3, 2, 0);
+		AbstractDataset[] expected = ROIProfile.box(data, null, roi);
+		for (int i = 0; i < 2; i++) {
+			AbstractDataset[] actual = ROIProfile.box(data, null, roi);
+			checkProfile(expected[0], actual[0]);
+			checkProfile(expected[1], actual[1]);
+		}
+
+		// a cast shares the stored values of its source but not its table
+		AbstractDataset idata = DatasetUtils.cast(data, AbstractDataset.INT32);
+		expected = ROIProfile.box(new IntegerDataset(new int[] {0, 0, 1, 1, 2, 2}, 2, 3), null, roi);
+		for (int i = 0; i < 3; i++) {
+			AbstractDataset[] actual = ROIProfile.box(idata, null, roi);
+			checkProfile(expected[0], actual[0]);
+			checkProfile(expected[1], actual[1]);
+		}
+	}
 }
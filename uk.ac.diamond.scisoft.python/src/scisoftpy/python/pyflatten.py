@@ -32,6 +32,10 @@ import uuid
 import traceback
 from pprint import pprint
 from StringIO import StringIO
+from xmlrpclib import Binary
+import threading
+import mmap
+import struct
 
 TYPE = "__type__"
 CONTENT = "content"
@@ -53,6 +57,50 @@ def settemplocation(loc=None):
     _TEMP_LOCATION = loc
     _TEMP_LOCATION_SET = True
 
+# Dataset transports, see uk.ac.diamond.scisoft.analysis.rpc.flattening.DatasetTransport
+# This end can unflatten all of them but only writes files or in-band data
+TRANSPORTS = ['file', 'inband', 'mapped']
+INBAND_LIMIT = 256 * 1024
+_RING_HEADER_SIZE = 16
+_PEER = threading.local()
+
+def setpeertransports(transports=None):
+    '''
+     Set the dataset transports that the other end supports for the current thread.
+     
+     transports list of transport names, or None for files only
+     returns the previous transports so that they can be restored
+    '''
+    old = getattr(_PEER, 'transports', None)
+    _PEER.transports = transports
+    return old
+
+def _loadmapped(filename, generation, length):
+    '''
+     Load array from a slot of a mapped buffer ring and mark the slot free
+    '''
+    f = open(filename, 'r+b')
+    try:
+        m = mmap.mmap(f.fileno(), _RING_HEADER_SIZE + length)
+        try:
+            state, gen = struct.unpack('<ii', m[0:8])
+            if state != 1 or gen != generation:
+                raise IOError("Payload of generation %d no longer held in %s" % (generation, filename))
+            try:
+                payload = m[_RING_HEADER_SIZE:_RING_HEADER_SIZE + length]
+                state, gen = struct.unpack('<ii', m[0:8])
+                if state != 1 or gen != generation:
+                    raise IOError("Payload of generation %d was overwritten while read from %s" % (generation, filename))
+                return _np.load(StringIO(payload))
+            finally:
+                # free slot unless the writer has reclaimed it
+                if struct.unpack('<ii', m[0:8]) == (1, generation):
+                    m[0:4] = struct.pack('<i', 0)
+        finally:
+            m.close()
+    finally:
+        f.close()
+
 class flatteningHelper(object):
     def __init__(self, typeObj, typeName):
         self.typeObj = typeObj
@@ -211,13 +259,22 @@ class ndArrayHelper(flatteningHelper):
     DELETEFILEAFTERLOAD = "deletefile"
     INDEX = "index"
     NAME = "name"
+    DATA = "data"
+    MAPPEDFILE = "mappedfile"
+    GENERATION = "generation"
+    LENGTH = "length"
     
     def __init__(self):
         super(ndArrayHelper, self).__init__(_np.ndarray, self.TYPE_NAME)
     
     def flatten(self, obj):
         rval = dict()
-        if isinstance(obj, _np.ndarray):
+        transports = getattr(_PEER, 'transports', None)
+        if isinstance(obj, _np.ndarray) and transports and 'inband' in transports and obj.nbytes <= INBAND_LIMIT:
+            s = StringIO()
+            _np.save(s, _np.asarray(obj, order='C'))
+            rval[self.DATA] = Binary(s.getvalue())
+        elif isinstance(obj, _np.ndarray):
             global _TEMP_LOCATION, _TEMP_LOCATION_SET
             if not _TEMP_LOCATION_SET:
                 _TEMP_LOCATION = os.getenv('SCISOFT_RPC_TEMP')
@@ -250,6 +307,10 @@ class ndArrayHelper(flatteningHelper):
         return rval
 
     def unflatten(self, obj):
+        if self.DATA in obj:
+            return _np.load(StringIO(obj[self.DATA].data))
+        if self.MAPPEDFILE in obj:
+            return _loadmapped(obj[self.MAPPEDFILE], obj[self.GENERATION], obj[self.LENGTH])
         filename = obj[self.FILENAME]
         deletefile = False
         if self.DELETEFILEAFTERLOAD in obj:
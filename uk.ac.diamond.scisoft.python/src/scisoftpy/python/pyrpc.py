@@ -48,6 +48,8 @@ class rpcserver(object):
         
         self._server.register_function(self._xmlrpchandler, 'Analysis.handler');
         self._server.register_function(self._xmlrpchandler_debug, 'Analysis.handler_debug');
+        self._server.register_function(self._xmlrpchandler_transports, 'Analysis.handler_transports');
+        self._server.register_function(self._xmlrpc_get_transports, 'Analysis.get_transports');
         self._server.register_function(self._xmlrpc_is_alive, 'Analysis.is_alive');
         self._server.register_function(self._xmlrpc_set_pydev_settrace_params, 'Analysis.set_pydev_settrace_params');
         self._handlers = dict()
@@ -93,9 +95,19 @@ class rpcserver(object):
     def _xmlrpchandler_debug(self, destination, args, suspend):
         return self._xmlrpchandler_common(destination, args, True, suspend)
     
+    def _xmlrpchandler_transports(self, destination, args, transports):
+        old = _flatten.setpeertransports(transports)
+        try:
+            return self._xmlrpchandler_common(destination, args)
+        finally:
+            _flatten.setpeertransports(old)
+
     def _xmlrpc_is_alive(self):
         return True
 
+    def _xmlrpc_get_transports(self):
+        return _flatten.TRANSPORTS
+
     def _xmlrpc_set_pydev_settrace_params(self, params):
         self.pydev_settrace_params = dict(params)
         # Cannot return None (aka null in java), return value is unused